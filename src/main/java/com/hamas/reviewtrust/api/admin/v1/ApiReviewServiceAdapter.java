@@ -1,6 +1,8 @@
 // src/main/java/com/hamas/reviewtrust/api/admin/v1/ApiReviewServiceAdapter.java
 package com.hamas.reviewtrust.api.admin.v1;
 
+import com.hamas.reviewtrust.domain.reviews.ReviewsChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -20,15 +22,18 @@ import java.util.UUID;
  * AdminReviewsController の ReviewService を JDBC で実装。
  * - JPA 依存なし（パッケージ不一致を回避）
  * - reviews テーブルに対して、承認(PUBLISHED)/却下(REJECTED) を直接 UPDATE
+ * - 更新後に {@link ReviewsChangedEvent} を発行（スコア再計算はコミット後に非同期）
  */
 @Component
 @Transactional
 public class ApiReviewServiceAdapter implements AdminReviewsController.ReviewService {
 
     private final JdbcTemplate jdbc;
+    private final ApplicationEventPublisher events;
 
-    public ApiReviewServiceAdapter(JdbcTemplate jdbc) {
+    public ApiReviewServiceAdapter(JdbcTemplate jdbc, ApplicationEventPublisher events) {
         this.jdbc = jdbc;
+        this.events = events;
     }
 
     @Override
@@ -47,10 +52,10 @@ public class ApiReviewServiceAdapter implements AdminReviewsController.ReviewSer
                    moderated_at = now(),
                    updated_at = now()
              WHERE id = ?
-         RETURNING id, status, visible, updated_at
+         RETURNING id, product_id, status, visible, updated_at
             """;
         try {
-            return jdbc.queryForObject(sql, reviewRowMapper(), actor, id);
+            return published(jdbc.queryForObject(sql, reviewRowMapper(), actor, id));
         } catch (EmptyResultDataAccessException e) {
             throw new AdminReviewsController.ReviewNotFound(reviewId);
         }
@@ -73,10 +78,10 @@ public class ApiReviewServiceAdapter implements AdminReviewsController.ReviewSer
                    moderated_at = now(),
                    updated_at = now()
              WHERE id = ?
-         RETURNING id, status, visible, updated_at
+         RETURNING id, product_id, status, visible, updated_at
             """;
         try {
-            return jdbc.queryForObject(sql, reviewRowMapper(), actor, r, id);
+            return published(jdbc.queryForObject(sql, reviewRowMapper(), actor, r, id));
         } catch (EmptyResultDataAccessException e) {
             throw new AdminReviewsController.ReviewNotFound(reviewId);
         }
@@ -84,6 +89,11 @@ public class ApiReviewServiceAdapter implements AdminReviewsController.ReviewSer
 
     // ─────────── helpers ───────────
 
+    private AdminReviewsController.Review published(Moderated m) {
+        events.publishEvent(new ReviewsChangedEvent(m.productId(), ReviewsChangedEvent.Cause.MODERATION));
+        return m.review();
+    }
+
     private static UUID parse(String id) throws AdminReviewsController.ReviewNotFound {
         try { return UUID.fromString(id); }
         catch (Exception e) { throw new AdminReviewsController.ReviewNotFound(id); }
@@ -96,16 +106,20 @@ public class ApiReviewServiceAdapter implements AdminReviewsController.ReviewSer
                 .orElse("system");
     }
 
-    private static RowMapper<AdminReviewsController.Review> reviewRowMapper() {
+    private static RowMapper<Moderated> reviewRowMapper() {
         return new RowMapper<>() {
             @Override
-            public AdminReviewsController.Review mapRow(@NonNull ResultSet rs, int rowNum) throws SQLException {
+            public Moderated mapRow(@NonNull ResultSet rs, int rowNum) throws SQLException {
                 String id = rs.getObject("id").toString();
                 String status = rs.getString("status");
                 boolean visible = rs.getBoolean("visible");
                 Instant updatedAt = rs.getTimestamp("updated_at").toInstant();
-                return new AdminReviewsController.Review(id, status, visible, updatedAt);
+                return new Moderated(new AdminReviewsController.Review(id, status, visible, updatedAt),
+                        rs.getObject("product_id", UUID.class));
             }
         };
     }
+
+    private record Moderated(AdminReviewsController.Review review, UUID productId) {
+    }
 }
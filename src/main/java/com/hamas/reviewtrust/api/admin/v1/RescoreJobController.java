@@ -0,0 +1,64 @@
+package com.hamas.reviewtrust.api.admin.v1;
+
+import com.hamas.reviewtrust.domain.scoring.engine.BulkRescoreJob;
+import com.hamas.reviewtrust.domain.scoring.engine.BulkRescoreJob.JobStatus;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 全件再スコアリング（閾値/ルール変更後）。
+ * - POST /api/admin/scoring/rescore?resume=true  → ジョブ開始（同じ score_version の未完了ジョブがあれば続きから）
+ * - GET  /api/admin/scoring/rescore              → 最新ジョブの進捗
+ * - GET  /api/admin/scoring/rescore/{id}         → 指定ジョブの進捗（処理件数/スループット/ETA）
+ * - POST /api/admin/scoring/rescore/cancel       → 実行中ジョブを現在のチャンク完了後に停止
+ */
+@RestController
+@RequestMapping("/api/admin/scoring/rescore")
+public class RescoreJobController {
+
+    private final BulkRescoreJob job;
+
+    public RescoreJobController(BulkRescoreJob job) {
+        this.job = job;
+    }
+
+    @PostMapping
+    public ResponseEntity<JobStatus> start(@RequestParam(value = "resume", defaultValue = "true") boolean resume) {
+        try {
+            JobStatus status = job.start(resume);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/admin/scoring/rescore/" + status.id()))
+                    .body(status);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    @GetMapping
+    public JobStatus latest() {
+        return job.latest()
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No rescore job"));
+    }
+
+    @GetMapping("/{id}")
+    public JobStatus status(@PathVariable("id") UUID id) {
+        return job.status(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Rescore job not found"));
+    }
+
+    @PostMapping("/cancel")
+    public Map<String, Object> cancel() {
+        return Map.of("cancelled", job.cancel());
+    }
+}
@@ -1,5 +1,6 @@
 package com.hamas.reviewtrust.api.admin.v1;
 
+import com.hamas.reviewtrust.common.paging.KeysetPage;
 import com.hamas.reviewtrust.domain.reviews.entity.Review;
 import com.hamas.reviewtrust.domain.reviews.service.ReviewService;
 import org.slf4j.Logger;
@@ -37,7 +38,9 @@ public class ReviewQueueController {
             @RequestParam(value = "type", required = false, defaultValue = "USER") String typeParam,
             @RequestParam(value = "page", required = false, defaultValue = "1") Integer pageParam,
             @RequestParam(value = "pageSize", required = false, defaultValue = "20") Integer pageSizeParam,
-            @RequestParam(value = "flag", required = false) String flagParam
+            @RequestParam(value = "flag", required = false) String flagParam,
+            @RequestParam(value = "cursor", required = false) String cursorParam,
+            @RequestParam(value = "count", required = false) String countParam
     ) {
         int requestedPage = Optional.ofNullable(pageParam).orElse(1);
         int requestedSize = Optional.ofNullable(pageSizeParam).orElse(20);
@@ -51,15 +54,29 @@ public class ReviewQueueController {
                 log.debug("[review-queue] flag parameter '{}' is currently ignored", flagParam);
             }
 
-            Page<Review> page = reviewService.listQueue(source, zeroBasedPage, safeSize);
-            List<QueueItem> items = page.getContent().stream().map(QueueItem::from).toList();
-            return ResponseEntity.ok(new QueueResponse(items, page.getTotalElements(), safePage, safeSize));
+            // cursor パラメータがあるときだけ keyset（空の cursor= が先頭ページ）。
+            // 無ければ page=1 を含む全ページを OFFSET で返し、ページ間で並びが変わらないようにする
+            boolean keyset = cursorParam != null;
+            String cursor = StringUtils.hasText(cursorParam) ? cursorParam.trim() : null;
+            if (!keyset) {
+                // 旧クライアント向けの OFFSET ページング
+                Page<Review> page = reviewService.listQueue(source, zeroBasedPage, safeSize);
+                List<QueueItem> items = page.getContent().stream().map(QueueItem::from).toList();
+                return ResponseEntity.ok(new QueueResponse(items, page.getTotalElements(), safePage, safeSize, null));
+            }
+
+            // 先頭ページのみ件数を返し、cursor 付きの後続ページでは既定で COUNT を省略する
+            KeysetPage.CountMode defaultCount = cursor == null ? KeysetPage.CountMode.EXACT : KeysetPage.CountMode.NONE;
+            KeysetPage.CountMode countMode = KeysetPage.CountMode.parse(countParam, defaultCount);
+            KeysetPage<Review> page = reviewService.listQueuePage(source, cursor, safeSize, countMode);
+            List<QueueItem> items = page.items().stream().map(QueueItem::from).toList();
+            return ResponseEntity.ok(new QueueResponse(items, page.total(), safePage, safeSize, page.nextCursor()));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", Map.of("code", "E_BAD_REQUEST", "message", e.getMessage())));
         } catch (Exception e) {
             log.warn("[review-queue] failed to load queue type={} page={} size={}", typeParam, safePage, safeSize, e);
-            return ResponseEntity.ok(new QueueResponse(List.of(), 0L, safePage, safeSize));
+            return ResponseEntity.ok(new QueueResponse(List.of(), 0L, safePage, safeSize, null));
         }
     }
 
@@ -84,7 +101,7 @@ public class ReviewQueueController {
         return Math.min(requested, 200);
     }
 
-    public record QueueResponse(List<QueueItem> items, long total, int page, int pageSize) { }
+    public record QueueResponse(List<QueueItem> items, Long total, int page, int pageSize, String nextCursor) { }
 
     public record QueueItem(
             String id,
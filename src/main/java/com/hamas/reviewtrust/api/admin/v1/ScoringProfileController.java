@@ -2,6 +2,8 @@ package com.hamas.reviewtrust.api.admin.v1;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hamas.reviewtrust.domain.scoring.profile.ScoringConfig;
+import com.hamas.reviewtrust.domain.scoring.profile.ThresholdProvider;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -17,6 +19,7 @@ import java.util.Map;
  * スコア閾値/ルールカタログの“参照専用”API（MVP）。
  * - GET /api/admin/scoring/profile         → scoring/thresholds.yml を Map化して返却
  * - GET /api/admin/scoring/rules-catalog   → scoring/rules-catalog_ja.json をJSONで返却
+ * - GET /api/admin/scoring/config          → 現在有効な閾値スナップショット（version/fingerprint 付き）
  * 仕様の「rules/evidence 公開」とファイルツリーの配置に基づく読み出し専用口。 
  */
 @RestController
@@ -24,9 +27,11 @@ import java.util.Map;
 public class ScoringProfileController {
 
     private final ObjectMapper om;
+    private final ThresholdProvider thresholdProvider;
 
-    public ScoringProfileController(ObjectMapper om) {
+    public ScoringProfileController(ObjectMapper om, ThresholdProvider thresholdProvider) {
         this.om = om;
+        this.thresholdProvider = thresholdProvider;
     }
 
     @GetMapping(value = "/profile", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -41,6 +46,16 @@ public class ScoringProfileController {
         }
     }
 
+    @GetMapping(value = "/config", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Object> config() {
+        ScoringConfig config = thresholdProvider.config();
+        return Map.of(
+                "version", config.version(),
+                "fingerprint", config.fingerprint(),
+                "loadedAt", config.loadedAt().toString(),
+                "thresholds", config.thresholds().toMap());
+    }
+
     @GetMapping(value = "/rules-catalog", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<JsonNode> rulesCatalog() {
         try (InputStream in = new ClassPathResource("scoring/rules-catalog_ja.json").getInputStream()) {
@@ -0,0 +1,117 @@
+package com.hamas.reviewtrust.api.publicapi.v1;
+
+import com.hamas.reviewtrust.common.hash.Fingerprint;
+import com.hamas.reviewtrust.domain.products.repo.ProductChangeMarkersJdbcRepository;
+import com.hamas.reviewtrust.domain.products.repo.ProductChangeMarkersJdbcRepository.ChangeMarkers;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * HTTP validators ({@code ETag} / {@code Last-Modified}) for the public product endpoints, derived from
+ * persisted change markers ({@link ProductChangeMarkersJdbcRepository}) instead of the response body.
+ *
+ * <p>Controllers ask for the validator before loading anything and return {@code null} when
+ * {@link Validator#notModified(WebRequest)} answered 304. The validator is taken before the body is built, so
+ * a body can only be newer than its ETag; the next poll then simply downloads it again.</p>
+ */
+@Component
+public class ProductValidators {
+
+    /** レスポンス形式を変えたら上げる（マーカーが同じでも ETag が変わるように） */
+    private static final String FORMAT_VERSION = "1";
+
+    /** Which markers a response depends on. */
+    public enum View {
+        /** {@code GET /api/products/{id}}: product row + engine score */
+        DETAIL,
+        /** review lists: review rows (+ deletes via the aggregates) */
+        REVIEWS,
+        /** {@code GET /api/products/{idOrAsin}/scores}: product row + latest snapshot + SITE score */
+        SCORES
+    }
+
+    private final ProductChangeMarkersJdbcRepository markers;
+
+    public ProductValidators(ProductChangeMarkersJdbcRepository markers) {
+        this.markers = markers;
+    }
+
+    /**
+     * @param variant anything else the body depends on (query parameters, endpoint), may be {@code null}
+     * @return validator, or empty when the product is unknown or markers are unavailable
+     */
+    public Optional<Validator> forProduct(UUID productId, View view, String variant) {
+        return markers.findById(productId).map(m -> of(m, view, variant));
+    }
+
+    public Optional<Validator> forAsin(String asin, View view, String variant) {
+        return markers.findByAsin(asin).map(m -> of(m, view, variant));
+    }
+
+    static Validator of(ChangeMarkers m, View view, String variant) {
+        Fingerprint fp = Fingerprint.fast()
+                .add(FORMAT_VERSION).add('|')
+                .add(view.name()).add('|')
+                .add(variant).add('|')
+                .add(m.productId().toString());
+        Instant lastModified;
+        switch (view) {
+            case DETAIL -> {
+                add(fp, m.productUpdatedAt());
+                add(fp, m.engineScoreAt());
+                lastModified = max(m.productUpdatedAt(), m.engineScoreAt());
+            }
+            case REVIEWS -> {
+                add(fp, m.reviewsUpdatedAt());
+                fp.add('|').add(m.reviewCount());
+                add(fp, m.aggregatesUpdatedAt());
+                lastModified = max(m.reviewsUpdatedAt(), m.aggregatesUpdatedAt());
+            }
+            case SCORES -> {
+                add(fp, m.productUpdatedAt());
+                fp.add('|').add(m.snapshotId() != null ? m.snapshotId().toString() : "");
+                add(fp, m.siteScoreAt());
+                lastModified = max(max(m.productUpdatedAt(), m.snapshotAt()), m.siteScoreAt());
+            }
+            default -> throw new IllegalStateException("unknown view " + view);
+        }
+        String etag = "\"" + view.name().toLowerCase(Locale.ROOT) + "-" + Long.toHexString(fp.hash64()) + "\"";
+        return new Validator(etag, lastModified);
+    }
+
+    private static void add(Fingerprint fp, Instant t) {
+        fp.add('|');
+        if (t != null) {
+            fp.add(t.getEpochSecond()).add('.').add(t.getNano());
+        }
+    }
+
+    private static Instant max(Instant a, Instant b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.isAfter(b) ? a : b;
+    }
+
+    /**
+     * @param etag         strong entity tag (quoted)
+     * @param lastModified may be {@code null} when no marker carries a timestamp
+     */
+    public record Validator(String etag, Instant lastModified) {
+
+        /**
+         * Evaluates {@code If-None-Match} / {@code If-Modified-Since} and sets {@code ETag} and
+         * {@code Last-Modified} on the response (also for 200).
+         *
+         * @return {@code true} when the response was turned into a 304 and the handler should return {@code null}
+         */
+        public boolean notModified(WebRequest request) {
+            long millis = lastModified != null ? lastModified.toEpochMilli() : -1L;
+            return request.checkNotModified(etag, millis);
+        }
+    }
+}
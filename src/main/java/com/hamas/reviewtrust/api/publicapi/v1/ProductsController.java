@@ -1,5 +1,6 @@
 package com.hamas.reviewtrust.api.publicapi.v1;
 
+import com.hamas.reviewtrust.common.paging.KeysetPage;
 import com.hamas.reviewtrust.domain.products.dto.ProductListItem;
 import com.hamas.reviewtrust.domain.products.entity.Product;
 import com.hamas.reviewtrust.domain.products.service.ProductService;
@@ -22,6 +23,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
@@ -45,29 +47,49 @@ public class ProductsController {
 
     private static final Logger log = LoggerFactory.getLogger(ProductsController.class);
     private static final int DEFAULT_RESCRAPE_LIMIT = 50;
+    static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
+    static final String HEADER_TOTAL_COUNT = "X-Total-Count";
+    static final String HEADER_TOTAL_ESTIMATED = "X-Total-Count-Estimated";
 
     private final ProductService productService;
     private final ScoreService scoreService;
     private final ScrapingService scrapingService;
+    private final ProductValidators validators;
 
     @PersistenceContext
     private EntityManager entityManager;
 
     public ProductsController(ProductService productService,
                               ScoreService scoreService,
-                              ScrapingService scrapingService) {
+                              ScrapingService scrapingService,
+                              ProductValidators validators) {
         this.productService = productService;
         this.scoreService = scoreService;
         this.scrapingService = scrapingService;
+        this.validators = validators;
     }
 
+    /**
+     * Product listing. Without {@code cursor} every page, including the first, uses the legacy OFFSET query
+     * ({@code updatedAt} descending, {@code page} from 0), so page numbers stay consistent for older
+     * clients. Passing {@code cursor} switches to keyset paging: rows are ordered by {@code (createdAt, id)}
+     * descending, an empty {@code cursor=} requests the first page and the continuation token for the next
+     * page is returned in {@code X-Next-Cursor}. On the keyset path totals are only computed when
+     * {@code count=estimate|exact} is requested.
+     *
+     * <p>With {@code q} (and no cursor) on PostgreSQL + pg_trgm the result is relevance-ranked instead
+     * (trigram index, see {@code ProductSearchJdbcRepository}) and paged with {@code page}; no cursor is
+     * issued.</p>
+     */
     @GetMapping
     public ResponseEntity<List<ProductListItem>> list(
             @RequestParam(value = "visible", required = false) String visibleParam,
             @RequestParam(value = "q", required = false) String queryParam,
             @RequestParam(value = "tag", required = false) String tagParam,
             @RequestParam(value = "page", required = false, defaultValue = "0") Integer pageParam,
-            @RequestParam(value = "pageSize", required = false, defaultValue = "50") Integer pageSizeParam) {
+            @RequestParam(value = "pageSize", required = false, defaultValue = "50") Integer pageSizeParam,
+            @RequestParam(value = "cursor", required = false) String cursorParam,
+            @RequestParam(value = "count", required = false) String countParam) {
 
         Boolean visible = parseNullableBoolean(visibleParam);
         String query = normalise(queryParam);
@@ -75,19 +97,57 @@ public class ProductsController {
 
         int safePage = Math.max(0, Optional.ofNullable(pageParam).orElse(0));
         int safePageSize = clampPageSize(Optional.ofNullable(pageSizeParam).orElse(50));
+        // cursor パラメータがあるときだけ keyset（空の cursor= が先頭ページ）。無ければ全ページ OFFSET で並びをそろえる
+        boolean keyset = cursorParam != null;
+        String cursor = normalise(cursorParam);
 
-        List<ProductListItem> items = productService.findProductSummaries(query, tag, visible, safePage, safePageSize);
-        return ResponseEntity.ok(items);
+        if (!keyset && !(query != null && productService.isRankedSearchAvailable())) {
+            List<ProductListItem> items = productService.findProductSummaries(query, tag, visible, safePage, safePageSize);
+            return ResponseEntity.ok(items);
+        }
+
+        KeysetPage<ProductListItem> page;
+        try {
+            KeysetPage.CountMode countMode = KeysetPage.CountMode.parse(countParam, KeysetPage.CountMode.NONE);
+            if (!keyset) {
+                // キーワード検索は関連度順（続きは page=1,2,...）。X-Next-Cursor は返らない
+                page = productService.searchProductSummaries(query, tag, visible, safePage, safePageSize, countMode);
+            } else {
+                page = productService.findProductSummaryPage(query, tag, visible, cursor, safePageSize, countMode);
+            }
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(HEADER_NEXT_CURSOR, page.nextCursor());
+        }
+        if (page.total() != null) {
+            response.header(HEADER_TOTAL_COUNT, String.valueOf(page.total()));
+            response.header(HEADER_TOTAL_ESTIMATED, String.valueOf(page.totalEstimated()));
+        }
+        return response.body(page.items());
     }
 
+    /**
+     * Product detail with its latest engine score. Sends {@code ETag}/{@code Last-Modified} derived from the
+     * product row and the persisted score, and answers a matching {@code If-None-Match} with 304 before
+     * loading either.
+     */
     @GetMapping("/{id}")
-    public ProductDetailResponse detail(@PathVariable("id") UUID id) {
+    public ProductDetailResponse detail(@PathVariable("id") UUID id, WebRequest request) {
+        Optional<ProductValidators.Validator> validator =
+                validators.forProduct(id, ProductValidators.View.DETAIL, null);
+        if (validator.isPresent() && validator.get().notModified(request)) {
+            return null;
+        }
         Product product = entityManager.find(Product.class, id);
         if (product == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found");
         }
 
-        Optional<ScoreModels.ScoreResult> maybeScore = scoreService.computeForProduct(id.toString());
+        Optional<ScoreModels.ScoreResult> maybeScore = scoreService.findLatest(id.toString());
         return ProductDetailResponse.from(product, maybeScore.orElse(null));
     }
 
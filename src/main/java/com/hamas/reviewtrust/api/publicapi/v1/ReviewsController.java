@@ -1,7 +1,13 @@
 package com.hamas.reviewtrust.api.publicapi.v1;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.hamas.reviewtrust.api.publicapi.v1.dto.ReviewDtos;
+import com.hamas.reviewtrust.common.paging.KeysetPage;
 import com.hamas.reviewtrust.domain.products.repo.ProductRepository;
+import com.hamas.reviewtrust.domain.reviews.PublicReviewStreamRepository;
 import com.hamas.reviewtrust.domain.reviews.entity.Review;
 import com.hamas.reviewtrust.domain.reviews.repo.ReviewRepository;
 import com.hamas.reviewtrust.domain.reviews.service.ReviewService;
@@ -18,55 +24,179 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/products")
 public class ReviewsController {
 
+    static final String HEADER_NEXT_CURSOR_AMAZON = "X-Next-Cursor-Amazon";
+    static final String HEADER_NEXT_CURSOR_USER = "X-Next-Cursor-User";
+    private static final int DEFAULT_GROUP_PAGE_SIZE = 50;
+    private static final String GROUP_AMAZON = "amazon";
+    private static final String GROUP_USER = "user";
+
     private final ReviewRepository reviewRepository;
     private final ReviewService reviewService;
     private final ProductRepository productRepository;
+    private final ProductValidators validators;
+    private final PublicReviewStreamRepository reviewStream;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter itemWriter;
 
     public ReviewsController(
             ReviewRepository reviewRepository,
             ReviewService reviewService,
-            ProductRepository productRepository
+            ProductRepository productRepository,
+            ProductValidators validators,
+            PublicReviewStreamRepository reviewStream,
+            ObjectMapper objectMapper
     ) {
         this.reviewRepository = reviewRepository;
         this.reviewService = reviewService;
         this.productRepository = productRepository;
+        this.validators = validators;
+        this.reviewStream = reviewStream;
+        this.objectMapper = objectMapper;
+        // 1 件ごとの flush を止め、出力はサーブレットのバッファ単位にまとめる
+        this.itemWriter = objectMapper.writerFor(ReviewDtos.ReviewItem.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @GetMapping("/{id}/reviews")
     public ResponseEntity<List<ReviewDtos.ReviewItem>> list(
             @PathVariable("id") String rawProductId,
-            @RequestParam(value = "limit", required = false, defaultValue = "50") int limit
+            @RequestParam(value = "limit", required = false, defaultValue = "50") int limit,
+            WebRequest request
     ) {
         UUID productId = resolveProductId(rawProductId);
         int safeLimit = Math.max(1, Math.min(limit, 100));
+        if (notModified(productId, "list:" + safeLimit, request)) {
+            return null;
+        }
         PageRequest pageable = PageRequest.of(0, safeLimit, Sort.by(Sort.Direction.DESC, "createdAt"));
         Page<Review> page = reviewRepository.findPublicReviews(productId, pageable);
         return ResponseEntity.ok(ReviewDtos.fromAll(page.getContent()));
     }
 
+    /**
+     * Public reviews grouped by origin ({@code amazon}, approved {@code user}), newest first.
+     *
+     * <p>Without paging parameters the whole document is streamed: rows are read in bounded keyset chunks
+     * ({@link PublicReviewStreamRepository}) and written through a Jackson generator, so memory stays at one
+     * chunk, the first bytes are sent before the last row is read and no pool connection is held while the
+     * client reads. The JSON shape is unchanged.</p>
+     *
+     * <p>With {@code limit}, {@code group} or a cursor, each requested group is one keyset page of at most
+     * {@code limit} reviews (default 50, max 200); the continuation tokens are returned in
+     * {@code X-Next-Cursor-Amazon} / {@code X-Next-Cursor-User} and passed back as {@code amazonCursor} /
+     * {@code userCursor}. {@code group=amazon|user} restricts the response to one group.</p>
+     */
     @GetMapping(value = "/{id}/reviews/grouped", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String, List<ReviewDtos.ReviewItem>>> grouped(
-            @PathVariable("id") String rawProductId
+    public ResponseEntity<?> grouped(
+            @PathVariable("id") String rawProductId,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "group", required = false) String group,
+            @RequestParam(value = "amazonCursor", required = false) String amazonCursor,
+            @RequestParam(value = "userCursor", required = false) String userCursor,
+            WebRequest request
     ) {
         UUID productId = resolveProductId(rawProductId);
-        List<Review> amazon = reviewRepository.findAmazonReviews(productId);
-        List<Review> users = reviewRepository.findApprovedUserReviews(productId);
+        boolean paged = limit != null || StringUtils.hasText(group)
+                || StringUtils.hasText(amazonCursor) || StringUtils.hasText(userCursor);
+        if (!paged) {
+            if (notModified(productId, "grouped", request)) {
+                return null;
+            }
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(streamGrouped(productId));
+        }
+
+        String onlyGroup = parseGroup(group);
+        int safeLimit = Math.max(1, Math.min(limit != null ? limit : DEFAULT_GROUP_PAGE_SIZE, 200));
+        String variant = "grouped:" + (onlyGroup != null ? onlyGroup : "") + ":" + safeLimit
+                + ":" + (amazonCursor != null ? amazonCursor.trim() : "")
+                + ":" + (userCursor != null ? userCursor.trim() : "");
+        if (notModified(productId, variant, request)) {
+            return null;
+        }
+
         Map<String, List<ReviewDtos.ReviewItem>> grouped = new LinkedHashMap<>();
-        grouped.put("amazon", ReviewDtos.fromAll(amazon));
-        grouped.put("user", ReviewDtos.fromAll(users));
-        return ResponseEntity.ok(grouped);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        try {
+            if (onlyGroup == null || GROUP_AMAZON.equals(onlyGroup)) {
+                KeysetPage<Review> page = reviewService.listPublicGroupPage(
+                        productId, Review.Source.AMAZON, amazonCursor, safeLimit);
+                grouped.put(GROUP_AMAZON, ReviewDtos.fromAll(page.items()));
+                if (page.nextCursor() != null) {
+                    response.header(HEADER_NEXT_CURSOR_AMAZON, page.nextCursor());
+                }
+            }
+            if (onlyGroup == null || GROUP_USER.equals(onlyGroup)) {
+                KeysetPage<Review> page = reviewService.listPublicGroupPage(
+                        productId, Review.Source.USER, userCursor, safeLimit);
+                grouped.put(GROUP_USER, ReviewDtos.fromAll(page.items()));
+                if (page.nextCursor() != null) {
+                    response.header(HEADER_NEXT_CURSOR_USER, page.nextCursor());
+                }
+            }
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+        return response.body(grouped);
+    }
+
+    private StreamingResponseBody streamGrouped(UUID productId) {
+        return out -> {
+            try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+                // 出力ストリームのクローズはコンテナに任せる
+                gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                gen.writeStartObject();
+                writeGroup(gen, GROUP_AMAZON, productId, Review.Source.AMAZON);
+                writeGroup(gen, GROUP_USER, productId, Review.Source.USER);
+                gen.writeEndObject();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    private void writeGroup(JsonGenerator gen, String name, UUID productId, Review.Source source) throws IOException {
+        gen.writeArrayFieldStart(name);
+        // 先頭を即送出（最初の行を待たせない）
+        gen.flush();
+        reviewStream.forEachPublic(productId, source, item -> {
+            try {
+                itemWriter.writeValue(gen, item);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        gen.writeEndArray();
+    }
+
+    private static String parseGroup(String raw) {
+        if (!StringUtils.hasText(raw)) {
+            return null;
+        }
+        String g = raw.trim().toLowerCase(Locale.ROOT);
+        if (!GROUP_AMAZON.equals(g) && !GROUP_USER.equals(g)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "group must be amazon or user");
+        }
+        return g;
     }
 
     @PostMapping(
@@ -85,6 +215,13 @@ public class ReviewsController {
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
+    /** 条件付き GET：レビューの変更マーカーが一致すれば 304（本文は読まない） */
+    private boolean notModified(UUID productId, String variant, WebRequest request) {
+        Optional<ProductValidators.Validator> validator =
+                validators.forProduct(productId, ProductValidators.View.REVIEWS, variant);
+        return validator.isPresent() && validator.get().notModified(request);
+    }
+
     private UUID resolveProductId(String rawId) {
         if (!StringUtils.hasText(rawId)) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "product id is required");
@@ -0,0 +1,122 @@
+package com.hamas.reviewtrust.api.publicapi.v1;
+
+import com.hamas.reviewtrust.api.publicapi.v1.dto.BatchScoreDtos.BatchScoreRequest;
+import com.hamas.reviewtrust.api.publicapi.v1.dto.BatchScoreDtos.BatchScoreResponse;
+import com.hamas.reviewtrust.api.publicapi.v1.dto.BatchScoreDtos.ScoreItem;
+import com.hamas.reviewtrust.domain.products.repo.ProductKeyJdbcRepository;
+import com.hamas.reviewtrust.domain.products.repo.ProductKeyJdbcRepository.ProductKey;
+import com.hamas.reviewtrust.domain.reviews.service.ScoreService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bulk variant of {@code GET /api/products/{idOrAsin}/scores} for dashboards and integrations that show many
+ * products at once.
+ *
+ * <p>All ids/ASINs are resolved with one query ({@link ProductKeyJdbcRepository}) and the SITE scores are read
+ * through {@link ScoreService#getScores(java.util.Collection)} (cache, then one bulk read of review_scores).
+ * Nothing is computed inline: products without a persisted score are queued for background computation and
+ * reported under {@code unscored}; unknown values under {@code notFound}.</p>
+ */
+@RestController
+@RequestMapping("/api/products")
+public class ScoresBatchController {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoresBatchController.class);
+
+    private final ProductKeyJdbcRepository productKeys;
+    private final ScoreService scoreService;
+    private final int maxSize;
+
+    public ScoresBatchController(ProductKeyJdbcRepository productKeys,
+                                 ScoreService scoreService,
+                                 @Value("${scores.batch.max-size:200}") int maxSize) {
+        this.productKeys = productKeys;
+        this.scoreService = scoreService;
+        this.maxSize = Math.max(1, maxSize);
+    }
+
+    @PostMapping("/scores:batch")
+    public BatchScoreResponse batch(@RequestBody BatchScoreRequest request) {
+        if (request == null || request.ids() == null || request.ids().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids is required");
+        }
+        if (request.ids().size() > maxSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "at most " + maxSize + " ids per request");
+        }
+
+        // 同じ値の重複は 1 つにまとめ、応答はリクエスト順
+        Set<String> tokens = new LinkedHashSet<>();
+        List<String> notFound = new ArrayList<>();
+        for (String raw : request.ids()) {
+            if (!StringUtils.hasText(raw)) {
+                continue;
+            }
+            tokens.add(raw.trim());
+        }
+        Map<String, UUID> idTokens = new LinkedHashMap<>();
+        Map<String, String> asinTokens = new LinkedHashMap<>();
+        for (String token : tokens) {
+            try {
+                idTokens.put(token, UUID.fromString(token));
+            } catch (IllegalArgumentException notUuid) {
+                asinTokens.put(token, token.toUpperCase(Locale.ROOT));
+            }
+        }
+
+        List<ProductKey> keys = productKeys.findByIdsOrAsins(idTokens.values(), asinTokens.values());
+        Map<UUID, ProductKey> byId = new LinkedHashMap<>();
+        Map<String, ProductKey> byAsin = new LinkedHashMap<>();
+        for (ProductKey key : keys) {
+            byId.put(key.id(), key);
+            if (key.asin() != null) {
+                byAsin.put(key.asin(), key);
+            }
+        }
+
+        Map<String, ProductKey> resolved = new LinkedHashMap<>();
+        for (String token : tokens) {
+            UUID id = idTokens.get(token);
+            ProductKey key = id != null ? byId.get(id) : byAsin.get(asinTokens.get(token));
+            if (key != null) {
+                resolved.put(token, key);
+            } else {
+                notFound.add(token);
+            }
+        }
+
+        Map<UUID, ScoreService.ProductScore> scores =
+                scoreService.getScores(resolved.values().stream().map(ProductKey::id).distinct().toList());
+        Map<String, ScoreItem> items = new LinkedHashMap<>();
+        List<String> unscored = new ArrayList<>();
+        resolved.forEach((token, key) -> {
+            ScoreService.ProductScore score = scores.get(key.id());
+            if (score == null) {
+                unscored.add(token);
+            } else {
+                items.put(token, new ScoreItem(key.id(), key.asin(), score.score(), score.displayScore(),
+                        score.rank(), score.sakuraJudge(), score.flags()));
+            }
+        });
+        log.debug("scores:batch requested={} scored={} unscored={} notFound={}",
+                tokens.size(), items.size(), unscored.size(), notFound.size());
+        return new BatchScoreResponse(items, unscored, notFound);
+    }
+}
@@ -9,14 +9,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -31,33 +36,53 @@ public class ScoresController {
     private final ProductService productService;
     private final ProductScoreService productScoreService;
     private final ScoreService scoreService;
+    private final ProductValidators validators;
 
     public ScoresController(ProductService productService,
                             ProductScoreService productScoreService,
-                            ScoreService scoreService) {
+                            ScoreService scoreService,
+                            ProductValidators validators) {
         this.productService = productService;
         this.productScoreService = productScoreService;
         this.scoreService = scoreService;
+        this.validators = validators;
     }
 
     /**
      * NOTE: Response payload now includes {@code productName} so the snapshot UI can display titles without
      * an extra lookup. Frontend clients must consume the new JSON structure.
+     *
+     * <p>The overall score is served stale-while-revalidate from {@link ScoreService#getScore(UUID, boolean)};
+     * {@code refresh=true} forces a recompute and is only honoured for administrators.</p>
+     *
+     * <p>Conditional requests: the {@code ETag} covers the product row, the latest snapshot and the persisted
+     * SITE score, and a matching {@code If-None-Match} is answered with 304 before anything is loaded. A forced
+     * refresh always returns the body.</p>
      */
     @GetMapping("/{idOrAsin}/scores")
-    public ResponseEntity<ProductScoreResponse> getScores(@PathVariable("idOrAsin") String idOrAsin) {
+    public ResponseEntity<ProductScoreResponse> getScores(@PathVariable("idOrAsin") String idOrAsin,
+                                                          @RequestParam(value = "refresh", defaultValue = "false") boolean refresh,
+                                                          Authentication authentication,
+                                                          WebRequest request) {
         if (!StringUtils.hasText(idOrAsin)) {
             return ResponseEntity.badRequest().build();
         }
+        boolean forceRefresh = refresh && isAdmin(authentication);
+        if (refresh && !forceRefresh) {
+            log.debug("getScores: refresh=true ignored for non-admin caller");
+        }
         String token = idOrAsin.trim();
         log.debug("RESOLVE: received idOrAsin='{}'", token);
+        if (!forceRefresh && notModified(token, request)) {
+            return null;
+        }
         try {
             UUID uuid = UUID.fromString(token);
             Product product = productService.get(uuid);
             log.debug("RESOLVE: treated '{}' as UUID -> productId={}", token, product.getId());
-            return respondWithProduct(product);
+            return respondWithProduct(product, forceRefresh);
         } catch (IllegalArgumentException ignored) {
-            return respondWithAsin(token);
+            return respondWithAsin(token, forceRefresh);
         } catch (ResponseStatusException ex) {
             throw ex;
         } catch (Exception ex) {
@@ -66,24 +91,34 @@ public class ScoresController {
         }
     }
 
-    private ResponseEntity<ProductScoreResponse> respondWithAsin(String asin) {
+    private boolean notModified(String idOrAsin, WebRequest request) {
+        Optional<ProductValidators.Validator> validator;
+        try {
+            validator = validators.forProduct(UUID.fromString(idOrAsin), ProductValidators.View.SCORES, null);
+        } catch (IllegalArgumentException notUuid) {
+            validator = validators.forAsin(idOrAsin, ProductValidators.View.SCORES, null);
+        }
+        return validator.isPresent() && validator.get().notModified(request);
+    }
+
+    private ResponseEntity<ProductScoreResponse> respondWithAsin(String asin, boolean forceRefresh) {
         Product product = productService.findByAsin(asin)
                 .orElseThrow(() -> {
                     log.debug("getScores: product not found for ASIN={}", asin);
                     return new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found");
                 });
         log.debug("RESOLVE: treated '{}' as ASIN -> productId={}", asin, product.getId());
-        return respondWithProduct(product);
+        return respondWithProduct(product, forceRefresh);
     }
 
-    private ResponseEntity<ProductScoreResponse> respondWithProduct(Product product) {
+    private ResponseEntity<ProductScoreResponse> respondWithProduct(Product product, boolean forceRefresh) {
         String asin = product.getAsin();
         if (!StringUtils.hasText(asin)) {
             log.warn("Product {} has no ASIN; cannot resolve scores", product.getId());
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Product ASIN missing");
         }
         return productScoreService.findLatestByAsin(asin.trim())
-                .map(this::attachOverallScore)
+                .map(response -> attachOverallScore(response, forceRefresh))
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> {
                     log.info("No product snapshot found for asin={} productId={}", asin, product.getId());
@@ -91,9 +126,9 @@ public class ScoresController {
                 });
     }
 
-    private ProductScoreResponse attachOverallScore(ProductScoreResponse response) {
+    private ProductScoreResponse attachOverallScore(ProductScoreResponse response, boolean forceRefresh) {
         if (response.getProductId() != null) {
-            ScoreService.ProductScore computed = scoreService.recomputeForProduct(response.getProductId());
+            ScoreService.ProductScore computed = scoreService.getScore(response.getProductId(), forceRefresh);
             if (computed != null) {
                 response.setOverall(toScoreBlock(computed));
             }
@@ -106,6 +141,15 @@ public class ScoresController {
         return response;
     }
 
+    private static boolean isAdmin(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch("ROLE_ADMIN"::equals);
+    }
+
     private ProductScoreResponse.ScoreBlock toScoreBlock(ScoreService.ProductScore computed) {
         ProductScoreResponse.ScoreBlock block = new ProductScoreResponse.ScoreBlock();
         block.setScore(computed.score());
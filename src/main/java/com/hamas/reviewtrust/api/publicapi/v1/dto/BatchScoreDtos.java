@@ -0,0 +1,37 @@
+package com.hamas.reviewtrust.api.publicapi.v1.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/** {@code POST /api/products/scores:batch} の入出力。1 製品あたりの項目は一覧表示に必要な分だけ。 */
+public final class BatchScoreDtos {
+
+    /** @param ids 製品 UUID または ASIN（混在可） */
+    public record BatchScoreRequest(List<String> ids) {}
+
+    /**
+     * @param scores   リクエストされた値（trim 済み）→ 永続化済みスコア
+     * @param unscored 製品はあるがスコア未計算（バックグラウンド計算に投入済み。後で再取得する）
+     * @param notFound 製品が見つからない値
+     */
+    public record BatchScoreResponse(
+            Map<String, ScoreItem> scores,
+            List<String> unscored,
+            List<String> notFound
+    ) {}
+
+    public record ScoreItem(
+            UUID productId,
+            String asin,
+            double score,
+            @JsonProperty("display_score") double displayScore,
+            String rank,
+            @JsonProperty("sakura_judge") String sakuraJudge,
+            List<String> flags
+    ) {}
+
+    private BatchScoreDtos() {}
+}
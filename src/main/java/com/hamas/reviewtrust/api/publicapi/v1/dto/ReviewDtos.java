@@ -29,22 +29,30 @@ public final class ReviewDtos {
 
     /** エンティティ→DTO 変換（reviewerPublic=false の場合は reviewerName を隠す） */
     public static ReviewItem from(Review r) {
-        final boolean isPublic = Boolean.TRUE.equals(r.getReviewerPublic());
-        final String safeName = isPublic ? r.getReviewerName() : null;
-        final String resolvedBody = r.getBody() != null ? r.getBody() : r.getText();
-        final int resolvedStars = r.getStars() != null ? r.getStars() : 0;
+        return of(r.getId(), r.getStars(), r.getTitle(), r.getBody(), r.getText(), r.isVerifiedPurchase(),
+                r.isHasImage(), r.getReviewerName(), r.getReviewerPublic(), r.getPostedAt(), r.getCreatedAt());
+    }
+
+    /** 列値→DTO 変換（JDBC ストリーミング用。公開ルールは {@link #from(Review)} と同一） */
+    public static ReviewItem of(UUID id, Integer stars, String title, String body, String text,
+                                boolean verifiedPurchase, boolean hasImage, String reviewerName,
+                                Boolean reviewerPublic, Instant postedAt, Instant createdAt) {
+        final boolean isPublic = Boolean.TRUE.equals(reviewerPublic);
+        final String safeName = isPublic ? reviewerName : null;
+        final String resolvedBody = body != null ? body : text;
+        final int resolvedStars = stars != null ? stars : 0;
         return new ReviewItem(
-                r.getId(),
+                id,
                 resolvedStars,
-                r.getTitle(),
+                title,
                 resolvedBody,
                 resolvedBody,
-                r.isVerifiedPurchase(),
-                r.isHasImage(),
+                verifiedPurchase,
+                hasImage,
                 safeName,
-                r.getReviewerPublic(),
-                r.getPostedAt(),
-                r.getCreatedAt()
+                reviewerPublic,
+                postedAt,
+                createdAt
         );
     }
 
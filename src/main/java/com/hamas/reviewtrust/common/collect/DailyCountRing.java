@@ -0,0 +1,110 @@
+package com.hamas.reviewtrust.common.collect;
+
+/**
+ * Fixed-size ring of per-day counts covering the most recent {@code capacity} days (epoch days).
+ *
+ * <p>Advancing to a later day clears only the slots that fall out of the window, so updates are O(1)
+ * amortised and the whole series costs {@code capacity} ints. Not thread-safe; callers synchronise.</p>
+ */
+public final class DailyCountRing {
+
+    private final int[] counts;
+    /** epoch day of the newest slot */
+    private long lastDay;
+
+    public DailyCountRing(int capacity, long today) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity must be >= 2");
+        }
+        this.counts = new int[capacity];
+        this.lastDay = today;
+    }
+
+    public int capacity() {
+        return counts.length;
+    }
+
+    public long lastDay() {
+        return lastDay;
+    }
+
+    /** Moves the window forward so that {@code day} is the newest slot; earlier days are ignored. */
+    public void advanceTo(long day) {
+        if (day <= lastDay) {
+            return;
+        }
+        long gap = Math.min(day - lastDay, counts.length);
+        for (long d = day - gap + 1; d <= day; d++) {
+            counts[slot(d)] = 0;
+        }
+        lastDay = day;
+    }
+
+    /** Sets the count of {@code day}; days older than the window are ignored, later days advance it. */
+    public void set(long day, int count) {
+        advanceTo(day);
+        if (contains(day)) {
+            counts[slot(day)] = Math.max(0, count);
+        }
+    }
+
+    /** Adds {@code delta} to the count of {@code day} (same window rules as {@link #set}). */
+    public void add(long day, int delta) {
+        advanceTo(day);
+        if (contains(day)) {
+            counts[slot(day)] = Math.max(0, counts[slot(day)] + delta);
+        }
+    }
+
+    /** @return the count of {@code day}, 0 outside the window */
+    public int get(long day) {
+        return contains(day) ? counts[slot(day)] : 0;
+    }
+
+    /**
+     * Compares the mean daily count of the newest {@code window} days with the {@code baseline} days
+     * before it. The baseline standard deviation is floored at {@code sqrt(max(mean, 1))} (Poisson noise)
+     * so that products with a flat or empty history do not produce unbounded z-scores.
+     * O(window + baseline).
+     */
+    public Stats stats(int window, int baseline) {
+        if (window < 1 || baseline < 1 || window + baseline > counts.length) {
+            throw new IllegalArgumentException("window + baseline must fit in the ring");
+        }
+        long recent = 0;
+        for (int i = 0; i < window; i++) {
+            recent += counts[slot(lastDay - i)];
+        }
+        double sum = 0;
+        double sumSq = 0;
+        for (int i = window; i < window + baseline; i++) {
+            int c = counts[slot(lastDay - i)];
+            sum += c;
+            sumSq += (double) c * c;
+        }
+        double mean = sum / baseline;
+        double std = Math.sqrt(Math.max(0d, sumSq / baseline - mean * mean));
+        double recentMean = recent / (double) window;
+        double noise = Math.max(std, Math.sqrt(Math.max(mean, 1d)));
+        double z = (recentMean - mean) / (noise / Math.sqrt(window));
+        return new Stats(recent, recentMean, mean, std, z);
+    }
+
+    private boolean contains(long day) {
+        return day <= lastDay && day > lastDay - counts.length;
+    }
+
+    private int slot(long day) {
+        return (int) Math.floorMod(day, (long) counts.length);
+    }
+
+    /**
+     * @param recentCount    reviews in the newest window
+     * @param recentPerDay   mean per day in the newest window
+     * @param baselinePerDay mean per day in the baseline
+     * @param baselineStd    population standard deviation of the baseline (before flooring)
+     * @param z              z-score of the window mean against the baseline
+     */
+    public record Stats(long recentCount, double recentPerDay, double baselinePerDay, double baselineStd, double z) {
+    }
+}
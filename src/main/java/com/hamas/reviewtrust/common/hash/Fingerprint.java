@@ -0,0 +1,152 @@
+package com.hamas.reviewtrust.common.hash;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Streaming fingerprint over text parts, without building the concatenated key string or its
+ * UTF‑8 byte array.
+ *
+ * <p>Parts are encoded to UTF‑8 on the fly (unpaired surrogates become {@code '?'}, as with
+ * {@link String#getBytes}), so the results equal {@link TextHash#fnv64(String)} and
+ * {@link TextHash#sha256Hex(String)} of the concatenation. {@link #fast()} only keeps the 64‑bit
+ * FNV‑1a state and is meant for in‑memory dedup; {@link #sha256()} additionally feeds a digest
+ * through a small reusable byte buffer for keys that are stored.</p>
+ *
+ * <pre>{@code
+ * String key = Fingerprint.sha256().add(title).add('|').add(body).sha256Hex();
+ * }</pre>
+ *
+ * <p>Instances are single-use and not thread-safe.</p>
+ */
+public final class Fingerprint {
+
+    private static final long FNV64_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV64_PRIME = 0x100000001b3L;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final MessageDigest digest;
+    private final byte[] buf;
+    private int pos;
+    private long fnv = FNV64_OFFSET_BASIS;
+    private long bytes;
+
+    private Fingerprint(MessageDigest digest) {
+        this.digest = digest;
+        this.buf = digest != null ? new byte[512] : null;
+    }
+
+    /** 64-bit FNV-1a only. */
+    public static Fingerprint fast() {
+        return new Fingerprint(null);
+    }
+
+    /** FNV-1a and SHA-256. */
+    public static Fingerprint sha256() {
+        try {
+            return new Fingerprint(MessageDigest.getInstance("SHA-256"));
+        } catch (NoSuchAlgorithmException e) {
+            // Should never happen – SHA-256 is guaranteed to exist
+            throw new IllegalStateException("SHA-256 algorithm missing", e);
+        }
+    }
+
+    /** Appends {@code text}; {@code null} appends nothing. */
+    public Fingerprint add(CharSequence text) {
+        if (text == null) {
+            return this;
+        }
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                put(c);
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, text.charAt(++i));
+                put(0xF0 | (cp >>> 18));
+                put(0x80 | ((cp >>> 12) & 0x3F));
+                put(0x80 | ((cp >>> 6) & 0x3F));
+                put(0x80 | (cp & 0x3F));
+            } else {
+                putBmp(c);
+            }
+        }
+        return this;
+    }
+
+    /** Appends one character (a lone surrogate is encoded as {@code '?'}). */
+    public Fingerprint add(char c) {
+        if (c < 0x80) {
+            put(c);
+        } else {
+            putBmp(c);
+        }
+        return this;
+    }
+
+    /** Appends the decimal representation of {@code value}. */
+    public Fingerprint add(long value) {
+        if (value == Long.MIN_VALUE) {
+            return add(Long.toString(value));
+        }
+        if (value < 0) {
+            put('-');
+            value = -value;
+        }
+        long div = 1;
+        while (value / div >= 10) {
+            div *= 10;
+        }
+        for (; div > 0; div /= 10) {
+            put('0' + (int) ((value / div) % 10));
+        }
+        return this;
+    }
+
+    /** @return number of UTF-8 bytes appended so far */
+    public long length() {
+        return bytes;
+    }
+
+    /** @return 64-bit FNV-1a of everything appended so far */
+    public long hash64() {
+        return fnv;
+    }
+
+    /** @return lower-case hex SHA-256; the instance cannot be used afterwards */
+    public String sha256Hex() {
+        if (digest == null) {
+            throw new IllegalStateException("created with fast(); use sha256() for SHA-256");
+        }
+        if (pos > 0) {
+            digest.update(buf, 0, pos);
+            pos = 0;
+        }
+        return HEX.formatHex(digest.digest());
+    }
+
+    private void putBmp(char c) {
+        if (Character.isSurrogate(c)) {
+            put('?');
+        } else if (c < 0x800) {
+            put(0xC0 | (c >>> 6));
+            put(0x80 | (c & 0x3F));
+        } else {
+            put(0xE0 | (c >>> 12));
+            put(0x80 | ((c >>> 6) & 0x3F));
+            put(0x80 | (c & 0x3F));
+        }
+    }
+
+    private void put(int b) {
+        fnv = (fnv ^ (b & 0xff)) * FNV64_PRIME;
+        bytes++;
+        if (digest != null) {
+            buf[pos++] = (byte) b;
+            if (pos == buf.length) {
+                digest.update(buf, 0, pos);
+                pos = 0;
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.hamas.reviewtrust.common.hash;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
 /**
  * Utility for computing simple hashes of text content.
@@ -11,12 +12,12 @@ import java.security.NoSuchAlgorithmException;
  * a cryptographically strong SHA‑256 hash for deduplication or integrity checks.
  * The FNV implementation is convenient for hash‑based partitioning or cache keys
  * where collisions are acceptable. The SHA‑256 method returns a hex string
- * representation suitable for storage or debugging.</p>
+ * representation suitable for storage or debugging. Keys assembled from several
+ * parts can be hashed without concatenation through {@link Fingerprint}.</p>
  */
 public final class TextHash {
 
-    private static final long FNV64_OFFSET_BASIS = 0xcbf29ce484222325L;
-    private static final long FNV64_PRIME = 0x100000001b3L;
+    private static final HexFormat HEX = HexFormat.of();
 
     private TextHash() {
         // utility class
@@ -34,13 +35,7 @@ public final class TextHash {
         if (input == null) {
             return 0L;
         }
-        long hash = FNV64_OFFSET_BASIS;
-        byte[] data = input.getBytes(StandardCharsets.UTF_8);
-        for (byte b : data) {
-            hash ^= (b & 0xff);
-            hash *= FNV64_PRIME;
-        }
-        return hash;
+        return Fingerprint.fast().add(input).hash64();
     }
 
     /**
@@ -58,14 +53,7 @@ public final class TextHash {
         }
         try {
             MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] bytes = md.digest(input.getBytes(StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder(bytes.length * 2);
-            for (byte b : bytes) {
-                int v = b & 0xff;
-                if (v < 0x10) sb.append('0');
-                sb.append(Integer.toHexString(v));
-            }
-            return sb.toString();
+            return HEX.formatHex(md.digest(input.getBytes(StandardCharsets.UTF_8)));
         } catch (NoSuchAlgorithmException e) {
             // Should never happen – SHA-256 is guaranteed to exist
             throw new IllegalStateException("SHA-256 algorithm missing", e);
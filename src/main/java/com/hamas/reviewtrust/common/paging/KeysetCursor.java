@@ -0,0 +1,55 @@
+package com.hamas.reviewtrust.common.paging;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Opaque continuation token for keyset pagination over {@code (created_at DESC, id DESC)}.
+ *
+ * <p>The token encodes the sort key of the last row of a page. Clients must treat it as an opaque
+ * string and pass it back verbatim to fetch the next page; the format is versioned so it can change
+ * without breaking stored links.</p>
+ */
+public record KeysetCursor(Instant createdAt, UUID id) {
+
+    private static final String VERSION = "v1";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public KeysetCursor {
+        Objects.requireNonNull(createdAt, "createdAt");
+        Objects.requireNonNull(id, "id");
+    }
+
+    public String encode() {
+        String raw = VERSION + '|' + createdAt.getEpochSecond() + '.' + createdAt.getNano() + '|' + id;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}. Blank input yields {@code null} (first page).
+     *
+     * @throws IllegalArgumentException when the token is malformed
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(DECODER.decode(token.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("unsupported cursor");
+            }
+            int dot = parts[1].indexOf('.');
+            long seconds = Long.parseLong(parts[1].substring(0, dot));
+            int nanos = Integer.parseInt(parts[1].substring(dot + 1));
+            return new KeysetCursor(Instant.ofEpochSecond(seconds, nanos), UUID.fromString(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("cursor is invalid", e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.hamas.reviewtrust.common.paging;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing.
+ *
+ * @param items          rows of this page (already limited in SQL)
+ * @param nextCursor     token for the following page, {@code null} when this is the last page
+ * @param total          total row count, {@code null} when not requested
+ * @param totalEstimated {@code true} when {@code total} comes from planner statistics
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor, Long total, boolean totalEstimated) {
+
+    public KeysetPage {
+        items = items == null ? List.of() : List.copyOf(items);
+    }
+
+    /**
+     * Builds a page from a query that fetched {@code limit + 1} rows: the extra row only signals that
+     * another page exists and is dropped from the result.
+     */
+    public static <T> KeysetPage<T> fromOverfetch(List<T> rows,
+                                                  int limit,
+                                                  Function<T, KeysetCursor> keyOf,
+                                                  Long total,
+                                                  boolean totalEstimated) {
+        if (rows.size() <= limit) {
+            return new KeysetPage<>(rows, null, total, totalEstimated);
+        }
+        List<T> page = rows.subList(0, limit);
+        String next = keyOf.apply(page.get(limit - 1)).encode();
+        return new KeysetPage<>(page, next, total, totalEstimated);
+    }
+
+    public <R> KeysetPage<R> map(Function<T, R> mapper) {
+        return new KeysetPage<>(items.stream().map(mapper).toList(), nextCursor, total, totalEstimated);
+    }
+
+    /** How the total row count should be resolved for a listing request. */
+    public enum CountMode {
+        /** Skip counting entirely. */
+        NONE,
+        /** Use {@code pg_class.reltuples} where possible, falling back to an exact count. */
+        ESTIMATE,
+        /** Run {@code COUNT(*)}. */
+        EXACT;
+
+        public static CountMode parse(String raw, CountMode fallback) {
+            if (raw == null || raw.isBlank()) {
+                return fallback;
+            }
+            return switch (raw.trim().toLowerCase(java.util.Locale.ROOT)) {
+                case "none", "false", "0" -> NONE;
+                case "estimate", "estimated" -> ESTIMATE;
+                case "exact", "true", "1" -> EXACT;
+                default -> throw new IllegalArgumentException("count must be none, estimate or exact");
+            };
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.hamas.reviewtrust.common.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Cheap row-count estimates backed by PostgreSQL planner statistics ({@code pg_class.reltuples}).
+ * Databases without {@code pg_class} (H2 in tests) simply yield {@code null}.
+ */
+@Repository
+public class TableStatsJdbcRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(TableStatsJdbcRepository.class);
+
+    private final JdbcTemplate jdbc;
+
+    public TableStatsJdbcRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Returns the planner's row estimate for {@code public.<table>} or {@code null} when unknown
+     * (never analysed, or statistics not available on this database).
+     */
+    public Long estimateRows(String table) {
+        try {
+            Long estimate = jdbc.queryForObject("""
+                    SELECT c.reltuples::bigint
+                      FROM pg_class c
+                      JOIN pg_namespace n ON n.oid = c.relnamespace
+                     WHERE n.nspname = 'public'
+                       AND c.relname = ?
+                    """, Long.class, table);
+            return (estimate == null || estimate < 0) ? null : estimate;
+        } catch (DataAccessException e) {
+            log.debug("[TableStats] reltuples unavailable for {}: {}", table, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.hamas.reviewtrust.common.sim;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Character-shingle MinHash signatures with LSH banding.
+ *
+ * <p>Shingles are runs of {@value #SHINGLE_LENGTH} code points, so Japanese text (which has no
+ * whitespace) is handled the same way as Latin text. Each signature holds {@value #NUM_HASHES}
+ * minima; the fraction of equal positions estimates the Jaccard similarity of the shingle sets.
+ * Signatures are split into {@value #BANDS} bands of {@value #ROWS_PER_BAND} rows; two texts share
+ * at least one band bucket with high probability once their similarity exceeds roughly
+ * {@code (1/BANDS)^(1/ROWS)} ≈ 0.5, which is what makes candidate lookup sub-linear.</p>
+ *
+ * <p>Inputs are expected to be normalised already (see {@code TextNormalizer}).</p>
+ */
+public final class MinHash {
+
+    public static final int SHINGLE_LENGTH = 3;
+    public static final int NUM_HASHES = 64;
+    public static final int BANDS = 16;
+    public static final int ROWS_PER_BAND = NUM_HASHES / BANDS;
+
+    private MinHash() {
+        // utility class
+    }
+
+    /**
+     * @return signature of {@value #NUM_HASHES} ints, or {@code null} for null/blank input
+     */
+    public static int[] signature(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        int[] cps = text.codePoints().filter(cp -> !Character.isWhitespace(cp)).toArray();
+        if (cps.length == 0) {
+            return null;
+        }
+        int[] sig = new int[NUM_HASHES];
+        Arrays.fill(sig, Integer.MAX_VALUE);
+        int shingles = Math.max(1, cps.length - SHINGLE_LENGTH + 1);
+        for (int s = 0; s < shingles; s++) {
+            long h = 0xcbf29ce484222325L;
+            int end = Math.min(cps.length, s + SHINGLE_LENGTH);
+            for (int i = s; i < end; i++) {
+                h ^= cps[i];
+                h *= 0x100000001b3L;
+            }
+            h = mix64(h);
+            // Kirsch–Mitzenmacher: h_i = h1 + i*h2 で NUM_HASHES 個のハッシュを 1 回の混合から作る
+            int h1 = (int) h;
+            int h2 = (int) (h >>> 32) | 1;
+            for (int i = 0; i < NUM_HASHES; i++) {
+                int v = h1 + i * h2;
+                if (v < sig[i]) {
+                    sig[i] = v;
+                }
+            }
+        }
+        return sig;
+    }
+
+    /** Estimated Jaccard similarity of two signatures (0 when either is missing). */
+    public static double similarity(int[] a, int[] b) {
+        if (a == null || b == null || a.length != b.length || a.length == 0) {
+            return 0.0;
+        }
+        int same = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) same++;
+        }
+        return same / (double) a.length;
+    }
+
+    /** One bucket key per band; equal keys in the same band make two signatures candidates. */
+    public static long[] bandKeys(int[] signature) {
+        long[] keys = new long[BANDS];
+        for (int b = 0; b < BANDS; b++) {
+            long h = b;
+            for (int r = 0; r < ROWS_PER_BAND; r++) {
+                h = mix64(h * 31 + signature[b * ROWS_PER_BAND + r]);
+            }
+            keys[b] = h;
+        }
+        return keys;
+    }
+
+    public static byte[] toBytes(int[] signature) {
+        ByteBuffer buf = ByteBuffer.allocate(signature.length * Integer.BYTES);
+        for (int v : signature) buf.putInt(v);
+        return buf.array();
+    }
+
+    /** @return signature, or {@code null} when the stored value is missing or malformed */
+    public static int[] fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != NUM_HASHES * Integer.BYTES) {
+            return null;
+        }
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        int[] sig = new int[NUM_HASHES];
+        for (int i = 0; i < NUM_HASHES; i++) sig[i] = buf.getInt();
+        return sig;
+    }
+
+    /** splitmix64 finalizer. */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
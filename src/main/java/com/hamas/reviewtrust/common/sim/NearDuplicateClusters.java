@@ -0,0 +1,121 @@
+package com.hamas.reviewtrust.common.sim;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Groups items into near-duplicate clusters from their {@link MinHash} signatures.
+ *
+ * <p>Candidates come from the LSH band buckets, so only items that share a bucket are compared;
+ * candidates whose estimated similarity reaches the threshold are merged with union-find. The
+ * cost is roughly linear in the number of items instead of quadratic.</p>
+ */
+public final class NearDuplicateClusters {
+
+    private NearDuplicateClusters() {
+        // utility class
+    }
+
+    /**
+     * @param signatures item → signature (null signatures are ignored)
+     * @param threshold  minimum estimated Jaccard similarity to link two items
+     * @return clusters with at least two members, largest first
+     */
+    public static <K> List<List<K>> cluster(Map<K, int[]> signatures, double threshold) {
+        List<K> keys = new ArrayList<>();
+        List<int[]> sigs = new ArrayList<>();
+        signatures.forEach((k, sig) -> {
+            if (k != null && sig != null) {
+                keys.add(k);
+                sigs.add(sig);
+            }
+        });
+        int n = keys.size();
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) parent[i] = i;
+
+        long[][] bandKeys = new long[n][];
+        for (int i = 0; i < n; i++) bandKeys[i] = MinHash.bandKeys(sigs.get(i));
+
+        Set<Long> compared = new HashSet<>();
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            Map<Long, List<Integer>> buckets = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                buckets.computeIfAbsent(bandKeys[i][band], x -> new ArrayList<>(2)).add(i);
+            }
+            for (List<Integer> bucket : buckets.values()) {
+                if (bucket.size() < 2) continue;
+                int first = bucket.get(0);
+                for (int j = 1; j < bucket.size(); j++) {
+                    int other = bucket.get(j);
+                    // 同じバケットの全ペアではなく先頭との比較に留める（推移的に union される）
+                    link(first, other, sigs, parent, threshold, compared);
+                }
+            }
+        }
+
+        Map<Integer, List<K>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            groups.computeIfAbsent(find(parent, i), x -> new ArrayList<>()).add(keys.get(i));
+        }
+        List<List<K>> clusters = new ArrayList<>();
+        for (List<K> group : groups.values()) {
+            if (group.size() >= 2) clusters.add(group);
+        }
+        clusters.sort(Comparator.comparingInt((List<K> c) -> c.size()).reversed());
+        return clusters;
+    }
+
+    /**
+     * Clusters from already verified links (e.g. pairs stored at index time): connected components of
+     * the link graph.
+     *
+     * @param links pairs of items known to be near-duplicates; order within a pair does not matter
+     * @return clusters with at least two members, largest first
+     */
+    public static <K> List<List<K>> connect(List<Map.Entry<K, K>> links) {
+        Map<K, Integer> index = new LinkedHashMap<>();
+        for (Map.Entry<K, K> link : links) {
+            index.putIfAbsent(link.getKey(), index.size());
+            index.putIfAbsent(link.getValue(), index.size());
+        }
+        int[] parent = new int[index.size()];
+        for (int i = 0; i < parent.length; i++) parent[i] = i;
+        for (Map.Entry<K, K> link : links) {
+            int ra = find(parent, index.get(link.getKey()));
+            int rb = find(parent, index.get(link.getValue()));
+            if (ra != rb) parent[rb] = ra;
+        }
+
+        Map<Integer, List<K>> groups = new LinkedHashMap<>();
+        index.forEach((k, i) -> groups.computeIfAbsent(find(parent, i), x -> new ArrayList<>()).add(k));
+        List<List<K>> clusters = new ArrayList<>(groups.values());
+        clusters.sort(Comparator.comparingInt((List<K> c) -> c.size()).reversed());
+        return clusters;
+    }
+
+    private static void link(int a, int b, List<int[]> sigs, int[] parent, double threshold, Set<Long> compared) {
+        int lo = Math.min(a, b);
+        int hi = Math.max(a, b);
+        if (!compared.add(((long) lo << 32) | hi)) return;
+        if (MinHash.similarity(sigs.get(a), sigs.get(b)) >= threshold) {
+            int ra = find(parent, a);
+            int rb = find(parent, b);
+            if (ra != rb) parent[rb] = ra;
+        }
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+}
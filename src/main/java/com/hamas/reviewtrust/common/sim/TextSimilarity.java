@@ -1,27 +1,41 @@
 package com.hamas.reviewtrust.common.sim;
 
 import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Collection;
 
 /**
  * Functions for computing similarity metrics between two strings.
  *
- * <p>The provided algorithms are simple and have no external dependencies.
- * They are designed for short texts such as review titles or short
- * descriptions. For long documents or natural language comparisons a
- * library such as Apache Lucene or SimHash may be more appropriate.</p>
+ * <p>Set similarity works on character shingles ({@value #SHINGLE_LENGTH} code points, whitespace
+ * ignored — the same shingles as {@link MinHash}), so unsegmented Japanese text is compared as
+ * meaningfully as Latin text. Shingles are hashed to 64 bits and kept in sorted {@code long[]}
+ * arrays; the intersection is a linear merge without boxing.</p>
+ *
+ * <p>Edit distance uses the bit-parallel algorithm of Myers (1999) in the block formulation of
+ * Hyyrö (2003): one column of the DP matrix is a handful of 64-bit words, so the cost is
+ * O(⌈m/64⌉·n) word operations instead of O(m·n) cells. Bounded variants stop as soon as the
+ * distance can no longer stay within the limit. Distances are counted in UTF-16 code units, as
+ * before.</p>
+ *
+ * <p>Inputs are expected to be normalised already (see {@code TextNormalizer}).</p>
  */
 public final class TextSimilarity {
 
+    public static final int SHINGLE_LENGTH = MinHash.SHINGLE_LENGTH;
+    private static final long[] NO_SHINGLES = new long[0];
+
     private TextSimilarity() {
         // utility class
     }
 
+    /* ------------------------------------------------------------------ */
+    /* Shingles / Jaccard                                                 */
+    /* ------------------------------------------------------------------ */
+
     /**
-     * Computes the Jaccard similarity between two strings based on unique
-     * whitespace‑delimited tokens. The similarity is defined as the size
-     * of the intersection divided by the size of the union of token sets.
+     * Computes the Jaccard similarity of the character shingle sets of two
+     * strings: the size of the intersection divided by the size of the union.
+     * Two strings without any non-whitespace character are identical (1.0).
      *
      * @param a first string
      * @param b second string
@@ -29,49 +43,116 @@ public final class TextSimilarity {
      */
     public static double jaccard(String a, String b) {
         if (a == null || b == null) return 0.0;
-        Set<String> sa = new HashSet<>(Arrays.asList(a.trim().split("\\s+")));
-        Set<String> sb = new HashSet<>(Arrays.asList(b.trim().split("\\s+")));
-        if (sa.isEmpty() && sb.isEmpty()) return 1.0;
-        Set<String> intersection = new HashSet<>(sa);
-        intersection.retainAll(sb);
-        Set<String> union = new HashSet<>(sa);
-        union.addAll(sb);
-        return union.isEmpty() ? 1.0 : (double) intersection.size() / union.size();
+        return jaccard(shingles(a), shingles(b));
+    }
+
+    /**
+     * @param a sorted, distinct shingle hashes from {@link #shingles(String)}
+     * @param b sorted, distinct shingle hashes from {@link #shingles(String)}
+     * @return Jaccard similarity in [0,1]
+     */
+    public static double jaccard(long[] a, long[] b) {
+        if (a.length == 0 && b.length == 0) return 1.0;
+        int inter = intersectionSize(a, b);
+        return (double) inter / (a.length + b.length - inter);
+    }
+
+    /** Shingle hashes of {@code text} with the default length {@value #SHINGLE_LENGTH}. */
+    public static long[] shingles(String text) {
+        return shingles(text, SHINGLE_LENGTH);
+    }
+
+    /**
+     * Hashes every run of {@code k} non-whitespace code points (the whole text when it is shorter)
+     * to 64 bits.
+     *
+     * @return sorted, distinct hashes; empty for null or blank input
+     */
+    public static long[] shingles(String text, int k) {
+        if (k < 1) throw new IllegalArgumentException("k must be >= 1");
+        if (text == null) return NO_SHINGLES;
+        int[] cps = new int[text.length()];
+        int n = 0;
+        for (int i = 0; i < text.length(); ) {
+            int cp = text.codePointAt(i);
+            i += Character.charCount(cp);
+            if (!Character.isWhitespace(cp)) cps[n++] = cp;
+        }
+        if (n == 0) return NO_SHINGLES;
+        int count = Math.max(1, n - k + 1);
+        long[] out = new long[count];
+        for (int s = 0; s < count; s++) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = s, end = Math.min(n, s + k); i < end; i++) {
+                h ^= cps[i];
+                h *= 0x100000001b3L;
+            }
+            out[s] = mix64(h);
+        }
+        Arrays.sort(out);
+        int distinct = 1;
+        for (int i = 1; i < count; i++) {
+            if (out[i] != out[distinct - 1]) out[distinct++] = out[i];
+        }
+        return distinct == count ? out : Arrays.copyOf(out, distinct);
     }
 
+    private static int intersectionSize(long[] a, long[] b) {
+        int i = 0, j = 0, inter = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                inter++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return inter;
+    }
+
+    /* ------------------------------------------------------------------ */
+    /* Levenshtein                                                        */
+    /* ------------------------------------------------------------------ */
+
     /**
-     * Computes the Levenshtein edit distance between two strings. This
-     * implementation uses a dynamic programming algorithm with O(n*m)
-     * complexity and is suitable for relatively short inputs.
+     * Computes the Levenshtein edit distance between two strings with the
+     * bit-parallel algorithm; suitable for review-length inputs.
      *
      * @param a first string
      * @param b second string
      * @return edit distance
      */
     public static int levenshteinDistance(String a, String b) {
+        return levenshteinDistance(a, b, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Edit distance bounded by {@code max}: once the distance is certain to exceed {@code max} the
+     * computation stops and {@code max + 1} is returned.
+     *
+     * @param a   first string
+     * @param b   second string
+     * @param max largest distance of interest (≥ 0)
+     * @return the exact distance when it is ≤ {@code max}, otherwise {@code max + 1}
+     */
+    public static int levenshteinDistance(String a, String b, int max) {
+        if (max < 0) throw new IllegalArgumentException("max must be >= 0");
         if (a == null) a = "";
         if (b == null) b = "";
-        int n = a.length();
-        int m = b.length();
-        if (n == 0) return m;
+        int over = max == Integer.MAX_VALUE ? max : max + 1;
+        // 短い方をパターン（ビットベクトル側）にする
+        String p = a.length() <= b.length() ? a : b;
+        String t = p == a ? b : a;
+        int m = p.length();
+        int n = t.length();
+        if (n - m > max) return over;
         if (m == 0) return n;
-        int[] prev = new int[m + 1];
-        int[] curr = new int[m + 1];
-        for (int j = 0; j <= m; j++) prev[j] = j;
-        for (int i = 1; i <= n; i++) {
-            curr[0] = i;
-            char ca = a.charAt(i - 1);
-            for (int j = 1; j <= m; j++) {
-                int cost = (ca == b.charAt(j - 1)) ? 0 : 1;
-                curr[j] = Math.min(
-                        Math.min(curr[j - 1] + 1, prev[j] + 1),
-                        prev[j - 1] + cost);
-            }
-            int[] tmp = prev;
-            prev = curr;
-            curr = tmp;
-        }
-        return prev[m];
+        if (p.equals(t)) return 0;
+        int d = m <= 64 ? myers64(p, t, max) : myersBlocks(p, t, max);
+        return d > max ? over : d;
     }
 
     /**
@@ -89,4 +170,173 @@ public final class TextSimilarity {
         if (max == 0) return 1.0;
         return 1.0 - ((double) dist / max);
     }
-}
\ No newline at end of file
+
+    /**
+     * {@code normalizedLevenshtein(a, b) >= threshold}, without computing the exact distance: the
+     * length difference rejects most pairs immediately and the edit distance stops as soon as the
+     * allowed number of edits is exceeded.
+     */
+    public static boolean similarAtLeast(String a, String b, double threshold) {
+        if (threshold <= 0.0) return true;
+        int la = a != null ? a.length() : 0;
+        int lb = b != null ? b.length() : 0;
+        int maxLen = Math.max(la, lb);
+        if (maxLen == 0) return true;
+        int allowed = allowedEdits(maxLen, threshold);
+        if (allowed < 0 || Math.abs(la - lb) > allowed) return false;
+        return levenshteinDistance(a, b, allowed) <= allowed;
+    }
+
+    /**
+     * Highest {@link #normalizedLevenshtein} between {@code text} and any of {@code others}, e.g. for
+     * the duplicate-text feature of a review against the other reviews of the same author. Candidates
+     * that cannot beat the best value found so far are pruned by length or stopped early.
+     *
+     * @return similarity in [0,1]; 0 when {@code others} is empty
+     */
+    public static double maxSimilarity(String text, Collection<String> others) {
+        if (text == null || others == null) return 0.0;
+        double best = 0.0;
+        for (String other : others) {
+            if (other == null) continue;
+            int maxLen = Math.max(text.length(), other.length());
+            if (maxLen == 0) return 1.0;
+            // 長さの比がそのまま類似度の上限
+            if ((double) Math.min(text.length(), other.length()) / maxLen <= best) continue;
+            // best を超えるには max(距離) < (1 - best) * maxLen が必要
+            int allowed = (int) Math.ceil((1.0 - best) * maxLen) - 1;
+            if (allowed < 0) continue;
+            int d = levenshteinDistance(text, other, allowed);
+            if (d <= allowed) {
+                best = Math.max(best, 1.0 - (double) d / maxLen);
+                if (best >= 1.0) break;
+            }
+        }
+        return best;
+    }
+
+    private static int allowedEdits(int maxLen, double threshold) {
+        // 1 - d/maxLen >= threshold  ⇔  d <= (1 - threshold) * maxLen（丸め誤差を吸収）
+        return (int) Math.floor((1.0 - threshold) * maxLen + 1e-9);
+    }
+
+    /** Single-word Myers for patterns of at most 64 code units. */
+    private static int myers64(String p, String t, int max) {
+        int m = p.length();
+        int n = t.length();
+        PatternMasks peq = new PatternMasks(p, 1);
+        long pv = m == 64 ? -1L : (1L << m) - 1;
+        long mv = 0L;
+        long last = 1L << (m - 1);
+        int score = m;
+        for (int j = 0; j < n; j++) {
+            long eq = peq.mask(t.charAt(j), 0);
+            long xv = eq | mv;
+            long xh = (((eq & pv) + pv) ^ pv) | eq;
+            long ph = mv | ~(xh | pv);
+            long mh = pv & xh;
+            if ((ph & last) != 0) score++;
+            else if ((mh & last) != 0) score--;
+            ph = (ph << 1) | 1L;
+            mh <<= 1;
+            pv = mh | ~(xv | ph);
+            mv = ph & xv;
+            // 残りの列で 1 列につき高々 1 しか減らない
+            if (score - (n - j - 1) > max) return max + 1;
+        }
+        return score;
+    }
+
+    /** Block-based Myers/Hyyrö for longer patterns. */
+    private static int myersBlocks(String p, String t, int max) {
+        int m = p.length();
+        int n = t.length();
+        int blocks = (m + 63) >>> 6;
+        PatternMasks peq = new PatternMasks(p, blocks);
+        long[] pv = new long[blocks];
+        long[] mv = new long[blocks];
+        Arrays.fill(pv, -1L);
+        long last = 1L << ((m - 1) & 63);
+        int score = m;
+        for (int j = 0; j < n; j++) {
+            int slot = peq.slot(t.charAt(j));
+            int hin = 1;
+            for (int b = 0; b < blocks; b++) {
+                long eq = slot < 0 ? 0L : peq.masks[slot * blocks + b];
+                long pvb = pv[b];
+                long mvb = mv[b];
+                long xv = eq | mvb;
+                if (hin < 0) eq |= 1L;
+                long xh = (((eq & pvb) + pvb) ^ pvb) | eq;
+                long ph = mvb | ~(xh | pvb);
+                long mh = pvb & xh;
+                long high = b == blocks - 1 ? last : Long.MIN_VALUE;
+                int hout = (ph & high) != 0 ? 1 : (mh & high) != 0 ? -1 : 0;
+                ph <<= 1;
+                mh <<= 1;
+                if (hin < 0) mh |= 1L;
+                else if (hin > 0) ph |= 1L;
+                pv[b] = mh | ~(xv | ph);
+                mv[b] = ph & xv;
+                hin = hout;
+            }
+            score += hin;
+            if (score - (n - j - 1) > max) return max + 1;
+        }
+        return score;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * Match masks of the pattern per distinct character: open addressing on {@code char} keys, so the
+     * table stays proportional to the pattern and not to the (large, for Japanese) alphabet.
+     */
+    private static final class PatternMasks {
+        final char[] keys;
+        final boolean[] used;
+        final long[] masks;
+        final int blocks;
+
+        PatternMasks(String p, int blocks) {
+            this.blocks = blocks;
+            int capacity = Integer.highestOneBit(Math.max(4, p.length()) * 2 - 1) << 1;
+            keys = new char[capacity];
+            used = new boolean[capacity];
+            masks = new long[capacity * blocks];
+            int mask = capacity - 1;
+            for (int i = 0; i < p.length(); i++) {
+                char c = p.charAt(i);
+                int s = index(c) & mask;
+                while (used[s] && keys[s] != c) s = (s + 1) & mask;
+                used[s] = true;
+                keys[s] = c;
+                masks[s * blocks + (i >>> 6)] |= 1L << (i & 63);
+            }
+        }
+
+        int slot(char c) {
+            int mask = keys.length - 1;
+            int s = index(c) & mask;
+            while (used[s]) {
+                if (keys[s] == c) return s;
+                s = (s + 1) & mask;
+            }
+            return -1;
+        }
+
+        private static int index(char c) {
+            int h = c * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        long mask(char c, int block) {
+            int s = slot(c);
+            return s < 0 ? 0L : masks[s * blocks + block];
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.hamas.reviewtrust.common.text;
+
+import com.hamas.reviewtrust.common.hash.TextHash;
+
+import java.util.regex.Pattern;
+
+/**
+ * Per-review lexical features, computed once when a review is written and persisted next to it
+ * ({@code reviews.body_norm}, {@code body_norm_hash}, {@code lex_flags}; V070). Scoring reads the flag
+ * bits instead of normalising and pattern-matching every body on each pass.
+ *
+ * <p>{@link #URL}, {@link #EMOJI}, {@link #SYMBOL_RUN} and {@link #SHORT} describe the trimmed body as
+ * stored; {@link #SHORT_TEXT} and {@link #NOISY} describe its {@link TextNormalizer normalised} form.
+ * When a definition here changes, reset {@code lex_flags} to {@code NULL} so the backfill recomputes it.</p>
+ */
+public final class LexicalFeatures {
+
+    /** URL or domain-like text */
+    public static final int URL = 1;
+    /** emoji or pictographic symbols */
+    public static final int EMOJI = 1 << 1;
+    /** the same punctuation repeated three or more times ("!!!", "。。。") */
+    public static final int SYMBOL_RUN = 1 << 2;
+    /** empty, or fewer than {@value #SHORT_LENGTH} characters */
+    public static final int SHORT = 1 << 3;
+    /** normalised body shorter than {@value #SHORT_TEXT_LENGTH} characters */
+    public static final int SHORT_TEXT = 1 << 4;
+    /** normalised body blank, shorter than {@value #NOISE_MIN_LENGTH} or fewer than 10 distinct characters */
+    public static final int NOISY = 1 << 5;
+
+    static final int SHORT_LENGTH = 60;
+    static final int SHORT_TEXT_LENGTH = 120;
+    static final int NOISE_MIN_LENGTH = 40;
+    static final int NOISE_MIN_DISTINCT_CHARS = 10;
+
+    private static final Pattern URL_PATTERN = Pattern.compile("(?i)https?://|www\\.|\\.co(m|\\.jp)|\\.jp");
+    private static final Pattern SYMBOL_RUN_PATTERN = Pattern.compile("([!！?？.,。、〜～ー\\-])\\1{2,}");
+
+    private static final Analysis EMPTY = new Analysis("", null, SHORT | SHORT_TEXT | NOISY);
+
+    private LexicalFeatures() {
+        // utility class
+    }
+
+    /**
+     * @param body review body; {@code null} is treated as empty
+     * @return the normalised body, its FNV-64 hash ({@code null} when blank) and the flag bits
+     */
+    public static Analysis analyse(String body) {
+        String trimmed = body == null ? "" : body.trim();
+        if (trimmed.isEmpty()) {
+            return EMPTY;
+        }
+        int flags = 0;
+        if (URL_PATTERN.matcher(trimmed).find()) flags |= URL;
+        if (containsEmoji(trimmed)) flags |= EMOJI;
+        if (SYMBOL_RUN_PATTERN.matcher(trimmed).find()) flags |= SYMBOL_RUN;
+        if (trimmed.length() < SHORT_LENGTH) flags |= SHORT;
+
+        String normalised = TextNormalizer.normalize(trimmed);
+        if (normalised.length() < SHORT_TEXT_LENGTH) flags |= SHORT_TEXT;
+        if (isNoisy(normalised)) flags |= NOISY;
+        Long hash = normalised.isBlank() ? null : TextHash.fnv64(normalised);
+        return new Analysis(normalised, hash, flags);
+    }
+
+    public static boolean has(int flags, int flag) {
+        return (flags & flag) != 0;
+    }
+
+    private static boolean containsEmoji(String text) {
+        return text.codePoints().anyMatch(cp -> {
+            int type = Character.getType(cp);
+            return type == Character.SURROGATE || type == Character.OTHER_SYMBOL || cp >= 0x1F000;
+        });
+    }
+
+    /** 空/短文/異なり文字 10 未満。異なり文字は 10 個見つかった時点で打ち切る。 */
+    private static boolean isNoisy(String body) {
+        if (body.isBlank() || body.length() < NOISE_MIN_LENGTH) {
+            return true;
+        }
+        char[] distinct = new char[NOISE_MIN_DISTINCT_CHARS];
+        int found = 0;
+        outer:
+        for (int i = 0; i < body.length(); i++) {
+            char c = body.charAt(i);
+            for (int j = 0; j < found; j++) {
+                if (distinct[j] == c) continue outer;
+            }
+            distinct[found++] = c;
+            if (found >= NOISE_MIN_DISTINCT_CHARS) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param normalised     {@link TextNormalizer#normalize} of the trimmed body ({@code ""} when empty)
+     * @param normalisedHash {@link TextHash#fnv64} of {@code normalised}; {@code null} when blank
+     * @param flags          bit set of the constants above
+     */
+    public record Analysis(String normalised, Long normalisedHash, int flags) {
+
+        public boolean has(int flag) {
+            return LexicalFeatures.has(flags, flag);
+        }
+    }
+}
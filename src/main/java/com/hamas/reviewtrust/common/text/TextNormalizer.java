@@ -8,8 +8,23 @@ import java.util.Locale;
  * fullwidth forms to halfwidth, removing accents and diacritics, lower‑casing
  * and collapsing whitespace. Use this when comparing or hashing free text to
  * reduce spurious differences arising from encoding quirks.
+ *
+ * <p>This is the single normalization engine of the application; besides the
+ * matching form ({@link #normalize}) it offers the display form used for scraped
+ * text ({@link #normalizeForDisplay}) and plain width folding for numbers
+ * ({@link #foldWidth}). Every form is one code‑point loop over a per‑thread
+ * buffer. ASCII input skips Unicode normalization entirely, and input that is
+ * already in the requested form is returned as the same instance, so the common
+ * case allocates nothing.</p>
  */
 public final class TextNormalizer {
+
+    /** buffers that grew beyond this are not kept for the next call */
+    private static final int MAX_POOLED_CAPACITY = 1 << 16;
+    private static final ThreadLocal<StringBuilder> BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(256));
+    private static final char GREEK_CAPITAL_SIGMA = '\u03A3';
+
     private TextNormalizer() {
         // utility class
     }
@@ -26,6 +41,10 @@ public final class TextNormalizer {
      *   <li>Leading and trailing whitespace is trimmed.</li>
      * </ul>
      *
+     * <p>The result is persisted ({@code reviews.body_norm} and its hash), so the
+     * output must stay identical to the original
+     * {@code NFKD → strip marks → toLowerCase(ROOT) → replaceAll("\\s+", " ") → trim} chain.</p>
+     *
      * @param input text to normalize
      * @return normalized text or {@code null}
      */
@@ -33,21 +52,161 @@ public final class TextNormalizer {
         if (input == null) {
             return null;
         }
-        // Canonical decomposition and compatibility mapping
-        String normalized = Normalizer.normalize(input, Normalizer.Form.NFKD);
-        // Remove diacritical marks
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < normalized.length(); i++) {
-            char c = normalized.charAt(i);
-            // skip combining marks (M category)
-            if (Character.getType(c) != Character.NON_SPACING_MARK) {
-                sb.append(c);
+        int ascii = asciiState(input);
+        if (ascii == ASCII_KEY_FORM) {
+            return input;
+        }
+        String decomposed = ascii == ASCII ? input : unicode(input, Normalizer.Form.NFKD);
+        StringBuilder sb = buffer(decomposed.length());
+        boolean space = false;
+        boolean sigma = false;
+        for (int i = 0, n = decomposed.length(); i < n; ) {
+            int cp = decomposed.codePointAt(i);
+            int len = Character.charCount(cp);
+            i += len;
+            // 結合文字の除去は char 単位（サロゲートペアは対象外）で従来どおり
+            if (len == 1 && Character.getType(cp) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (isRegexSpace(cp)) {
+                if (!space) {
+                    sb.append(' ');
+                    space = true;
+                }
+                continue;
+            }
+            space = false;
+            if (cp == GREEK_CAPITAL_SIGMA) {
+                // 語末形 ς は文脈依存なので String#toLowerCase に任せる
+                sigma = true;
+                sb.append(GREEK_CAPITAL_SIGMA);
+            } else {
+                sb.appendCodePoint(Character.toLowerCase(cp));
+            }
+        }
+        String out = result(input, sb);
+        return sigma ? out.toLowerCase(Locale.ROOT) : out;
+    }
+
+    /**
+     * Display form for scraped text: NFKC, line breaks unified to {@code \n},
+     * zero‑width characters (U+200B–U+200F, U+FEFF) removed, runs of spaces
+     * collapsed to one space, whitespace around line breaks removed and the
+     * result trimmed.
+     *
+     * @param input text to clean
+     * @return cleaned text, or {@code null} when nothing but whitespace remains
+     */
+    public static String normalizeForDisplay(String input) {
+        if (input == null) {
+            return null;
+        }
+        String composed = asciiState(input) != NON_ASCII ? input : unicode(input, Normalizer.Form.NFKC);
+        StringBuilder sb = buffer(composed.length());
+        boolean inRun = false;
+        boolean runHasNewline = false;
+        for (int i = 0, n = composed.length(); i < n; i++) {
+            char c = composed.charAt(i);
+            if ((c >= '\u200B' && c <= '\u200F') || c == '\uFEFF') {
+                continue;
+            }
+            if (isRegexSpace(c)) {
+                inRun = true;
+                runHasNewline |= c == '\n' || c == '\r';
+                continue;
+            }
+            if (inRun) {
+                sb.append(runHasNewline ? '\n' : ' ');
+                inRun = false;
+                runHasNewline = false;
+            }
+            sb.append(c);
+        }
+        String out = result(input, sb);
+        return out.isBlank() ? null : out;
+    }
+
+    /**
+     * Compatibility (NFKC) folding only: fullwidth digits, signs and letters
+     * become their ASCII forms; case and inner whitespace are kept. The result is
+     * trimmed.
+     *
+     * @param input text to fold
+     * @return folded text or {@code null}
+     */
+    public static String foldWidth(String input) {
+        if (input == null) {
+            return null;
+        }
+        String composed = asciiState(input) != NON_ASCII ? input : unicode(input, Normalizer.Form.NFKC);
+        String trimmed = composed.trim();
+        return trimmed.equals(input) ? input : trimmed;
+    }
+
+    /* ------------------------------------------------------------------ */
+    /* Internals                                                          */
+    /* ------------------------------------------------------------------ */
+
+    private static final int NON_ASCII = 0;
+    private static final int ASCII = 1;
+    /** ASCII and already in {@link #normalize} form */
+    private static final int ASCII_KEY_FORM = 2;
+
+    private static int asciiState(String s) {
+        int n = s.length();
+        boolean keyForm = n == 0 || (s.charAt(0) > ' ' && s.charAt(n - 1) > ' ');
+        char prev = 0;
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                return NON_ASCII;
+            }
+            if (keyForm && ((c >= 'A' && c <= 'Z') || (isRegexSpace(c) && (c != ' ' || prev == ' ')))) {
+                keyForm = false;
+            }
+            prev = c;
+        }
+        return keyForm ? ASCII_KEY_FORM : ASCII;
+    }
+
+    private static String unicode(String s, Normalizer.Form form) {
+        return Normalizer.isNormalized(s, form) ? s : Normalizer.normalize(s, form);
+    }
+
+    /** {@code \s} of {@link java.util.regex.Pattern} without UNICODE_CHARACTER_CLASS */
+    private static boolean isRegexSpace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    private static StringBuilder buffer(int expected) {
+        StringBuilder sb = BUFFER.get();
+        if (sb.capacity() > MAX_POOLED_CAPACITY) {
+            sb = new StringBuilder(Math.max(256, expected));
+            BUFFER.set(sb);
+        }
+        sb.setLength(0);
+        return sb;
+    }
+
+    /** Trims the buffer like {@link String#trim()} and returns {@code original} when the content is unchanged. */
+    private static String result(String original, StringBuilder sb) {
+        int start = 0;
+        int end = sb.length();
+        while (start < end && sb.charAt(start) <= ' ') start++;
+        while (end > start && sb.charAt(end - 1) <= ' ') end--;
+        int len = end - start;
+        if (len == original.length()) {
+            boolean same = true;
+            for (int i = 0; i < len; i++) {
+                if (sb.charAt(start + i) != original.charAt(i)) {
+                    same = false;
+                    break;
+                }
+            }
+            if (same) {
+                return original;
             }
         }
-        // Lower case
-        String lower = sb.toString().toLowerCase(Locale.ROOT);
-        // Collapse whitespace
-        String collapsed = lower.replaceAll("\\s+", " ").trim();
-        return collapsed;
+        return sb.substring(start, end);
     }
-}
\ No newline at end of file
+}
@@ -27,6 +27,8 @@ public enum ApiErrorCodes {
     E_SCRAPE_FAILED,
     /** Scoring engine failure */
     E_SCORING_FAILED,
+    /** Endpoint class is saturated (bulkhead full); retry after the {@code Retry-After} delay */
+    E_OVERLOADED,
     /** Unhandled server error */
     E_INTERNAL;
 }
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.hamas.reviewtrust.common.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit for one class of expensive requests: at most {@code maxConcurrent} run, at most
+ * {@code maxQueue} wait up to {@code maxWait} for a slot, everything else is rejected immediately.
+ *
+ * <p>Meters (tag {@code bulkhead=<name>}): gauges {@code http.bulkhead.active} / {@code http.bulkhead.queued}
+ * / {@code http.bulkhead.limit}, counter {@code http.bulkhead.rejected{reason=queue_full|timeout}} and timer
+ * {@code http.bulkhead.wait{outcome=admitted|rejected}}.</p>
+ */
+public final class Bulkhead {
+
+    public enum Outcome {
+        ADMITTED, QUEUE_FULL, TIMED_OUT;
+
+        public boolean admitted() {
+            return this == ADMITTED;
+        }
+    }
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedTimeout;
+    private final Timer waitAdmitted;
+    private final Timer waitRejected;
+
+    public Bulkhead(String name, int maxConcurrent, int maxQueue, Duration maxWait, MeterRegistry registry) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxQueue = Math.max(0, maxQueue);
+        this.maxWaitNanos = maxWait == null || maxWait.isNegative() ? 0L : maxWait.toNanos();
+        // 公平モード + acquireNow() で、待機中のリクエストを後着が追い越さないようにする
+        this.permits = new Semaphore(this.maxConcurrent, true);
+
+        Gauge.builder("http.bulkhead.active", active, AtomicInteger::get)
+                .description("Requests currently running inside the bulkhead")
+                .tag("bulkhead", name).register(registry);
+        Gauge.builder("http.bulkhead.queued", queued, AtomicInteger::get)
+                .description("Requests waiting for a bulkhead slot")
+                .tag("bulkhead", name).register(registry);
+        Gauge.builder("http.bulkhead.limit", this, b -> b.maxConcurrent)
+                .description("Configured concurrency limit")
+                .tag("bulkhead", name).register(registry);
+        this.rejectedQueueFull = Counter.builder("http.bulkhead.rejected")
+                .tag("bulkhead", name).tag("reason", "queue_full").register(registry);
+        this.rejectedTimeout = Counter.builder("http.bulkhead.rejected")
+                .tag("bulkhead", name).tag("reason", "timeout").register(registry);
+        this.waitAdmitted = Timer.builder("http.bulkhead.wait")
+                .description("Time spent waiting for a bulkhead slot")
+                .tag("bulkhead", name).tag("outcome", "admitted").register(registry);
+        this.waitRejected = Timer.builder("http.bulkhead.wait")
+                .description("Time spent waiting for a bulkhead slot")
+                .tag("bulkhead", name).tag("outcome", "rejected").register(registry);
+    }
+
+    /**
+     * Takes a slot, waiting at most {@code maxWait}. Every {@link Outcome#ADMITTED} must be paired with one
+     * {@link #exit()}.
+     */
+    public Outcome tryEnter() {
+        if (acquireNow()) {
+            waitAdmitted.record(0L, TimeUnit.NANOSECONDS);
+            active.incrementAndGet();
+            return Outcome.ADMITTED;
+        }
+        if (maxWaitNanos == 0L || maxQueue == 0) {
+            rejectedQueueFull.increment();
+            return Outcome.QUEUE_FULL;
+        }
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            rejectedQueueFull.increment();
+            return Outcome.QUEUE_FULL;
+        }
+        long started = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        } finally {
+            queued.decrementAndGet();
+        }
+        long waited = System.nanoTime() - started;
+        if (!acquired) {
+            waitRejected.record(waited, TimeUnit.NANOSECONDS);
+            rejectedTimeout.increment();
+            return Outcome.TIMED_OUT;
+        }
+        waitAdmitted.record(waited, TimeUnit.NANOSECONDS);
+        active.incrementAndGet();
+        return Outcome.ADMITTED;
+    }
+
+    /** {@code tryAcquire()} は公平モードでも割り込むので、待ち時間 0 の時間指定版を使う */
+    private boolean acquireNow() {
+        try {
+            return permits.tryAcquire(0L, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public void exit() {
+        active.decrementAndGet();
+        permits.release();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int active() {
+        return active.get();
+    }
+
+    public int queued() {
+        return queued.get();
+    }
+}
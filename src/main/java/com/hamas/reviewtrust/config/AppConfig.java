@@ -9,7 +9,7 @@ import org.springframework.context.annotation.Configuration;
 import java.time.Clock;
 
 @Configuration
-@EnableConfigurationProperties({LocalIntakeProperties.class, IntakeProperties.class})
+@EnableConfigurationProperties({LocalIntakeProperties.class, IntakeProperties.class, AuditProperties.class})
 public class AppConfig {
 
     @Bean
@@ -0,0 +1,151 @@
+package com.hamas.reviewtrust.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Asynchronous audit pipeline used by {@code AuditService} (see {@code AuditLogWriter}).
+ */
+@ConfigurationProperties(prefix = "audit.async")
+public class AuditProperties {
+
+    /**
+     * What to do with an event when the in-memory queue is full.
+     */
+    public enum Overflow {
+        /** Wait up to {@code block-timeout} for space, then drop. */
+        BLOCK,
+        /** Drop the event and count it ({@code audit.events.dropped}). */
+        DROP,
+        /** Append the event to an NDJSON file under {@code spill-dir}. */
+        SPILL
+    }
+
+    /**
+     * {@code false} keeps the synchronous JPA save in the caller's transaction.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of events held in memory.
+     */
+    private int capacity = 10_000;
+
+    /**
+     * A batch is written as soon as it reaches this many events ...
+     */
+    private int batchSize = 200;
+
+    /**
+     * ... or this long after its first event arrived, whichever comes first.
+     */
+    private Duration flushInterval = Duration.ofMillis(500);
+
+    private Overflow overflow = Overflow.SPILL;
+
+    /**
+     * Attempts per insert when the database reports a transient failure (connection loss, timeout, lock).
+     */
+    private int retryAttempts = 3;
+
+    /**
+     * Wait before the first retry; doubled for each further attempt.
+     */
+    private Duration retryBackoff = Duration.ofMillis(200);
+
+    /**
+     * Upper bound on how long a caller waits for queue space with {@link Overflow#BLOCK}.
+     */
+    private Duration blockTimeout = Duration.ofMillis(100);
+
+    /**
+     * Directory for {@link Overflow#SPILL} files; events that fail to insert are spilled there as well.
+     */
+    private String spillDir = "var/audit-spill";
+
+    /**
+     * How long shutdown waits for the queue to drain before spilling (or dropping) the rest.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public Overflow getOverflow() {
+        return overflow;
+    }
+
+    public void setOverflow(Overflow overflow) {
+        this.overflow = overflow;
+    }
+
+    public int getRetryAttempts() {
+        return retryAttempts;
+    }
+
+    public void setRetryAttempts(int retryAttempts) {
+        this.retryAttempts = retryAttempts;
+    }
+
+    public Duration getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    public void setRetryBackoff(Duration retryBackoff) {
+        this.retryBackoff = retryBackoff;
+    }
+
+    public Duration getBlockTimeout() {
+        return blockTimeout;
+    }
+
+    public void setBlockTimeout(Duration blockTimeout) {
+        this.blockTimeout = blockTimeout;
+    }
+
+    public String getSpillDir() {
+        return spillDir;
+    }
+
+    public void setSpillDir(String spillDir) {
+        this.spillDir = spillDir;
+    }
+
+    public Duration getShutdownTimeout() {
+        return shutdownTimeout;
+    }
+
+    public void setShutdownTimeout(Duration shutdownTimeout) {
+        this.shutdownTimeout = shutdownTimeout;
+    }
+}
@@ -0,0 +1,234 @@
+package com.hamas.reviewtrust.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hamas.reviewtrust.common.web.ApiErrorCodes;
+import com.hamas.reviewtrust.common.web.Bulkhead;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission control for expensive public endpoints (score recompute, browser launches, unbounded review
+ * streams). Each configured class ({@code bulkhead.classes.*}) gets its own {@link Bulkhead}; a request that
+ * finds its class full waits at most {@code max-wait} and is otherwise answered with
+ * {@code 503 + Retry-After} before it takes a DB connection. Requests that match no class are not touched,
+ * so cheap reads keep their threads and connections while an expensive class is saturated.
+ *
+ * <p>A pattern may end in query conditions so that only the expensive mode of an endpoint is admitted
+ * through the class: {@code ?refresh=true} requires the parameter to have that value (case-insensitive),
+ * {@code ?!limit} requires it to be absent or blank; several are joined with {@code &}. The cheap modes of
+ * the same path (cache hits, keyset pages) then bypass the filter.</p>
+ *
+ * <p>Runs after the security chain so that rejections still carry CORS headers. For async requests
+ * (StreamingResponseBody) the slot is held until the async request completes, not until the first dispatch
+ * returns.</p>
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 10)
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkheadFilter.class);
+
+    private final List<Route> routes = new ArrayList<>();
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final ObjectMapper objectMapper;
+
+    public BulkheadFilter(BulkheadProperties properties,
+                          ObjectMapper objectMapper,
+                          ObjectProvider<MeterRegistry> meterRegistry) {
+        this.objectMapper = objectMapper;
+        if (!properties.isEnabled()) {
+            return;
+        }
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        for (Map.Entry<String, BulkheadProperties.Spec> entry : properties.getClasses().entrySet()) {
+            BulkheadProperties.Spec spec = entry.getValue();
+            Bulkhead bulkhead = new Bulkhead(entry.getKey(), spec.getMaxConcurrent(), spec.getMaxQueue(),
+                    spec.getMaxWait(), registry);
+            Duration retryAfter = spec.getRetryAfter() != null ? spec.getRetryAfter() : properties.getRetryAfter();
+            // Retry-After は秒単位（切り上げ、最低 1 秒）
+            long retryAfterSeconds = Math.max(1L, (retryAfter.toMillis() + 999L) / 1000L);
+            for (String pattern : spec.getPatterns()) {
+                routes.add(Route.parse(pattern, bulkhead, retryAfterSeconds));
+            }
+            log.info("[bulkhead] {} maxConcurrent={} maxQueue={} maxWait={} patterns={}", entry.getKey(),
+                    spec.getMaxConcurrent(), spec.getMaxQueue(), spec.getMaxWait(), spec.getPatterns());
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return routes.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        Route route = match(request);
+        if (route == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Bulkhead bulkhead = route.bulkhead();
+        Bulkhead.Outcome outcome = bulkhead.tryEnter();
+        if (!outcome.admitted()) {
+            reject(response, route, outcome);
+            return;
+        }
+        boolean releasedLater = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // 非同期処理が終わるまで枠を保持する（最初のディスパッチが戻った時点では解放しない）
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(bulkhead));
+                releasedLater = true;
+            }
+        } finally {
+            if (!releasedLater) {
+                bulkhead.exit();
+            }
+        }
+    }
+
+    private Route match(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+        for (Route route : routes) {
+            if ((route.method() == null || route.method().equals(method)) && matcher.match(route.pattern(), path)
+                    && route.paramsMatch(request)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, Route route, Bulkhead.Outcome outcome) throws IOException {
+        log.debug("[bulkhead] {} rejected ({}) active={} queued={}", route.bulkhead().name(), outcome,
+                route.bulkhead().active(), route.bulkhead().queued());
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(route.retryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of("error", Map.of(
+                "code", ApiErrorCodes.E_OVERLOADED.name(),
+                "message", "Too many concurrent requests; retry later")));
+    }
+
+    private record Route(String method, String pattern, List<ParamCondition> params,
+                         Bulkhead bulkhead, long retryAfterSeconds) {
+
+        static Route parse(String raw, Bulkhead bulkhead, long retryAfterSeconds) {
+            String s = raw.trim();
+            String method = null;
+            int space = s.indexOf(' ');
+            if (space > 0) {
+                method = s.substring(0, space).toUpperCase(Locale.ROOT);
+                s = s.substring(space + 1).trim();
+            }
+            List<ParamCondition> params = new ArrayList<>();
+            int question = s.indexOf('?');
+            if (question >= 0) {
+                for (String part : s.substring(question + 1).split("&")) {
+                    if (!part.isBlank()) {
+                        params.add(ParamCondition.parse(part.trim()));
+                    }
+                }
+                s = s.substring(0, question).trim();
+            }
+            return new Route(method, s, List.copyOf(params), bulkhead, retryAfterSeconds);
+        }
+
+        boolean paramsMatch(HttpServletRequest request) {
+            for (ParamCondition condition : params) {
+                if (!condition.matches(request.getParameter(condition.name()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /** {@code name=value}（値一致）または {@code !name}（未指定・空） */
+    private record ParamCondition(String name, String value) {
+
+        static ParamCondition parse(String raw) {
+            if (raw.startsWith("!")) {
+                return new ParamCondition(raw.substring(1).trim(), null);
+            }
+            int eq = raw.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("bulkhead query condition must be name=value or !name: " + raw);
+            }
+            return new ParamCondition(raw.substring(0, eq).trim(), raw.substring(eq + 1).trim());
+        }
+
+        boolean matches(String actual) {
+            if (value == null) {
+                return actual == null || actual.isBlank();
+            }
+            return actual != null && value.equalsIgnoreCase(actual.trim());
+        }
+    }
+
+    /** onTimeout/onError の後にも onComplete が来るので、解放は 1 回だけにする */
+    private static final class ReleaseOnCompletion implements AsyncListener {
+        private final Bulkhead bulkhead;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnCompletion(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.exit();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
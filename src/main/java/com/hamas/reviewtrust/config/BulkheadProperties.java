@@ -0,0 +1,119 @@
+package com.hamas.reviewtrust.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-endpoint-class concurrency limits applied by {@link BulkheadFilter}.
+ */
+@ConfigurationProperties(prefix = "bulkhead")
+public class BulkheadProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Default {@code Retry-After} sent with a 503 rejection.
+     */
+    private Duration retryAfter = Duration.ofSeconds(2);
+
+    /**
+     * Endpoint classes by name (the name is the {@code bulkhead} metric tag).
+     */
+    private Map<String, Spec> classes = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    public Map<String, Spec> getClasses() {
+        return classes;
+    }
+
+    public void setClasses(Map<String, Spec> classes) {
+        this.classes = classes;
+    }
+
+    public static class Spec {
+
+        /**
+         * Ant-style path patterns, optionally prefixed by an HTTP method and followed by query conditions, e.g.
+         * {@code "GET /api/public/v1/scrape/preview/**"} or <code>"GET /api/products/&#42;/scores?refresh=true"</code>.
+         */
+        private List<String> patterns = new ArrayList<>();
+
+        /**
+         * Per instance. Classes that hold a DB connection for the whole request should together stay well
+         * below {@code spring.datasource.hikari.maximum-pool-size}.
+         */
+        private int maxConcurrent = 2;
+
+        /**
+         * Requests allowed to wait for a slot; 0 rejects as soon as the class is full.
+         */
+        private int maxQueue = 0;
+
+        private Duration maxWait = Duration.ofMillis(200);
+
+        /**
+         * Overrides {@link BulkheadProperties#getRetryAfter()} for this class.
+         */
+        private Duration retryAfter;
+
+        public List<String> getPatterns() {
+            return patterns;
+        }
+
+        public void setPatterns(List<String> patterns) {
+            this.patterns = patterns;
+        }
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getMaxQueue() {
+            return maxQueue;
+        }
+
+        public void setMaxQueue(int maxQueue) {
+            this.maxQueue = maxQueue;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+
+        public void setRetryAfter(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+        }
+    }
+}
@@ -16,6 +16,11 @@ public class IntakeProperties {
      */
     private String dirs = "delivery/proof/adhoc,delivery/review-inbox";
 
+    /**
+     * Number of files ingested concurrently. 1 keeps the sequential behaviour.
+     */
+    private int workers = 1;
+
     public List<String> dirList() {
         return Arrays.stream(dirs.split(","))
                 .map(String::trim)
@@ -30,5 +35,13 @@ public class IntakeProperties {
     public void setDirs(String dirs) {
         this.dirs = dirs;
     }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
 }
 
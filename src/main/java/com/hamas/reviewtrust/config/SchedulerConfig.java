@@ -1,16 +1,26 @@
 package com.hamas.reviewtrust.config;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 /**
- * 最小限のスケジューラ設定。setTaskDecorator(...) は使用しない。
+ * 最小限のスケジューラ設定。スケジューラには setTaskDecorator(...) は使用しない。
+ * spring.threads.virtual.enabled=true のときは仮想スレッドで実行するスケジューラに切り替える。
+ * 起動後のバックフィルや設定ファイル監視などの常駐処理は backgroundTaskExecutor で動かす。
  */
 @Configuration
 public class SchedulerConfig {
 
-    @Bean
+    @Bean(name = "taskScheduler")
+    @ConditionalOnThreading(Threading.PLATFORM)
     public ThreadPoolTaskScheduler taskScheduler() {
         ThreadPoolTaskScheduler ts = new ThreadPoolTaskScheduler();
         ts.setPoolSize(2);
@@ -20,4 +30,31 @@ public class SchedulerConfig {
         ts.initialize();
         return ts;
     }
+
+    /** タイマーは単一スレッド、各タスクは新しい仮想スレッドで実行される */
+    @Bean(name = "taskScheduler")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskScheduler virtualTaskScheduler() {
+        SimpleAsyncTaskScheduler ts = new SimpleAsyncTaskScheduler();
+        ts.setVirtualThreads(true);
+        ts.setThreadNamePrefix("sched-");
+        ts.setTaskTerminationTimeout(30_000L);
+        return ts;
+    }
+
+    /**
+     * 起動後バックフィル・ファイル監視など、リクエストに紐づかない長めのバックグラウンド処理用。
+     * MDC は mdcTaskDecorator（LoggingConfig）で引き継ぐ。コンテキスト停止時の close() で実行中の
+     * タスクへ割り込み、最大 10 秒終了を待つ（各タスクは割り込み/停止フラグを見て抜けること）。
+     */
+    @Bean(name = "backgroundTaskExecutor")
+    public SimpleAsyncTaskExecutor backgroundTaskExecutor(ObjectProvider<TaskDecorator> taskDecorator,
+                                                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("bg-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.setDaemon(true);
+        executor.setTaskTerminationTimeout(10_000L);
+        taskDecorator.ifAvailable(executor::setTaskDecorator);
+        return executor;
+    }
 }
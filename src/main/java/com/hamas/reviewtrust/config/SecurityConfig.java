@@ -80,6 +80,8 @@ public class SecurityConfig {
                 .requestMatchers("/api/admin/local-intake/**", "/admin/intake-review/**", "/favicon.ico").permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/admin/login").permitAll()
                 .requestMatchers("/api/admin/whoami").authenticated()
+                // 参照系の一括取得（POST だが書き込みなし）
+                .requestMatchers(HttpMethod.POST, "/api/products/scores:batch").permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/products/**").hasRole("ADMIN")
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .anyRequest().permitAll()
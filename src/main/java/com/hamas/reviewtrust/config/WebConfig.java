@@ -13,6 +13,8 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOrigins("http://localhost:4173")
                 .allowedMethods("*")
                 .allowedHeaders("*")
+                .exposedHeaders("X-Next-Cursor", "X-Next-Cursor-Amazon", "X-Next-Cursor-User",
+                        "X-Total-Count", "X-Total-Count-Estimated", "Retry-After")
                 .allowCredentials(true);
     }
 }
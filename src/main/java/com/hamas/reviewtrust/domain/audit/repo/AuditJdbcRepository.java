@@ -0,0 +1,66 @@
+package com.hamas.reviewtrust.domain.audit.repo;
+
+import com.hamas.reviewtrust.domain.audit.entity.AuditLog;
+import com.hamas.reviewtrust.domain.audit.entity.ExceptionLog;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Multi-row inserts for audit and exception logs (one JDBC batch per call), used by the asynchronous
+ * writer instead of one JPA {@code save} per event. Ids and timestamps are assigned by the caller; an id that
+ * is already stored is skipped, so the writer may retry a batch whose outcome it could not observe.
+ */
+@Repository
+public class AuditJdbcRepository {
+
+    private static final String INSERT_AUDIT = """
+            INSERT INTO public.audit_logs (id, actor_id, action, target_type, target_id, meta, created_at)
+            VALUES (?, ?, ?, ?, ?, CAST(? AS jsonb), ?)
+            ON CONFLICT (id) DO NOTHING
+            """;
+
+    private static final String INSERT_EXCEPTION = """
+            INSERT INTO public.exception_logs (id, job_id, scope, error_code, message, stack, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (id) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public AuditJdbcRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public void insertAuditLogs(List<AuditLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        jdbc.batchUpdate(INSERT_AUDIT, logs, logs.size(), (ps, a) -> {
+            ps.setObject(1, a.getId());
+            ps.setObject(2, a.getActorId());
+            ps.setString(3, a.getAction());
+            ps.setString(4, a.getTargetType());
+            ps.setObject(5, a.getTargetId());
+            ps.setString(6, a.getMetaJson());
+            ps.setTimestamp(7, Timestamp.from(a.getCreatedAt()));
+        });
+    }
+
+    public void insertExceptionLogs(List<ExceptionLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        jdbc.batchUpdate(INSERT_EXCEPTION, logs, logs.size(), (ps, e) -> {
+            ps.setObject(1, e.getId());
+            ps.setObject(2, e.getJobId());
+            ps.setString(3, e.getScope());
+            ps.setString(4, e.getErrorCode());
+            ps.setString(5, e.getMessage());
+            ps.setString(6, e.getStack());
+            ps.setTimestamp(7, Timestamp.from(e.getCreatedAt()));
+        });
+    }
+}
@@ -0,0 +1,377 @@
+package com.hamas.reviewtrust.domain.audit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hamas.reviewtrust.config.AuditProperties;
+import com.hamas.reviewtrust.domain.audit.entity.AuditLog;
+import com.hamas.reviewtrust.domain.audit.entity.ExceptionLog;
+import com.hamas.reviewtrust.domain.audit.repo.AuditJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Bounded in-memory queue of audit / exception log events drained by a single writer thread in JDBC
+ * batches, so request threads never wait on audit I/O.
+ *
+ * <p>A batch is written when it reaches {@code audit.async.batch-size} events or {@code flush-interval}
+ * after its first event, whichever comes first. When the queue is full the configured
+ * {@link AuditProperties.Overflow} applies. Audit and exception rows are inserted separately; a transient
+ * database failure is retried up to {@code retry-attempts} times with doubling {@code retry-backoff}, and a
+ * batch rejected for any other reason is inserted again row by row so that only the offending rows are lost.
+ * Events that still fail are spilled to {@code spill-dir} (NDJSON, one file per UTC day) when that policy is
+ * {@code SPILL}, otherwise dropped and counted. Shutdown drains the queue for up to
+ * {@code shutdown-timeout}.</p>
+ *
+ * <p>Meters: gauge {@code audit.queue.depth}, counters {@code audit.events.dropped{reason}} /
+ * {@code audit.events.spilled} / {@code audit.events.written}, timer {@code audit.batch.write}.</p>
+ */
+@Component
+public class AuditLogWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLogWriter.class);
+    private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE;
+    /** 停止時に poll 待ちの writer を起こすための番兵（書き込み対象外） */
+    private static final Object WAKE = new Object();
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final AuditJdbcRepository repo;
+    private final AuditProperties props;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<Object> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final int retryAttempts;
+    private final long retryBackoffNanos;
+    private final ReentrantLock spillLock = new ReentrantLock();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    private final Counter droppedQueueFull;
+    private final Counter droppedWriteFailed;
+    private final Counter droppedShutdown;
+    private final Counter spilled;
+    private final Counter written;
+    private final Timer batchWrite;
+
+    @Autowired
+    public AuditLogWriter(AuditJdbcRepository repo,
+                          AuditProperties props,
+                          ObjectMapper objectMapper,
+                          ObjectProvider<MeterRegistry> meterRegistry) {
+        this(repo, props, objectMapper, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    AuditLogWriter(AuditJdbcRepository repo, AuditProperties props, ObjectMapper objectMapper,
+                   MeterRegistry registry) {
+        this.repo = repo;
+        this.props = props;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, props.getCapacity()));
+        this.batchSize = Math.max(1, props.getBatchSize());
+        this.flushIntervalNanos = Math.max(1L, props.getFlushInterval().toNanos());
+        this.retryAttempts = Math.max(1, props.getRetryAttempts());
+        this.retryBackoffNanos = Math.max(0L, props.getRetryBackoff().toNanos());
+
+        Gauge.builder("audit.queue.depth", queue, BlockingQueue::size)
+                .description("Audit events waiting to be written")
+                .register(registry);
+        this.droppedQueueFull = Counter.builder("audit.events.dropped").tag("reason", "queue_full").register(registry);
+        this.droppedWriteFailed = Counter.builder("audit.events.dropped").tag("reason", "write_failed").register(registry);
+        this.droppedShutdown = Counter.builder("audit.events.dropped").tag("reason", "shutdown").register(registry);
+        this.spilled = Counter.builder("audit.events.spilled").register(registry);
+        this.written = Counter.builder("audit.events.written").register(registry);
+        this.batchWrite = Timer.builder("audit.batch.write")
+                .description("Time spent inserting one batch of audit events")
+                .register(registry);
+
+        // 非同期無効時はスレッドを起こさない（AuditService が同期 save する）
+        if (props.isEnabled()) {
+            this.worker = Thread.ofPlatform().name("audit-writer").daemon().unstarted(this::drainLoop);
+            this.worker.start();
+        } else {
+            this.worker = null;
+        }
+    }
+
+    public boolean enabled() {
+        return worker != null;
+    }
+
+    public void submit(AuditLog event) {
+        enqueue(event);
+    }
+
+    public void submit(ExceptionLog event) {
+        enqueue(event);
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    private void enqueue(Object event) {
+        if (!running) {
+            // 停止処理中に来たものは待たずに退避（または破棄）
+            overflow(List.of(event), droppedShutdown);
+            return;
+        }
+        if (queue.offer(event)) {
+            return;
+        }
+        switch (props.getOverflow()) {
+            case BLOCK -> {
+                try {
+                    if (queue.offer(event, props.getBlockTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                droppedQueueFull.increment();
+                log.debug("[audit] queue full; dropped {}", describe(event));
+            }
+            case SPILL -> spill(List.of(event), droppedQueueFull);
+            default -> {
+                droppedQueueFull.increment();
+                log.debug("[audit] queue full; dropped {}", describe(event));
+            }
+        }
+    }
+
+    private void drainLoop() {
+        List<Object> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Object first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null || first == WAKE) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0L || !running) {
+                        break;
+                    }
+                    Object next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null || next == WAKE) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // 停止要求。手元の分を書いてからループ条件で抜ける
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    void write(List<Object> batch) {
+        List<AuditLog> audits = new ArrayList<>(batch.size());
+        List<ExceptionLog> exceptions = new ArrayList<>();
+        for (Object event : batch) {
+            if (event instanceof AuditLog a) {
+                audits.add(a);
+            } else if (event instanceof ExceptionLog e) {
+                exceptions.add(e);
+            }
+        }
+        long started = System.nanoTime();
+        try {
+            // 種別ごとに書く（片方の失敗でもう片方を退避・再投入しない）
+            insert(audits, repo::insertAuditLogs);
+            insert(exceptions, repo::insertExceptionLogs);
+        } finally {
+            batchWrite.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private <T> void insert(List<T> events, Consumer<List<T>> inserter) {
+        if (events.isEmpty()) {
+            return;
+        }
+        RuntimeException failure = insertWithRetry(events, inserter);
+        if (failure == null) {
+            written.increment(events.size());
+            return;
+        }
+        if (isTransient(failure) || events.size() == 1) {
+            // DB 停止などは 1 行ずつ試しても同じなので、まとめて退避
+            log.warn("[audit] insert failed size={} cause={}", events.size(), failure.toString());
+            overflow(events, droppedWriteFailed);
+            return;
+        }
+        log.warn("[audit] batch insert rejected size={} cause={}; retrying row by row", events.size(),
+                failure.toString());
+        for (T event : events) {
+            RuntimeException rowFailure = insertWithRetry(List.of(event), inserter);
+            if (rowFailure == null) {
+                written.increment();
+            } else {
+                log.warn("[audit] insert failed for {}: {}", describe(event), rowFailure.toString());
+                overflow(List.of(event), droppedWriteFailed);
+            }
+        }
+    }
+
+    /** @return {@code null} on success, otherwise the last failure */
+    private <T> RuntimeException insertWithRetry(List<T> events, Consumer<List<T>> inserter) {
+        long backoff = retryBackoffNanos;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                inserter.accept(events);
+                return null;
+            } catch (RuntimeException e) {
+                if (!isTransient(e) || attempt >= retryAttempts) {
+                    return e;
+                }
+                log.debug("[audit] transient insert failure (attempt {}/{}): {}", attempt, retryAttempts,
+                        e.toString());
+                try {
+                    TimeUnit.NANOSECONDS.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    // 停止要求。ここで諦めて呼び出し側に退避させる
+                    Thread.currentThread().interrupt();
+                    return e;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+            }
+        }
+    }
+
+    /** 接続断・タイムアウト・ロック競合など、同じ文を再実行すれば通りうる失敗 */
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException;
+    }
+
+    /** SPILL 設定ならファイルへ、それ以外は破棄してカウント */
+    private void overflow(Collection<?> events, Counter dropped) {
+        if (props.getOverflow() == AuditProperties.Overflow.SPILL) {
+            spill(events, dropped);
+        } else {
+            dropped.increment(events.size());
+        }
+    }
+
+    private void spill(Collection<?> events, Counter droppedOnFailure) {
+        Path dir = Paths.get(props.getSpillDir());
+        Path file = dir.resolve("audit-spill-" + LocalDate.now(ZoneOffset.UTC).format(DAY) + ".ndjson");
+        spillLock.lock();
+        try {
+            Files.createDirectories(dir);
+            try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (Object event : events) {
+                    w.write(objectMapper.writeValueAsString(toRecord(event)));
+                    w.newLine();
+                }
+            }
+            spilled.increment(events.size());
+        } catch (IOException e) {
+            log.warn("[audit] spill to {} failed; dropped {} event(s): {}", file, events.size(), e.toString());
+            droppedOnFailure.increment(events.size());
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    private static Map<String, Object> toRecord(Object event) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        if (event instanceof AuditLog a) {
+            m.put("kind", "audit");
+            m.put("id", a.getId());
+            m.put("actorId", a.getActorId());
+            m.put("action", a.getAction());
+            m.put("targetType", a.getTargetType());
+            m.put("targetId", a.getTargetId());
+            m.put("meta", a.getMetaJson());
+            m.put("createdAt", String.valueOf(a.getCreatedAt()));
+        } else if (event instanceof ExceptionLog e) {
+            m.put("kind", "exception");
+            m.put("id", e.getId());
+            m.put("jobId", e.getJobId());
+            m.put("scope", e.getScope());
+            m.put("errorCode", e.getErrorCode());
+            m.put("message", e.getMessage());
+            m.put("stack", e.getStack());
+            m.put("createdAt", String.valueOf(e.getCreatedAt()));
+        }
+        return m;
+    }
+
+    private static String describe(Object event) {
+        if (event instanceof AuditLog a) {
+            return "audit " + a.getAction() + " " + a.getTargetType() + "/" + a.getTargetId();
+        }
+        if (event instanceof ExceptionLog e) {
+            return "exception " + e.getScope() + " " + e.getErrorCode();
+        }
+        return String.valueOf(event);
+    }
+
+    /** 受付を止め、残りを書き切る。時間内に終わらなければ残りは退避（または破棄） */
+    @PreDestroy
+    public void shutdown() {
+        if (worker == null) {
+            return;
+        }
+        running = false;
+        queue.offer(WAKE); // 満杯なら writer は poll で待っていない
+        try {
+            worker.join(props.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            worker.interrupt();
+        }
+        List<Object> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        rest.remove(WAKE);
+        if (!rest.isEmpty()) {
+            log.warn("[audit] shutdown timed out with {} event(s) pending", rest.size());
+            overflow(rest, droppedShutdown);
+        }
+    }
+}
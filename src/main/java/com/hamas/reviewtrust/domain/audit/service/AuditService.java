@@ -7,40 +7,55 @@ import com.hamas.reviewtrust.domain.audit.repo.ExceptionLogRepository;
 import org.slf4j.MDC;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * 監査ログ・例外ログの記録と参照。
+ *
+ * <p>{@code audit.async.enabled=true}（既定）では記録は {@link AuditLogWriter} のキューに積むだけで、DB 書き込みは
+ * 別スレッドがまとめて行う（呼び出し側の遅延に監査 I/O を含めない・監査の失敗で業務処理を失敗させない）。
+ * 変更ログは呼び出し元トランザクションのコミット後に積むので、ロールバックされた操作は記録されない。
+ * 例外ログは失敗時にこそ必要なので即時に積む。返す entity は id / createdAt 確定済みだが未永続化の場合がある。</p>
+ */
 @Service
 public class AuditService {
 
     private final AuditLogRepository auditRepo;
     private final ExceptionLogRepository exRepo;
+    private final AuditLogWriter writer;
 
-    public AuditService(AuditLogRepository auditRepo, ExceptionLogRepository exRepo) {
+    public AuditService(AuditLogRepository auditRepo, ExceptionLogRepository exRepo, AuditLogWriter writer) {
         this.auditRepo = auditRepo;
         this.exRepo = exRepo;
+        this.writer = writer;
     }
 
     /** 変更ログの記録（承認/非承認・表示切替・再取得など） */
-    @Transactional
     public AuditLog recordAction(UUID actorId, String action, String targetType, UUID targetId, String metaJson) {
-        return auditRepo.save(AuditLog.of(actorId, action, targetType, targetId, metaJson));
+        AuditLog log = AuditLog.of(actorId, action, targetType, targetId, metaJson);
+        if (!writer.enabled()) {
+            return auditRepo.save(log);
+        }
+        log.onCreate(); // 記録時刻はキュー投入時点で確定させる
+        afterCommit(() -> writer.submit(log));
+        return log;
     }
 
     /** 例外ログの記録（任意メッセージ・スタックトレース付き） */
-    @Transactional
     public ExceptionLog recordException(String scope, String errorCode, String message, String stack, UUID jobId) {
-        return exRepo.save(ExceptionLog.of(scope, errorCode, messageWithRid(message), stack, jobId));
+        return saveException(ExceptionLog.of(scope, errorCode, messageWithRid(message), stack, jobId));
     }
 
     /** 例外ログの記録（Throwable から自動整形） */
-    @Transactional
     public ExceptionLog recordException(String scope, String errorCode, Throwable t, UUID jobId) {
         String msg = (t.getMessage() != null) ? t.getMessage() : t.getClass().getName();
-        return exRepo.save(ExceptionLog.of(scope, errorCode, messageWithRid(msg), toStackTrace(t), jobId));
+        return saveException(ExceptionLog.of(scope, errorCode, messageWithRid(msg), toStackTrace(t), jobId));
     }
 
     /** 直近の監査ログ（最大100件） */
@@ -55,6 +70,29 @@ public class AuditService {
         return exRepo.findTop100ByOrderByCreatedAtDesc();
     }
 
+    private ExceptionLog saveException(ExceptionLog log) {
+        if (!writer.enabled()) {
+            return exRepo.save(log);
+        }
+        log.onCreate();
+        writer.submit(log);
+        return log;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     private String messageWithRid(String msg) {
         String rid = MDC.get("requestId");
         return (rid == null || rid.isBlank()) ? msg : "[rid=" + rid + "] " + msg;
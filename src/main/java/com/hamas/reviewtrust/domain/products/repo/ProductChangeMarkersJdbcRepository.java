@@ -0,0 +1,128 @@
+package com.hamas.reviewtrust.domain.products.repo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Persisted change markers of a product, used as HTTP validators by the public API. One statement made of
+ * primary-key and index lookups only (V071); no review, score or snapshot payload is read.
+ *
+ * <p>Review deletes do not move {@code max(reviews.updated_at)}, so the review count and last update of the
+ * trigger-maintained aggregates (V066) are included as well.</p>
+ */
+@Repository
+public class ProductChangeMarkersJdbcRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeMarkersJdbcRepository.class);
+
+    private static final String SELECT = """
+            SELECT p.id,
+                   p.updated_at,
+                   (SELECT r.updated_at
+                      FROM public.reviews r
+                     WHERE r.product_id = p.id
+                     ORDER BY r.updated_at DESC
+                     LIMIT 1) AS reviews_updated_at,
+                   (SELECT COALESCE(sum(a.review_count), 0)
+                      FROM public.product_score_aggregates a
+                     WHERE a.product_id = p.id) AS review_count,
+                   (SELECT max(a.updated_at)
+                      FROM public.product_score_aggregates a
+                     WHERE a.product_id = p.id) AS aggregates_updated_at,
+                   (SELECT s.computed_at
+                      FROM public.review_scores s
+                     WHERE s.product_id = p.id AND s.source = 'AMAZON') AS engine_score_at,
+                   (SELECT s.computed_at
+                      FROM public.review_scores s
+                     WHERE s.product_id = p.id AND s.source = 'SITE') AS site_score_at,
+                   (SELECT ps.id
+                      FROM public.product_snapshots ps
+                     WHERE ps.product_id = p.id
+                     ORDER BY ps.created_at DESC
+                     LIMIT 1) AS snapshot_id,
+                   (SELECT ps.created_at
+                      FROM public.product_snapshots ps
+                     WHERE ps.product_id = p.id
+                     ORDER BY ps.created_at DESC
+                     LIMIT 1) AS snapshot_at
+              FROM public.products p
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public ProductChangeMarkersJdbcRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** @return markers, or empty when the product does not exist or the markers are unavailable */
+    public Optional<ChangeMarkers> findById(UUID productId) {
+        if (productId == null) {
+            return Optional.empty();
+        }
+        return query(SELECT + " WHERE p.id = ?", productId);
+    }
+
+    /** ASIN lookup on the unique {@code products.asin} index (ASINs are stored upper-case). */
+    public Optional<ChangeMarkers> findByAsin(String asin) {
+        if (asin == null || asin.isBlank()) {
+            return Optional.empty();
+        }
+        return query(SELECT + " WHERE p.asin = ?", asin.trim().toUpperCase(Locale.ROOT));
+    }
+
+    private Optional<ChangeMarkers> query(String sql, Object key) {
+        try {
+            List<ChangeMarkers> rows = jdbc.query(sql, MAPPER, key);
+            return rows.stream().findFirst();
+        } catch (DataAccessException e) {
+            // 集計テーブルが無い環境（H2 など）では条件付き GET を使わず通常応答にする
+            log.debug("[change-markers] unavailable for key={}: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static final RowMapper<ChangeMarkers> MAPPER = (rs, i) -> new ChangeMarkers(
+            rs.getObject("id", UUID.class),
+            instant(rs.getTimestamp("updated_at")),
+            instant(rs.getTimestamp("reviews_updated_at")),
+            rs.getLong("review_count"),
+            instant(rs.getTimestamp("aggregates_updated_at")),
+            instant(rs.getTimestamp("engine_score_at")),
+            instant(rs.getTimestamp("site_score_at")),
+            rs.getObject("snapshot_id", UUID.class),
+            instant(rs.getTimestamp("snapshot_at")));
+
+    private static Instant instant(Timestamp ts) {
+        return ts != null ? ts.toInstant() : null;
+    }
+
+    /**
+     * @param reviewsUpdatedAt    latest {@code reviews.updated_at} of the product
+     * @param reviewCount         review count over all sources (aggregates)
+     * @param aggregatesUpdatedAt moves on review inserts and deletes
+     * @param engineScoreAt       {@code review_scores.computed_at} of the AMAZON (engine) score
+     * @param siteScoreAt         {@code review_scores.computed_at} of the SITE score
+     * @param snapshotId          latest product snapshot
+     */
+    public record ChangeMarkers(UUID productId,
+                                Instant productUpdatedAt,
+                                Instant reviewsUpdatedAt,
+                                long reviewCount,
+                                Instant aggregatesUpdatedAt,
+                                Instant engineScoreAt,
+                                Instant siteScoreAt,
+                                UUID snapshotId,
+                                Instant snapshotAt) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.hamas.reviewtrust.domain.products.repo;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Resolves many product ids / ASINs to {@code (id, asin)} pairs in one statement, for bulk endpoints that
+ * must not resolve one product at a time.
+ */
+@Repository
+public class ProductKeyJdbcRepository {
+
+    // ASIN は大文字で保存されている（ProductService#register / ProductIntakeService、既存行は V078）ので、
+    // 入力側を大文字化して一意インデックスを使う
+    private static final String SELECT = """
+            SELECT id, asin
+              FROM public.products
+             WHERE id = ANY(?) OR asin = ANY(?)
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public ProductKeyJdbcRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** @return one row per product matching any of the ids or ASINs (unordered) */
+    public List<ProductKey> findByIdsOrAsins(Collection<UUID> ids, Collection<String> asins) {
+        if (ids.isEmpty() && asins.isEmpty()) {
+            return List.of();
+        }
+        Object[] idArray = ids.stream().filter(Objects::nonNull).toArray();
+        Object[] asinArray = asins.stream()
+                .filter(Objects::nonNull)
+                .map(a -> a.trim().toUpperCase(Locale.ROOT))
+                .toArray();
+        return jdbc.query(SELECT,
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("uuid", idArray));
+                    ps.setArray(2, ps.getConnection().createArrayOf("varchar", asinArray));
+                },
+                (rs, i) -> new ProductKey(rs.getObject("id", UUID.class), rs.getString("asin")));
+    }
+
+    public record ProductKey(UUID id, String asin) {
+    }
+}
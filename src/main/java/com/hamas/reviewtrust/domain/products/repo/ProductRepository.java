@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.*;
 
 public interface ProductRepository extends JpaRepository<Product, UUID> {
@@ -17,6 +18,7 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
 
     List<Product> findTop100ByVisibleTrueOrderByUpdatedAtDesc();
 
+    /** Pass {@code Pageable.unpaged()} for every row, or {@code PageRequest.of(0, n)} to push the limit into SQL. */
     @Query("""
         select p from Product p
         where (:visible is null or p.visible = :visible)
@@ -24,7 +26,7 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
                or upper(p.asin) like upper(concat('%', :q, '%')))
         order by p.updatedAt desc
         """)
-    List<Product> search(@Param("q") String q, @Param("visible") Boolean visible);
+    List<Product> search(@Param("q") String q, @Param("visible") Boolean visible, Pageable limit);
 
     @Query("""
         select p from Product p
@@ -44,5 +46,70 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
                                 @Param("asinQuery") String asinQuery,
                                 @Param("tag") String tag,
                                 Pageable pageable);
-}
 
+    /**
+     * Keyset listing: first page ordered by {@code (createdAt, id)} descending. Pass
+     * {@code PageRequest.of(0, limit + 1)} so no offset and no count query are issued.
+     */
+    @Query("""
+        select p from Product p
+        where (:visible is null or p.visible = :visible)
+          and (:titleQuery is null
+               or lower(p.title) like :titleQuery
+               or lower(p.name) like :titleQuery
+               or upper(p.asin) like :asinQuery)
+          and (:tag is null or exists (
+                select 1 from ProductTag pt
+                where pt.product = p
+                  and lower(pt.tag.name) = :tag
+          ))
+        order by p.createdAt desc, p.id desc
+        """)
+    List<Product> keysetFirst(@Param("visible") Boolean visible,
+                              @Param("titleQuery") String titleQuery,
+                              @Param("asinQuery") String asinQuery,
+                              @Param("tag") String tag,
+                              Pageable limit);
+
+    /** Keyset listing: rows strictly after the given {@code (createdAt, id)} key. */
+    @Query("""
+        select p from Product p
+        where (:visible is null or p.visible = :visible)
+          and (:titleQuery is null
+               or lower(p.title) like :titleQuery
+               or lower(p.name) like :titleQuery
+               or upper(p.asin) like :asinQuery)
+          and (:tag is null or exists (
+                select 1 from ProductTag pt
+                where pt.product = p
+                  and lower(pt.tag.name) = :tag
+          ))
+          and (p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id))
+        order by p.createdAt desc, p.id desc
+        """)
+    List<Product> keysetAfter(@Param("visible") Boolean visible,
+                              @Param("titleQuery") String titleQuery,
+                              @Param("asinQuery") String asinQuery,
+                              @Param("tag") String tag,
+                              @Param("createdAt") Instant createdAt,
+                              @Param("id") UUID id,
+                              Pageable limit);
+
+    @Query("""
+        select count(p) from Product p
+        where (:visible is null or p.visible = :visible)
+          and (:titleQuery is null
+               or lower(p.title) like :titleQuery
+               or lower(p.name) like :titleQuery
+               or upper(p.asin) like :asinQuery)
+          and (:tag is null or exists (
+                select 1 from ProductTag pt
+                where pt.product = p
+                  and lower(pt.tag.name) = :tag
+          ))
+        """)
+    long countListing(@Param("visible") Boolean visible,
+                      @Param("titleQuery") String titleQuery,
+                      @Param("asinQuery") String asinQuery,
+                      @Param("tag") String tag);
+}
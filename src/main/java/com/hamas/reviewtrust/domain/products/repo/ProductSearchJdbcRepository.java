@@ -0,0 +1,147 @@
+package com.hamas.reviewtrust.domain.products.repo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Keyword search over products backed by {@code pg_trgm} (V073): the generated {@code search_text} column
+ * (title, name, asin) carries a GIN trigram index that serves both the substring match and the fuzzy
+ * {@code <%} (word similarity) match, so latency does not grow with the catalog.
+ *
+ * <p>Ranking: exact ASIN, then substring hits, then {@code word_similarity}, then {@code updated_at}. Limit and
+ * offset are applied in SQL. Databases without the column or the extension (H2 in tests) report
+ * {@link #available()} = {@code false} and callers keep the JPQL {@code LIKE} queries of
+ * {@link ProductRepository}.</p>
+ */
+@Repository
+public class ProductSearchJdbcRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchJdbcRepository.class);
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final boolean enabled;
+    private volatile Boolean available;
+
+    public ProductSearchJdbcRepository(NamedParameterJdbcTemplate jdbc,
+                                       @Value("${products.search.trigram.enabled:true}") boolean enabled) {
+        this.jdbc = jdbc;
+        this.enabled = enabled;
+    }
+
+    /** {@code true} when the trigram column and extension exist (checked once). */
+    public boolean available() {
+        if (!enabled) {
+            return false;
+        }
+        Boolean a = available;
+        if (a == null) {
+            a = probe();
+            available = a;
+        }
+        return a;
+    }
+
+    /**
+     * @param query   raw keyword (trimmed, non-empty)
+     * @param tag     lower-cased tag name or {@code null}
+     * @param visible visibility filter or {@code null}
+     * @return matching product ids, best match first
+     */
+    public List<UUID> search(String query, String tag, Boolean visible, int limit, long offset) {
+        MapSqlParameterSource params = params(query, tag, visible)
+                .addValue("limit", limit)
+                .addValue("offset", offset);
+        String sql = """
+                SELECT p.id
+                  FROM public.products p
+                 WHERE %s
+                 ORDER BY (p.asin = :asin) DESC,
+                          (p.search_text LIKE :pattern ESCAPE '\\') DESC,
+                          word_similarity(:q, p.search_text) DESC,
+                          p.updated_at DESC,
+                          p.id DESC
+                 LIMIT :limit OFFSET :offset
+                """.formatted(where(tag, visible));
+        return jdbc.queryForList(sql, params, UUID.class);
+    }
+
+    /** Number of rows {@link #search} would page through. */
+    public long count(String query, String tag, Boolean visible) {
+        String sql = "SELECT count(*) FROM public.products p WHERE " + where(tag, visible);
+        Long n = jdbc.queryForObject(sql, params(query, tag, visible), Long.class);
+        return n != null ? n : 0L;
+    }
+
+    private static String where(String tag, Boolean visible) {
+        StringBuilder where = new StringBuilder(
+                "(p.search_text LIKE :pattern ESCAPE '\\' OR :q <% p.search_text)");
+        if (visible != null) {
+            where.append(" AND p.visible = :visible");
+        }
+        if (tag != null) {
+            where.append("""
+                     AND EXISTS (SELECT 1
+                                   FROM public.product_tags pt
+                                   JOIN public.tags t ON t.id = pt.tag_id
+                                  WHERE pt.product_id = p.id
+                                    AND lower(t.name) = :tag)""");
+        }
+        return where.toString();
+    }
+
+    private static MapSqlParameterSource params(String query, String tag, Boolean visible) {
+        String q = query.trim().toLowerCase(Locale.ROOT);
+        return new MapSqlParameterSource()
+                .addValue("q", q)
+                .addValue("pattern", "%" + escapeLike(q) + "%")
+                .addValue("asin", query.trim().toUpperCase(Locale.ROOT))
+                .addValue("visible", visible)
+                .addValue("tag", tag);
+    }
+
+    /** 入力中の % _ \ はワイルドカードではなく文字として扱う */
+    static String escapeLike(String s) {
+        StringBuilder out = new StringBuilder(s.length() + 4);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '%' || c == '_' || c == '\\') {
+                out.append('\\');
+            }
+            out.append(c);
+        }
+        return out.toString();
+    }
+
+    /**
+     * A failed probe (H2 has no {@code pg_extension}) counts as unavailable and is cached like any other result,
+     * so the fallback path does not pay for two failing queries on every search.
+     */
+    private boolean probe() {
+        try {
+            Integer column = jdbc.getJdbcTemplate().queryForObject("""
+                    SELECT count(*)
+                      FROM information_schema.columns
+                     WHERE table_schema = 'public'
+                       AND table_name = 'products'
+                       AND column_name = 'search_text'
+                    """, Integer.class);
+            Integer extension = jdbc.getJdbcTemplate().queryForObject(
+                    "SELECT count(*) FROM pg_extension WHERE extname = 'pg_trgm'", Integer.class);
+            boolean ok = column != null && column > 0 && extension != null && extension > 0;
+            log.info("[product-search] trigram search {}", ok ? "enabled" : "unavailable; using LIKE fallback");
+            return ok;
+        } catch (DataAccessException e) {
+            log.info("[product-search] trigram probe failed ({}); using LIKE fallback", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.Instant;
 import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
 
@@ -54,10 +55,11 @@ public class ProductIntakeService {
     @Transactional
     public Result registerOrUpdateFromHtml(String html, @Nullable String sourceUrl) {
         ProductPageSnapshot snapshot = parser.parse(html);
-        String asin = snapshot.getAsin();
-        if (!StringUtils.hasText(asin)) {
+        if (!StringUtils.hasText(snapshot.getAsin())) {
             throw new IllegalArgumentException("ASIN could not be extracted from HTML");
         }
+        // ASIN は大文字で保存する（ProductService#register と同じ。一括参照は asin = ANY(大文字) で一意インデックスを使う）
+        String asin = snapshot.getAsin().trim().toUpperCase(Locale.ROOT);
 
         String url = resolveUrl(sourceUrl, asin);
         String title = snapshot.getTitle();
@@ -1,8 +1,12 @@
 package com.hamas.reviewtrust.domain.products.service;
 
+import com.hamas.reviewtrust.common.paging.KeysetCursor;
+import com.hamas.reviewtrust.common.paging.KeysetPage;
+import com.hamas.reviewtrust.common.repository.TableStatsJdbcRepository;
 import com.hamas.reviewtrust.domain.products.dto.ProductListItem;
 import com.hamas.reviewtrust.domain.products.entity.Product;
 import com.hamas.reviewtrust.domain.products.repo.ProductRepository;
+import com.hamas.reviewtrust.domain.products.repo.ProductSearchJdbcRepository;
 import com.hamas.reviewtrust.domain.reviews.service.ScoreService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -15,8 +19,11 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.regex.Matcher;
@@ -25,7 +32,9 @@ import java.util.regex.Pattern;
 /**
  * 商品登録／検索／可視制御を行うサービス。
  * - register(input): URL or ASIN を受けて商品を登録（冪等）
- * - list/search: q/visible を受けて最大100件返却
+ * - list/search: q/visible を受けて最大100件返却（LIMIT は SQL 側で適用）
+ * - findProductSummaryPage: (created_at, id) の keyset ページング
+ * - キーワード検索: pg_trgm が使えれば関連度順（{@link ProductSearchJdbcRepository}）、無ければ LIKE
  * - toggleVisibility: 管理用の可視制御
  * 想定: /api/products の入力は URL または ASIN のみで、title/name は後続処理で正式化する。
  */
@@ -34,10 +43,17 @@ public class ProductService {
 
     private final ProductRepository repo;
     private final ScoreService scoreService;
+    private final TableStatsJdbcRepository tableStats;
+    private final ProductSearchJdbcRepository search;
 
-    public ProductService(ProductRepository repo, ScoreService scoreService) {
+    public ProductService(ProductRepository repo,
+                          ScoreService scoreService,
+                          TableStatsJdbcRepository tableStats,
+                          ProductSearchJdbcRepository search) {
         this.repo = repo;
         this.scoreService = scoreService;
+        this.tableStats = tableStats;
+        this.search = search;
     }
 
     /** URL or ASIN を受けて ASIN を抽出し登録（存在すれば既存を返す）。 */
@@ -79,13 +95,17 @@ public class ProductService {
     /** 検索（最大100件）。q=null なら全件、visible=null で絞り込みなし。 */
     @Transactional(readOnly = true)
     public List<Product> list(String q, Boolean visible, int limit) {
-        List<Product> base = repo.search(nz(q), visible);
-        return base.stream().limit(Math.max(1, Math.min(100, limit))).toList();
+        int n = Math.max(1, Math.min(100, limit));
+        String query = nz(q);
+        if (query != null && search.available()) {
+            return findAllInOrder(search.search(query, null, visible, n, 0L));
+        }
+        return repo.search(query, visible, PageRequest.of(0, n));
     }
 
     @Transactional(readOnly = true)
     public List<Product> findProducts(Boolean visible) {
-        return repo.search(null, visible);
+        return repo.search(null, visible, Pageable.unpaged());
     }
 
     @Transactional(readOnly = true)
@@ -97,6 +117,10 @@ public class ProductService {
         int safePage = Math.max(0, page);
         int safeSize = clampPageSize(pageSize);
         String normalizedQuery = nz(query);
+        if (normalizedQuery != null && search.available()) {
+            return searchProductSummaries(normalizedQuery, tag, visible, safePage, safeSize,
+                    KeysetPage.CountMode.NONE).items();
+        }
         String titleQuery = normalizedQuery != null ? "%" + normalizedQuery.toLowerCase(Locale.ROOT) + "%" : null;
         String asinQuery = normalizedQuery != null ? "%" + normalizedQuery.toUpperCase(Locale.ROOT) + "%" : null;
         String normalizedTag = normalizeTag(tag);
@@ -104,10 +128,80 @@ public class ProductService {
         Pageable pageable = PageRequest.of(safePage, safeSize, Sort.by(Sort.Direction.DESC, "updatedAt"));
         Page<Product> pageResult = repo.searchWithTag(visible, titleQuery, asinQuery, normalizedTag, pageable);
 
-        return pageResult.getContent()
-                .stream()
-                .map(this::toListItem)
-                .toList();
+        return toListItems(pageResult.getContent());
+    }
+
+    /**
+     * Keyset 版の一覧取得。{@code (created_at, id)} 降順で {@code cursor} の直後から pageSize 件を返す。
+     * OFFSET を使わないため、何ページ目でも先頭ページと同じコストで取得できる。
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<ProductListItem> findProductSummaryPage(String query,
+                                                              String tag,
+                                                              Boolean visible,
+                                                              String cursor,
+                                                              int pageSize,
+                                                              KeysetPage.CountMode countMode) {
+        int safeSize = clampPageSize(pageSize);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        String normalizedQuery = nz(query);
+        String titleQuery = normalizedQuery != null ? "%" + normalizedQuery.toLowerCase(Locale.ROOT) + "%" : null;
+        String asinQuery = normalizedQuery != null ? "%" + normalizedQuery.toUpperCase(Locale.ROOT) + "%" : null;
+        String normalizedTag = normalizeTag(tag);
+
+        // 1 件多く取得して次ページの有無を判定する（COUNT 不要）
+        Pageable limit = PageRequest.of(0, safeSize + 1);
+        List<Product> rows = after == null
+                ? repo.keysetFirst(visible, titleQuery, asinQuery, normalizedTag, limit)
+                : repo.keysetAfter(visible, titleQuery, asinQuery, normalizedTag, after.createdAt(), after.id(), limit);
+
+        Long total = null;
+        boolean estimated = false;
+        boolean unfiltered = visible == null && titleQuery == null && normalizedTag == null;
+        if (countMode == KeysetPage.CountMode.ESTIMATE && unfiltered) {
+            total = tableStats.estimateRows("products");
+            estimated = total != null;
+        }
+        if (countMode == KeysetPage.CountMode.EXACT || (countMode == KeysetPage.CountMode.ESTIMATE && total == null)) {
+            total = repo.countListing(visible, titleQuery, asinQuery, normalizedTag);
+            estimated = false;
+        }
+
+        KeysetPage<Product> page = KeysetPage.fromOverfetch(rows, safeSize,
+                p -> new KeysetCursor(p.getCreatedAt(), p.getId()), total, estimated);
+        Map<UUID, ScoreService.ProductScore> scores = scoreService.getScores(productIds(page.items()));
+        return page.map(p -> toListItem(p, scores.get(p.getId())));
+    }
+
+    /** キーワード検索を関連度順で返せるか（PostgreSQL + pg_trgm）。false なら LIKE の一覧系を使う。 */
+    public boolean isRankedSearchAvailable() {
+        return search.available();
+    }
+
+    /**
+     * 関連度順のキーワード検索（ASIN 完全一致 → 部分一致 → 類似度 → 更新日時）。LIMIT/OFFSET は SQL 側。
+     * 関連度順には keyset が使えないため nextCursor は常に null で、続きは page で取得する。
+     * 呼び出し前に {@link #isRankedSearchAvailable()} を確認すること。
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<ProductListItem> searchProductSummaries(String query,
+                                                              String tag,
+                                                              Boolean visible,
+                                                              int page,
+                                                              int pageSize,
+                                                              KeysetPage.CountMode countMode) {
+        String normalizedQuery = nz(query);
+        if (normalizedQuery == null) {
+            throw new IllegalArgumentException("query is required");
+        }
+        int safeSize = clampPageSize(pageSize);
+        long offset = (long) Math.max(0, page) * safeSize;
+        String normalizedTag = normalizeTag(tag);
+        List<Product> products = findAllInOrder(search.search(normalizedQuery, normalizedTag, visible, safeSize, offset));
+        Long total = countMode == KeysetPage.CountMode.NONE
+                ? null
+                : search.count(normalizedQuery, normalizedTag, visible);
+        return new KeysetPage<>(toListItems(products), null, total, false);
     }
 
     @Transactional(readOnly = true)
@@ -190,8 +284,38 @@ public class ProductService {
         return Math.min(requested, 200);
     }
 
-    private ProductListItem toListItem(Product product) {
-        var productScore = scoreService.getCachedScore(product.getId());
+    /** ページ分のスコアはまとめて 1 回で引く（未採点の製品はバックグラウンドで計算され、ここでは既定値）。 */
+    private List<ProductListItem> toListItems(List<Product> products) {
+        Map<UUID, ScoreService.ProductScore> scores = scoreService.getScores(productIds(products));
+        return products.stream()
+                .map(p -> toListItem(p, scores.get(p.getId())))
+                .toList();
+    }
+
+    /** id の並び（関連度順）を保ったままエンティティを読む */
+    private List<Product> findAllInOrder(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Product> byId = new HashMap<>();
+        for (Product p : repo.findAllById(ids)) {
+            byId.put(p.getId(), p);
+        }
+        List<Product> ordered = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Product p = byId.get(id);
+            if (p != null) {
+                ordered.add(p);
+            }
+        }
+        return ordered;
+    }
+
+    private static List<UUID> productIds(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+
+    private ProductListItem toListItem(Product product, ScoreService.ProductScore productScore) {
         double scoreValue = productScore != null ? productScore.score() : 0.0;
         String rank = productScore != null && productScore.rank() != null ? productScore.rank() : "A";
         return ProductListItem.from(product, scoreValue, rank);
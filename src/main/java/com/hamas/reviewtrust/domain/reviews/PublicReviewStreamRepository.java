@@ -0,0 +1,107 @@
+package com.hamas.reviewtrust.domain.reviews;
+
+import com.hamas.reviewtrust.api.publicapi.v1.dto.ReviewDtos;
+import com.hamas.reviewtrust.domain.reviews.entity.Review;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Reads the public reviews of a product group in bounded keyset chunks, for responses whose size must not be
+ * bounded by the heap (the grouped reviews endpoint).
+ *
+ * <p>Each chunk of {@code reviews.stream.chunk-size} rows is one short query; the connection goes back to the
+ * pool before the rows are handed to the sink, so a slow client only holds one chunk in memory and never a
+ * pool connection. Order and filters match {@code ReviewRepository#findGroupFirst} / {@code #findGroupAfter}
+ * ({@code (coalesce(posted_at, created_at), id)} descending); the V072 index serves each chunk without a
+ * sort.</p>
+ */
+@Repository
+public class PublicReviewStreamRepository {
+
+    private static final String COLUMNS = """
+            SELECT id, stars, title, body, text, verified_purchase, has_image,
+                   reviewer_name, reviewer_public, posted_at, created_at,
+                   COALESCE(posted_at, created_at) AS sort_at
+              FROM public.reviews
+             WHERE product_id = ?
+               AND source = ?
+            """;
+    private static final String ORDER = """
+             ORDER BY COALESCE(posted_at, created_at) DESC, id DESC
+             LIMIT ?
+            """;
+    private static final String AFTER = """
+               AND (COALESCE(posted_at, created_at) < ?
+                    OR (COALESCE(posted_at, created_at) = ? AND id < ?))
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final int chunkSize;
+
+    public PublicReviewStreamRepository(JdbcTemplate jdbc,
+                                        @Value("${reviews.stream.chunk-size:200}") int chunkSize) {
+        this.jdbc = jdbc;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Hands every public review of the group to {@code sink}, newest first. USER reviews are limited to
+     * approved ones. No connection is held while {@code sink} runs; exceptions thrown by it abort the read.
+     */
+    public void forEachPublic(UUID productId, Review.Source source, Consumer<ReviewDtos.ReviewItem> sink) {
+        String statusFilter = source == Review.Source.USER ? "   AND status = 'APPROVED'\n" : "";
+        String first = COLUMNS + statusFilter + ORDER;
+        String after = COLUMNS + statusFilter + AFTER + ORDER;
+        Timestamp lastAt = null;
+        UUID lastId = null;
+        while (true) {
+            List<Row> chunk = lastId == null
+                    ? jdbc.query(first, ROW, productId, source.name(), chunkSize)
+                    : jdbc.query(after, ROW, productId, source.name(), lastAt, lastAt, lastId, chunkSize);
+            for (Row row : chunk) {
+                sink.accept(row.item());
+            }
+            if (chunk.size() < chunkSize) {
+                return;
+            }
+            Row last = chunk.get(chunk.size() - 1);
+            lastAt = last.sortAt();
+            lastId = last.item().reviewId();
+        }
+    }
+
+    private record Row(ReviewDtos.ReviewItem item, Timestamp sortAt) {
+    }
+
+    private static final RowMapper<Row> ROW = (rs, i) -> {
+        Integer stars = rs.getInt("stars");
+        if (rs.wasNull()) {
+            stars = null;
+        }
+        return new Row(ReviewDtos.of(
+                rs.getObject("id", UUID.class),
+                stars,
+                rs.getString("title"),
+                rs.getString("body"),
+                rs.getString("text"),
+                rs.getBoolean("verified_purchase"),
+                rs.getBoolean("has_image"),
+                rs.getString("reviewer_name"),
+                (Boolean) rs.getObject("reviewer_public"),
+                instant(rs.getTimestamp("posted_at")),
+                instant(rs.getTimestamp("created_at"))),
+                rs.getTimestamp("sort_at"));
+    };
+
+    private static Instant instant(Timestamp ts) {
+        return ts != null ? ts.toInstant() : null;
+    }
+}
@@ -0,0 +1,100 @@
+package com.hamas.reviewtrust.domain.reviews;
+
+import com.hamas.reviewtrust.domain.reviews.ReviewMinHashRepository.Unindexed;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Computes MinHash signatures and near-duplicate pairs (V075) for reviews that have a body but no
+ * signature, i.e. rows written before V067 or reset by V075. New and updated reviews are indexed by the
+ * upsert itself.
+ *
+ * <p>Runs once after startup on the background executor: keyset pages of {@code minhash IS NULL} rows
+ * (partial index), one transaction per review. Until a review is indexed it simply has no pairs, so the
+ * near-duplicate rates of its product are understated; the job can be disabled or stopped safely.</p>
+ */
+@Component
+public class ReviewMinHashBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewMinHashBackfill.class);
+
+    private final ReviewMinHashRepository repository;
+    private final TaskExecutor executor;
+    private final boolean enabled;
+    private final int batchSize;
+    private volatile boolean stopping;
+
+    public ReviewMinHashBackfill(ReviewMinHashRepository repository,
+                                 @Qualifier("backgroundTaskExecutor") TaskExecutor executor,
+                                 @Value("${reviews.minhash-backfill.enabled:true}") boolean enabled,
+                                 @Value("${reviews.minhash-backfill.batch-size:500}") int batchSize) {
+        this.repository = repository;
+        this.executor = executor;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                long started = System.nanoTime();
+                int indexed = run();
+                if (indexed > 0) {
+                    log.info("[minhash-backfill] indexed {} reviews in {} ms",
+                            indexed, (System.nanoTime() - started) / 1_000_000);
+                }
+            } catch (Exception e) {
+                log.warn("[minhash-backfill] stopped; resumes on next start: {}", e.toString());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+    }
+
+    /** @return number of reviews indexed */
+    int run() {
+        UUID after = null;
+        int indexed = 0;
+        while (!stopping && !Thread.currentThread().isInterrupted()) {
+            List<Unindexed> page = repository.unindexed(after, batchSize);
+            if (page.isEmpty()) {
+                break;
+            }
+            for (Unindexed review : page) {
+                if (stopping) {
+                    break;
+                }
+                try {
+                    repository.index(review.reviewId(), review.productId(), review.body());
+                    indexed++;
+                } catch (DataAccessException e) {
+                    // 同じレビューの upsert と競合した等。次回起動時に拾い直す
+                    log.debug("[minhash-backfill] skipped reviewId={}: {}", review.reviewId(), e.getMessage());
+                }
+            }
+            after = page.get(page.size() - 1).reviewId();
+            if (page.size() < batchSize) {
+                break;
+            }
+        }
+        return indexed;
+    }
+}
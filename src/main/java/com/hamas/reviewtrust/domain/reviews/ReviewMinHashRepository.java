@@ -0,0 +1,161 @@
+package com.hamas.reviewtrust.domain.reviews;
+
+import com.hamas.reviewtrust.common.sim.MinHash;
+import com.hamas.reviewtrust.common.text.TextNormalizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stores MinHash signatures on {@code reviews.minhash}, their LSH band buckets in
+ * {@code review_minhash_bands} (V067) and the verified near-duplicate pairs in
+ * {@code review_near_duplicates} (V075).
+ *
+ * <p>All candidate lookups and similarity checks happen when a review is indexed, in the same transaction
+ * as the review upsert (or one transaction per review in {@link ReviewMinHashBackfill}). Reads only touch the
+ * stored pairs.</p>
+ */
+@Repository
+public class ReviewMinHashRepository {
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final double threshold;
+    private final int maxCandidates;
+
+    public ReviewMinHashRepository(NamedParameterJdbcTemplate jdbc,
+                                   @Value("${scoring.near-duplicate.threshold:0.8}") double threshold,
+                                   @Value("${scoring.near-duplicate.max-candidates:200}") int maxCandidates) {
+        this.jdbc = jdbc;
+        this.threshold = threshold;
+        this.maxCandidates = Math.max(1, maxCandidates);
+    }
+
+    /**
+     * (Re)computes and stores the signature of one review and its near-duplicate pairs; a blank body
+     * clears both. Candidates are the reviews sharing a band bucket, same product first, at most
+     * {@code scoring.near-duplicate.max-candidates} of them (hot buckets of very common texts stay bounded).
+     */
+    @Transactional
+    public void index(UUID reviewId, UUID productId, String body) {
+        if (reviewId == null || productId == null) {
+            return;
+        }
+        int[] signature = MinHash.signature(TextNormalizer.normalize(body));
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("reviewId", reviewId)
+                .addValue("productId", productId)
+                .addValue("minhash", signature != null ? MinHash.toBytes(signature) : null)
+                .addValue("limit", maxCandidates);
+        jdbc.update("UPDATE public.reviews SET minhash = :minhash WHERE id = :reviewId", params);
+        jdbc.update("DELETE FROM public.review_minhash_bands WHERE review_id = :reviewId", params);
+        jdbc.update("""
+                DELETE FROM public.review_near_duplicates
+                 WHERE review_id = :reviewId OR other_review_id = :reviewId
+                """, params);
+        if (signature == null) {
+            return;
+        }
+        long[] keys = MinHash.bandKeys(signature);
+        MapSqlParameterSource[] rows = new MapSqlParameterSource[keys.length];
+        for (int band = 0; band < keys.length; band++) {
+            rows[band] = new MapSqlParameterSource()
+                    .addValue("reviewId", reviewId)
+                    .addValue("productId", productId)
+                    .addValue("band", band)
+                    .addValue("bucket", keys[band]);
+        }
+        // 同じレビューの upsert とバックフィルが重なっても PK 違反にしない
+        jdbc.batchUpdate("""
+                INSERT INTO public.review_minhash_bands (review_id, product_id, band, bucket)
+                VALUES (:reviewId, :productId, :band, :bucket)
+                ON CONFLICT (review_id, band) DO UPDATE SET product_id = EXCLUDED.product_id,
+                                                             bucket = EXCLUDED.bucket
+                """, rows);
+
+        List<MapSqlParameterSource> pairs = new ArrayList<>();
+        jdbc.query("""
+                        SELECT c.review_id, c.product_id, r.minhash
+                          FROM (SELECT DISTINCT b.review_id, b.product_id
+                                  FROM public.review_minhash_bands a
+                                  JOIN public.review_minhash_bands b
+                                    ON b.band = a.band
+                                   AND b.bucket = a.bucket
+                                   AND b.review_id <> a.review_id
+                                 WHERE a.review_id = :reviewId) c
+                          JOIN public.reviews r ON r.id = c.review_id AND r.minhash IS NOT NULL
+                         ORDER BY (c.product_id <> :productId), c.review_id
+                         LIMIT :limit
+                        """,
+                params,
+                rs -> {
+                    double similarity = MinHash.similarity(signature, MinHash.fromBytes(rs.getBytes("minhash")));
+                    if (similarity < threshold) {
+                        return;
+                    }
+                    UUID otherId = (UUID) rs.getObject("review_id");
+                    UUID otherProductId = (UUID) rs.getObject("product_id");
+                    pairs.add(pair(reviewId, otherId, productId, otherProductId, similarity));
+                    pairs.add(pair(otherId, reviewId, otherProductId, productId, similarity));
+                });
+        if (!pairs.isEmpty()) {
+            jdbc.batchUpdate("""
+                    INSERT INTO public.review_near_duplicates
+                      (review_id, other_review_id, product_id, other_product_id, similarity)
+                    VALUES (:reviewId, :otherReviewId, :productId, :otherProductId, :similarity)
+                    ON CONFLICT (review_id, other_review_id) DO UPDATE SET similarity = EXCLUDED.similarity
+                    """, pairs.toArray(MapSqlParameterSource[]::new));
+        }
+    }
+
+    private static MapSqlParameterSource pair(UUID reviewId, UUID otherReviewId, UUID productId,
+                                              UUID otherProductId, double similarity) {
+        return new MapSqlParameterSource()
+                .addValue("reviewId", reviewId)
+                .addValue("otherReviewId", otherReviewId)
+                .addValue("productId", productId)
+                .addValue("otherProductId", otherProductId)
+                .addValue("similarity", (float) similarity);
+    }
+
+    /** Stored near-duplicate pairs with one side in the product (each pair once per direction). */
+    public List<Pair> pairs(UUID productId) {
+        return jdbc.query("""
+                        SELECT review_id, other_review_id, other_product_id
+                          FROM public.review_near_duplicates
+                         WHERE product_id = :productId
+                        """,
+                new MapSqlParameterSource("productId", productId),
+                (rs, i) -> new Pair((UUID) rs.getObject("review_id"),
+                        (UUID) rs.getObject("other_review_id"),
+                        (UUID) rs.getObject("other_product_id")));
+    }
+
+    /** Keyset page of reviews that have a body but no signature yet (see {@link ReviewMinHashBackfill}). */
+    public List<Unindexed> unindexed(UUID after, int limit) {
+        return jdbc.query("""
+                        SELECT id, product_id, body
+                          FROM public.reviews
+                         WHERE minhash IS NULL
+                           AND body IS NOT NULL
+                           AND product_id IS NOT NULL
+                           AND (CAST(:after AS uuid) IS NULL OR id > CAST(:after AS uuid))
+                         ORDER BY id
+                         LIMIT :limit
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("after", after)
+                        .addValue("limit", limit),
+                (rs, i) -> new Unindexed((UUID) rs.getObject("id"), (UUID) rs.getObject("product_id"),
+                        rs.getString("body")));
+    }
+
+    public record Unindexed(UUID reviewId, UUID productId, String body) { }
+
+    public record Pair(UUID reviewId, UUID otherReviewId, UUID otherProductId) { }
+}
@@ -0,0 +1,264 @@
+package com.hamas.reviewtrust.domain.reviews;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hamas.reviewtrust.common.collect.DailyCountRing;
+import com.hamas.reviewtrust.common.collect.DailyCountRing.Stats;
+import com.hamas.reviewtrust.domain.scoring.profile.ThresholdProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Per-product review surge detection on daily counts.
+ *
+ * <p>Each (product, source) keeps a {@link DailyCountRing} of the last {@code window + baseline} days, loaded
+ * once from {@code product_score_daily_counts} (V066; maintained per {@code review_date} by the aggregate
+ * trigger in the writing transaction) with one primary-key range read, and then kept current by
+ * {@link #refresh} after every upsert, which reads only the affected day (and the previous day when the
+ * review date moved). Inside a transaction the ring is updated after commit. {@link #stats} compares the mean of the newest window with
+ * the baseline before it and returns a z-score in O(window + baseline), cheap enough for every ingest.</p>
+ *
+ * <p>When an upsert pushes a product past {@code surge_z.warn}/{@code crit} of thresholds.yml (with at least
+ * {@value #ALERT_MIN_RECENT} reviews in the window) a warning is logged and {@code reviews.surge.alerts}
+ * is incremented, at most once per product, level and day.</p>
+ */
+@Component
+public class ReviewSurgeDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewSurgeDetector.class);
+    /** 件数が少なすぎる窓ではアラートを出さない */
+    static final int ALERT_MIN_RECENT = 5;
+    private static final Stats NO_DATA = new Stats(0, 0d, 0d, 0d, 0d);
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final ThresholdProvider thresholdProvider;
+    private final MeterRegistry registry;
+    private final int windowDays;
+    private final int baselineDays;
+    private final Cache<Key, Series> series;
+
+    public ReviewSurgeDetector(NamedParameterJdbcTemplate jdbc,
+                               ThresholdProvider thresholdProvider,
+                               ObjectProvider<MeterRegistry> meterRegistry,
+                               @Value("${scoring.surge.window-days:7}") int windowDays,
+                               @Value("${scoring.surge.baseline-days:28}") int baselineDays,
+                               @Value("${scoring.surge.cache.max-size:50000}") long cacheMaxSize) {
+        this.jdbc = jdbc;
+        this.thresholdProvider = thresholdProvider;
+        this.registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.windowDays = Math.max(1, windowDays);
+        this.baselineDays = Math.max(1, baselineDays);
+        // 時系列は DB から作り直せるので、触られていない製品は追い出してよい
+        this.series = Caffeine.newBuilder()
+                .maximumSize(Math.max(1L, cacheMaxSize))
+                .expireAfterAccess(Duration.ofHours(6))
+                .build();
+    }
+
+    /** Surge statistics for the newest window ending today; z = 0 when the series cannot be loaded. */
+    public Stats stats(UUID productId, String source) {
+        if (productId == null) {
+            return NO_DATA;
+        }
+        try {
+            Series s = seriesFor(new Key(productId, normaliseSource(source)));
+            synchronized (s) {
+                s.ring.advanceTo(today());
+                return s.ring.stats(windowDays, baselineDays);
+            }
+        } catch (DataAccessException e) {
+            log.warn("[surge] unable to load daily counts for product={}: {}", productId, e.getMessage());
+            return NO_DATA;
+        }
+    }
+
+    /**
+     * Re-counts {@code reviewDate} after a review upsert (idempotent under re-scrapes) and raises an alert
+     * when the product crosses a surge threshold.
+     *
+     * @param previousReviewDate review date before the upsert, {@code null} for a new review; when it
+     *                           differs from {@code reviewDate} that day is re-counted as well
+     */
+    public void refresh(UUID productId, String source, LocalDate reviewDate, LocalDate previousReviewDate) {
+        if (productId == null) {
+            return;
+        }
+        long today = today();
+        List<LocalDate> days = new ArrayList<>(2);
+        if (inRing(reviewDate, today)) {
+            days.add(reviewDate);
+        }
+        if (!Objects.equals(previousReviewDate, reviewDate) && inRing(previousReviewDate, today)) {
+            days.add(previousReviewDate);
+        }
+        if (days.isEmpty()) {
+            return;
+        }
+        Key key = new Key(productId, normaliseSource(source));
+        try {
+            Series cached = series.getIfPresent(key);
+            if (cached == null) {
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                    // 未コミットの行を含む系列をキャッシュに載せない。初回参照時にコミット後の状態から読む
+                    afterCommit(() -> checkAlert(key, seriesFor(key), today()));
+                } else {
+                    checkAlert(key, seriesFor(key), today);
+                }
+                return;
+            }
+            int[] counts = new int[days.size()];
+            for (int i = 0; i < days.size(); i++) {
+                Integer count = jdbc.queryForObject("""
+                                SELECT COALESCE(max(cnt), 0) FROM public.product_score_daily_counts
+                                 WHERE product_id = :productId AND source = :source AND day = :day
+                                """,
+                        new MapSqlParameterSource()
+                                .addValue("productId", productId)
+                                .addValue("source", key.source())
+                                .addValue("day", Date.valueOf(days.get(i))),
+                        Integer.class);
+                counts[i] = count != null ? count : 0;
+            }
+            Runnable apply = () -> {
+                synchronized (cached) {
+                    for (int i = 0; i < days.size(); i++) {
+                        cached.ring.set(days.get(i).toEpochDay(), counts[i]);
+                    }
+                }
+                checkAlert(key, cached, today());
+            };
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                afterCommit(apply);
+            } else {
+                apply.run();
+            }
+        } catch (DataAccessException e) {
+            log.warn("[surge] refresh failed for product={} day={}: {}", productId, reviewDate, e.getMessage());
+        }
+    }
+
+    private boolean inRing(LocalDate day, long today) {
+        if (day == null) {
+            return false;
+        }
+        long d = day.toEpochDay();
+        return d <= today && d > today - (windowDays + baselineDays);
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    action.run();
+                } catch (DataAccessException e) {
+                    log.warn("[surge] refresh after commit failed: {}", e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Cached series or a freshly loaded one. The range read runs outside the cache: {@code Cache#get(key, loader)}
+     * would run it inside the map's bin lock, blocking unrelated keys of that bin and pinning a virtual thread.
+     * Two concurrent misses may both load; the first to publish wins.
+     */
+    private Series seriesFor(Key key) {
+        Series cached = series.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        Series loaded = load(key);
+        Series raced = series.asMap().putIfAbsent(key, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    private void checkAlert(Key key, Series s, long today) {
+        var surgeZ = thresholdProvider.get().surge_z;
+        Stats stats;
+        int level;
+        synchronized (s) {
+            s.ring.advanceTo(today);
+            stats = s.ring.stats(windowDays, baselineDays);
+            if (stats.recentCount() < ALERT_MIN_RECENT || stats.z() < surgeZ.warn) {
+                return;
+            }
+            level = stats.z() >= surgeZ.crit ? 2 : 1;
+            if (s.alertDay == today && s.alertLevel >= level) {
+                return;
+            }
+            s.alertDay = today;
+            s.alertLevel = level;
+        }
+        String name = level == 2 ? "crit" : "warn";
+        registry.counter("reviews.surge.alerts", "level", name).increment();
+        log.warn("[surge] product={} source={} level={} z={} recent={} in {}d ({}/d vs baseline {}/d)",
+                key.productId(), key.source(), name, String.format("%.2f", stats.z()), stats.recentCount(),
+                windowDays, String.format("%.2f", stats.recentPerDay()), String.format("%.2f", stats.baselinePerDay()));
+    }
+
+    private Series load(Key key) {
+        long today = today();
+        DailyCountRing ring = new DailyCountRing(windowDays + baselineDays, today);
+        LocalDate since = LocalDate.ofEpochDay(today - ring.capacity() + 1);
+        jdbc.query("""
+                        SELECT day, cnt
+                          FROM public.product_score_daily_counts
+                         WHERE product_id = :productId
+                           AND source = :source
+                           AND day >= :since
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("productId", key.productId())
+                        .addValue("source", key.source())
+                        .addValue("since", Date.valueOf(since)),
+                rs -> {
+                    Date day = rs.getDate("day");
+                    if (day != null && day.toLocalDate().toEpochDay() <= today) {
+                        ring.set(day.toLocalDate().toEpochDay(), rs.getInt("cnt"));
+                    }
+                });
+        return new Series(ring);
+    }
+
+    private static long today() {
+        return LocalDate.now(ZoneId.systemDefault()).toEpochDay();
+    }
+
+    private static String normaliseSource(String source) {
+        return source == null || source.isBlank() ? "AMAZON" : source.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private record Key(UUID productId, String source) {
+    }
+
+    private static final class Series {
+        final DailyCountRing ring;
+        long alertDay = Long.MIN_VALUE;
+        int alertLevel;
+
+        Series(DailyCountRing ring) {
+            this.ring = ring;
+        }
+    }
+}
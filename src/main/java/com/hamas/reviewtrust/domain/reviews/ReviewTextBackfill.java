@@ -0,0 +1,120 @@
+package com.hamas.reviewtrust.domain.reviews;
+
+import com.hamas.reviewtrust.common.text.LexicalFeatures;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fills {@code body_norm}, {@code body_norm_hash} and {@code lex_flags} (V070) for reviews written before
+ * they existed, so that scoring can rely on the persisted {@link LexicalFeatures}.
+ *
+ * <p>Runs once after startup on the background executor: keyset pages of {@code lex_flags IS NULL} rows (partial
+ * index) are analysed in memory and written back with one batch update per page. Rows that an upsert filled
+ * in the meantime are left untouched. Until a row is backfilled both score services analyse its body
+ * themselves, so the job can be disabled or stopped safely; shutdown stops it after the current page.</p>
+ *
+ * <p>Each updated row fires the restricted aggregate update trigger (V066) once, which moves that row from
+ * {@code pending_count} to the full counts in O(1); nothing is recomputed per product.</p>
+ */
+@Component
+public class ReviewTextBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewTextBackfill.class);
+
+    private final JdbcTemplate jdbc;
+    private final TaskExecutor executor;
+    private final boolean enabled;
+    private final int batchSize;
+    private volatile boolean stopping;
+
+    public ReviewTextBackfill(JdbcTemplate jdbc,
+                              @Qualifier("backgroundTaskExecutor") TaskExecutor executor,
+                              @Value("${reviews.text-backfill.enabled:true}") boolean enabled,
+                              @Value("${reviews.text-backfill.batch-size:1000}") int batchSize) {
+        this.jdbc = jdbc;
+        this.executor = executor;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                long started = System.nanoTime();
+                int updated = run();
+                if (updated > 0) {
+                    log.info("[text-backfill] analysed {} reviews in {} ms",
+                            updated, (System.nanoTime() - started) / 1_000_000);
+                }
+            } catch (Exception e) {
+                log.warn("[text-backfill] stopped; remaining reviews are analysed at scoring time: {}", e.toString());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+    }
+
+    /** @return number of rows updated */
+    int run() {
+        UUID after = null;
+        int updated = 0;
+        while (!stopping && !Thread.currentThread().isInterrupted()) {
+            List<Pending> page = jdbc.query("""
+                            SELECT id, body
+                              FROM public.reviews
+                             WHERE lex_flags IS NULL
+                               AND (CAST(? AS uuid) IS NULL OR id > CAST(? AS uuid))
+                             ORDER BY id
+                             LIMIT ?
+                            """,
+                    (rs, i) -> new Pending((UUID) rs.getObject("id"), rs.getString("body")),
+                    after, after, batchSize);
+            if (page.isEmpty()) {
+                break;
+            }
+            List<Object[]> args = new ArrayList<>(page.size());
+            for (Pending p : page) {
+                LexicalFeatures.Analysis lex = LexicalFeatures.analyse(p.body());
+                args.add(new Object[]{
+                        p.body() != null ? lex.normalised() : null, lex.normalisedHash(), lex.flags(), p.id()});
+            }
+            for (int n : jdbc.batchUpdate("""
+                            UPDATE public.reviews
+                               SET body_norm = ?, body_norm_hash = ?, lex_flags = ?
+                             WHERE id = ?
+                               AND lex_flags IS NULL
+                            """,
+                    args, new int[]{Types.VARCHAR, Types.BIGINT, Types.INTEGER, Types.OTHER})) {
+                if (n > 0) updated += n;
+            }
+            after = page.get(page.size() - 1).id();
+            if (page.size() < batchSize) {
+                break;
+            }
+        }
+        return updated;
+    }
+
+    private record Pending(UUID id, String body) {
+    }
+}
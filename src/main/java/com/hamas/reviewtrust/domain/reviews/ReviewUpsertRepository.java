@@ -1,51 +1,121 @@
 package com.hamas.reviewtrust.domain.reviews;
 
-import com.hamas.reviewtrust.common.hash.TextHash;
+import com.hamas.reviewtrust.common.hash.Fingerprint;
+import com.hamas.reviewtrust.common.text.LexicalFeatures;
 import com.hamas.reviewtrust.common.text.TextNormalizer;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Types;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
 
 /**
  * Repository that performs idempotent upsert operations into {@code reviews}. It handles
  * fingerprint generation and ensures that the unique constraints (external id / fingerprint)
- * are honoured.
+ * are honoured. The normalised body, its hash and the lexical flags read by scoring
+ * ({@link LexicalFeatures}) are written with the row. The MinHash signature and near-duplicate pairs,
+ * the reviewer → product index and the daily counts of the surge detector are refreshed in the same
+ * transaction, so a failure in any of them rolls the review back as well.
  */
 @Repository
 public class ReviewUpsertRepository {
 
+    private static final RowMapper<Upserted> UPSERTED = (rs, i) ->
+            new Upserted((UUID) rs.getObject("id"), rs.getObject("review_date", LocalDate.class));
+
     private final NamedParameterJdbcTemplate jdbc;
+    private final ReviewMinHashRepository minHashes;
+    private final ReviewerProductIndex reviewerIndex;
+    private final ReviewSurgeDetector surgeDetector;
 
-    public ReviewUpsertRepository(NamedParameterJdbcTemplate jdbc) {
+    public ReviewUpsertRepository(NamedParameterJdbcTemplate jdbc,
+                                  ReviewMinHashRepository minHashes,
+                                  ReviewerProductIndex reviewerIndex,
+                                  ReviewSurgeDetector surgeDetector) {
         this.jdbc = jdbc;
+        this.minHashes = minHashes;
+        this.reviewerIndex = reviewerIndex;
+        this.surgeDetector = surgeDetector;
     }
 
+    @Transactional
     public UUID upsert(ReviewUpsertRequest request) {
         ReviewUpsertRequest normalised = normalise(request);
-        if (hasExternalId(normalised)) {
-            return upsertByExternalId(normalised);
+        // review_date が変わる更新では旧日付の件数も数え直すため、更新前の値を控えておく
+        LocalDate previousReviewDate = previousReviewDate(normalised);
+        Upserted upserted = hasExternalId(normalised)
+                ? upsertByExternalId(normalised)
+                : upsertByFingerprint(normalised);
+        UUID id = upserted.id();
+        UUID productId = asUuid(normalised.productId());
+        // body が null の更新は既存本文を保持する（COALESCE）ので署名も据え置き
+        if (id != null && productId != null && normalised.body() != null) {
+            minHashes.index(id, productId, normalised.body());
+        }
+        if (id != null && productId != null) {
+            reviewerIndex.refresh(productId, normalised.reviewer());
+            surgeDetector.refresh(productId, normalised.source(), upserted.reviewDate(), previousReviewDate);
+        }
+        return id;
+    }
+
+    private LocalDate previousReviewDate(ReviewUpsertRequest r) {
+        String key = hasExternalId(r) ? "external_review_id = :externalReviewId" : "fingerprint = :fingerprint";
+        if (!hasExternalId(r) && r.fingerprint() == null) {
+            return null;
         }
-        return upsertByFingerprint(normalised);
+        List<LocalDate> rows = jdbc.query("""
+                        SELECT review_date
+                          FROM public.reviews
+                         WHERE product_id = :productId
+                           AND source = :source
+                           AND %s
+                        """.formatted(key),
+                new MapSqlParameterSource()
+                        .addValue("productId", r.productId())
+                        .addValue("source", r.source())
+                        .addValue("externalReviewId", r.externalReviewId())
+                        .addValue("fingerprint", r.fingerprint()),
+                (rs, i) -> rs.getObject("review_date", LocalDate.class));
+        return rows.isEmpty() ? null : rows.get(0);
     }
 
-    private UUID upsertByExternalId(ReviewUpsertRequest r) {
+    private static UUID asUuid(Object value) {
+        if (value instanceof UUID uuid) {
+            return uuid;
+        }
+        try {
+            return value != null ? UUID.fromString(value.toString()) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private Upserted upsertByExternalId(ReviewUpsertRequest r) {
         var sql = """
                 INSERT INTO public.reviews
-                  (product_id, source, external_review_id, fingerprint, title, body, rating,
-                   review_date, reviewer, reviewer_ref, review_url, helpful_votes, created_at, updated_at)
+                  (product_id, source, external_review_id, fingerprint, title, body, body_norm, body_norm_hash,
+                   lex_flags, rating, review_date, reviewer, reviewer_ref, review_url, helpful_votes,
+                   created_at, updated_at)
                 VALUES
-                  (:productId, :source, :externalReviewId, :fingerprint, :title, :body, :rating,
-                   :reviewDate, :reviewer, :reviewerRef, :reviewUrl, :helpfulVotes, now(), now())
+                  (:productId, :source, :externalReviewId, :fingerprint, :title, :body, :bodyNorm, :bodyNormHash,
+                   :lexFlags, :rating, :reviewDate, :reviewer, :reviewerRef, :reviewUrl, :helpfulVotes,
+                   now(), now())
                 ON CONFLICT (product_id, source, external_review_id)
                 WHERE external_review_id IS NOT NULL
                 DO UPDATE SET
                   fingerprint    = COALESCE(EXCLUDED.fingerprint, public.reviews.fingerprint),
                   title          = COALESCE(EXCLUDED.title, public.reviews.title),
                   body           = COALESCE(EXCLUDED.body, public.reviews.body),
+                  body_norm      = CASE WHEN EXCLUDED.body IS NULL THEN public.reviews.body_norm ELSE EXCLUDED.body_norm END,
+                  body_norm_hash = CASE WHEN EXCLUDED.body IS NULL THEN public.reviews.body_norm_hash ELSE EXCLUDED.body_norm_hash END,
+                  lex_flags      = CASE WHEN EXCLUDED.body IS NULL THEN public.reviews.lex_flags ELSE EXCLUDED.lex_flags END,
                   rating         = COALESCE(EXCLUDED.rating, public.reviews.rating),
                   review_date    = COALESCE(EXCLUDED.review_date, public.reviews.review_date),
                   reviewer       = COALESCE(EXCLUDED.reviewer, public.reviews.reviewer),
@@ -53,24 +123,29 @@ public class ReviewUpsertRepository {
                   review_url     = COALESCE(EXCLUDED.review_url, public.reviews.review_url),
                   helpful_votes  = COALESCE(EXCLUDED.helpful_votes, public.reviews.helpful_votes),
                   updated_at     = now()
-                RETURNING id;
+                RETURNING id, review_date;
                 """;
-        return jdbc.queryForObject(sql, toParams(r), (rs, i) -> (UUID) rs.getObject("id"));
+        return jdbc.queryForObject(sql, toParams(r), UPSERTED);
     }
 
-    private UUID upsertByFingerprint(ReviewUpsertRequest r) {
+    private Upserted upsertByFingerprint(ReviewUpsertRequest r) {
         var sql = """
                 INSERT INTO public.reviews
-                  (product_id, source, external_review_id, fingerprint, title, body, rating,
-                   review_date, reviewer, reviewer_ref, review_url, helpful_votes, created_at, updated_at)
+                  (product_id, source, external_review_id, fingerprint, title, body, body_norm, body_norm_hash,
+                   lex_flags, rating, review_date, reviewer, reviewer_ref, review_url, helpful_votes,
+                   created_at, updated_at)
                 VALUES
-                  (:productId, :source, NULL, :fingerprint, :title, :body, :rating,
-                   :reviewDate, :reviewer, :reviewerRef, :reviewUrl, :helpfulVotes, now(), now())
+                  (:productId, :source, NULL, :fingerprint, :title, :body, :bodyNorm, :bodyNormHash,
+                   :lexFlags, :rating, :reviewDate, :reviewer, :reviewerRef, :reviewUrl, :helpfulVotes,
+                   now(), now())
                 ON CONFLICT (product_id, source, fingerprint)
                 WHERE fingerprint IS NOT NULL
                 DO UPDATE SET
                   title          = COALESCE(EXCLUDED.title, public.reviews.title),
                   body           = COALESCE(EXCLUDED.body, public.reviews.body),
+                  body_norm      = CASE WHEN EXCLUDED.body IS NULL THEN public.reviews.body_norm ELSE EXCLUDED.body_norm END,
+                  body_norm_hash = CASE WHEN EXCLUDED.body IS NULL THEN public.reviews.body_norm_hash ELSE EXCLUDED.body_norm_hash END,
+                  lex_flags      = CASE WHEN EXCLUDED.body IS NULL THEN public.reviews.lex_flags ELSE EXCLUDED.lex_flags END,
                   rating         = COALESCE(EXCLUDED.rating, public.reviews.rating),
                   review_date    = COALESCE(EXCLUDED.review_date, public.reviews.review_date),
                   reviewer       = COALESCE(EXCLUDED.reviewer, public.reviews.reviewer),
@@ -78,19 +153,25 @@ public class ReviewUpsertRepository {
                   review_url     = COALESCE(EXCLUDED.review_url, public.reviews.review_url),
                   helpful_votes  = COALESCE(EXCLUDED.helpful_votes, public.reviews.helpful_votes),
                   updated_at     = now()
-                RETURNING id;
+                RETURNING id, review_date;
                 """;
-        return jdbc.queryForObject(sql, toParams(r), (rs, i) -> (UUID) rs.getObject("id"));
+        return jdbc.queryForObject(sql, toParams(r), UPSERTED);
     }
 
     private MapSqlParameterSource toParams(ReviewUpsertRequest r) {
+        String body = nullIfBlank(r.body());
+        // 正規化本文と字句特徴は書き込み時に一度だけ計算し、スコアリングはこれを読むだけにする
+        LexicalFeatures.Analysis lex = LexicalFeatures.analyse(body);
         return new MapSqlParameterSource()
                 .addValue("productId", r.productId())
                 .addValue("source", r.source())
                 .addValue("externalReviewId", r.externalReviewId())
                 .addValue("fingerprint", r.fingerprint())
                 .addValue("title", nullIfBlank(r.title()))
-                .addValue("body", nullIfBlank(r.body()))
+                .addValue("body", body)
+                .addValue("bodyNorm", body != null ? lex.normalised() : null)
+                .addValue("bodyNormHash", lex.normalisedHash(), Types.BIGINT)
+                .addValue("lexFlags", lex.flags())
                 .addValue("rating", r.rating())
                 .addValue("reviewDate", r.reviewDate())
                 .addValue("reviewer", nullIfBlank(r.reviewer()))
@@ -138,16 +219,17 @@ public class ReviewUpsertRepository {
         if (title != null && title.isBlank()) title = null;
         if (reviewerRef != null && reviewerRef.isBlank()) reviewerRef = null;
 
-        StringBuilder key = new StringBuilder();
-        if (title != null) key.append(title);
-        if (body != null) key.append('|').append(body);
-        if (reviewerRef != null) key.append('|').append(reviewerRef);
-        if (reviewDate != null) key.append('|').append(reviewDate.toEpochDay());
+        // title|body|reviewerRef|epochDay を連結せずにそのままダイジェストへ流す
+        Fingerprint key = Fingerprint.sha256();
+        if (title != null) key.add(title);
+        if (body != null) key.add('|').add(body);
+        if (reviewerRef != null) key.add('|').add(reviewerRef);
+        if (reviewDate != null) key.add('|').add(reviewDate.toEpochDay());
 
         if (key.length() == 0) {
             throw new IllegalArgumentException("fingerprint requires text or reviewer information");
         }
-        return TextHash.sha256Hex(key.toString());
+        return key.sha256Hex();
     }
 
     private static String deriveReviewerRef(String reviewer, String url) {
@@ -176,6 +258,8 @@ public class ReviewUpsertRepository {
         return (norm == null || norm.isBlank()) ? value.trim() : norm;
     }
 
+    private record Upserted(UUID id, LocalDate reviewDate) { }
+
     public record ReviewUpsertRequest(
             Object productId,
             String source,
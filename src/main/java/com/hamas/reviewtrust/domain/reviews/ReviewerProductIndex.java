@@ -0,0 +1,368 @@
+package com.hamas.reviewtrust.domain.reviews;
+
+import com.hamas.reviewtrust.common.collect.LongObjectHashMap;
+import com.hamas.reviewtrust.common.hash.TextHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Catalog-wide reviewer → products index for review-ring detection.
+ *
+ * <p>Persisted per (reviewer, product) in {@code reviewer_product_index} (V068) and mirrored in memory with
+ * primitive-keyed maps: reviewers are identified by {@link TextHash#fnv64(String)} of the lower-cased name,
+ * products by a dense int. Each (reviewer, product) pair is one packed {@code long}, so the in-memory copy
+ * stays a few dozen bytes per pair. The row is recomputed from {@code reviews} on every upsert, which keeps
+ * it idempotent under re-scrapes; the recount reads only that reviewer's rows of the product through the
+ * {@code (product_id, lower(btrim(reviewer)))} expression index (V068). The in-memory copy follows after
+ * the surrounding transaction commits.</p>
+ *
+ * <p>Scraped rows carry the review id in {@code reviewer_ref}, so the display name is the only identity that
+ * spans products; generic anonymous names are skipped.</p>
+ */
+@Component
+public class ReviewerProductIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewerProductIndex.class);
+    private static final int BATCH_SIZE = 1000;
+    /** 他製品で ★5 を付けている製品数がこの値以上のレビュアーをリング候補とみなす */
+    static final int RING_MIN_OTHER_PRODUCTS = 2;
+    private static final Set<String> ANONYMOUS_NAMES = Set.of(
+            "amazon カスタマー", "amazonカスタマー", "amazon customer", "カスタマー", "匿名", "anonymous");
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TaskExecutor executor;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> productIndex = new HashMap<>();
+    private final List<UUID> products = new ArrayList<>();
+    /** reviewer hash → packed (product, count, five-star count, last day) entries */
+    private final LongObjectHashMap<long[]> byReviewer = new LongObjectHashMap<>(1 << 16);
+    /** product index → reviewer hashes */
+    private final LongObjectHashMap<Hashes> byProduct = new LongObjectHashMap<>(1 << 12);
+    private volatile boolean ready;
+
+    public ReviewerProductIndex(NamedParameterJdbcTemplate jdbc,
+                                @Qualifier("backgroundTaskExecutor") TaskExecutor executor) {
+        this.jdbc = jdbc;
+        this.executor = executor;
+    }
+
+    /** Key used for hashing; {@code null} for blank or anonymous names. */
+    static String reviewerKey(String reviewer) {
+        if (reviewer == null) {
+            return null;
+        }
+        String key = reviewer.trim().toLowerCase(Locale.ROOT);
+        return key.isEmpty() || ANONYMOUS_NAMES.contains(key) ? null : key;
+    }
+
+    /* ------------------------------------------------------------------ */
+    /* Maintenance                                                        */
+    /* ------------------------------------------------------------------ */
+
+    /** Recomputes the (reviewer, product) row after a review upsert and mirrors it in memory. */
+    public void refresh(UUID productId, String reviewer) {
+        String key = reviewerKey(reviewer);
+        if (productId == null || key == null) {
+            return;
+        }
+        long hash = TextHash.fnv64(key);
+        List<Row> rows = jdbc.query("""
+                        INSERT INTO public.reviewer_product_index
+                          (reviewer_hash, product_id, review_count, five_star_count,
+                           first_review_date, last_review_date, updated_at)
+                        SELECT :hash, :productId, count(*), count(*) FILTER (WHERE rating >= 5),
+                               min(review_date), max(review_date), now()
+                          FROM public.reviews
+                         WHERE product_id = :productId
+                           AND reviewer IS NOT NULL
+                           AND lower(btrim(reviewer)) = :key
+                        ON CONFLICT (reviewer_hash, product_id) DO UPDATE SET
+                          review_count      = EXCLUDED.review_count,
+                          five_star_count   = EXCLUDED.five_star_count,
+                          first_review_date = EXCLUDED.first_review_date,
+                          last_review_date  = EXCLUDED.last_review_date,
+                          updated_at        = now()
+                        RETURNING review_count, five_star_count, last_review_date
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("hash", hash)
+                        .addValue("productId", productId)
+                        .addValue("key", key),
+                (rs, i) -> new Row(hash, productId, rs.getInt("review_count"), rs.getInt("five_star_count"),
+                        toLocalDate(rs.getDate("last_review_date"))));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // ロールバックされた upsert の分をメモリに反映しない
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rows.forEach(ReviewerProductIndex.this::apply);
+                }
+            });
+        } else {
+            rows.forEach(this::apply);
+        }
+    }
+
+    /**
+     * Fills the table from {@code reviews} when empty, then loads it into memory on the background executor
+     * (off the startup thread, MDC carried over, interrupted on shutdown).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        executor.execute(() -> {
+            try {
+                long started = System.nanoTime();
+                Integer existing = jdbc.getJdbcTemplate().queryForObject(
+                        "SELECT count(*) FROM (SELECT 1 FROM public.reviewer_product_index LIMIT 1) x", Integer.class);
+                int loaded = existing != null && existing > 0 ? load() : rebuild();
+                ready = true;
+                log.info("[reviewer-index] ready pairs={} reviewers={} products={} in {} ms",
+                        loaded, byReviewer.size(), products.size(), (System.nanoTime() - started) / 1_000_000);
+            } catch (Exception e) {
+                log.warn("[reviewer-index] warm-up failed; reviewer overlap features disabled: {}", e.toString());
+            }
+        });
+    }
+
+    private int load() {
+        int[] count = {0};
+        jdbc.getJdbcTemplate().query("""
+                        SELECT reviewer_hash, product_id, review_count, five_star_count, last_review_date
+                          FROM public.reviewer_product_index
+                         WHERE review_count > 0
+                        """,
+                rs -> {
+                    apply(new Row(rs.getLong("reviewer_hash"), (UUID) rs.getObject("product_id"),
+                            rs.getInt("review_count"), rs.getInt("five_star_count"),
+                            toLocalDate(rs.getDate("last_review_date"))));
+                    count[0]++;
+                });
+        return count[0];
+    }
+
+    private int rebuild() {
+        List<MapSqlParameterSource> batch = new ArrayList<>(BATCH_SIZE);
+        int[] count = {0};
+        jdbc.getJdbcTemplate().query("""
+                        SELECT lower(btrim(reviewer)) AS reviewer_key, product_id,
+                               count(*) AS review_count,
+                               count(*) FILTER (WHERE rating >= 5) AS five_star_count,
+                               min(review_date) AS first_review_date,
+                               max(review_date) AS last_review_date
+                          FROM public.reviews
+                         WHERE product_id IS NOT NULL
+                           AND reviewer IS NOT NULL
+                           AND btrim(reviewer) <> ''
+                         GROUP BY lower(btrim(reviewer)), product_id
+                        """,
+                rs -> {
+                    String key = reviewerKey(rs.getString("reviewer_key"));
+                    if (key == null) {
+                        return;
+                    }
+                    Row row = new Row(TextHash.fnv64(key), (UUID) rs.getObject("product_id"),
+                            rs.getInt("review_count"), rs.getInt("five_star_count"),
+                            toLocalDate(rs.getDate("last_review_date")));
+                    batch.add(new MapSqlParameterSource()
+                            .addValue("hash", row.reviewerHash())
+                            .addValue("productId", row.productId())
+                            .addValue("reviewCount", row.reviewCount())
+                            .addValue("fiveStarCount", row.fiveStarCount())
+                            .addValue("firstDate", rs.getDate("first_review_date"))
+                            .addValue("lastDate", rs.getDate("last_review_date")));
+                    apply(row);
+                    count[0]++;
+                    if (batch.size() >= BATCH_SIZE) {
+                        insertBatch(batch);
+                    }
+                });
+        insertBatch(batch);
+        return count[0];
+    }
+
+    private void insertBatch(List<MapSqlParameterSource> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbc.batchUpdate("""
+                INSERT INTO public.reviewer_product_index
+                  (reviewer_hash, product_id, review_count, five_star_count,
+                   first_review_date, last_review_date, updated_at)
+                VALUES (:hash, :productId, :reviewCount, :fiveStarCount, :firstDate, :lastDate, now())
+                ON CONFLICT (reviewer_hash, product_id) DO NOTHING
+                """, batch.toArray(MapSqlParameterSource[]::new));
+        batch.clear();
+    }
+
+    /** Mirrors one persisted row in memory. Package-private for tests. */
+    void apply(Row row) {
+        lock.writeLock().lock();
+        try {
+            int product = productIndex.computeIfAbsent(row.productId(), id -> {
+                products.add(id);
+                return products.size() - 1;
+            });
+            long packed = pack(product, row.reviewCount(), row.fiveStarCount(), row.lastReviewDate());
+            long[] entries = byReviewer.get(row.reviewerHash());
+            if (entries == null) {
+                byReviewer.put(row.reviewerHash(), new long[]{packed});
+                byProduct.computeIfAbsent(product, k -> new Hashes()).add(row.reviewerHash());
+                return;
+            }
+            for (int i = 0; i < entries.length; i++) {
+                if (productOf(entries[i]) == product) {
+                    entries[i] = packed;
+                    return;
+                }
+            }
+            long[] grown = Arrays.copyOf(entries, entries.length + 1);
+            grown[entries.length] = packed;
+            byReviewer.put(row.reviewerHash(), grown);
+            byProduct.computeIfAbsent(product, k -> new Hashes()).add(row.reviewerHash());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /* ------------------------------------------------------------------ */
+    /* Features                                                           */
+    /* ------------------------------------------------------------------ */
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Reviewer-overlap features for one product, computed from memory only.
+     *
+     * @return overlap, or {@link ReviewerOverlap#EMPTY} for unknown products
+     */
+    public ReviewerOverlap overlap(UUID productId) {
+        lock.readLock().lock();
+        try {
+            Integer product = productIndex.get(productId);
+            Hashes reviewers = product != null ? byProduct.get(product) : null;
+            if (reviewers == null || reviewers.size == 0) {
+                return ReviewerOverlap.EMPTY;
+            }
+            int shared = 0;
+            int ringCandidates = 0;
+            Map<Integer, Integer> coReviewed = new HashMap<>();
+            for (int r = 0; r < reviewers.size; r++) {
+                long[] entries = byReviewer.get(reviewers.values[r]);
+                int others = 0;
+                int otherFiveStar = 0;
+                for (long e : entries) {
+                    int other = productOf(e);
+                    if (other == product || countOf(e) == 0) continue;
+                    others++;
+                    if (fiveStarOf(e) > 0) otherFiveStar++;
+                    coReviewed.merge(other, 1, Integer::sum);
+                }
+                if (others > 0) shared++;
+                if (otherFiveStar >= RING_MIN_OTHER_PRODUCTS) ringCandidates++;
+            }
+            UUID topProduct = null;
+            int topCount = 0;
+            for (Map.Entry<Integer, Integer> e : coReviewed.entrySet()) {
+                if (e.getValue() > topCount) {
+                    topCount = e.getValue();
+                    topProduct = products.get(e.getKey());
+                }
+            }
+            // 偶然の 1 人の重複はリングとみなさない
+            double ringDensity = topCount >= 2 ? topCount / (double) reviewers.size : 0.0;
+            return new ReviewerOverlap(reviewers.size, shared, ringCandidates, topProduct, topCount, ringDensity);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /* ------------------------------------------------------------------ */
+    /* Packing                                                            */
+    /* ------------------------------------------------------------------ */
+
+    // [product:32][count:8][fiveStar:8][lastEpochDay:16]
+    private static long pack(int product, int count, int fiveStar, LocalDate lastDay) {
+        long day = lastDay != null ? Math.max(0L, Math.min(0xFFFFL, lastDay.toEpochDay())) : 0L;
+        return ((long) product << 32)
+                | ((long) Math.min(count, 0xFF) << 24)
+                | ((long) Math.min(fiveStar, 0xFF) << 16)
+                | day;
+    }
+
+    private static int productOf(long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    private static int countOf(long packed) {
+        return (int) ((packed >>> 24) & 0xFF);
+    }
+
+    private static int fiveStarOf(long packed) {
+        return (int) ((packed >>> 16) & 0xFF);
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+
+    /** Growable long list. */
+    private static final class Hashes {
+        long[] values = new long[4];
+        int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+    }
+
+    record Row(long reviewerHash, UUID productId, int reviewCount, int fiveStarCount, LocalDate lastReviewDate) { }
+
+    /**
+     * @param reviewers                     distinct named reviewers of the product
+     * @param sharedReviewers               of those, reviewers who also reviewed other products
+     * @param multiProductFiveStarReviewers reviewers with five-star reviews on at least
+     *                                      {@value #RING_MIN_OTHER_PRODUCTS} other products
+     * @param topOverlapProductId           other product sharing the most reviewers
+     * @param topOverlapReviewers           number of reviewers shared with it
+     * @param ringDensity                   {@code topOverlapReviewers / reviewers} (0 below two shared reviewers)
+     */
+    public record ReviewerOverlap(int reviewers,
+                                  int sharedReviewers,
+                                  int multiProductFiveStarReviewers,
+                                  UUID topOverlapProductId,
+                                  int topOverlapReviewers,
+                                  double ringDensity) {
+
+        public static final ReviewerOverlap EMPTY = new ReviewerOverlap(0, 0, 0, null, 0, 0.0);
+
+        public double sharedRatio() {
+            return reviewers == 0 ? 0.0 : sharedReviewers / (double) reviewers;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.hamas.reviewtrust.domain.reviews;
+
+import java.util.UUID;
+
+/**
+ * Published (via {@link org.springframework.context.ApplicationEventPublisher}) after the reviews of a
+ * product were written or moderated. Listeners run after the surrounding transaction commits, so they
+ * always see the new rows.
+ *
+ * @param productId product whose reviews changed
+ * @param cause     what changed them (logging / metrics only)
+ */
+public record ReviewsChangedEvent(UUID productId, Cause cause) {
+
+    public enum Cause {
+        /** {@code ScrapingService.rescrape} finished with at least one upsert */
+        SCRAPE,
+        /** an NDJSON intake file was processed */
+        INTAKE,
+        /** a review was approved or rejected */
+        MODERATION
+    }
+}
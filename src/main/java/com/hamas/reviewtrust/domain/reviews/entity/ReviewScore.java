@@ -38,6 +38,10 @@ public class ReviewScore {
     @Column(name = "metrics", columnDefinition = "jsonb", nullable = false)
     private JsonNode metrics;
 
+    /** エンジン版 + 閾値フィンガープリント（計算に使った設定の版） */
+    @Column(name = "score_version")
+    private String scoreVersion;
+
     @Column(name = "computed_at", nullable = false)
     private Instant computedAt;
 
@@ -78,6 +82,7 @@ public class ReviewScore {
     public JsonNode getFlags() { return flags; }
     public JsonNode getRules() { return rules; }
     public JsonNode getMetrics() { return metrics; }
+    public String getScoreVersion() { return scoreVersion; }
     public Instant getComputedAt() { return computedAt; }
     public Instant getUpdatedAt() { return updatedAt; }
 
@@ -87,6 +92,7 @@ public class ReviewScore {
     public void setFlags(JsonNode flags) { this.flags = flags; }
     public void setRules(JsonNode rules) { this.rules = rules; }
     public void setMetrics(JsonNode metrics) { this.metrics = metrics; }
+    public void setScoreVersion(String scoreVersion) { this.scoreVersion = scoreVersion; }
     public void setComputedAt(Instant computedAt) { this.computedAt = computedAt; }
 
     @Embeddable
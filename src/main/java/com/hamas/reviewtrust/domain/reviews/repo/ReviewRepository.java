@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
@@ -68,4 +69,70 @@ public interface ReviewRepository extends JpaRepository<Review, UUID> {
             order by coalesce(r.postedAt, r.createdAt) desc
             """)
     List<Review> findApprovedUserReviews(@Param("productId") UUID productId);
+
+    /**
+     * Public reviews of one group (AMAZON, or approved USER reviews when {@code status} is given), first keyset
+     * page ordered by {@code (coalesce(postedAt, createdAt), id)} descending.
+     */
+    @Query("""
+            select r from Review r
+            where r.productId = :productId
+              and r.source = :source
+              and (:status is null or r.status = :status)
+            order by coalesce(r.postedAt, r.createdAt) desc, r.id desc
+            """)
+    List<Review> findGroupFirst(@Param("productId") UUID productId,
+                                @Param("source") Review.Source source,
+                                @Param("status") Review.Status status,
+                                Pageable limit);
+
+    /** Rows of the group strictly after the {@code (coalesce(postedAt, createdAt), id)} key of the previous page. */
+    @Query("""
+            select r from Review r
+            where r.productId = :productId
+              and r.source = :source
+              and (:status is null or r.status = :status)
+              and (coalesce(r.postedAt, r.createdAt) < :sortAt
+                   or (coalesce(r.postedAt, r.createdAt) = :sortAt and r.id < :id))
+            order by coalesce(r.postedAt, r.createdAt) desc, r.id desc
+            """)
+    List<Review> findGroupAfter(@Param("productId") UUID productId,
+                                @Param("source") Review.Source source,
+                                @Param("status") Review.Status status,
+                                @Param("sortAt") Instant sortAt,
+                                @Param("id") UUID id,
+                                Pageable limit);
+
+    /** Moderation queue, first keyset page ordered by {@code (createdAt, id)} descending. */
+    @Query("""
+            select r from Review r
+            where r.status in :statuses
+              and (:source is null or r.source = :source)
+            order by r.createdAt desc, r.id desc
+            """)
+    List<Review> findQueueFirst(@Param("statuses") Collection<Review.Status> statuses,
+                                @Param("source") Review.Source source,
+                                Pageable limit);
+
+    /** Moderation queue rows strictly after the {@code (createdAt, id)} key of the previous page. */
+    @Query("""
+            select r from Review r
+            where r.status in :statuses
+              and (:source is null or r.source = :source)
+              and (r.createdAt < :createdAt or (r.createdAt = :createdAt and r.id < :id))
+            order by r.createdAt desc, r.id desc
+            """)
+    List<Review> findQueueAfter(@Param("statuses") Collection<Review.Status> statuses,
+                                @Param("source") Review.Source source,
+                                @Param("createdAt") Instant createdAt,
+                                @Param("id") UUID id,
+                                Pageable limit);
+
+    @Query("""
+            select count(r) from Review r
+            where r.status in :statuses
+              and (:source is null or r.source = :source)
+            """)
+    long countQueue(@Param("statuses") Collection<Review.Status> statuses,
+                    @Param("source") Review.Source source);
 }
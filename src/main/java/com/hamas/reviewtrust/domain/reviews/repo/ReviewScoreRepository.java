@@ -4,6 +4,8 @@ import com.hamas.reviewtrust.domain.reviews.entity.ReviewScore;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,4 +13,7 @@ import java.util.UUID;
 public interface ReviewScoreRepository extends JpaRepository<ReviewScore, ReviewScore.Id> {
 
     Optional<ReviewScore> findByIdProductIdAndIdSource(UUID productId, String source);
+
+    /** 一覧ページ分のスコアを 1 クエリで取得する。 */
+    List<ReviewScore> findByIdSourceAndIdProductIdIn(String source, Collection<UUID> productIds);
 }
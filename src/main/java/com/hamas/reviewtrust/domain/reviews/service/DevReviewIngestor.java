@@ -3,6 +3,7 @@ package com.hamas.reviewtrust.domain.reviews.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.hamas.reviewtrust.common.text.LexicalFeatures;
 import com.hamas.reviewtrust.domain.products.entity.Product;
 import com.hamas.reviewtrust.domain.products.repo.ProductRepository;
 import com.hamas.reviewtrust.domain.reviews.service.ReviewSnapshotScanner.HistogramEntry;
@@ -50,7 +51,8 @@ public class DevReviewIngestor {
     private static final String UPSERT_SQL = """
             INSERT INTO reviews(
                 product_id, source, source_review_id, stars, rating, title, author,
-                body, body_length, rating_text, posted_at, collected_at, heuristics,
+                body, body_length, body_norm, body_norm_hash, lex_flags,
+                rating_text, posted_at, collected_at, heuristics,
                 created_at, updated_at
             )
             VALUES (
@@ -63,6 +65,9 @@ public class DevReviewIngestor {
                 :author,
                 :body,
                 :bodyLength,
+                :bodyNorm,
+                :bodyNormHash,
+                :lexFlags,
                 :ratingText,
                 :postedAt,
                 :collectedAt,
@@ -79,6 +84,9 @@ public class DevReviewIngestor {
                 author       = EXCLUDED.author,
                 body         = EXCLUDED.body,
                 body_length  = EXCLUDED.body_length,
+                body_norm    = EXCLUDED.body_norm,
+                body_norm_hash = EXCLUDED.body_norm_hash,
+                lex_flags    = EXCLUDED.lex_flags,
                 rating_text  = EXCLUDED.rating_text,
                 posted_at    = COALESCE(EXCLUDED.posted_at, reviews.posted_at),
                 collected_at = COALESCE(EXCLUDED.collected_at, reviews.collected_at),
@@ -107,19 +115,20 @@ public class DevReviewIngestor {
                 updated_at = now()
             """;
 
+    // 星別件数は集計テーブル（V066、同一 Tx のトリガで更新済み）から引く。reviews は走査しない
     private static final String REFRESH_HISTOGRAM_SQL = """
             INSERT INTO product_stats (product_id, ratings_histogram, updated_at)
             VALUES (
                 :productId,
                 COALESCE((
-                    SELECT jsonb_object_agg(rating::text, cnt)
-                    FROM (
-                        SELECT rating, COUNT(*) AS cnt
-                        FROM reviews
-                        WHERE product_id = :productId
-                          AND rating IS NOT NULL
-                        GROUP BY rating
-                    ) sub
+                    SELECT jsonb_strip_nulls(jsonb_build_object(
+                               '1', NULLIF(SUM(star_1), 0),
+                               '2', NULLIF(SUM(star_2), 0),
+                               '3', NULLIF(SUM(star_3), 0),
+                               '4', NULLIF(SUM(star_4), 0),
+                               '5', NULLIF(SUM(star_5), 0)))
+                    FROM product_score_aggregates
+                    WHERE product_id = :productId
                 ), '{}'::jsonb),
                 now()
             )
@@ -265,6 +274,7 @@ public class DevReviewIngestor {
 
         Integer bodyLength = record.bodyLength();
         if (bodyLength == null && body != null) bodyLength = body.length();
+        LexicalFeatures.Analysis lex = LexicalFeatures.analyse(body);
 
         return new MapSqlParameterSource()
                 .addValue("productId", productId, Types.OTHER)
@@ -276,6 +286,9 @@ public class DevReviewIngestor {
                 .addValue("author", nullIfBlank(record.author()), Types.VARCHAR)
                 .addValue("body", body, Types.VARCHAR)
                 .addValue("bodyLength", bodyLength, Types.INTEGER)
+                .addValue("bodyNorm", body != null ? lex.normalised() : null, Types.VARCHAR)
+                .addValue("bodyNormHash", lex.normalisedHash(), Types.BIGINT)
+                .addValue("lexFlags", lex.flags(), Types.INTEGER)
                 .addValue("ratingText", nullIfBlank(record.ratingText()), Types.VARCHAR)
                 .addValue("postedAt", postedAt, Types.TIMESTAMP_WITH_TIMEZONE)
                 .addValue("collectedAt", collectedAt, Types.TIMESTAMP_WITH_TIMEZONE)
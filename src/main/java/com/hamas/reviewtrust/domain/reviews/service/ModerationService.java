@@ -2,8 +2,10 @@ package com.hamas.reviewtrust.domain.reviews.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hamas.reviewtrust.domain.audit.service.AuditService;
+import com.hamas.reviewtrust.domain.reviews.ReviewsChangedEvent;
 import com.hamas.reviewtrust.domain.reviews.entity.Review;
 import com.hamas.reviewtrust.domain.reviews.repo.ReviewRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -28,11 +30,14 @@ public class ModerationService {
     private final ReviewRepository repo;
     private final AuditService audit;
     private final ObjectMapper om;
+    private final ApplicationEventPublisher events;
 
-    public ModerationService(ReviewRepository repo, AuditService audit, ObjectMapper om) {
+    public ModerationService(ReviewRepository repo, AuditService audit, ObjectMapper om,
+                             ApplicationEventPublisher events) {
         this.repo = repo;
         this.audit = audit;
         this.om = om;
+        this.events = events;
     }
 
     @Transactional
@@ -42,6 +47,7 @@ public class ModerationService {
         repo.save(r);
 
         recordAudit("REVIEW_APPROVED", r, reason);
+        publishChanged(r);
         return r;
     }
 
@@ -52,6 +58,7 @@ public class ModerationService {
         repo.save(r);
 
         recordAudit("REVIEW_REJECTED", r, reason);
+        publishChanged(r);
         return r;
     }
 
@@ -81,6 +88,11 @@ public class ModerationService {
         }
     }
 
+    /** スコア再計算はコミット後（リスナー側） */
+    private void publishChanged(Review r) {
+        events.publishEvent(new ReviewsChangedEvent(r.getProductId(), ReviewsChangedEvent.Cause.MODERATION));
+    }
+
     private UUID actorUuid() {
         Authentication a = SecurityContextHolder.getContext().getAuthentication();
         String name = (a != null && StringUtils.hasText(a.getName())) ? a.getName() : "admin";
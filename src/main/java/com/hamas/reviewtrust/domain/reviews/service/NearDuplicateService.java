@@ -0,0 +1,124 @@
+package com.hamas.reviewtrust.domain.reviews.service;
+
+import com.hamas.reviewtrust.common.sim.NearDuplicateClusters;
+import com.hamas.reviewtrust.domain.reviews.ReviewMinHashRepository;
+import com.hamas.reviewtrust.domain.reviews.ReviewMinHashRepository.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Near-duplicate analysis over MinHash signatures: lightly edited copy-paste reviews within a product
+ * (clusters) and the same text posted under other products (cross-catalog matches).
+ *
+ * <p>Pairs are found and verified against the similarity threshold when a review is indexed
+ * ({@link ReviewMinHashRepository#index}); this service only reads the stored pairs of one product and
+ * never writes, so it is safe on the request path. Reviews without a signature yet are picked up by
+ * {@link com.hamas.reviewtrust.domain.reviews.ReviewMinHashBackfill}.</p>
+ */
+@Service
+public class NearDuplicateService {
+
+    private static final Logger log = LoggerFactory.getLogger(NearDuplicateService.class);
+
+    private final ReviewMinHashRepository repository;
+
+    public NearDuplicateService(ReviewMinHashRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * @param totalReviews reviews of the product; denominator of the rates
+     * @return report for the product; {@link NearDuplicateReport#empty()} when no pairs are stored
+     *         or the tables are unavailable
+     */
+    public NearDuplicateReport analyse(UUID productId, int totalReviews) {
+        if (productId == null || totalReviews <= 0) {
+            return NearDuplicateReport.empty();
+        }
+        try {
+            List<Pair> pairs = repository.pairs(productId);
+            if (pairs.isEmpty()) {
+                return NearDuplicateReport.empty(totalReviews);
+            }
+            List<Map.Entry<UUID, UUID>> links = new ArrayList<>();
+            Set<UUID> crossMatched = new HashSet<>();
+            Map<UUID, Set<UUID>> otherProducts = new HashMap<>();
+            for (Pair p : pairs) {
+                if (productId.equals(p.otherProductId())) {
+                    links.add(Map.entry(p.reviewId(), p.otherReviewId()));
+                } else {
+                    crossMatched.add(p.reviewId());
+                    otherProducts.computeIfAbsent(p.otherProductId(), x -> new HashSet<>()).add(p.reviewId());
+                }
+            }
+            List<List<UUID>> clusters = NearDuplicateClusters.connect(links);
+            int clustered = clusters.stream().mapToInt(List::size).sum();
+            int maxCluster = clusters.isEmpty() ? 0 : clusters.get(0).size();
+
+            Map<UUID, Integer> matched = new HashMap<>();
+            otherProducts.forEach((product, reviews) -> matched.put(product, reviews.size()));
+            return new NearDuplicateReport(totalReviews, clusters, clustered, maxCluster,
+                    crossMatched.size(), sortByCount(matched));
+        } catch (DataAccessException e) {
+            log.debug("[near-dup] unavailable for productId={}: {}", productId, e.getMessage());
+            return NearDuplicateReport.empty();
+        }
+    }
+
+    private static Map<UUID, Integer> sortByCount(Map<UUID, Integer> counts) {
+        Map<UUID, Integer> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<UUID, Integer>comparingByValue().reversed())
+                .forEach(e -> sorted.put(e.getKey(), e.getValue()));
+        return sorted;
+    }
+
+    /**
+     * @param totalReviews          reviews of the product
+     * @param clusters              near-duplicate clusters (≥ 2 members), largest first
+     * @param clusteredReviews      reviews belonging to any cluster
+     * @param maxClusterSize        size of the largest cluster
+     * @param crossProductMatches   reviews with a near-duplicate under another product
+     * @param matchedProducts       other product → matching review count, most matches first
+     */
+    public record NearDuplicateReport(int totalReviews,
+                                      List<List<UUID>> clusters,
+                                      int clusteredReviews,
+                                      int maxClusterSize,
+                                      int crossProductMatches,
+                                      Map<UUID, Integer> matchedProducts) {
+
+        public static NearDuplicateReport empty() {
+            return empty(0);
+        }
+
+        public static NearDuplicateReport empty(int totalReviews) {
+            return new NearDuplicateReport(totalReviews, List.of(), 0, 0, 0, Map.of());
+        }
+
+        /** Share of reviews that have at least one near-duplicate in the same product. */
+        public double nearDuplicateRate() {
+            return totalReviews == 0 ? 0.0 : clusteredReviews / (double) totalReviews;
+        }
+
+        /** Largest cluster over all reviews; comparable to the exact-match duplicate rate. */
+        public double maxClusterRate() {
+            return totalReviews == 0 ? 0.0 : maxClusterSize / (double) totalReviews;
+        }
+
+        public double crossProductRate() {
+            return totalReviews == 0 ? 0.0 : crossProductMatches / (double) totalReviews;
+        }
+    }
+}
@@ -7,8 +7,14 @@ import com.hamas.reviewtrust.domain.products.entity.Product;
 import com.hamas.reviewtrust.domain.products.repo.ProductRepository;
 import com.hamas.reviewtrust.domain.reviews.ReviewUpsertRepository;
 import com.hamas.reviewtrust.domain.reviews.ReviewUpsertRepository.ReviewUpsertRequest;
+import com.hamas.reviewtrust.domain.reviews.ReviewsChangedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -26,6 +32,8 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ReviewIntakeService {
@@ -36,27 +44,34 @@ public class ReviewIntakeService {
     private final ObjectMapper objectMapper;
     private final ReviewUpsertRepository reviewUpsertRepository;
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher events;
+    private final TaskDecorator taskDecorator;
+    private final boolean virtualThreads;
 
     public ReviewIntakeService(IntakeProperties intakeProperties,
                                ObjectMapper objectMapper,
                                ReviewUpsertRepository reviewUpsertRepository,
-                               ProductRepository productRepository) {
+                               ProductRepository productRepository,
+                               ApplicationEventPublisher events,
+                               ObjectProvider<TaskDecorator> taskDecorator,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
         this.intakeProperties = intakeProperties;
         this.objectMapper = objectMapper;
         this.reviewUpsertRepository = reviewUpsertRepository;
         this.productRepository = productRepository;
+        this.events = events;
+        this.taskDecorator = taskDecorator.getIfUnique();
+        this.virtualThreads = virtualThreads;
     }
 
     public IntakeResult ingestAll(String asinFilter) {
         List<Path> files = getCandidateFiles(asinFilter);
-        List<FileResult> results = new ArrayList<>(files.size());
+        List<FileResult> results = processFiles(files);
         int totalSucceeded = 0;
         int totalSkipped = 0;
         int totalHistogram = 0;
 
-        for (Path file : files) {
-            FileResult result = processFile(file);
-            results.add(result);
+        for (FileResult result : results) {
             totalSucceeded += result.succeeded();
             totalSkipped += result.skipped();
             totalHistogram += result.histogramLines();
@@ -64,6 +79,39 @@ public class ReviewIntakeService {
         return new IntakeResult(results, results.size(), totalSucceeded, totalSkipped, totalHistogram);
     }
 
+    /**
+     * Processes the files with up to {@code intake.review.workers} in parallel (one thread per file, virtual
+     * threads when {@code spring.threads.virtual.enabled}). Results keep the order of {@code files}; the MDC of
+     * the caller is carried over to the workers via the application's {@link TaskDecorator}.
+     */
+    private List<FileResult> processFiles(List<Path> files) {
+        int workers = Math.min(Math.max(1, intakeProperties.getWorkers()), files.size());
+        if (workers <= 1) {
+            List<FileResult> results = new ArrayList<>(files.size());
+            for (Path file : files) {
+                results.add(processFile(file));
+            }
+            return results;
+        }
+        try (SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("intake-")) {
+            executor.setVirtualThreads(virtualThreads);
+            // 上限に達すると submit 側が待つので、ファイル数分のスレッドが一度に立つことはない
+            executor.setConcurrencyLimit(workers);
+            if (taskDecorator != null) {
+                executor.setTaskDecorator(taskDecorator);
+            }
+            List<CompletableFuture<FileResult>> futures = new ArrayList<>(files.size());
+            for (Path file : files) {
+                futures.add(executor.submitCompletable(() -> processFile(file)));
+            }
+            List<FileResult> results = new ArrayList<>(files.size());
+            for (CompletableFuture<FileResult> future : futures) {
+                results.add(future.join());
+            }
+            return results;
+        }
+    }
+
     public List<Path> getCandidateFiles(String asinFilter) {
         String normalizedAsin = normalizeAsin(asinFilter);
         Set<Path> collected = new LinkedHashSet<>();
@@ -108,6 +156,7 @@ public class ReviewIntakeService {
         int succeeded = 0;
         int skipped = 0;
         String error = null;
+        Set<UUID> changedProducts = new LinkedHashSet<>();
 
         try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
             String line;
@@ -144,6 +193,9 @@ public class ReviewIntakeService {
 
                 try {
                     reviewUpsertRepository.upsert(request);
+                    if (request.productId() instanceof UUID productId) {
+                        changedProducts.add(productId);
+                    }
                     succeeded++;
                 } catch (Exception upsertEx) {
                     log.warn("[intake] upsert failed {}:{} reviewId={} cause={}",
@@ -157,6 +209,10 @@ public class ReviewIntakeService {
             error = e.toString();
             log.warn("[intake] skip file={} cause={}", file, e.toString(), e);
         }
+        // 途中で失敗したファイルでも、書けた分の商品は再計算対象にする
+        for (UUID productId : changedProducts) {
+            events.publishEvent(new ReviewsChangedEvent(productId, ReviewsChangedEvent.Cause.INTAKE));
+        }
 
         long size = safeSize(file);
         Instant lastModified = safeLastModified(file);
@@ -1,5 +1,7 @@
 package com.hamas.reviewtrust.domain.reviews.service;
 
+import com.hamas.reviewtrust.common.paging.KeysetCursor;
+import com.hamas.reviewtrust.common.paging.KeysetPage;
 import com.hamas.reviewtrust.domain.products.repo.ProductRepository;
 import com.hamas.reviewtrust.domain.reviews.entity.Review;
 import com.hamas.reviewtrust.domain.reviews.repo.ReviewRepository;
@@ -135,13 +137,53 @@ public class ReviewService {
     public Page<Review> listQueue(Review.Source source, int page, int size) {
         int safePage = Math.max(0, page);
         int safeSize = Math.max(1, Math.min(200, size));
-        PageRequest pageable = PageRequest.of(safePage, safeSize, Sort.by(Sort.Direction.DESC, "createdAt"));
+        // id を二次キーにして、同時刻のレビューがページ境界で重複/欠落しないようにする
+        PageRequest pageable = PageRequest.of(safePage, safeSize,
+                Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id")));
         if (source != null) {
             return repo.findBySourceAndStatusIn(source, PENDING_STATUSES, pageable);
         }
         return repo.findByStatusIn(PENDING_STATUSES, pageable);
     }
 
+    /**
+     * 承認キューの keyset ページング版。{@code (created_at, id)} 降順で cursor の直後から size 件を返す。
+     * total は countMode=EXACT の場合のみ COUNT(*) を実行する。
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Review> listQueuePage(Review.Source source, String cursor, int size, KeysetPage.CountMode countMode) {
+        int safeSize = Math.max(1, Math.min(200, size));
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        PageRequest limit = PageRequest.of(0, safeSize + 1);
+        List<Review> rows = after == null
+                ? repo.findQueueFirst(PENDING_STATUSES, source, limit)
+                : repo.findQueueAfter(PENDING_STATUSES, source, after.createdAt(), after.id(), limit);
+        // ステータス条件付きのため reltuples は使えない。ESTIMATE も正確な件数で代替する。
+        Long total = countMode == KeysetPage.CountMode.NONE ? null : repo.countQueue(PENDING_STATUSES, source);
+        return KeysetPage.fromOverfetch(rows, safeSize, r -> new KeysetCursor(r.getCreatedAt(), r.getId()), total, false);
+    }
+
+    /**
+     * 公開レビュー（グループ単位）の keyset ページング版。{@code (coalesce(posted_at, created_at), id)} 降順。
+     * USER は承認済みのみ。cursor のキーは並び順の時刻（posted_at が無ければ created_at）。
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Review> listPublicGroupPage(UUID productId, Review.Source source, String cursor, int size) {
+        int safeSize = Math.max(1, Math.min(200, size));
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Review.Status status = source == Review.Source.USER ? Review.Status.APPROVED : null;
+        PageRequest limit = PageRequest.of(0, safeSize + 1);
+        List<Review> rows = after == null
+                ? repo.findGroupFirst(productId, source, status, limit)
+                : repo.findGroupAfter(productId, source, status, after.createdAt(), after.id(), limit);
+        return KeysetPage.fromOverfetch(rows, safeSize, ReviewService::publicSortKey, null, false);
+    }
+
+    private static KeysetCursor publicSortKey(Review r) {
+        Instant at = r.getPostedAt() != null ? r.getPostedAt() : r.getCreatedAt();
+        return new KeysetCursor(at, r.getId());
+    }
+
     // --- helpers ---
     private void ensureProduct(UUID id) {
         products.findById(id).orElseThrow(() ->
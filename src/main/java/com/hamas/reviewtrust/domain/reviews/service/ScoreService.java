@@ -1,14 +1,26 @@
 package com.hamas.reviewtrust.domain.reviews.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.hamas.reviewtrust.common.text.TextNormalizer;
+import com.hamas.reviewtrust.common.text.LexicalFeatures;
 import com.hamas.reviewtrust.domain.reviews.entity.ReviewScore;
 import com.hamas.reviewtrust.domain.reviews.repo.ReviewScoreRepository;
+import com.hamas.reviewtrust.domain.scoring.engine.ScoreRecomputeQueue;
+import com.hamas.reviewtrust.domain.scoring.profile.ScoringConfig;
 import com.hamas.reviewtrust.domain.scoring.profile.ThresholdProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
@@ -26,24 +38,45 @@ import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.regex.Pattern;
-
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.summingLong;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Lightweight sakura scoring service used by the public Scores API.
  *
  * The service extracts heuristic features from the reviews table, evaluates them
  * against scoring/thresholds.yml, and persists the outcome to review_scores (source="SITE").
+ *
+ * {@link #getScore(UUID, boolean)} is the read path for the Scores API and never computes on the request
+ * thread unless an administrator forces a refresh: a cache miss reads the persisted review_scores row, and a
+ * score that is past the soft TTL, older than the last threshold change or from another score version is
+ * served as-is while one background refresh runs. A product that has never been scored is queued and
+ * answered with {@code null}. Concurrent recomputes of the same product are coalesced into a single in-flight
+ * computation.
+ *
+ * {@link #getScores(Collection)} is the listing variant of the same rules, with all missing persisted scores
+ * read in one query.
+ *
+ * The in-memory cache is size-bounded only (W-TinyLFU eviction, no time-based expiry, so an old entry is
+ * still servable while its refresh runs) and published to Micrometer as {@code cache.*{cache=scores.site}};
+ * compute time is {@code scores.site.compute}. {@link #invalidate(UUID)} drops one product; a threshold
+ * change marks every entry stale instead of dropping it, so reads keep hitting the cache and the refreshes
+ * go through the background queue. Review writes and moderation do not invalidate:
+ * {@link #markReviewsChanged(UUID)} (driven by {@code ReviewChangeListener}) recomputes in the background
+ * while the previous score stays readable.
+ * Persisted rows record the {@code score_version} (threshold fingerprint) they were computed with, so rows
+ * from an older configuration are refreshed in the background even after a restart.
  */
 @Service("productScoreService")
 public class ScoreService {
@@ -51,37 +84,102 @@ public class ScoreService {
     private static final Logger log = LoggerFactory.getLogger(ScoreService.class);
 
     private static final String SCORE_SOURCE = "SITE";
-    private static final Duration CACHE_TTL = Duration.ofMinutes(10);
+    /** 特徴量/ルールのロジックを変えたら上げる */
+    private static final String SITE_ENGINE_VERSION = "site-v1";
     private static final ZoneId UTC = ZoneOffset.UTC;
-    private static final int SHORT_REVIEW_THRESHOLD = 60;
-
-    private static final Pattern URL_PATTERN = Pattern.compile("(?i)https?://|www\\.|\\.co(m|\\.jp)|\\.jp");
-    private static final Pattern SYMBOL_RUN_PATTERN = Pattern.compile("([!！?？.,。、〜～ー\\-])\\1{2,}");
 
     private final NamedParameterJdbcTemplate namedJdbcTemplate;
     private final ObjectMapper objectMapper;
     private final ThresholdProvider thresholdProvider;
     private final ReviewScoreRepository reviewScoreRepository;
-    private final ConcurrentMap<UUID, CacheEntry> cache = new ConcurrentHashMap<>();
+    private final ScoreRecomputeQueue recomputeQueue;
+    private final ObjectProvider<ScoreService> self;
+    private final Duration softTtl;
+    private final Cache<UUID, CacheEntry> cache;
+    private final Timer computeTimer;
+    /** 閾値変更などで全体を無効化した時刻。これより古いスコア（キャッシュ/永続とも）は再計算対象 */
+    private volatile Instant invalidatedAt = Instant.EPOCH;
+    private volatile String currentVersion;
+    private final ConcurrentMap<UUID, CompletableFuture<ProductScore>> inFlight = new ConcurrentHashMap<>();
 
     public ScoreService(NamedParameterJdbcTemplate namedJdbcTemplate,
                         ObjectMapper objectMapper,
                         ThresholdProvider thresholdProvider,
-                        ReviewScoreRepository reviewScoreRepository) {
+                        ReviewScoreRepository reviewScoreRepository,
+                        ScoreRecomputeQueue recomputeQueue,
+                        ObjectProvider<ScoreService> self,
+                        @Value("${scoring.site.soft-ttl:PT10M}") Duration softTtl,
+                        @Value("${scoring.site.cache.max-size:10000}") long cacheMaxSize,
+                        ObjectProvider<MeterRegistry> meterRegistry) {
         this.namedJdbcTemplate = namedJdbcTemplate;
         this.objectMapper = objectMapper;
         this.thresholdProvider = thresholdProvider;
         this.reviewScoreRepository = reviewScoreRepository;
+        this.recomputeQueue = recomputeQueue;
+        this.self = self;
+        this.softTtl = softTtl;
+        // 時間では追い出さない（古いエントリも再計算が終わるまでは返す）。メモリはサイズ上限だけで抑える
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(Math.max(1L, cacheMaxSize))
+                .recordStats()
+                .build();
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        CaffeineCacheMetrics.monitor(registry, cache, "scores.site");
+        this.computeTimer = Timer.builder("scores.site.compute")
+                .description("Time spent computing a SITE sakura score")
+                .register(registry);
+        thresholdProvider.addConfigListener(config -> {
+            currentVersion = versionOf(config);
+            invalidateAll();
+        });
+        this.currentVersion = versionOf(thresholdProvider.config());
+    }
+
+    /** Version stamped on scores computed now: {@code site-v1:<threshold fingerprint>}. */
+    public String currentVersion() {
+        return currentVersion;
+    }
+
+    /** Drops the cached score of one product. */
+    public void invalidate(UUID productId) {
+        if (productId == null) return;
+        cache.invalidate(productId);
+    }
+
+    /**
+     * Called (debounced) after reviews of a product were written or moderated. Recomputes and persists in
+     * the background; the cached score keeps being served until the new one replaces it.
+     */
+    public void markReviewsChanged(UUID productId) {
+        if (productId == null) return;
+        // 進行中の再計算は変更前のデータを読んでいる可能性があるので合流しない
+        recomputeQueue.submit("site:" + productId, () -> self.getObject().recomputeForProduct(productId));
+    }
+
+    /**
+     * Marks every cached and persisted score as stale (threshold/weight change). Entries are kept and served
+     * until the background refresh triggered by their next read replaces them.
+     */
+    public void invalidateAll() {
+        invalidatedAt = Instant.now();
+        log.info("[ScoreService] all scores marked stale");
     }
 
     /** Compute without persisting. */
     public ProductScore calculateScore(UUID productId) {
+        return calculateScore(productId, thresholdProvider.get());
+    }
+
+    private ProductScore calculateScore(UUID productId, ThresholdProvider.Thresholds thresholds) {
         if (productId == null) return defaultScore(null);
+        long started = System.nanoTime();
         try {
-            return calculateSakuraScore(productId);
+            return calculateSakuraScore(productId, thresholds);
         } catch (Exception e) {
             log.warn("[ScoreService] Failed to compute sakura score for {}", productId, e);
             return defaultScore(productId);
+        } finally {
+            computeTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
         }
     }
 
@@ -89,23 +187,157 @@ public class ScoreService {
     public ProductScore getCachedScore(UUID productId) {
         if (productId == null) return defaultScore(null);
         Instant now = Instant.now();
-        CacheEntry cached = cache.get(productId);
-        if (cached != null && cached.expiresAt().isAfter(now)) return cached.score();
+        CacheEntry cached = cache.getIfPresent(productId);
+        if (cached != null && !isStale(cached, now)) return cached.score();
         ProductScore fresh = calculateScore(productId);
-        cache.put(productId, new CacheEntry(fresh, now.plus(CACHE_TTL)));
+        cache.put(productId, new CacheEntry(fresh, now, currentVersion));
         return fresh;
     }
 
+    /**
+     * Stale-while-revalidate read used by the Scores API: cache, then the persisted row, never an inline
+     * compute. Stale scores are returned while a background refresh runs.
+     *
+     * @param forceRefresh recompute now (joining an in-flight recompute if there is one); admin only
+     * @return the score, or {@code null} when the product has never been scored (it is queued)
+     */
+    public ProductScore getScore(UUID productId, boolean forceRefresh) {
+        if (productId == null) return defaultScore(null);
+        if (forceRefresh) {
+            return recomputeShared(productId);
+        }
+        Instant now = Instant.now();
+        CacheEntry cached = cache.getIfPresent(productId);
+        if (cached != null) {
+            if (isStale(cached, now)) {
+                refreshInBackground(productId);
+            }
+            return cached.score();
+        }
+        ReviewScore stored;
+        try {
+            stored = reviewScoreRepository.findById(new ReviewScore.Id(productId, SCORE_SOURCE)).orElse(null);
+        } catch (DataAccessException e) {
+            log.warn("[ScoreService] score lookup failed for {}: {}", productId, e.getMessage());
+            stored = null;
+        }
+        if (stored == null) {
+            refreshInBackground(productId);
+            return null;
+        }
+        return cacheStored(stored, now);
+    }
+
+    /**
+     * Bulk read for listing pages. Cached entries are used as-is (with a background refresh past the soft TTL),
+     * the rest are loaded from review_scores in a single query, and products that have never been scored are
+     * queued for background computation and left out of the result.
+     *
+     * @return scores keyed by product id, in input order; never computes inline
+     */
+    public Map<UUID, ProductScore> getScores(Collection<UUID> productIds) {
+        if (productIds == null || productIds.isEmpty()) return Map.of();
+        Instant now = Instant.now();
+        Map<UUID, ProductScore> result = new LinkedHashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : productIds) {
+            if (id == null || result.containsKey(id)) continue;
+            CacheEntry cached = cache.getIfPresent(id);
+            if (cached == null) {
+                missing.add(id);
+                continue;
+            }
+            if (isStale(cached, now)) {
+                refreshInBackground(id);
+            }
+            result.put(id, cached.score());
+        }
+        if (missing.isEmpty()) return result;
+
+        List<ReviewScore> stored;
+        try {
+            stored = reviewScoreRepository.findByIdSourceAndIdProductIdIn(SCORE_SOURCE, missing);
+        } catch (DataAccessException e) {
+            log.warn("[ScoreService] bulk score lookup failed for {} products: {}", missing.size(), e.getMessage());
+            stored = List.of();
+        }
+        Map<UUID, ProductScore> loaded = new LinkedHashMap<>();
+        for (ReviewScore row : stored) {
+            loaded.put(row.getId().getProductId(), cacheStored(row, now));
+        }
+        for (UUID id : missing) {
+            ProductScore score = loaded.get(id);
+            if (score != null) {
+                result.put(id, score);
+            } else {
+                refreshInBackground(id);
+            }
+        }
+        return result;
+    }
+
+    /** Caches a persisted row (unless a newer value is already cached) and queues a refresh if it is stale. */
+    private ProductScore cacheStored(ReviewScore row, Instant now) {
+        UUID id = row.getId().getProductId();
+        Instant computedAt = row.getComputedAt() != null ? row.getComputedAt() : Instant.EPOCH;
+        CacheEntry entry = new CacheEntry(fromEntity(row), computedAt, row.getScoreVersion());
+        // 既に新しい値がキャッシュされていれば上書きしない
+        CacheEntry raced = cache.asMap().putIfAbsent(id, entry);
+        CacheEntry served = raced != null ? raced : entry;
+        if (isStale(served, now)) {
+            refreshInBackground(id);
+        }
+        return served.score();
+    }
+
+    private boolean isStale(CacheEntry entry, Instant now) {
+        return Duration.between(entry.computedAt(), now).compareTo(softTtl) >= 0
+                || entry.computedAt().isBefore(invalidatedAt)
+                || !currentVersion.equals(entry.version());
+    }
+
+    private void refreshInBackground(UUID productId) {
+        if (inFlight.containsKey(productId)) return;
+        recomputeQueue.submit("site:" + productId, () -> recomputeShared(productId));
+    }
+
+    /** Single-flight: callers that arrive while a recompute is running wait for that result. */
+    private ProductScore recomputeShared(UUID productId) {
+        CompletableFuture<ProductScore> mine = new CompletableFuture<>();
+        CompletableFuture<ProductScore> running = inFlight.putIfAbsent(productId, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+        try {
+            // REQUIRES_NEW を効かせるためプロキシ経由で呼ぶ
+            ProductScore score = self.getObject().recomputeForProduct(productId);
+            mine.complete(score);
+            return score;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(productId, mine);
+        }
+    }
+
     /** Recompute and persist in its own transaction. */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public ProductScore recomputeForProduct(UUID productId) {
         if (productId == null) return defaultScore(null);
         log.info("[ScoreService] RECOMPUTE start productId={}", productId);
 
-        ProductScore updated = calculateScore(productId);
+        // 閾値と記録する版は同じスナップショットから取る
+        ScoringConfig config = thresholdProvider.config();
+        ProductScore updated = calculateScore(productId, config.thresholds());
 
         // Persist computed score (REQUIRES_NEW applied at method level)
         persistScore(productId,
+                versionOf(config),
                 updated.score(),
                 updated.rank(),
                 updated.sakuraJudge(),
@@ -113,7 +345,7 @@ public class ScoreService {
                 updated.rules(),
                 updated.metrics());
 
-        cache.put(productId, new CacheEntry(updated, Instant.now().plus(CACHE_TTL)));
+        cache.put(productId, new CacheEntry(updated, Instant.now(), versionOf(config)));
         log.info("[ScoreService] RECOMPUTE result productId={} score={} rank={} judge={}",
                 productId, updated.score(), updated.rank(), updated.sakuraJudge());
         return updated;
@@ -124,15 +356,13 @@ public class ScoreService {
     /* --------------------------------------------------------------------- */
 
     /** Pure compute. Do NOT persist here. */
-    private ProductScore calculateSakuraScore(UUID productId) {
-        List<ReviewRow> reviews = loadReviews(productId);
-        if (reviews.isEmpty()) {
+    private ProductScore calculateSakuraScore(UUID productId, ThresholdProvider.Thresholds thresholds) {
+        FeatureSummary features = loadFeatures(productId);
+        if (features == null) {
             log.info("[ScoreService] product={} has no crawlable reviews; default score used", productId);
             return defaultScore(productId);
         }
 
-        FeatureSummary features = calculateFeatures(reviews);
-        var thresholds = thresholdProvider.get();
         var featureBands = thresholds.featurePercent;
 
         List<RuleEvidence> rules = buildRules(features, thresholds);
@@ -165,11 +395,21 @@ public class ScoreService {
         );
     }
 
-    private List<ReviewRow> loadReviews(UUID productId) {
+    /**
+     * One pass over the product's reviews into {@link SiteFeatureAccumulator}; rows are not materialised.
+     * The trigger-maintained aggregates (V066) are not used here: the SITE features count all sources, take
+     * {@code stars} before {@code rating}, bucket days by {@code coalesce(posted_at, created_at)} and split noise
+     * into URL/emoji/symbol/short counts, none of which the aggregates carry.
+     *
+     * @return features, or {@code null} when the product has no reviews or they could not be read
+     */
+    private FeatureSummary loadFeatures(UUID productId) {
         // posted_at を優先し、無ければ created_at を使う（サージ判定の精度向上）
         var sql = """
                 SELECT COALESCE(stars, rating, 0) AS stars,
-                       COALESCE(body, text, '') AS body,
+                       CASE WHEN body IS NOT NULL THEN lex_flags END AS lex_flags,
+                       body_norm_hash,
+                       CASE WHEN lex_flags IS NULL OR body IS NULL THEN COALESCE(body, text, '') END AS body,
                        COALESCE(posted_at, created_at) AS created_at,
                        fingerprint,
                        reviewer_meta AS reviewer_ref
@@ -177,49 +417,30 @@ public class ScoreService {
                  WHERE product_id = :productId
                 """;
         MapSqlParameterSource params = new MapSqlParameterSource().addValue("productId", productId);
+        SiteFeatureAccumulator acc = new SiteFeatureAccumulator();
         try {
-            return namedJdbcTemplate.query(sql, params, this::mapRow);
+            namedJdbcTemplate.query(sql, params, (RowCallbackHandler) acc::add);
         } catch (DataAccessException e) {
             log.warn("[ScoreService] failed to load reviews for {}", productId, e);
-            return List.of();
+            return null;
         }
+        return acc.total == 0 ? null : calculateFeatures(acc);
     }
 
-    private ReviewRow mapRow(ResultSet rs, int rowNum) throws SQLException {
-        int stars = Math.max(0, Math.min(5, rs.getInt("stars")));
-        String body = OptionalString(rs.getString("body"));
-        Timestamp created = rs.getTimestamp("created_at");
-        Instant createdAt = created != null ? created.toInstant() : Instant.now();
-        String fingerprint = OptionalString(rs.getString("fingerprint"));
-        String reviewerRef = OptionalString(rs.getString("reviewer_ref"));
-        String normalisedBody = OptionalString(TextNormalizer.normalize(body));
-        return new ReviewRow(stars, body, createdAt, fingerprint, reviewerRef, normalisedBody);
-    }
-
-    private FeatureSummary calculateFeatures(List<ReviewRow> reviews) {
-        int total = reviews.size();
+    private FeatureSummary calculateFeatures(SiteFeatureAccumulator acc) {
+        int total = acc.total;
 
-        long fiveStar = reviews.stream().filter(r -> r.stars() >= 5).count();
-        double distBias = percent(fiveStar, total);
+        double distBias = percent(acc.fiveStar, total);
 
-        Map<String, Long> clusters = reviews.stream()
-                .map(ReviewRow::clusterKey)
-                .filter(StringUtils::hasText)
-                .collect(groupingBy(s -> s, summingLong(v -> 1)));
-        long maxCluster = clusters.values().stream().mapToLong(Long::longValue).max().orElse(0L);
+        long maxCluster = acc.clusters.values().stream().mapToLong(Long::longValue).max().orElse(0L);
         double duplicates = percent(maxCluster, total);
 
-        Map<LocalDate, Long> perDay = new LinkedHashMap<>();
-        reviews.forEach(row -> {
-            LocalDate day = LocalDate.ofInstant(row.createdAt(), UTC);
-            perDay.merge(day, 1L, Long::sum);
-        });
-        long maxDayCount = perDay.values().stream().mapToLong(Long::longValue).max().orElse(0L);
-        int dayBuckets = perDay.size();
+        long maxDayCount = acc.perDay.values().stream().mapToLong(Long::longValue).max().orElse(0L);
+        int dayBuckets = acc.perDay.size();
         double avgPerDay = dayBuckets == 0 ? 0.0 : (double) total / dayBuckets;
         double surge = avgPerDay <= 0 ? 0.0 : Math.min(100.0, (maxDayCount / avgPerDay) * 100.0);
 
-        NoiseStats noiseStats = computeNoiseStats(reviews);
+        NoiseStats noiseStats = computeNoiseStats(acc);
         double noise = Math.min(100.0, noiseStats.weightedScore());
 
         return new FeatureSummary(
@@ -228,7 +449,7 @@ public class ScoreService {
                 duplicates,
                 surge,
                 noise,
-                fiveStar,
+                acc.fiveStar,
                 maxCluster,
                 maxDayCount,
                 dayBuckets,
@@ -237,26 +458,16 @@ public class ScoreService {
         );
     }
 
-    private NoiseStats computeNoiseStats(List<ReviewRow> reviews) {
-        if (reviews.isEmpty()) return new NoiseStats(0, 0, 0, 0, 0, 0);
-        int urlHits = 0, emojiHits = 0, symbolRuns = 0, shortHits = 0, totalLength = 0;
-        for (ReviewRow row : reviews) {
-            String body = OptionalString(row.body());
-            if (body.isEmpty()) { shortHits++; continue; }
-            totalLength += body.length();
-            if (URL_PATTERN.matcher(body).find()) urlHits++;
-            if (containsEmoji(body)) emojiHits++;
-            if (SYMBOL_RUN_PATTERN.matcher(body).find()) symbolRuns++;
-            if (body.length() < SHORT_REVIEW_THRESHOLD) shortHits++;
-        }
-        double total = reviews.size();
-        double urlRate = urlHits / total;
-        double emojiRate = emojiHits / total;
-        double symbolRate = symbolRuns / total;
-        double shortRate = shortHits / total;
+    private NoiseStats computeNoiseStats(SiteFeatureAccumulator acc) {
+        if (acc.total == 0) return new NoiseStats(0, 0, 0, 0, 0);
+        double total = acc.total;
+        double urlRate = acc.urlHits / total;
+        double emojiRate = acc.emojiHits / total;
+        double symbolRate = acc.symbolRuns / total;
+        double shortRate = acc.shortHits / total;
 
         double weightedScore = (urlRate * 0.4 + emojiRate * 0.2 + symbolRate * 0.2 + shortRate * 0.2) * 100.0;
-        return new NoiseStats(urlHits, emojiHits, symbolRuns, shortHits, totalLength, weightedScore);
+        return new NoiseStats(acc.urlHits, acc.emojiHits, acc.symbolRuns, acc.shortHits, weightedScore);
     }
 
     private List<RuleEvidence> buildRules(FeatureSummary features, ThresholdProvider.Thresholds thresholds) {
@@ -313,6 +524,7 @@ public class ScoreService {
 
     /** Persist inside an active Tx (caller ensures Tx). */
     private void persistScore(UUID productId,
+                              String scoreVersion,
                               double scoreValue,
                               String rank,
                               String sakuraJudge,
@@ -329,14 +541,41 @@ public class ScoreService {
         entity.setFlags(toJsonNode(flags == null ? List.of() : flags));
         entity.setRules(toJsonNode(rules == null ? List.of() : rules));
         entity.setMetrics(toJsonNode(metrics == null ? Map.of() : metrics));
+        entity.setScoreVersion(scoreVersion);
         entity.setComputedAt(Instant.now());
         reviewScoreRepository.saveAndFlush(entity);
     }
 
+    private static String versionOf(ScoringConfig config) {
+        return SITE_ENGINE_VERSION + ":" + config.fingerprint();
+    }
+
     private JsonNode toJsonNode(Object payload) {
         return objectMapper.valueToTree(payload);
     }
 
+    private ProductScore fromEntity(ReviewScore row) {
+        return new ProductScore(
+                row.getId().getProductId(),
+                row.getScore(),
+                Math.max(0.0, 100.0 - row.getScore()),
+                row.getRank(),
+                row.getSakuraJudge(),
+                fromJsonNode(row.getFlags(), new TypeReference<List<String>>() { }),
+                fromJsonNode(row.getRules(), new TypeReference<List<RuleEvidence>>() { }),
+                fromJsonNode(row.getMetrics(), new TypeReference<Map<String, Object>>() { }));
+    }
+
+    private <T> T fromJsonNode(JsonNode node, TypeReference<T> type) {
+        if (node == null || node.isNull()) return null;
+        try {
+            return objectMapper.convertValue(node, type);
+        } catch (IllegalArgumentException e) {
+            log.debug("[ScoreService] unreadable stored payload: {}", e.getMessage());
+            return null;
+        }
+    }
+
     /* --------------------------------------------------------------------- */
     /* Helpers                                                               */
     /* --------------------------------------------------------------------- */
@@ -350,14 +589,6 @@ public class ScoreService {
         return Math.round(value * 100.0) / 100.0;
     }
 
-    private boolean containsEmoji(String text) {
-        if (text == null || text.isBlank()) return false;
-        return text.codePoints().anyMatch(cp -> {
-            int type = Character.getType(cp);
-            return type == Character.SURROGATE || type == Character.OTHER_SYMBOL || cp >= 0x1F000;
-        });
-    }
-
     private ProductScore defaultScore(UUID productId) {
         return new ProductScore(productId, 0.0, 100.0, "A", SakuraLevel.GENUINE.name(),
                 List.of(), List.of(), Map.of());
@@ -377,16 +608,47 @@ public class ScoreService {
     /* Records & DTOs                                                        */
     /* --------------------------------------------------------------------- */
 
-    private record ReviewRow(int stars,
-                             String body,
-                             Instant createdAt,
-                             String fingerprint,
-                             String reviewerRef,
-                             String normalizedBody) {
-        String clusterKey() {
+    /** 1 行ずつ畳み込む（保持するのはクラスタ・日付ごとの件数だけ） */
+    private static final class SiteFeatureAccumulator {
+        int total;
+        long fiveStar;
+        int urlHits, emojiHits, symbolRuns, shortHits;
+        final Map<String, Long> clusters = new HashMap<>();
+        final Map<LocalDate, Long> perDay = new HashMap<>();
+
+        void add(ResultSet rs) throws SQLException {
+            int stars = Math.max(0, Math.min(5, rs.getInt("stars")));
+            Timestamp created = rs.getTimestamp("created_at");
+            Instant createdAt = created != null ? created.toInstant() : Instant.now();
+            String fingerprint = OptionalString(rs.getString("fingerprint"));
+            String reviewerRef = OptionalString(rs.getString("reviewer_ref"));
+            // 書き込み時に永続化した字句特徴があればそれを使い、未バックフィルの行だけここで解析する
+            int lexFlags = rs.getInt("lex_flags");
+            Long normHash;
+            if (rs.wasNull()) {
+                LexicalFeatures.Analysis lex = LexicalFeatures.analyse(rs.getString("body"));
+                lexFlags = lex.flags();
+                normHash = lex.normalisedHash();
+            } else {
+                long hash = rs.getLong("body_norm_hash");
+                normHash = rs.wasNull() ? null : hash;
+            }
+
+            total++;
+            if (stars >= 5) fiveStar++;
+            String clusterKey = clusterKey(fingerprint, reviewerRef, normHash);
+            if (clusterKey != null) clusters.merge(clusterKey, 1L, Long::sum);
+            perDay.merge(LocalDate.ofInstant(createdAt, UTC), 1L, Long::sum);
+            if (LexicalFeatures.has(lexFlags, LexicalFeatures.URL)) urlHits++;
+            if (LexicalFeatures.has(lexFlags, LexicalFeatures.EMOJI)) emojiHits++;
+            if (LexicalFeatures.has(lexFlags, LexicalFeatures.SYMBOL_RUN)) symbolRuns++;
+            if (LexicalFeatures.has(lexFlags, LexicalFeatures.SHORT)) shortHits++;
+        }
+
+        private static String clusterKey(String fingerprint, String reviewerRef, Long normalizedBodyHash) {
             if (StringUtils.hasText(fingerprint)) return fingerprint;
             if (StringUtils.hasText(reviewerRef)) return reviewerRef.toLowerCase(Locale.ROOT);
-            if (StringUtils.hasText(normalizedBody)) return normalizedBody;
+            if (normalizedBodyHash != null) return "b:" + Long.toHexString(normalizedBodyHash);
             return null;
         }
     }
@@ -407,7 +669,6 @@ public class ScoreService {
                               int emojiHits,
                               int symbolRuns,
                               int shortReviews,
-                              int totalLength,
                               double weightedScore) { }
 
     public enum SakuraLevel { SAKURA, LIKELY, UNLIKELY, GENUINE }
@@ -420,7 +681,8 @@ public class ScoreService {
                                int points,
                                Map<String, Object> extra) { }
 
-    private record CacheEntry(ProductScore score, Instant expiresAt) { }
+    /** {@code version} is the score_version the score was computed with (may be null for legacy rows). */
+    private record CacheEntry(ProductScore score, Instant computedAt, String version) { }
 
     public record ProductScore(UUID productId,
                                double score,
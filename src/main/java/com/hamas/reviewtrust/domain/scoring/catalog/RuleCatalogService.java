@@ -14,7 +14,7 @@ public class RuleCatalogService {
     private final List<Rule> rules;
 
     public RuleCatalogService() {
-        rules = new ArrayList<>();
+        List<Rule> rules = new ArrayList<>();
         rules.add(new DuplicateTextRule());
         rules.add(new UnnaturalJaRule());
         rules.add(new StarDistributionRule());
@@ -26,14 +26,15 @@ public class RuleCatalogService {
         rules.add(new NewAccountBurstRule());
         rules.add(new SameVendorConcentrationRule());
         rules.add(new SpecificityRule());
+        this.rules = List.copyOf(rules);
     }
 
     /**
-     * Returns an immutable list of all rules.
+     * Returns an immutable list of all rules (the same instance on every call).
      *
      * @return list of rule instances
      */
     public List<Rule> getRules() {
-        return List.copyOf(rules);
+        return rules;
     }
 }
\ No newline at end of file
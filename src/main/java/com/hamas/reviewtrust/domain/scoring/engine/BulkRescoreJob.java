@@ -0,0 +1,434 @@
+package com.hamas.reviewtrust.domain.scoring.engine;
+
+import com.hamas.reviewtrust.domain.scoring.catalog.ScoreModels.ScoreResult;
+import com.hamas.reviewtrust.domain.scoring.engine.ScoreService.Computed;
+import com.hamas.reviewtrust.domain.scoring.engine.ScoreService.FeatureVector;
+import com.hamas.reviewtrust.domain.scoring.profile.ScoringConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Catalog-wide rescoring after a threshold or rule change.
+ *
+ * <p>Reviews are streamed ordered by {@code product_id} through one server-side cursor (read-only
+ * transaction + fetch size), folded per product into a {@link FeatureAccumulator}, and scored in chunks
+ * on a bounded pool. Each chunk is written back with one batched {@code INSERT … ON CONFLICT} and
+ * checkpointed in {@code score_rescore_jobs} in its own transaction ({@code REQUIRES_NEW}, separate
+ * connection), so results and checkpoint commit together per chunk while the read cursor stays open; a
+ * resumed job continues after the last checkpointed product id. Only one job runs at a time.</p>
+ */
+@Service
+public class BulkRescoreJob {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkRescoreJob.class);
+
+    private static final String STREAM_SQL = """
+            SELECT product_id,
+                   rating,
+                   lex_flags,
+                   body_norm_hash,
+                   CASE WHEN lex_flags IS NULL THEN COALESCE(body, '') END AS body,
+                   review_date,
+                   fingerprint,
+                   reviewer,
+                   updated_at
+              FROM reviews
+             WHERE source = ?
+               AND product_id IS NOT NULL
+               AND (CAST(? AS uuid) IS NULL OR product_id > CAST(? AS uuid))
+             ORDER BY product_id
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final JdbcTemplate streamingJdbc;
+    private final TransactionTemplate readTx;
+    private final TransactionTemplate writeTx;
+    private final ScoreService scoreService;
+    private final int threads;
+    private final int chunkSize;
+    private final AtomicReference<Run> running = new AtomicReference<>();
+    private final ReentrantLock startLock = new ReentrantLock();
+
+    public BulkRescoreJob(JdbcTemplate jdbc,
+                          PlatformTransactionManager transactionManager,
+                          ScoreService scoreService,
+                          @Value("${scoring.rescore.threads:0}") int threads,
+                          @Value("${scoring.rescore.chunk-size:256}") int chunkSize,
+                          @Value("${scoring.rescore.fetch-size:2000}") int fetchSize) {
+        this.jdbc = jdbc;
+        // PostgreSQL はトランザクション内 + fetchSize 指定でサーバサイドカーソルになる
+        this.streamingJdbc = new JdbcTemplate(Objects.requireNonNull(jdbc.getDataSource()));
+        this.streamingJdbc.setFetchSize(Math.max(1, fetchSize));
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+        // 読み取りカーソルの読み取り専用トランザクションには乗せず、チャンクごとに別接続でコミットする
+        this.writeTx = new TransactionTemplate(transactionManager);
+        this.writeTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.scoreService = scoreService;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Starts a job in the background.
+     *
+     * @param resume continue the most recent unfinished job when it was started for the same score version
+     * @throws IllegalStateException when a job is already running
+     */
+    public JobStatus start(boolean resume) {
+        // 起動処理は JDBC を含むので synchronized ではなくロックで直列化する（仮想スレッドの pinning 回避）
+        startLock.lock();
+        try {
+            return startLocked(resume);
+        } finally {
+            startLock.unlock();
+        }
+    }
+
+    private JobStatus startLocked(boolean resume) {
+        if (running.get() != null) {
+            throw new IllegalStateException("rescore job already running: " + running.get().id);
+        }
+        ScoringConfig config = scoreService.currentConfig();
+        String version = ScoreService.versionOf(config);
+        Run run = resume ? resumable(version).orElse(null) : null;
+        if (run == null) {
+            run = new Run(UUID.randomUUID(), version, null, 0, 0);
+            jdbc.update("""
+                    INSERT INTO score_rescore_jobs (id, status, score_version, started_at, updated_at)
+                    VALUES (?, 'RUNNING', ?, now(), now())
+                    """, run.id, version);
+        } else {
+            jdbc.update("UPDATE score_rescore_jobs SET status = 'RUNNING', error = NULL, updated_at = now() WHERE id = ?",
+                    run.id);
+            log.info("[rescore] resuming job={} after productId={}", run.id, run.lastProductId);
+        }
+        Integer remaining = jdbc.queryForObject("""
+                        SELECT count(DISTINCT product_id) FROM reviews
+                         WHERE source = ? AND product_id IS NOT NULL
+                           AND (CAST(? AS uuid) IS NULL OR product_id > CAST(? AS uuid))
+                        """, Integer.class,
+                ScoreService.SOURCE_AMAZON, run.lastProductId, run.lastProductId);
+        run.config = config;
+        run.total = run.processedAtStart + run.failedAtStart + (remaining != null ? remaining : 0);
+        running.set(run);
+
+        Run started = run;
+        Thread worker = new Thread(() -> execute(started), "score-rescore-job");
+        worker.setDaemon(true);
+        worker.start();
+        return started.snapshot("RUNNING", null, null);
+    }
+
+    /** Requests cancellation; the job stops after the chunk in progress and can be resumed. */
+    public boolean cancel() {
+        Run run = running.get();
+        if (run == null) {
+            return false;
+        }
+        run.cancelled = true;
+        return true;
+    }
+
+    public Optional<JobStatus> status(UUID id) {
+        Run run = running.get();
+        if (run != null && run.id.equals(id)) {
+            return Optional.of(run.snapshot("RUNNING", null, null));
+        }
+        return jdbc.query("""
+                        SELECT id, status, score_version, total_products, processed_products, failed_products,
+                               last_product_id, error, started_at, updated_at, finished_at
+                          FROM score_rescore_jobs
+                         WHERE id = ?
+                        """,
+                (rs, i) -> {
+                    Instant startedAt = toInstant(rs.getTimestamp("started_at"));
+                    Instant finishedAt = toInstant(rs.getTimestamp("finished_at"));
+                    int processed = rs.getInt("processed_products");
+                    Instant end = finishedAt != null ? finishedAt : toInstant(rs.getTimestamp("updated_at"));
+                    double seconds = startedAt != null && end != null
+                            ? Math.max(1e-3, Duration.between(startedAt, end).toMillis() / 1000.0) : 0;
+                    return new JobStatus(
+                            (UUID) rs.getObject("id"),
+                            rs.getString("status"),
+                            rs.getString("score_version"),
+                            (Integer) rs.getObject("total_products"),
+                            processed,
+                            rs.getInt("failed_products"),
+                            (UUID) rs.getObject("last_product_id"),
+                            seconds > 0 ? processed / seconds : 0.0,
+                            null,
+                            startedAt,
+                            finishedAt,
+                            rs.getString("error"));
+                },
+                id).stream().findFirst();
+    }
+
+    public Optional<JobStatus> latest() {
+        Run run = running.get();
+        if (run != null) {
+            return Optional.of(run.snapshot("RUNNING", null, null));
+        }
+        List<UUID> ids = jdbc.query("SELECT id FROM score_rescore_jobs ORDER BY started_at DESC LIMIT 1",
+                (rs, i) -> (UUID) rs.getObject("id"));
+        return ids.isEmpty() ? Optional.empty() : status(ids.get(0));
+    }
+
+    private Optional<Run> resumable(String version) {
+        return jdbc.query("""
+                        SELECT id, score_version, processed_products, failed_products, last_product_id
+                          FROM score_rescore_jobs
+                         WHERE status IN ('RUNNING', 'FAILED', 'CANCELLED')
+                         ORDER BY started_at DESC
+                         LIMIT 1
+                        """,
+                (rs, i) -> new Run(
+                        (UUID) rs.getObject("id"),
+                        rs.getString("score_version"),
+                        (UUID) rs.getObject("last_product_id"),
+                        rs.getInt("processed_products"),
+                        rs.getInt("failed_products")))
+                .stream()
+                .filter(r -> version.equals(r.version))
+                .findFirst();
+    }
+
+    /* ------------------------------------------------------------------ */
+    /* Execution                                                          */
+    /* ------------------------------------------------------------------ */
+
+    private void execute(Run run) {
+        AtomicInteger seq = new AtomicInteger();
+        ExecutorService pool = new ThreadPoolExecutor(threads, threads, 30L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "score-rescore-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        String status = "DONE";
+        String error = null;
+        try {
+            List<ProductReviews> chunk = new ArrayList<>(chunkSize);
+            ProductReviews[] current = {null};
+            LocalDate surgeWindowStart = ScoreService.surgeWindowStart();
+            readTx.executeWithoutResult(tx -> streamingJdbc.query(STREAM_SQL,
+                    ps -> {
+                        ps.setString(1, ScoreService.SOURCE_AMAZON);
+                        ps.setObject(2, run.lastProductId);
+                        ps.setObject(3, run.lastProductId);
+                    },
+                    rs -> {
+                        UUID productId = (UUID) rs.getObject("product_id");
+                        if (current[0] == null || !current[0].productId.equals(productId)) {
+                            if (current[0] != null) {
+                                chunk.add(current[0]);
+                                if (chunk.size() >= chunkSize) {
+                                    processChunk(run, chunk, pool);
+                                }
+                            }
+                            current[0] = new ProductReviews(productId, surgeWindowStart);
+                        }
+                        current[0].add(rs);
+                    }));
+            if (current[0] != null) {
+                chunk.add(current[0]);
+            }
+            processChunk(run, chunk, pool);
+        } catch (CancelledException e) {
+            status = "CANCELLED";
+        } catch (Exception e) {
+            status = "FAILED";
+            error = e.toString();
+            log.warn("[rescore] job={} failed after productId={}", run.id, run.lastProductId, e);
+        } finally {
+            pool.shutdownNow();
+            finish(run, status, error);
+            running.set(null);
+        }
+    }
+
+    private void processChunk(Run run, List<ProductReviews> chunk, ExecutorService pool) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        if (run.cancelled) {
+            throw new CancelledException();
+        }
+        List<CompletableFuture<Computed>> futures = new ArrayList<>(chunk.size());
+        for (ProductReviews product : chunk) {
+            futures.add(CompletableFuture.supplyAsync(() -> compute(run, product), pool)
+                    .exceptionally(e -> {
+                        log.warn("[rescore] productId={} failed: {}", product.productId, e.toString());
+                        return null;
+                    }));
+        }
+        List<Computed> done = new ArrayList<>(chunk.size());
+        for (CompletableFuture<Computed> f : futures) {
+            Computed c = f.join();
+            if (c != null) {
+                done.add(c);
+            }
+        }
+        UUID last = chunk.get(chunk.size() - 1).productId;
+        int failed = chunk.size() - done.size();
+        writeTx.executeWithoutResult(tx -> {
+            scoreService.store(done, run.version);
+            checkpoint(run, run.processed.get() + done.size(), run.failed.get() + failed, last);
+        });
+        // コミットできた分だけ進める（失敗時は前回のチェックポイントから再開される）
+        run.processed.addAndGet(done.size());
+        run.failed.addAndGet(failed);
+        run.lastProductId = last;
+        chunk.clear();
+        JobStatus s = run.snapshot("RUNNING", null, null);
+        log.info("[rescore] job={} {}/{} products, {}/s, eta={}s",
+                run.id, s.processedProducts(), s.totalProducts(),
+                String.format("%.1f", s.productsPerSecond()), s.etaSeconds());
+    }
+
+    private Computed compute(Run run, ProductReviews product) {
+        FeatureVector exact = product.features.toFeatures();
+        // 途中で設定が変わっても、保存する score_version と評価に使う閾値は開始時のもので揃える
+        ScoreResult result = scoreService.evaluate(product.productId, exact, run.config.thresholds());
+        return new Computed(product.productId, result,
+                scoreService.inputHashOf(product.productId, product.features.total(), product.lastUpdated));
+    }
+
+    private void checkpoint(Run run, int processed, int failed, UUID lastProductId) {
+        jdbc.update("""
+                UPDATE score_rescore_jobs
+                   SET processed_products = ?, failed_products = ?, last_product_id = ?,
+                       total_products = ?, updated_at = now()
+                 WHERE id = ?
+                """, run.processedAtStart + processed, run.failedAtStart + failed,
+                lastProductId, run.total, run.id);
+    }
+
+    private void finish(Run run, String status, String error) {
+        try {
+            jdbc.update("""
+                    UPDATE score_rescore_jobs
+                       SET status = ?, error = ?, processed_products = ?, failed_products = ?,
+                           last_product_id = ?, updated_at = now(), finished_at = now()
+                     WHERE id = ?
+                    """, status, error, run.processedAtStart + run.processed.get(),
+                    run.failedAtStart + run.failed.get(), run.lastProductId, run.id);
+        } catch (Exception e) {
+            log.warn("[rescore] failed to record final status for job={}", run.id, e);
+        }
+        log.info("[rescore] job={} {} processed={} failed={} in {}s", run.id, status,
+                run.processed.get(), run.failed.get(), Duration.between(run.startedAt, Instant.now()).toSeconds());
+    }
+
+    private static Instant toInstant(Timestamp ts) {
+        return ts != null ? ts.toInstant() : null;
+    }
+
+    /* ------------------------------------------------------------------ */
+    /* Holders                                                            */
+    /* ------------------------------------------------------------------ */
+
+    /** 製品ごとの特徴量カウンタ。行は読んだ時点で畳み込み、レビュー本体は保持しない。 */
+    private static final class ProductReviews {
+        final UUID productId;
+        final FeatureAccumulator features;
+        Timestamp lastUpdated;
+
+        ProductReviews(UUID productId, LocalDate surgeWindowStart) {
+            this.productId = productId;
+            this.features = new FeatureAccumulator(surgeWindowStart);
+        }
+
+        void add(ResultSet rs) throws SQLException {
+            features.add(rs);
+            Timestamp updatedAt = rs.getTimestamp("updated_at");
+            if (updatedAt != null && (lastUpdated == null || updatedAt.after(lastUpdated))) {
+                lastUpdated = updatedAt;
+            }
+        }
+    }
+
+    private static final class Run {
+        final UUID id;
+        final String version;
+        final int processedAtStart;
+        final int failedAtStart;
+        final Instant startedAt = Instant.now();
+        final AtomicInteger processed = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        volatile ScoringConfig config;
+        volatile UUID lastProductId;
+        volatile int total;
+        volatile boolean cancelled;
+
+        Run(UUID id, String version, UUID lastProductId, int processedAtStart, int failedAtStart) {
+            this.id = id;
+            this.version = version;
+            this.lastProductId = lastProductId;
+            this.processedAtStart = processedAtStart;
+            this.failedAtStart = failedAtStart;
+        }
+
+        JobStatus snapshot(String status, Instant finishedAt, String error) {
+            int doneThisRun = processed.get() + failed.get();
+            double seconds = Math.max(1e-3, Duration.between(startedAt, Instant.now()).toMillis() / 1000.0);
+            double rate = doneThisRun / seconds;
+            int done = processedAtStart + failedAtStart + doneThisRun;
+            Long eta = rate > 0 ? Math.round(Math.max(0, total - done) / rate) : null;
+            return new JobStatus(id, status, version, total, processedAtStart + processed.get(),
+                    failedAtStart + failed.get(), lastProductId, rate, eta, startedAt, finishedAt, error);
+        }
+    }
+
+    private static final class CancelledException extends RuntimeException {
+        CancelledException() {
+            super("cancelled", null, false, false);
+        }
+    }
+
+    /**
+     * @param productsPerSecond throughput of the current run (or overall for finished jobs)
+     * @param etaSeconds        estimated seconds to completion; {@code null} when unknown or finished
+     */
+    public record JobStatus(UUID id,
+                            String status,
+                            String scoreVersion,
+                            Integer totalProducts,
+                            int processedProducts,
+                            int failedProducts,
+                            UUID lastProductId,
+                            double productsPerSecond,
+                            Long etaSeconds,
+                            Instant startedAt,
+                            Instant finishedAt,
+                            String error) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.hamas.reviewtrust.domain.scoring.engine;
+
+import com.hamas.reviewtrust.common.collect.LongIntHashMap;
+import com.hamas.reviewtrust.common.hash.TextHash;
+import com.hamas.reviewtrust.common.text.LexicalFeatures;
+import com.hamas.reviewtrust.domain.scoring.engine.ScoreService.FeatureVector;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Single-pass feature extraction: every review updates all counters once and is then dropped, so memory
+ * per product is constant apart from the cluster counts (one {@code long → int} slot per distinct key).
+ * Produces the same {@link FeatureVector} as the former list-based extraction; cluster keys are compared
+ * by their 64-bit FNV hash instead of the string.
+ *
+ * <p>Rows that carry persisted {@link LexicalFeatures} ({@code lex_flags}, {@code body_norm_hash}) are
+ * folded without touching the body; only rows not yet backfilled are normalised here.</p>
+ *
+ * <p>Not thread-safe; use one instance per product.</p>
+ */
+final class FeatureAccumulator {
+
+    private final LocalDate surgeWindowStart;
+    private final int[] stars = new int[6];
+    private final LongIntHashMap clusters = new LongIntHashMap(64);
+    private int total;
+    private int shortText;
+    private int noisy;
+    private int recent;
+    private int maxCluster;
+
+    FeatureAccumulator(LocalDate surgeWindowStart) {
+        this.surgeWindowStart = surgeWindowStart;
+    }
+
+    /**
+     * Reads {@code rating, lex_flags, body_norm_hash, body, review_date, fingerprint, reviewer} from the
+     * current row; {@code body} is only needed while {@code lex_flags} is {@code NULL}.
+     */
+    void add(ResultSet rs) throws SQLException {
+        LocalDate reviewDate = rs.getObject("review_date") != null
+                ? rs.getObject("review_date", LocalDate.class)
+                : null;
+        int lexFlags = rs.getInt("lex_flags");
+        if (rs.wasNull()) {
+            add(rs.getInt("rating"), rs.getString("body"), reviewDate,
+                    rs.getString("fingerprint"), rs.getString("reviewer"));
+            return;
+        }
+        long normHash = rs.getLong("body_norm_hash");
+        add(rs.getInt("rating"), lexFlags, rs.wasNull() ? null : normHash, reviewDate,
+                rs.getString("fingerprint"), rs.getString("reviewer"));
+    }
+
+    void add(int rating, String body, LocalDate reviewDate, String fingerprint, String reviewer) {
+        LexicalFeatures.Analysis lex = LexicalFeatures.analyse(body);
+        add(rating, lex.flags(), lex.normalisedHash(), reviewDate, fingerprint, reviewer);
+    }
+
+    /**
+     * @param lexFlags {@link LexicalFeatures} bits of the body
+     * @param normHash FNV-64 of the normalised body, {@code null} when blank
+     */
+    void add(int rating, int lexFlags, Long normHash, LocalDate reviewDate, String fingerprint, String reviewer) {
+        total++;
+        stars[Math.max(0, Math.min(5, rating))]++;
+
+        if (LexicalFeatures.has(lexFlags, LexicalFeatures.SHORT_TEXT)) shortText++;
+        if (LexicalFeatures.has(lexFlags, LexicalFeatures.NOISY)) noisy++;
+        if (reviewDate != null && !reviewDate.isBefore(surgeWindowStart)) recent++;
+
+        // fingerprint → 正規化本文 → レビュアー の順（本文キーは永続化済みハッシュをそのまま使う）
+        long key;
+        if (fingerprint != null && !fingerprint.isBlank()) {
+            key = TextHash.fnv64(fingerprint);
+        } else if (normHash != null) {
+            key = normHash;
+        } else if (reviewer != null && !reviewer.isBlank()) {
+            key = TextHash.fnv64(reviewer);
+        } else {
+            return;
+        }
+        int count = clusters.addTo(key, 1);
+        if (count > maxCluster) maxCluster = count;
+    }
+
+    int total() {
+        return total;
+    }
+
+    /** @return features, or {@code null} when no review was added */
+    FeatureVector toFeatures() {
+        if (total == 0) {
+            return null;
+        }
+        double fiveStarRatio = stars[5] / (double) total;
+        double shortTextRatio = shortText / (double) total;
+        double distBias = clamp01(fiveStarRatio * shortTextRatio);
+        double duplicateRate = clamp01(Math.max(1, maxCluster) / (double) total);
+        double surgeRatio = clamp01((recent * 1.0) / Math.max(1.0, total / 5.0));
+        double noiseRatio = clamp01(noisy / (double) total);
+        return new FeatureVector(distBias, duplicateRate, surgeRatio, noiseRatio, recent, total);
+    }
+
+    private static double clamp01(double value) {
+        return Math.max(0d, Math.min(1d, value));
+    }
+}
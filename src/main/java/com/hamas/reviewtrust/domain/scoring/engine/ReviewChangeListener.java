@@ -0,0 +1,121 @@
+package com.hamas.reviewtrust.domain.scoring.engine;
+
+import com.hamas.reviewtrust.domain.reviews.ReviewsChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Turns {@link ReviewsChangedEvent}s into background recomputes of both the engine (AMAZON) and the SITE
+ * score, so that public reads find a precomputed score instead of paying for it.
+ *
+ * <p>Events are debounced per product: a recompute runs once no further event arrived for
+ * {@code scoring.recompute.debounce}, or at the latest {@code scoring.recompute.max-delay} after the first
+ * one (an intake of many files keeps publishing for the same product). The timers run on the shared
+ * {@code taskScheduler} and use its clock; the recompute itself goes through the bounded
+ * {@link ScoreRecomputeQueue}, so this class owns no threads.</p>
+ */
+@Component
+public class ReviewChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewChangeListener.class);
+
+    private final ScoreService scoreService;
+    private final com.hamas.reviewtrust.domain.reviews.service.ScoreService siteScoreService;
+    private final Duration debounce;
+    private final Duration maxDelay;
+    private final TaskScheduler scheduler;
+    private final Clock clock;
+    private final ConcurrentMap<UUID, Pending> pending = new ConcurrentHashMap<>();
+    private volatile boolean stopping;
+
+    public ReviewChangeListener(ScoreService scoreService,
+                                com.hamas.reviewtrust.domain.reviews.service.ScoreService siteScoreService,
+                                @Qualifier("taskScheduler") TaskScheduler scheduler,
+                                @Value("${scoring.recompute.debounce:PT2S}") Duration debounce,
+                                @Value("${scoring.recompute.max-delay:PT30S}") Duration maxDelay) {
+        this.scoreService = scoreService;
+        this.siteScoreService = siteScoreService;
+        this.scheduler = scheduler;
+        this.clock = scheduler.getClock();
+        this.debounce = debounce.isNegative() ? Duration.ZERO : debounce;
+        this.maxDelay = maxDelay.compareTo(this.debounce) < 0 ? this.debounce : maxDelay;
+    }
+
+    /** Runs after commit; without a transaction (scrape / intake) immediately. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewsChanged(ReviewsChangedEvent event) {
+        UUID productId = event.productId();
+        if (productId == null || stopping) {
+            return;
+        }
+        Instant now = clock.instant();
+        boolean[] first = new boolean[1];
+        pending.compute(productId, (id, prev) -> {
+            first[0] = prev == null;
+            return prev == null ? new Pending(now, now) : new Pending(prev.firstAt(), now);
+        });
+        if (first[0]) {
+            schedule(productId, now.plus(debounce));
+        }
+        log.debug("[score-recompute] change productId={} cause={}", productId, event.cause());
+    }
+
+    private void schedule(UUID productId, Instant at) {
+        try {
+            scheduler.schedule(() -> fire(productId), at);
+        } catch (TaskRejectedException e) {
+            // 停止中。未処理の変更は次回起動時の stale 判定で拾われる
+            pending.remove(productId);
+            log.debug("[score-recompute] scheduler rejected productId={}: {}", productId, e.toString());
+        }
+    }
+
+    private void fire(UUID productId) {
+        if (stopping) {
+            return;
+        }
+        Instant now = clock.instant();
+        Pending p = pending.get(productId);
+        if (p == null) {
+            return;
+        }
+        Instant quietUntil = p.lastAt().plus(debounce);
+        Instant deadline = p.firstAt().plus(maxDelay);
+        Instant due = quietUntil.isBefore(deadline) ? quietUntil : deadline;
+        if (due.isAfter(now)) {
+            schedule(productId, due);
+            return;
+        }
+        // 比較付き削除：判定後に届いたイベントは次の周期で拾う
+        if (!pending.remove(productId, p)) {
+            schedule(productId, now.plus(debounce));
+            return;
+        }
+        scoreService.markReviewsChanged(productId);
+        siteScoreService.markReviewsChanged(productId);
+    }
+
+    /** 共有スケジューラは止めない。残っているタイマーは発火しても何もしない */
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+        pending.clear();
+    }
+
+    private record Pending(Instant firstAt, Instant lastAt) {
+    }
+}
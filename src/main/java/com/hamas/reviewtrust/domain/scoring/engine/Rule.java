@@ -1,13 +1,39 @@
 package com.hamas.reviewtrust.domain.scoring.engine;
 
+import com.hamas.reviewtrust.domain.scoring.profile.Flags;
 import com.hamas.reviewtrust.domain.scoring.profile.ScoringProfile;
 
 /**
  * Defines the contract for a scoring rule. Implementations examine the
  * scoring context and produce a {@link RuleOutcome} indicating whether the
  * rule fired and how severe its contribution should be.
+ *
+ * <p>The penalty and the evidence text are separate so that batch scoring
+ * ({@link ScoringEngine#scoreAll}) can skip formatting evidence for reviews
+ * where it is not needed.</p>
  */
 public interface Rule {
+    /** Flag reported when the rule fires. */
+    Flags flag();
+
+    /**
+     * Computes the penalty for the context using thresholds and weights from
+     * the supplied profile.
+     *
+     * @param ctx review context
+     * @param profile scoring profile
+     * @return penalty, {@code 0} when the rule does not fire
+     */
+    double penalty(ScoringContext ctx, ScoringProfile profile);
+
+    /**
+     * Human readable explanation; only called for contexts where the rule fired.
+     *
+     * @param ctx review context
+     * @return evidence text
+     */
+    String evidence(ScoringContext ctx);
+
     /**
      * Applies the rule to the provided context using thresholds and weights
      * from the supplied profile.
@@ -16,5 +42,11 @@ public interface Rule {
      * @param profile scoring profile
      * @return outcome of the rule
      */
-    RuleOutcome apply(ScoringContext ctx, ScoringProfile profile);
+    default RuleOutcome apply(ScoringContext ctx, ScoringProfile profile) {
+        double penalty = penalty(ctx, profile);
+        if (penalty > 0) {
+            return new RuleOutcome(flag(), penalty, evidence(ctx));
+        }
+        return RuleOutcome.noFinding(flag());
+    }
 }
\ No newline at end of file
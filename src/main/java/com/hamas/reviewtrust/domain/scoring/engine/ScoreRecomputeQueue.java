@@ -0,0 +1,123 @@
+package com.hamas.reviewtrust.domain.scoring.engine;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Small bounded queue for background score recomputation. At most one task per key (usually the product
+ * id) is queued at a time; the pending marker is cleared when the task starts, so a change that lands while
+ * a recompute is running schedules exactly one follow-up.
+ *
+ * <p>Tasks run on the shared {@code backgroundTaskExecutor} (MDC propagation, virtual threads when
+ * {@code spring.threads.virtual.enabled}); this class only bounds the backlog
+ * ({@code scoring.recompute.queue-capacity}) and the number of tasks running at once
+ * ({@code scoring.recompute.threads}), so recomputes never take more DB connections than that.</p>
+ */
+@Component
+public class ScoreRecomputeQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoreRecomputeQueue.class);
+
+    private final TaskExecutor executor;
+    private final int maxWorkers;
+    private final BlockingQueue<Task> tasks;
+    private final Set<Object> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger workers = new AtomicInteger();
+    private volatile boolean stopping;
+
+    public ScoreRecomputeQueue(@Qualifier("backgroundTaskExecutor") TaskExecutor executor,
+                               @Value("${scoring.recompute.threads:2}") int threads,
+                               @Value("${scoring.recompute.queue-capacity:1000}") int queueCapacity) {
+        this.executor = executor;
+        this.maxWorkers = Math.max(1, threads);
+        this.tasks = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+    }
+
+    /**
+     * Schedules {@code task} for {@code key} unless one is already waiting.
+     *
+     * @return {@code true} when a new task was queued
+     */
+    public boolean submit(Object key, Runnable task) {
+        if (key == null || stopping || !pending.add(key)) {
+            return false;
+        }
+        if (!tasks.offer(new Task(key, task))) {
+            pending.remove(key);
+            log.warn("[score-recompute] queue full; dropped key={}", key);
+            return false;
+        }
+        startWorkers();
+        return true;
+    }
+
+    public int queued() {
+        return tasks.size();
+    }
+
+    /** 待ちタスクがある間、同時実行数の上限まで drain を起動する */
+    private void startWorkers() {
+        while (!stopping && !tasks.isEmpty()) {
+            int running = workers.get();
+            if (running >= maxWorkers) {
+                return;
+            }
+            if (!workers.compareAndSet(running, running + 1)) {
+                continue;
+            }
+            try {
+                executor.execute(this::drain);
+            } catch (TaskRejectedException e) {
+                // 停止中など。残りは次の submit か、動いている drain が拾う
+                workers.decrementAndGet();
+                log.warn("[score-recompute] executor rejected worker: {}", e.toString());
+                return;
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            Task next;
+            while (!stopping && (next = tasks.poll()) != null) {
+                pending.remove(next.key());
+                try {
+                    next.action().run();
+                } catch (Exception e) {
+                    log.warn("[score-recompute] failed key={} cause={}", next.key(), e.toString(), e);
+                }
+            }
+        } finally {
+            workers.decrementAndGet();
+        }
+        // poll が空を返した直後に積まれた分を取りこぼさない
+        startWorkers();
+    }
+
+    /** 受付を止め、未着手分を捨てる。実行中のタスクの終了は executor の停止処理が待つ */
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+        int dropped = tasks.size();
+        tasks.clear();
+        pending.clear();
+        if (dropped > 0) {
+            log.info("[score-recompute] shutdown dropped {} queued recompute(s)", dropped);
+        }
+    }
+
+    private record Task(Object key, Runnable action) {
+    }
+}
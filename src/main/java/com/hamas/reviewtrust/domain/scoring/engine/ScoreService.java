@@ -1,54 +1,188 @@
 package com.hamas.reviewtrust.domain.scoring.engine;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.hamas.reviewtrust.common.text.TextNormalizer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hamas.reviewtrust.common.collect.DailyCountRing.Stats;
+import com.hamas.reviewtrust.common.hash.TextHash;
+import com.hamas.reviewtrust.domain.reviews.ReviewSurgeDetector;
+import com.hamas.reviewtrust.domain.reviews.ReviewerProductIndex;
+import com.hamas.reviewtrust.domain.reviews.service.NearDuplicateService;
+import com.hamas.reviewtrust.domain.reviews.service.NearDuplicateService.NearDuplicateReport;
 import com.hamas.reviewtrust.domain.scoring.catalog.ScoreModels;
 import com.hamas.reviewtrust.domain.scoring.catalog.ScoreModels.ScoreResult;
 import com.hamas.reviewtrust.domain.scoring.catalog.ScoreModels.SakuraJudge;
+import com.hamas.reviewtrust.domain.scoring.profile.ScoringConfig;
 import com.hamas.reviewtrust.domain.scoring.profile.ThresholdProvider;
+import com.hamas.reviewtrust.domain.scoring.profile.ThresholdProvider.Thresholds;
+import com.hamas.reviewtrust.domain.scoring.repository.ProductScoreAggregateJdbcRepository;
+import com.hamas.reviewtrust.domain.scoring.repository.ProductScoreAggregateJdbcRepository.Aggregates;
 import com.hamas.reviewtrust.domain.scoring.rules.RuleEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * Computes product scores by extracting aggregate review features, evaluating the {@link RuleEngine}
  * and storing the result in {@code review_scores}.
+ *
+ * <p>Read paths should use {@link #findLatest(String)}, which serves the persisted row through a
+ * size-bounded in-memory cache ({@code scoring.engine.cache.max-size}, meters {@code cache.*{cache=scores.engine}})
+ * and never computes inline: it only schedules a background recompute when the product was never scored,
+ * when the stored {@code score_version}
+ * (engine version + threshold fingerprint) no longer matches, or when {@link #markReviewsChanged(UUID)}
+ * reported new review data (debounced by {@link ReviewChangeListener}). {@link #computeForProduct(String)} always recomputes synchronously.</p>
+ *
+ * <p>Features are derived from the trigger-maintained {@code product_score_aggregates} tables (V066) when
+ * available, so a recompute costs a handful of index reads regardless of review volume; a single-pass
+ * streaming scan ({@link FeatureAccumulator}) remains as a fallback for products without aggregates
+ * (and for databases without the trigger).
+ * The duplicate feature also takes MinHash near-duplicate clusters into account, so lightly edited
+ * copies count like exact ones, and the surge rule is fed the z-score of {@link ReviewSurgeDetector}.</p>
  */
 @Service
 public class ScoreService {
 
-    private static final String SOURCE_AMAZON = "AMAZON";
+    private static final Logger log = LoggerFactory.getLogger(ScoreService.class);
+    static final String SOURCE_AMAZON = "AMAZON";
     private static final int SURGE_WINDOW_DAYS = 7;
+    /** 特徴量/ルール評価ロジックを変えたら上げる（永続スコアが一斉に stale 扱いになる） */
+    static final String ENGINE_VERSION = "engine-v3";
 
     private final JdbcTemplate jdbc;
+    private final JdbcTemplate streamingJdbc;
+    private final TransactionTemplate readTx;
     private final NamedParameterJdbcTemplate namedJdbc;
     private final ThresholdProvider thresholdProvider;
     private final ObjectMapper mapper;
+    private final ScoreRecomputeQueue recomputeQueue;
+    private final ProductScoreAggregateJdbcRepository aggregates;
+    private final NearDuplicateService nearDuplicates;
+    private final ReviewerProductIndex reviewerIndex;
+    private final ReviewSurgeDetector surgeDetector;
     private final RuleEngine ruleEngine = new RuleEngine();
+    /** 永続行の写し。DB から読み直せるので、サイズ上限を超えたら古いものから追い出してよい */
+    private final Cache<UUID, StoredScore> cache;
+    /** 設定スナップショットの公開時に差し替える（読み出しごとの文字列連結を避ける） */
+    private volatile String currentVersion;
 
     public ScoreService(JdbcTemplate jdbc,
                         NamedParameterJdbcTemplate namedJdbc,
                         ThresholdProvider thresholdProvider,
-                        ObjectMapper mapper) {
+                        ObjectMapper mapper,
+                        ScoreRecomputeQueue recomputeQueue,
+                        ProductScoreAggregateJdbcRepository aggregates,
+                        NearDuplicateService nearDuplicates,
+                        ReviewerProductIndex reviewerIndex,
+                        ReviewSurgeDetector surgeDetector,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${scoring.scan.fetch-size:500}") int scanFetchSize,
+                        @Value("${scoring.engine.cache.max-size:10000}") long cacheMaxSize,
+                        ObjectProvider<MeterRegistry> meterRegistry) {
         this.jdbc = jdbc;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(Math.max(1L, cacheMaxSize))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), cache, "scores.engine");
+        // フォールバック走査用。トランザクション内 + fetchSize で全件をメモリに載せない
+        this.streamingJdbc = new JdbcTemplate(Objects.requireNonNull(jdbc.getDataSource()));
+        this.streamingJdbc.setFetchSize(Math.max(1, scanFetchSize));
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
         this.namedJdbc = namedJdbc;
         this.thresholdProvider = thresholdProvider;
         this.mapper = mapper;
+        this.recomputeQueue = recomputeQueue;
+        this.aggregates = aggregates;
+        this.nearDuplicates = nearDuplicates;
+        this.reviewerIndex = reviewerIndex;
+        this.surgeDetector = surgeDetector;
+        thresholdProvider.addConfigListener(config -> this.currentVersion = versionOf(config));
+        this.currentVersion = versionOf(thresholdProvider.config());
+    }
+
+    /**
+     * Returns the latest persisted score for the product. Served from memory when possible, otherwise from
+     * one primary-key read of {@code review_scores}. A stale row is still returned while a recompute runs in
+     * the background. A product that has never been scored is queued like a stale one and reported as empty
+     * until the recompute has stored its first score; callers that need a score right away use
+     * {@link #computeForProduct(String)}.
+     */
+    public Optional<ScoreResult> findLatest(String productId) {
+        UUID pid = parseUuid(productId);
+        if (pid == null) {
+            return Optional.empty();
+        }
+        String version = currentVersion();
+        StoredScore stored = cache.getIfPresent(pid);
+        if (stored == null) {
+            stored = loadStored(pid).orElse(null);
+            if (stored == null) {
+                scheduleRecompute(pid);
+                return Optional.empty();
+            }
+            cache.put(pid, stored);
+        }
+        if (!version.equals(stored.version())) {
+            scheduleRecompute(pid);
+        }
+        return Optional.of(stored.result());
+    }
+
+    /**
+     * Called after reviews of a product were written. Recomputes in the background; the previous score
+     * keeps being served until the new one is persisted.
+     */
+    public void markReviewsChanged(UUID productId) {
+        if (productId == null) {
+            return;
+        }
+        scheduleRecompute(productId);
+    }
+
+    private void scheduleRecompute(UUID productId) {
+        recomputeQueue.submit(productId, () -> recomputeIfStale(productId));
+    }
+
+    private void recomputeIfStale(UUID productId) {
+        String version = currentVersion();
+        String inputHash = inputHash(productId);
+        Optional<StoredScore> stored = loadStored(productId);
+        if (stored.isPresent()
+                && version.equals(stored.get().version())
+                && inputHash.equals(stored.get().inputHash())) {
+            cache.put(productId, stored.get());
+            return;
+        }
+        computeForProduct(productId.toString());
     }
 
     public Optional<ScoreResult> computeForProduct(String productId) {
@@ -57,14 +191,29 @@ public class ScoreService {
             return Optional.empty();
         }
 
-        List<ReviewSample> reviews = loadReviews(pid);
-        if (reviews.isEmpty()) {
+        ScoringConfig config = thresholdProvider.config();
+        String version = versionOf(config);
+        String inputHash = inputHash(pid);
+        FeatureVector exact = loadFeatures(pid);
+        if (exact == null) {
             return Optional.empty();
         }
+        ScoreResult result = evaluate(pid, exact, config.thresholds());
+        store(List.of(new Computed(pid, result, inputHash)), version);
+        return Optional.of(result);
+    }
 
-        FeatureVector features = computeFeatures(reviews);
-        var thresholds = thresholdProvider.get();
-        ScoreModels.FeatureSnapshot snapshot = features.toSnapshot();
+    /**
+     * Rule evaluation on top of the exact-match features (near-duplicates and reviewer overlap added here).
+     * {@code thresholds} must come from the same {@link ScoringConfig} as the version the result is stored with.
+     */
+    ScoreResult evaluate(UUID pid, FeatureVector exact, Thresholds thresholds) {
+        NearDuplicateReport nearDup = nearDuplicates.analyse(pid, exact.totalReviews());
+        FeatureVector features = exact.withDuplicateRate(
+                Math.max(exact.duplicateRate(), clamp01(nearDup.maxClusterRate())));
+
+        Stats surge = surgeDetector.stats(pid, SOURCE_AMAZON);
+        ScoreModels.FeatureSnapshot snapshot = features.toSnapshot(surge.z());
         var evaluation = ruleEngine.evaluate(snapshot, thresholds);
 
         int score = Math.max(0, 100 - evaluation.total());
@@ -72,18 +221,29 @@ public class ScoreService {
         SakuraJudge judge = Ranker.judgeSakura(snapshot, thresholds);
 
         Map<String, Object> metrics = new LinkedHashMap<>();
-        metrics.put("total_reviews", reviews.size());
+        metrics.put("total_reviews", features.totalReviews());
         metrics.put("dist_bias", round(features.distBias()));
         metrics.put("duplicate_rate", round(features.duplicateRate()));
         metrics.put("surge_ratio", round(features.surgeRatio()));
+        metrics.put("surge_z", round(surge.z()));
+        metrics.put("surge_recent_per_day", round(surge.recentPerDay()));
+        metrics.put("surge_baseline_per_day", round(surge.baselinePerDay()));
         metrics.put("noise_ratio", round(features.noiseRatio()));
+        metrics.put("exact_duplicate_rate", round(exact.duplicateRate()));
+        metrics.put("near_duplicate_rate", round(nearDup.nearDuplicateRate()));
+        metrics.put("near_duplicate_clusters", nearDup.clusters().size());
+        metrics.put("cross_product_duplicate_rate", round(nearDup.crossProductRate()));
+        if (reviewerIndex.isReady()) {
+            var overlap = reviewerIndex.overlap(pid);
+            metrics.put("reviewer_shared_ratio", round(overlap.sharedRatio()));
+            metrics.put("reviewer_ring_density", round(overlap.ringDensity()));
+            metrics.put("reviewer_multi_product_five_star", overlap.multiProductFiveStarReviewers());
+        }
         metrics.put("recent_reviews", features.recentCount());
         metrics.put("window_days", SURGE_WINDOW_DAYS);
 
-        persistScore(pid, score, rank, judge, metrics, evaluation.flags(), evaluation.rules());
-
-        return Optional.of(new ScoreModels.ScoreResult(
-                productId,
+        return new ScoreModels.ScoreResult(
+                pid.toString(),
                 score,
                 rank,
                 judge,
@@ -91,112 +251,214 @@ public class ScoreService {
                 evaluation.flags(),
                 evaluation.rules(),
                 Instant.now().toString()
-        ));
+        );
+    }
+
+    /** Persists computed scores in one batch and refreshes the read cache. */
+    void store(List<Computed> computed, String version) {
+        if (computed.isEmpty()) {
+            return;
+        }
+        persistScores(computed, version);
+        for (Computed c : computed) {
+            cache.put(c.productId(), new StoredScore(c.result(), version, c.inputHash()));
+        }
     }
 
     /* ------------------------------------------------------------------ */
     /* Data access + feature engineering                                  */
     /* ------------------------------------------------------------------ */
 
-    private List<ReviewSample> loadReviews(UUID productId) {
-        return jdbc.query("""
+    /**
+     * Aggregates first; full scan when the product has no aggregate row yet or some of its reviews still
+     * lack persisted lexical flags (the trigger cannot count those).
+     *
+     * @return {@code null} when the product has no reviews
+     */
+    private FeatureVector loadFeatures(UUID productId) {
+        LocalDate since = surgeWindowStart();
+        Optional<Aggregates> agg = aggregates.find(productId, SOURCE_AMAZON, since);
+        if (agg.isPresent() && agg.get().reviewCount() > 0 && agg.get().pendingCount() == 0) {
+            return featuresFromAggregates(agg.get());
+        }
+        return scanFeatures(productId);
+    }
+
+    static FeatureVector featuresFromAggregates(Aggregates agg) {
+        int total = agg.reviewCount();
+        double fiveStarRatio = agg.stars(5) / (double) total;
+        double shortTextRatio = agg.shortTextCount() / (double) total;
+        double distBias = clamp01(fiveStarRatio * shortTextRatio);
+        double duplicateRate = clamp01(Math.max(1, agg.maxClusterCount()) / (double) total);
+        int recent = agg.recentCount();
+        double surgeRatio = clamp01((recent * 1.0) / Math.max(1.0, total / 5.0));
+        double noiseRatio = clamp01(agg.noisyCount() / (double) total);
+        return new FeatureVector(distBias, duplicateRate, surgeRatio, noiseRatio, recent, total);
+    }
+
+    /**
+     * Streams the product's reviews through a {@link FeatureAccumulator}: one pass, fetch-size batches,
+     * nothing retained per row. Bodies are only transferred for rows whose lexical flags are not
+     * backfilled yet.
+     */
+    private FeatureVector scanFeatures(UUID productId) {
+        FeatureAccumulator acc = new FeatureAccumulator(surgeWindowStart());
+        readTx.executeWithoutResult(tx -> streamingJdbc.query("""
                         SELECT rating,
-                               COALESCE(body, '') AS body,
+                               lex_flags,
+                               body_norm_hash,
+                               CASE WHEN lex_flags IS NULL THEN COALESCE(body, '') END AS body,
                                review_date,
                                fingerprint,
-                               reviewer,
-                               helpful_votes
+                               reviewer
                           FROM reviews
                          WHERE product_id = ?
                            AND source = ?
                         """,
-                (rs, i) -> mapRow(rs),
-                productId, SOURCE_AMAZON
-        );
+                ps -> {
+                    ps.setObject(1, productId);
+                    ps.setString(2, SOURCE_AMAZON);
+                },
+                (RowCallbackHandler) acc::add));
+        return acc.toFeatures();
     }
 
-    private FeatureVector computeFeatures(List<ReviewSample> reviews) {
-        int total = reviews.size();
-        double fiveStarRatio = reviews.stream().filter(r -> r.rating() >= 5).count() / (double) total;
-        double shortTextRatio = reviews.stream()
-                .filter(r -> r.normalisedBody() != null && r.normalisedBody().length() < 120)
-                .count() / (double) total;
-        double distBias = clamp01(fiveStarRatio * shortTextRatio);
+    static LocalDate surgeWindowStart() {
+        return LocalDate.now(ZoneId.systemDefault()).minusDays(SURGE_WINDOW_DAYS);
+    }
 
-        Map<String, Long> clusters = reviews.stream()
-                .map(ReviewSample::clusterKey)
-                .filter(key -> key != null && !key.isBlank())
-                .collect(Collectors.groupingBy(key -> key, Collectors.counting()));
-        long maxCluster = clusters.values().stream().mapToLong(Long::longValue).max().orElse(1L);
-        double duplicateRate = clamp01(maxCluster / (double) total);
-
-        LocalDate thresholdDate = LocalDate.now(ZoneId.systemDefault()).minusDays(SURGE_WINDOW_DAYS);
-        long recent = reviews.stream()
-                .filter(sample -> sample.reviewDate() != null && !sample.reviewDate().isBefore(thresholdDate))
-                .count();
-        double surgeRatio = clamp01((recent * 1.0) / Math.max(1.0, total / 5.0));
+    /* ------------------------------------------------------------------ */
+    /* Versioning                                                         */
+    /* ------------------------------------------------------------------ */
 
-        double noiseRatio = clamp01(reviews.stream()
-                .filter(sample -> isNoisy(sample.normalisedBody()))
-                .count() / (double) total);
+    /** Version stored with every score: engine version + threshold fingerprint. */
+    String currentVersion() {
+        return currentVersion;
+    }
 
-        return new FeatureVector(distBias, duplicateRate, surgeRatio, noiseRatio, (int) recent);
+    ScoringConfig currentConfig() {
+        return thresholdProvider.config();
     }
 
-    private boolean isNoisy(String body) {
-        if (body == null || body.isBlank()) return true;
-        if (body.length() < 40) return true;
-        long uniqueChars = body.chars().distinct().count();
-        return uniqueChars < 10;
+    static String versionOf(ScoringConfig config) {
+        return ENGINE_VERSION + ":" + config.fingerprint();
     }
 
-    private ReviewSample mapRow(ResultSet rs) throws SQLException {
-        int rating = Math.max(0, Math.min(5, rs.getInt("rating")));
-        String body = rs.getString("body");
-        LocalDate reviewDate = rs.getObject("review_date") != null
-                ? rs.getObject("review_date", LocalDate.class)
-                : null;
-        String normalisedBody = TextNormalizer.normalize(body);
-        String fingerprint = rs.getString("fingerprint");
-        String reviewer = rs.getString("reviewer");
-        int helpful = rs.getInt("helpful_votes");
-        return new ReviewSample(
-                rating,
-                normalisedBody,
-                reviewDate,
-                fingerprint,
-                reviewer,
-                helpful
-        );
+    /**
+     * Cheap signature of the scoring inputs: review count and last write, plus the current date because
+     * the surge window is relative to "today". Uses only the product_id index, no row bodies.
+     */
+    private String inputHash(UUID productId) {
+        String signature = jdbc.queryForObject("""
+                        SELECT count(*) AS cnt, max(updated_at) AS last_updated
+                          FROM reviews
+                         WHERE product_id = ?
+                           AND source = ?
+                        """,
+                (rs, i) -> inputHashOf(productId, rs.getLong("cnt"), rs.getTimestamp("last_updated")),
+                productId, SOURCE_AMAZON);
+        return signature;
+    }
+
+    /**
+     * Review count + last update + today, plus the surge statistics the rules read: the daily counts live in
+     * {@link ReviewSurgeDetector}'s ring, so a changed window (e.g. a moved review date, or a different
+     * window/baseline configuration) yields a new hash even when the review rows themselves look the same.
+     */
+    String inputHashOf(UUID productId, long reviewCount, Timestamp lastUpdated) {
+        String signature = reviewCount + "|" + (lastUpdated != null ? lastUpdated.toInstant() : "-");
+        String today = LocalDate.now(ZoneId.systemDefault()).toString();
+        Stats surge = surgeDetector.stats(productId, SOURCE_AMAZON);
+        String surgeInputs = surge.recentCount() + "|" + String.format(Locale.ROOT, "%.4f|%.4f",
+                surge.baselinePerDay(), surge.z());
+        return TextHash.sha256Hex(signature + "|" + today + "|" + surgeInputs).substring(0, 32);
     }
 
     /* ------------------------------------------------------------------ */
     /* Persistence                                                        */
     /* ------------------------------------------------------------------ */
 
-    private void persistScore(UUID productId,
-                              int score,
-                              ScoreModels.Rank rank,
-                              SakuraJudge judge,
-                              Map<String, Object> metrics,
-                              List<String> flags,
-                              List<ScoreModels.RuleDetail> rules) {
-        MapSqlParameterSource params = new MapSqlParameterSource()
-                .addValue("productId", productId)
-                .addValue("source", SOURCE_AMAZON)
-                .addValue("score", score)
-                .addValue("rank", rank.name())
-                .addValue("judge", judge.name())
-                .addValue("flags", toJsonString(flags))
-                .addValue("rules", toJsonString(rules))
-                .addValue("metrics", toJsonString(metrics));
-
-        namedJdbc.update("""
+    private Optional<StoredScore> loadStored(UUID productId) {
+        List<StoredScore> rows = jdbc.query("""
+                        SELECT score, rank, sakura_judge,
+                               CAST(flags AS text)   AS flags,
+                               CAST(rules AS text)   AS rules,
+                               CAST(metrics AS text) AS metrics,
+                               computed_at, score_version, input_hash
+                          FROM review_scores
+                         WHERE product_id = ?
+                           AND source = ?
+                        """,
+                (rs, i) -> mapStored(productId, rs),
+                productId, SOURCE_AMAZON);
+        return rows.stream().findFirst();
+    }
+
+    private StoredScore mapStored(UUID productId, ResultSet rs) throws SQLException {
+        Integer score = rs.getObject("score") != null ? rs.getInt("score") : null;
+        Timestamp computedAt = rs.getTimestamp("computed_at");
+        ScoreResult result = new ScoreModels.ScoreResult(
+                productId.toString(),
+                score,
+                parseEnum(ScoreModels.Rank.class, rs.getString("rank")),
+                parseEnum(SakuraJudge.class, rs.getString("sakura_judge")),
+                readJson(rs.getString("metrics"), new TypeReference<Map<String, Object>>() {}, Map.of()),
+                readJson(rs.getString("flags"), new TypeReference<List<String>>() {}, List.of()),
+                readJson(rs.getString("rules"), new TypeReference<List<ScoreModels.RuleDetail>>() {}, List.of()),
+                computedAt != null ? computedAt.toInstant().toString() : null
+        );
+        return new StoredScore(result, rs.getString("score_version"), rs.getString("input_hash"));
+    }
+
+    private <T> T readJson(String json, TypeReference<T> type, T fallback) {
+        if (json == null || json.isBlank()) {
+            return fallback;
+        }
+        try {
+            return mapper.readValue(json, type);
+        } catch (Exception e) {
+            log.debug("[score] unreadable stored payload: {}", e.getMessage());
+            return fallback;
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String raw) {
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, raw.trim());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void persistScores(List<Computed> computed, String version) {
+        MapSqlParameterSource[] batch = new MapSqlParameterSource[computed.size()];
+        for (int i = 0; i < batch.length; i++) {
+            Computed c = computed.get(i);
+            ScoreResult r = c.result();
+            batch[i] = new MapSqlParameterSource()
+                    .addValue("productId", c.productId())
+                    .addValue("source", SOURCE_AMAZON)
+                    .addValue("score", r.score)
+                    .addValue("rank", r.rank.name())
+                    .addValue("judge", r.sakuraJudge.name())
+                    .addValue("flags", toJsonString(r.flags))
+                    .addValue("rules", toJsonString(r.rules))
+                    .addValue("metrics", toJsonString(r.metrics))
+                    .addValue("version", version)
+                    .addValue("inputHash", c.inputHash());
+        }
+
+        namedJdbc.batchUpdate("""
                 INSERT INTO review_scores
-                   (product_id, source, score, rank, sakura_judge, flags, rules, metrics, computed_at, updated_at)
+                   (product_id, source, score, rank, sakura_judge, flags, rules, metrics,
+                    score_version, input_hash, computed_at, updated_at)
                 VALUES
                    (:productId, :source, :score, :rank, :judge,
-                    CAST(:flags AS jsonb), CAST(:rules AS jsonb), CAST(:metrics AS jsonb), now(), now())
+                    CAST(:flags AS jsonb), CAST(:rules AS jsonb), CAST(:metrics AS jsonb),
+                    :version, :inputHash, now(), now())
                 ON CONFLICT (product_id, source)
                 DO UPDATE SET
                    score         = EXCLUDED.score,
@@ -205,9 +467,11 @@ public class ScoreService {
                    flags         = EXCLUDED.flags,
                    rules         = EXCLUDED.rules,
                    metrics       = EXCLUDED.metrics,
+                   score_version = EXCLUDED.score_version,
+                   input_hash    = EXCLUDED.input_hash,
                    computed_at   = EXCLUDED.computed_at,
                    updated_at    = now()
-                """, params);
+                """, batch);
     }
 
     private String toJsonString(Object value) {
@@ -242,7 +506,7 @@ public class ScoreService {
         return Math.round(value * 100.0) / 100.0;
     }
 
-    private double clamp01(double value) {
+    private static double clamp01(double value) {
         return Math.max(0d, Math.min(1d, value));
     }
 
@@ -250,30 +514,27 @@ public class ScoreService {
     /* Data holders                                                       */
     /* ------------------------------------------------------------------ */
 
-    private record ReviewSample(
-            int rating,
-            String normalisedBody,
-            LocalDate reviewDate,
-            String fingerprint,
-            String reviewer,
-            int helpfulVotes
-    ) {
-        String clusterKey() {
-            if (fingerprint != null && !fingerprint.isBlank()) return fingerprint;
-            if (normalisedBody != null && !normalisedBody.isBlank()) return normalisedBody;
-            return reviewer;
-        }
+    private record StoredScore(ScoreResult result, String version, String inputHash) {
     }
 
-    private record FeatureVector(
+    record Computed(UUID productId, ScoreResult result, String inputHash) {
+    }
+
+    record FeatureVector(
             double distBias,
             double duplicateRate,
             double surgeRatio,
             double noiseRatio,
-            int recentCount
+            int recentCount,
+            int totalReviews
     ) {
-        ScoreModels.FeatureSnapshot toSnapshot() {
-            return new ScoreModels.FeatureSnapshot(distBias, duplicateRate, surgeRatio, noiseRatio);
+        FeatureVector withDuplicateRate(double rate) {
+            return new FeatureVector(distBias, rate, surgeRatio, noiseRatio, recentCount, totalReviews);
+        }
+
+        /** @param surgeZ z-score of the recent daily volume (rules compare it against {@code surge_z}) */
+        ScoreModels.FeatureSnapshot toSnapshot(double surgeZ) {
+            return new ScoreModels.FeatureSnapshot(distBias, duplicateRate, surgeZ, noiseRatio);
         }
     }
 }
@@ -1,5 +1,12 @@
 package com.hamas.reviewtrust.domain.scoring.engine;
 
+import com.hamas.reviewtrust.common.sim.TextSimilarity;
+import com.hamas.reviewtrust.common.text.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Aggregates features about a review and its author used by the scoring rules.
  * A context can be constructed via its builder. All values are normalized
@@ -78,6 +85,22 @@ public class ScoringContext {
         public Builder specificityScore(double val) { this.specificityScore = val; return this; }
         public Builder unnaturalLanguageScore(double val) { this.unnaturalLanguageScore = val; return this; }
         public Builder duplicateTextSimilarity(double val) { this.duplicateTextSimilarity = val; return this; }
+        /**
+         * Sets {@code duplicateTextSimilarity} to the highest normalized edit similarity between the
+         * review text (set it first) and {@code otherTexts}, e.g. the author's other reviews.
+         */
+        public Builder duplicateTextSimilarityAgainst(Collection<String> otherTexts) {
+            if (otherTexts == null || otherTexts.isEmpty()) {
+                this.duplicateTextSimilarity = 0.0;
+                return this;
+            }
+            List<String> others = new ArrayList<>(otherTexts.size());
+            for (String other : otherTexts) {
+                others.add(TextNormalizer.normalize(other));
+            }
+            this.duplicateTextSimilarity = TextSimilarity.maxSimilarity(TextNormalizer.normalize(reviewText), others);
+            return this;
+        }
         public ScoringContext build() { return new ScoringContext(this); }
     }
 }
\ No newline at end of file
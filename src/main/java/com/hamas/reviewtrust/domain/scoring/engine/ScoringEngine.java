@@ -2,14 +2,18 @@
 package com.hamas.reviewtrust.domain.scoring.engine;
 
 import com.hamas.reviewtrust.domain.scoring.catalog.RuleCatalogService;
+import com.hamas.reviewtrust.domain.scoring.profile.Flags;
 import com.hamas.reviewtrust.domain.scoring.profile.ScoringProfile;
 import com.hamas.reviewtrust.domain.scoring.profile.ScoringProfileRepository;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Central orchestrator that applies scoring rules to a review context,
@@ -19,10 +23,18 @@ import java.util.Objects;
  * <p>Score range: <b>0..100 (0 = worst, 100 = best)</b>.
  * Each rule returns a non-negative penalty; the final score is
  * <code>100 - sum(penalties)</code>, clamped to [0,100].</p>
+ *
+ * <p>{@link #scoreAll(List, boolean)} scores a whole batch (e.g. every review of a product) rule by rule,
+ * resolving the rule list and profile once; large batches are split across the common ForkJoin pool.</p>
  */
 @Service // ← DI できるように Bean 化（ScoreEngine アダプタ等から注入される）
 public class ScoringEngine {
 
+    /** この件数以上のバッチは ForkJoin で分割して並列に評価する */
+    static final int PARALLEL_THRESHOLD = 4096;
+    /** 並列評価時の 1 タスクあたりの件数 */
+    private static final int SLICE_SIZE = 1024;
+
     private final RuleCatalogService catalog;
     private final ScoringProfileRepository profileRepo;
 
@@ -73,6 +85,66 @@ public class ScoringEngine {
             }
         }
 
+        return toResult(totalPenalty, triggered);
+    }
+
+    /** Same as {@code scoreAll(contexts, true)}. */
+    public List<ScoreResult> scoreAll(List<ScoringContext> contexts) {
+        return scoreAll(contexts, true);
+    }
+
+    /**
+     * Scores a batch with the same semantics as {@link #score(ScoringContext)}, applied per context.
+     * Rules and profile are resolved once; each rule is evaluated over the whole batch before the next one.
+     *
+     * @param contexts     contexts to score
+     * @param withEvidence format evidence text for triggered rules; when {@code false} outcomes carry only
+     *                     flag and penalty (enough for score/rank/flags, much cheaper for thousands of reviews)
+     * @return results in input order
+     */
+    public List<ScoreResult> scoreAll(List<ScoringContext> contexts, boolean withEvidence) {
+        if (contexts == null || contexts.isEmpty()) return List.of();
+        ScoringContext[] batch = contexts.toArray(new ScoringContext[0]);
+        List<Rule> rules = catalog.getRules();
+        ScoringProfile profile = Objects.requireNonNull(profileRepo.get(), "scoring profile");
+        ScoreResult[] results = new ScoreResult[batch.length];
+        if (batch.length >= PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(
+                    new SliceTask(batch, 0, batch.length, rules, profile, withEvidence, results));
+        } else {
+            scoreSlice(batch, 0, batch.length, rules, profile, withEvidence, results);
+        }
+        return Arrays.asList(results);
+    }
+
+    /** Rule-major evaluation of {@code batch[from, to)} into {@code out}. */
+    private static void scoreSlice(ScoringContext[] batch, int from, int to, List<Rule> rules,
+                                   ScoringProfile profile, boolean withEvidence, ScoreResult[] out) {
+        int n = to - from;
+        double[] penalties = new double[n];
+        List<List<RuleOutcome>> triggered = new ArrayList<>(Collections.nCopies(n, null));
+        for (Rule rule : rules) {
+            Flags flag = rule.flag();
+            for (int i = 0; i < n; i++) {
+                ScoringContext ctx = batch[from + i];
+                double penalty = rule.penalty(ctx, profile);
+                if (!(penalty > 0)) continue; // score() と同じく NaN は未発火扱い
+                penalties[i] += sanitizePenalty(penalty);
+                List<RuleOutcome> outcomes = triggered.get(i);
+                if (outcomes == null) {
+                    outcomes = new ArrayList<>(4);
+                    triggered.set(i, outcomes);
+                }
+                outcomes.add(new RuleOutcome(flag, penalty, withEvidence ? rule.evidence(ctx) : null));
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            List<RuleOutcome> outcomes = triggered.get(i);
+            out[from + i] = toResult(penalties[i], outcomes != null ? outcomes : List.of());
+        }
+    }
+
+    private static ScoreResult toResult(double totalPenalty, List<RuleOutcome> triggered) {
         // 100 - sum(penalties), clamped to [0,100]
         int rawScore = (int) Math.round(clamp(100.0 - totalPenalty, 0.0, 100.0));
         Ranker.Rank rank = Ranker.assign(rawScore);
@@ -80,6 +152,38 @@ public class ScoringEngine {
         return new ScoreResult(rawScore, rank, triggered);
     }
 
+    private static final class SliceTask extends RecursiveAction {
+        private final ScoringContext[] batch;
+        private final int from;
+        private final int to;
+        private final List<Rule> rules;
+        private final ScoringProfile profile;
+        private final boolean withEvidence;
+        private final ScoreResult[] out;
+
+        SliceTask(ScoringContext[] batch, int from, int to, List<Rule> rules,
+                  ScoringProfile profile, boolean withEvidence, ScoreResult[] out) {
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+            this.rules = rules;
+            this.profile = profile;
+            this.withEvidence = withEvidence;
+            this.out = out;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SLICE_SIZE) {
+                scoreSlice(batch, from, to, rules, profile, withEvidence, out);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SliceTask(batch, from, mid, rules, profile, withEvidence, out),
+                    new SliceTask(batch, mid, to, rules, profile, withEvidence, out));
+        }
+    }
+
     /** ペナルティの健全化（負値・NaN・Infinity を 0 に丸める） */
     private static double sanitizePenalty(double v) {
         if (Double.isNaN(v) || Double.isInfinite(v)) return 0.0;
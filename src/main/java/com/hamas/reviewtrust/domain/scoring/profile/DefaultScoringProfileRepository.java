@@ -7,13 +7,20 @@ import org.springframework.stereotype.Component;
 /**
  * 既定の ScoringProfile リポジトリ実装。
  * プロファイル未配備でも起動を止めないため、既定インスタンスを返す。
+ * インスタンスの解決（リフレクション）は起動時に一度だけ行い、get() はフィールドを返すだけ。
  */
 @Component
 @Primary
 public class DefaultScoringProfileRepository extends ScoringProfileRepository {
 
+    private final ScoringProfile profile = resolveDefault();
+
     @Override
     public ScoringProfile get() {
+        return profile;
+    }
+
+    private static ScoringProfile resolveDefault() {
         // 1) static defaults() があれば最優先で利用
         try {
             var m = ScoringProfile.class.getMethod("defaults");
@@ -0,0 +1,35 @@
+package com.hamas.reviewtrust.domain.scoring.profile;
+
+import com.hamas.reviewtrust.domain.scoring.profile.ThresholdProvider.Thresholds;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Snapshot of the effective scoring configuration, published by {@link ThresholdProvider}.
+ *
+ * <p>A snapshot is never modified after publication: a reload or admin save builds a fresh
+ * {@link Thresholds} instance and swaps the whole snapshot, so readers can hold on to one for the
+ * duration of a score computation. The record keeps its own copy of the thresholds and {@link #thresholds()}
+ * returns a fresh copy, so nothing a caller does to it reaches the published values.</p>
+ *
+ * @param version     in-process generation, incremented on every effective change (starts at 1)
+ * @param fingerprint restart-stable hash of the values; persisted with scores to detect staleness
+ * @param thresholds  the threshold values
+ * @param loadedAt    when this snapshot was published
+ */
+public record ScoringConfig(long version, String fingerprint, Thresholds thresholds, Instant loadedAt) {
+
+    public ScoringConfig {
+        Objects.requireNonNull(fingerprint, "fingerprint");
+        Objects.requireNonNull(thresholds, "thresholds");
+        Objects.requireNonNull(loadedAt, "loadedAt");
+        thresholds = thresholds.copy();
+    }
+
+    /** Copy of the threshold values (take it once per computation). */
+    @Override
+    public Thresholds thresholds() {
+        return thresholds.copy();
+    }
+}
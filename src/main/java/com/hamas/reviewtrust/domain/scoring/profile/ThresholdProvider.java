@@ -1,24 +1,49 @@
 package com.hamas.reviewtrust.domain.scoring.profile;
 
+import com.hamas.reviewtrust.common.hash.TextHash;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Component;
 import org.yaml.snakeyaml.Yaml;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStreamWriter;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.Files;
-import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
  * Loads and persists scoring thresholds from {@code scoring/thresholds.yml}. When an external path
- * is configured via system property or environment variable the provider watches the file for
- * modifications and reloads it on-demand. Otherwise the classpath resource is used.
+ * is configured via system property or environment variable the file is watched with a
+ * {@link WatchService} and reloaded when it changes; otherwise the classpath resource is used.
+ *
+ * <p>The effective values are published as an immutable {@link ScoringConfig} snapshot behind a volatile
+ * reference, so {@link #get()}, {@link #fingerprint()} and {@link #config()} do no I/O. The snapshot owns its
+ * {@link Thresholds}; {@link #get()} and {@link ScoringConfig#thresholds()} hand out copies, so callers cannot
+ * change the published values. Listeners registered
+ * via {@link #addConfigListener(Consumer)} / {@link #addChangeListener(Runnable)} run whenever a reload or
+ * save changes the effective values. The watch loop runs on the background executor and ends when the
+ * {@link WatchService} is closed.</p>
  */
 @Component
 public class ThresholdProvider {
@@ -27,69 +52,114 @@ public class ThresholdProvider {
     private static final String CLASSPATH = "/scoring/thresholds.yml";
     private static final String PROP_PATH = "scoring.thresholds.path";
     private static final String ENV_PATH = "SCORING_THRESHOLDS_PATH";
+    /** エディタの「書き込み→リネーム」等で連続するイベントをまとめる待ち時間 */
+    private static final long WATCH_DEBOUNCE_MILLIS = 200L;
 
     private final Yaml yaml = new Yaml();
     private final Path externalPath;
-    private volatile Thresholds cached = Thresholds.defaults();
-    private volatile long lastModified = -1L;
+    private final AtomicLong versions = new AtomicLong();
+    private volatile ScoringConfig config;
+    private final List<Consumer<ScoringConfig>> listeners = new CopyOnWriteArrayList<>();
+    /**
+     * 読み込み/保存/公開を直列化する。ファイル I/O とリスナー実行を含むため synchronized ではなく
+     * ReentrantLock にしている（仮想スレッドがキャリアスレッドを固定したまま待たないように）
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final TaskExecutor executor;
+    private volatile WatchService watchService;
 
+    /** Standalone use (tests, tools): the watch loop gets its own daemon thread. */
     public ThresholdProvider() {
+        this(standaloneExecutor());
+    }
+
+    @Autowired
+    public ThresholdProvider(@Qualifier("backgroundTaskExecutor") TaskExecutor executor) {
+        this.executor = Objects.requireNonNull(executor, "executor");
         this.externalPath = resolveExternal();
-        refreshIfNeeded();
+        Thresholds defaults = Thresholds.defaults();
+        this.config = new ScoringConfig(versions.incrementAndGet(), fingerprintOf(defaults), defaults, Instant.now());
+        loadAndCache();
+        startWatching();
     }
 
-    /** Returns the most recent thresholds, reloading if the source file changed. */
+    /** Returns a copy of the current thresholds; changing it does not affect the published snapshot. */
     public Thresholds get() {
-        refreshIfNeeded();
-        return cached;
+        return config.thresholds();
+    }
+
+    /**
+     * Short, restart-stable hash of the current threshold values. Persisted scores record it so that
+     * a threshold change can be detected without recomputing anything.
+     */
+    public String fingerprint() {
+        return config.fingerprint();
+    }
+
+    /** Current snapshot; take it once per computation so thresholds and version stay consistent. */
+    public ScoringConfig config() {
+        return config;
+    }
+
+    /** Registers a callback that receives every new snapshot after a reload/save changed the values. */
+    public void addConfigListener(Consumer<ScoringConfig> listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    /** Registers a callback fired after a reload/save that changed the threshold values. */
+    public void addChangeListener(Runnable listener) {
+        Objects.requireNonNull(listener, "listener");
+        addConfigListener(next -> listener.run());
     }
 
-    /** Force a reload regardless of timestamps. */
-    public synchronized void reload() {
+    /** Force a reload from the source. */
+    public void reload() {
         loadAndCache();
     }
 
     /**
-     * Persist thresholds to the configured external path. When no external path is set the
+     * Persist thresholds to the configured external path and publish them. When no external path is set the
      * invocation is ignored because classpath resources are read-only in packaged deployments.
      */
-    public synchronized void save(Thresholds thresholds) {
+    public void save(Thresholds thresholds) {
         Objects.requireNonNull(thresholds, "thresholds");
         if (externalPath == null) {
             log.warn("[ThresholdProvider] no external thresholds path configured; skipping save");
             return;
         }
+        Map<String, Object> values = thresholds.toMap();
+        writeLock.lock();
         try {
             Files.createDirectories(externalPath.getParent());
             try (OutputStreamWriter writer = new OutputStreamWriter(Files.newOutputStream(externalPath))) {
-                yaml.dump(thresholds.toMap(), writer);
+                yaml.dump(values, writer);
             }
-            lastModified = Files.getLastModifiedTime(externalPath, LinkOption.NOFOLLOW_LINKS).toMillis();
-            cached = thresholds;
+            // 呼び出し側のインスタンスは共有しない（公開済みスナップショットを後から書き換えられないように）
+            apply(parse(values));
             log.info("[ThresholdProvider] thresholds persisted to {}", externalPath);
         } catch (IOException e) {
             log.error("[ThresholdProvider] failed to persist thresholds.yml", e);
             throw new IllegalStateException("Unable to write thresholds", e);
+        } finally {
+            writeLock.unlock();
         }
     }
 
-    private void refreshIfNeeded() {
-        if (externalPath != null) {
+    /** Stops watching; the blocked {@code take()} fails with {@link ClosedWatchServiceException}. */
+    @PreDestroy
+    public void close() {
+        WatchService ws = watchService;
+        watchService = null;
+        if (ws != null) {
             try {
-                long current = Files.getLastModifiedTime(externalPath, LinkOption.NOFOLLOW_LINKS).toMillis();
-                if (current != lastModified) {
-                    loadAndCache();
-                    lastModified = current;
-                }
-            } catch (IOException e) {
-                log.warn("[ThresholdProvider] unable to inspect external thresholds: {}", externalPath, e);
+                ws.close();
+            } catch (IOException ignored) {
             }
-        } else if (cached == null) {
-            loadAndCache();
         }
     }
 
-    private synchronized void loadAndCache() {
+    private void loadAndCache() {
+        writeLock.lock();
         try {
             Thresholds thresholds;
             if (externalPath != null && Files.isRegularFile(externalPath)) {
@@ -108,15 +178,101 @@ public class ThresholdProvider {
                     }
                 }
             }
-            cached = thresholds;
+            apply(thresholds);
         } catch (Exception e) {
             log.warn("[ThresholdProvider] failed to load thresholds; keeping previous values", e);
+        } finally {
+            writeLock.unlock();
         }
     }
 
-    @SuppressWarnings("unchecked")
+    /** Caller must hold {@link #writeLock}. */
+    private void apply(Thresholds thresholds) {
+        String next = fingerprintOf(thresholds);
+        if (next.equals(config.fingerprint())) {
+            return;
+        }
+        ScoringConfig published = new ScoringConfig(versions.incrementAndGet(), next, thresholds, Instant.now());
+        config = published;
+        log.info("[ThresholdProvider] scoring config v{} published (fingerprint={})", published.version(), next);
+        for (Consumer<ScoringConfig> listener : listeners) {
+            try {
+                listener.accept(published);
+            } catch (RuntimeException e) {
+                log.warn("[ThresholdProvider] change listener failed", e);
+            }
+        }
+    }
+
+    /* ------------------------------------------------------------------ */
+    /* File watching                                                      */
+    /* ------------------------------------------------------------------ */
+
+    private void startWatching() {
+        if (externalPath == null) {
+            return;
+        }
+        Path dir = externalPath.toAbsolutePath().getParent();
+        if (dir == null || !Files.isDirectory(dir)) {
+            log.warn("[ThresholdProvider] directory of {} does not exist; file changes will not be picked up",
+                    externalPath);
+            return;
+        }
+        try {
+            WatchService ws = dir.getFileSystem().newWatchService();
+            dir.register(ws, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            watchService = ws;
+            executor.execute(() -> watchLoop(ws));
+        } catch (IOException e) {
+            log.warn("[ThresholdProvider] unable to watch {}; file changes will not be picked up", dir, e);
+        }
+    }
+
+    private void watchLoop(WatchService ws) {
+        Path fileName = externalPath.getFileName();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = ws.take();
+                boolean relevant = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+                        relevant = true;
+                    }
+                }
+                if (relevant) {
+                    Thread.sleep(WATCH_DEBOUNCE_MILLIS);
+                    WatchKey more;
+                    while ((more = ws.poll()) != null) {
+                        more.pollEvents();
+                        more.reset();
+                    }
+                    loadAndCache();
+                }
+                if (!key.reset()) {
+                    log.warn("[ThresholdProvider] watch on {} is no longer valid", externalPath.getParent());
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            // executor の停止
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // close()
+        }
+    }
+
+    private static TaskExecutor standaloneExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("scoring-config-watch-");
+        executor.setDaemon(true);
+        return executor;
+    }
+
     private Thresholds parse(InputStream in) {
-        Map<String, Object> raw = yaml.load(in);
+        return parse(yaml.<Map<String, Object>>load(in));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Thresholds parse(Map<String, Object> raw) {
         if (raw == null) return Thresholds.defaults();
 
         Thresholds thresholds = Thresholds.defaults();
@@ -180,6 +336,20 @@ public class ThresholdProvider {
         return thresholds;
     }
 
+    private static String fingerprintOf(Thresholds thresholds) {
+        // Map.of の反復順は JVM ごとに変わるため、キー順に正規化してからハッシュする
+        return TextHash.sha256Hex(String.valueOf(sorted(thresholds.toMap()))).substring(0, 16);
+    }
+
+    private static Object sorted(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> out = new TreeMap<>();
+            map.forEach((k, v) -> out.put(String.valueOf(k), sorted(v)));
+            return out;
+        }
+        return value;
+    }
+
     @SuppressWarnings("unchecked")
     private static double getNestedDouble(Map<String, Object> parent, String section, String key, double defaultValue) {
         Object nested = parent.get(section);
@@ -227,6 +397,11 @@ public class ThresholdProvider {
         public final FeaturePercent featurePercent = new FeaturePercent();
         public final SakuraPercent sakuraPercent = new SakuraPercent();
 
+        /** Deep copy; goes through {@link #toMap()} so it covers exactly the values the fingerprint covers. */
+        public Thresholds copy() {
+            return parse(toMap());
+        }
+
         public static Thresholds defaults() {
             Thresholds t = new Thresholds();
             t.weights.dist_bias = 0.35;
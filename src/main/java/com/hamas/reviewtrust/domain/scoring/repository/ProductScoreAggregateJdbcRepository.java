@@ -0,0 +1,95 @@
+package com.hamas.reviewtrust.domain.scoring.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Reads the per-product scoring aggregates maintained by the {@code reviews_product_score_aggregates}
+ * trigger (V066, keys aligned with the engine's scan). Everything needed for feature extraction
+ * comes back from one statement that touches the aggregate row plus two index lookups, independent of
+ * the number of reviews.
+ */
+@Repository
+public class ProductScoreAggregateJdbcRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductScoreAggregateJdbcRepository.class);
+
+    private final JdbcTemplate jdbc;
+
+    public ProductScoreAggregateJdbcRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * @param recentSince first day (inclusive) counted into {@link Aggregates#recentCount()}
+     * @return aggregates, or empty when none exist yet (or the tables are unavailable, e.g. H2)
+     */
+    public Optional<Aggregates> find(UUID productId, String source, LocalDate recentSince) {
+        try {
+            List<Aggregates> rows = jdbc.query("""
+                            SELECT a.review_count,
+                                   a.star_0, a.star_1, a.star_2, a.star_3, a.star_4, a.star_5,
+                                   a.short_text_count, a.noisy_count, a.verified_count, a.pending_count,
+                                   COALESCE((SELECT k.cnt
+                                               FROM product_score_cluster_counts k
+                                              WHERE k.product_id = a.product_id AND k.source = a.source
+                                              ORDER BY k.cnt DESC
+                                              LIMIT 1), 0) AS max_cluster,
+                                   COALESCE((SELECT sum(d.cnt)
+                                               FROM product_score_daily_counts d
+                                              WHERE d.product_id = a.product_id AND d.source = a.source
+                                                AND d.day >= ?), 0) AS recent_count
+                              FROM product_score_aggregates a
+                             WHERE a.product_id = ?
+                               AND a.source = ?
+                            """,
+                    (rs, i) -> new Aggregates(
+                            rs.getInt("review_count"),
+                            new int[]{
+                                    rs.getInt("star_0"), rs.getInt("star_1"), rs.getInt("star_2"),
+                                    rs.getInt("star_3"), rs.getInt("star_4"), rs.getInt("star_5")
+                            },
+                            rs.getInt("short_text_count"),
+                            rs.getInt("noisy_count"),
+                            rs.getInt("verified_count"),
+                            rs.getInt("pending_count"),
+                            rs.getInt("max_cluster"),
+                            rs.getInt("recent_count")),
+                    Date.valueOf(recentSince), productId, source);
+            return rows.stream().findFirst();
+        } catch (DataAccessException e) {
+            log.debug("[aggregates] unavailable for productId={}: {}", productId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Counters for one (product, source).
+     *
+     * @param starCounts   index 0 = unrated, 1..5 = stars
+     * @param pendingCount reviews without persisted lexical flags yet; their short-text, noise and cluster
+     *                     contributions are missing until the backfill reaches them
+     */
+    public record Aggregates(int reviewCount,
+                             int[] starCounts,
+                             int shortTextCount,
+                             int noisyCount,
+                             int verifiedCount,
+                             int pendingCount,
+                             int maxClusterCount,
+                             int recentCount) {
+
+        public int stars(int star) {
+            return starCounts[star];
+        }
+    }
+}
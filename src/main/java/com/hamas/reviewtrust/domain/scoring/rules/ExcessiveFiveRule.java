@@ -1,7 +1,6 @@
 package com.hamas.reviewtrust.domain.scoring.rules;
 
 import com.hamas.reviewtrust.domain.scoring.engine.Rule;
-import com.hamas.reviewtrust.domain.scoring.engine.RuleOutcome;
 import com.hamas.reviewtrust.domain.scoring.engine.ScoringContext;
 import com.hamas.reviewtrust.domain.scoring.profile.Flags;
 import com.hamas.reviewtrust.domain.scoring.profile.ScoringProfile;
@@ -13,17 +12,25 @@ import com.hamas.reviewtrust.domain.scoring.profile.ScoringProfile;
  */
 public class ExcessiveFiveRule implements Rule {
     @Override
-    public RuleOutcome apply(ScoringContext ctx, ScoringProfile profile) {
+    public Flags flag() {
+        return Flags.EXCESSIVE_FIVE_STAR;
+    }
+
+    @Override
+    public double penalty(ScoringContext ctx, ScoringProfile profile) {
         int star = ctx.getStarRating();
         int reviews = ctx.getUserReviewsLast24h();
         int threshold = profile.getThresholds().maxReviewsPerDay;
         // Trigger when review is 5 stars and reviewer is very active
         if (star >= 5 && reviews > (threshold * 0.6)) {
             double severity = (double) (reviews - (int) (threshold * 0.6)) / (threshold * 0.4);
-            double penalty = severity * profile.weightFor(Flags.EXCESSIVE_FIVE_STAR);
-            String evidence = String.format("reviews24h=%d", reviews);
-            return new RuleOutcome(Flags.EXCESSIVE_FIVE_STAR, penalty, evidence);
+            return severity * profile.weightFor(Flags.EXCESSIVE_FIVE_STAR);
         }
-        return RuleOutcome.noFinding(Flags.EXCESSIVE_FIVE_STAR);
+        return 0.0;
+    }
+
+    @Override
+    public String evidence(ScoringContext ctx) {
+        return String.format("reviews24h=%d", ctx.getUserReviewsLast24h());
     }
 }
\ No newline at end of file
@@ -1,7 +1,6 @@
 package com.hamas.reviewtrust.domain.scoring.rules;
 
 import com.hamas.reviewtrust.domain.scoring.engine.Rule;
-import com.hamas.reviewtrust.domain.scoring.engine.RuleOutcome;
 import com.hamas.reviewtrust.domain.scoring.engine.ScoringContext;
 import com.hamas.reviewtrust.domain.scoring.profile.Flags;
 import com.hamas.reviewtrust.domain.scoring.profile.ScoringProfile;
@@ -13,17 +12,25 @@ import com.hamas.reviewtrust.domain.scoring.profile.ScoringProfile;
  */
 public class NewAccountBurstRule implements Rule {
     @Override
-    public RuleOutcome apply(ScoringContext ctx, ScoringProfile profile) {
+    public Flags flag() {
+        return Flags.NEW_ACCOUNT_BURST;
+    }
+
+    @Override
+    public double penalty(ScoringContext ctx, ScoringProfile profile) {
         int age = ctx.getUserAccountAgeDays();
         int reviews = ctx.getUserReviewsLast24h();
         int ageLimit = profile.getThresholds().newAccountAgeDays;
         int burstReviews = profile.getThresholds().newAccountBurstReviews;
         if (age < ageLimit && reviews > burstReviews) {
             double severity = (double) (reviews - burstReviews) / Math.max(1, burstReviews);
-            double penalty = severity * profile.weightFor(Flags.NEW_ACCOUNT_BURST);
-            String evidence = String.format("newAccountAge=%d,reviews24h=%d", age, reviews);
-            return new RuleOutcome(Flags.NEW_ACCOUNT_BURST, penalty, evidence);
+            return severity * profile.weightFor(Flags.NEW_ACCOUNT_BURST);
         }
-        return RuleOutcome.noFinding(Flags.NEW_ACCOUNT_BURST);
+        return 0.0;
+    }
+
+    @Override
+    public String evidence(ScoringContext ctx) {
+        return String.format("newAccountAge=%d,reviews24h=%d", ctx.getUserAccountAgeDays(), ctx.getUserReviewsLast24h());
     }
 }
\ No newline at end of file
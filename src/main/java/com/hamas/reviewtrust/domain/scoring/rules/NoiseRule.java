@@ -1,7 +1,6 @@
 package com.hamas.reviewtrust.domain.scoring.rules;
 
 import com.hamas.reviewtrust.domain.scoring.engine.Rule;
-import com.hamas.reviewtrust.domain.scoring.engine.RuleOutcome;
 import com.hamas.reviewtrust.domain.scoring.engine.ScoringContext;
 import com.hamas.reviewtrust.domain.scoring.profile.Flags;
 import com.hamas.reviewtrust.domain.scoring.profile.ScoringProfile;
@@ -13,15 +12,23 @@ import com.hamas.reviewtrust.domain.scoring.profile.ScoringProfile;
  */
 public class NoiseRule implements Rule {
     @Override
-    public RuleOutcome apply(ScoringContext ctx, ScoringProfile profile) {
+    public Flags flag() {
+        return Flags.NOISE;
+    }
+
+    @Override
+    public double penalty(ScoringContext ctx, ScoringProfile profile) {
         double ratio = ctx.getNoiseRatio();
         double threshold = profile.getThresholds().noiseRatio;
         if (ratio > threshold) {
             double severity = (ratio - threshold) / (1.0 - threshold);
-            double penalty = severity * profile.weightFor(Flags.NOISE);
-            String evidence = String.format("noiseRatio=%.2f", ratio);
-            return new RuleOutcome(Flags.NOISE, penalty, evidence);
+            return severity * profile.weightFor(Flags.NOISE);
         }
-        return RuleOutcome.noFinding(Flags.NOISE);
+        return 0.0;
+    }
+
+    @Override
+    public String evidence(ScoringContext ctx) {
+        return String.format("noiseRatio=%.2f", ctx.getNoiseRatio());
     }
 }
\ No newline at end of file
@@ -1,7 +1,6 @@
 package com.hamas.reviewtrust.domain.scoring.rules;
 
 import com.hamas.reviewtrust.domain.scoring.engine.Rule;
-import com.hamas.reviewtrust.domain.scoring.engine.RuleOutcome;
 import com.hamas.reviewtrust.domain.scoring.engine.ScoringContext;
 import com.hamas.reviewtrust.domain.scoring.profile.Flags;
 import com.hamas.reviewtrust.domain.scoring.profile.ScoringProfile;
@@ -13,15 +12,23 @@ import com.hamas.reviewtrust.domain.scoring.profile.ScoringProfile;
  */
 public class SameVendorConcentrationRule implements Rule {
     @Override
-    public RuleOutcome apply(ScoringContext ctx, ScoringProfile profile) {
+    public Flags flag() {
+        return Flags.SAME_VENDOR_CONCENTRATION;
+    }
+
+    @Override
+    public double penalty(ScoringContext ctx, ScoringProfile profile) {
         double conc = ctx.getVendorConcentration();
         double threshold = profile.getThresholds().vendorConcentration;
         if (conc > threshold) {
             double severity = (conc - threshold) / (1.0 - threshold);
-            double penalty = severity * profile.weightFor(Flags.SAME_VENDOR_CONCENTRATION);
-            String evidence = String.format("vendorConcentration=%.2f", conc);
-            return new RuleOutcome(Flags.SAME_VENDOR_CONCENTRATION, penalty, evidence);
+            return severity * profile.weightFor(Flags.SAME_VENDOR_CONCENTRATION);
         }
-        return RuleOutcome.noFinding(Flags.SAME_VENDOR_CONCENTRATION);
+        return 0.0;
+    }
+
+    @Override
+    public String evidence(ScoringContext ctx) {
+        return String.format("vendorConcentration=%.2f", ctx.getVendorConcentration());
     }
 }
\ No newline at end of file
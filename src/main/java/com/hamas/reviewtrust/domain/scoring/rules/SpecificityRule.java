@@ -1,7 +1,6 @@
 package com.hamas.reviewtrust.domain.scoring.rules;
 
 import com.hamas.reviewtrust.domain.scoring.engine.Rule;
-import com.hamas.reviewtrust.domain.scoring.engine.RuleOutcome;
 import com.hamas.reviewtrust.domain.scoring.engine.ScoringContext;
 import com.hamas.reviewtrust.domain.scoring.profile.Flags;
 import com.hamas.reviewtrust.domain.scoring.profile.ScoringProfile;
@@ -15,17 +14,25 @@ import com.hamas.reviewtrust.domain.scoring.profile.ScoringProfile;
  */
 public class SpecificityRule implements Rule {
     @Override
-    public RuleOutcome apply(ScoringContext ctx, ScoringProfile profile) {
+    public Flags flag() {
+        return Flags.LOW_SPECIFICITY;
+    }
+
+    @Override
+    public double penalty(ScoringContext ctx, ScoringProfile profile) {
         double score = ctx.getSpecificityScore();
         double threshold = profile.getThresholds().specificityScore;
         if (score < threshold) {
             // Compute severity as the proportion the score falls below the threshold.
             double severity = (threshold - score) / threshold;
             // Apply the configured weight to determine the penalty.
-            double penalty = severity * profile.weightFor(Flags.LOW_SPECIFICITY);
-            String evidence = String.format("specificityScore=%.2f", score);
-            return new RuleOutcome(Flags.LOW_SPECIFICITY, penalty, evidence);
+            return severity * profile.weightFor(Flags.LOW_SPECIFICITY);
         }
-        return RuleOutcome.noFinding(Flags.LOW_SPECIFICITY);
+        return 0.0;
+    }
+
+    @Override
+    public String evidence(ScoringContext ctx) {
+        return String.format("specificityScore=%.2f", ctx.getSpecificityScore());
     }
 }
\ No newline at end of file
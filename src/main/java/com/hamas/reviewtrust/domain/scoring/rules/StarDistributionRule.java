@@ -1,7 +1,6 @@
 package com.hamas.reviewtrust.domain.scoring.rules;
 
 import com.hamas.reviewtrust.domain.scoring.engine.Rule;
-import com.hamas.reviewtrust.domain.scoring.engine.RuleOutcome;
 import com.hamas.reviewtrust.domain.scoring.engine.ScoringContext;
 import com.hamas.reviewtrust.domain.scoring.profile.Flags;
 import com.hamas.reviewtrust.domain.scoring.profile.ScoringProfile;
@@ -14,15 +13,23 @@ import com.hamas.reviewtrust.domain.scoring.profile.ScoringProfile;
  */
 public class StarDistributionRule implements Rule {
     @Override
-    public RuleOutcome apply(ScoringContext ctx, ScoringProfile profile) {
+    public Flags flag() {
+        return Flags.STAR_DISTRIBUTION;
+    }
+
+    @Override
+    public double penalty(ScoringContext ctx, ScoringProfile profile) {
         double var = ctx.getStarDistributionVariance();
         double threshold = profile.getThresholds().starDistributionVariance;
         if (var > threshold) {
             double severity = (var - threshold) / (1.0 - threshold);
-            double penalty = severity * profile.weightFor(Flags.STAR_DISTRIBUTION);
-            String evidence = String.format("starVariance=%.2f", var);
-            return new RuleOutcome(Flags.STAR_DISTRIBUTION, penalty, evidence);
+            return severity * profile.weightFor(Flags.STAR_DISTRIBUTION);
         }
-        return RuleOutcome.noFinding(Flags.STAR_DISTRIBUTION);
+        return 0.0;
+    }
+
+    @Override
+    public String evidence(ScoringContext ctx) {
+        return String.format("starVariance=%.2f", ctx.getStarDistributionVariance());
     }
 }
\ No newline at end of file
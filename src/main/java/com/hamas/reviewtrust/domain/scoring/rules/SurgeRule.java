@@ -1,7 +1,6 @@
 package com.hamas.reviewtrust.domain.scoring.rules;
 
 import com.hamas.reviewtrust.domain.scoring.engine.Rule;
-import com.hamas.reviewtrust.domain.scoring.engine.RuleOutcome;
 import com.hamas.reviewtrust.domain.scoring.engine.ScoringContext;
 import com.hamas.reviewtrust.domain.scoring.profile.Flags;
 import com.hamas.reviewtrust.domain.scoring.profile.ScoringProfile;
@@ -13,15 +12,23 @@ import com.hamas.reviewtrust.domain.scoring.profile.ScoringProfile;
  */
 public class SurgeRule implements Rule {
     @Override
-    public RuleOutcome apply(ScoringContext ctx, ScoringProfile profile) {
+    public Flags flag() {
+        return Flags.SURGE_ACTIVITY;
+    }
+
+    @Override
+    public double penalty(ScoringContext ctx, ScoringProfile profile) {
         int reviews = ctx.getUserReviewsLast24h();
         int max = profile.getThresholds().maxReviewsPerDay;
         if (reviews > max) {
             double severity = (double) (reviews - max) / max;
-            double penalty = severity * profile.weightFor(Flags.SURGE_ACTIVITY);
-            String evidence = String.format("reviews24h=%d", reviews);
-            return new RuleOutcome(Flags.SURGE_ACTIVITY, penalty, evidence);
+            return severity * profile.weightFor(Flags.SURGE_ACTIVITY);
         }
-        return RuleOutcome.noFinding(Flags.SURGE_ACTIVITY);
+        return 0.0;
+    }
+
+    @Override
+    public String evidence(ScoringContext ctx) {
+        return String.format("reviews24h=%d", ctx.getUserReviewsLast24h());
     }
 }
\ No newline at end of file
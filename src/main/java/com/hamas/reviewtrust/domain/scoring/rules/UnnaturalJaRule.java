@@ -1,7 +1,6 @@
 package com.hamas.reviewtrust.domain.scoring.rules;
 
 import com.hamas.reviewtrust.domain.scoring.engine.Rule;
-import com.hamas.reviewtrust.domain.scoring.engine.RuleOutcome;
 import com.hamas.reviewtrust.domain.scoring.engine.ScoringContext;
 import com.hamas.reviewtrust.domain.scoring.profile.Flags;
 import com.hamas.reviewtrust.domain.scoring.profile.ScoringProfile;
@@ -12,15 +11,23 @@ import com.hamas.reviewtrust.domain.scoring.profile.ScoringProfile;
  */
 public class UnnaturalJaRule implements Rule {
     @Override
-    public RuleOutcome apply(ScoringContext ctx, ScoringProfile profile) {
+    public Flags flag() {
+        return Flags.UNNATURAL_LANGUAGE;
+    }
+
+    @Override
+    public double penalty(ScoringContext ctx, ScoringProfile profile) {
         double score = ctx.getUnnaturalLanguageScore();
         double threshold = profile.getThresholds().unnaturalLanguageScore;
         if (score > threshold) {
             double severity = (score - threshold) / (1.0 - threshold);
-            double penalty = severity * profile.weightFor(Flags.UNNATURAL_LANGUAGE);
-            String evidence = String.format("unnaturalScore=%.2f", score);
-            return new RuleOutcome(Flags.UNNATURAL_LANGUAGE, penalty, evidence);
+            return severity * profile.weightFor(Flags.UNNATURAL_LANGUAGE);
         }
-        return RuleOutcome.noFinding(Flags.UNNATURAL_LANGUAGE);
+        return 0.0;
+    }
+
+    @Override
+    public String evidence(ScoringContext ctx) {
+        return String.format("unnaturalScore=%.2f", ctx.getUnnaturalLanguageScore());
     }
 }
\ No newline at end of file
@@ -1,7 +1,6 @@
 package com.hamas.reviewtrust.domain.scoring.rules;
 
 import com.hamas.reviewtrust.domain.scoring.engine.Rule;
-import com.hamas.reviewtrust.domain.scoring.engine.RuleOutcome;
 import com.hamas.reviewtrust.domain.scoring.engine.ScoringContext;
 import com.hamas.reviewtrust.domain.scoring.profile.Flags;
 import com.hamas.reviewtrust.domain.scoring.profile.ScoringProfile;
@@ -13,15 +12,23 @@ import com.hamas.reviewtrust.domain.scoring.profile.ScoringProfile;
  */
 public class VerifiedPurchaseRateRule implements Rule {
     @Override
-    public RuleOutcome apply(ScoringContext ctx, ScoringProfile profile) {
+    public Flags flag() {
+        return Flags.LOW_VERIFIED_RATE;
+    }
+
+    @Override
+    public double penalty(ScoringContext ctx, ScoringProfile profile) {
         double rate = ctx.getUserVerifiedPurchaseRate();
         double threshold = profile.getThresholds().verifiedPurchaseRate;
         if (rate < threshold) {
             double severity = (threshold - rate) / threshold;
-            double penalty = severity * profile.weightFor(Flags.LOW_VERIFIED_RATE);
-            String evidence = String.format("verifiedRate=%.2f", rate);
-            return new RuleOutcome(Flags.LOW_VERIFIED_RATE, penalty, evidence);
+            return severity * profile.weightFor(Flags.LOW_VERIFIED_RATE);
         }
-        return RuleOutcome.noFinding(Flags.LOW_VERIFIED_RATE);
+        return 0.0;
+    }
+
+    @Override
+    public String evidence(ScoringContext ctx) {
+        return String.format("verifiedRate=%.2f", ctx.getUserVerifiedPurchaseRate());
     }
 }
\ No newline at end of file
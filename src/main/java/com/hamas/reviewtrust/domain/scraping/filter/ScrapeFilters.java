@@ -1,8 +1,7 @@
 package com.hamas.reviewtrust.domain.scraping.filter;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.text.Normalizer;
+import com.hamas.reviewtrust.common.hash.TextHash;
+import com.hamas.reviewtrust.common.text.TextNormalizer;
 
 /**
  * スクレイピング後の文字列フィルタ集。
@@ -16,17 +15,9 @@ import java.text.Normalizer;
 public final class ScrapeFilters {
     private ScrapeFilters() {}
 
-    /** 文字列正規化（空なら null） */
+    /** 文字列正規化（空なら null）。実体は {@link TextNormalizer#normalizeForDisplay}。 */
     public static String normalizeText(String s) {
-        if (s == null) return null;
-        String n = Normalizer.normalize(s, Normalizer.Form.NFKC)
-                .replace("\r\n", "\n")
-                .replace("\r", "\n")
-                .replaceAll("[\\u200B-\\u200F\\uFEFF]", "")   // ゼロ幅系
-                .replaceAll("[ \\t\\x0B\\f]+", " ")            // 連続空白→1つ
-                .replaceAll("\\s*\\n\\s*", "\n")               // 行頭末の空白除去
-                .trim();
-        return n.isBlank() ? null : n;
+        return TextNormalizer.normalizeForDisplay(s);
     }
 
     /** 正規化後に空かどうか */
@@ -53,16 +44,8 @@ public final class ScrapeFilters {
         return n;
     }
 
-    /** SHA-256（16進） */
+    /** SHA-256（16進）。null は空文字として扱う */
     public static String sha256Hex(String s) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] d = md.digest((s == null ? "" : s).getBytes(StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder(d.length * 2);
-            for (byte b : d) sb.append(String.format("%02x", b));
-            return sb.toString();
-        } catch (Exception e) {
-            throw new RuntimeException("sha256 error", e);
-        }
+        return TextHash.sha256Hex(s == null ? "" : s);
     }
 }
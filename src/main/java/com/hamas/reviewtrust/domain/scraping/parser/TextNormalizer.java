@@ -1,9 +1,10 @@
 package com.hamas.reviewtrust.domain.scraping.parser;
 
 import java.math.BigDecimal;
-import java.text.Normalizer;
 import java.util.Locale;
 
+import static com.hamas.reviewtrust.common.text.TextNormalizer.foldWidth;
+
 public final class TextNormalizer {
 
     private TextNormalizer() {
@@ -17,7 +18,7 @@ public final class TextNormalizer {
         if (normalized == null) {
             return null;
         }
-        String digits = normalized.replaceAll("[^0-9]", "");
+        String digits = retainDigits(normalized, "");
         if (digits.isEmpty()) {
             return null;
         }
@@ -41,7 +42,7 @@ public final class TextNormalizer {
         if (decimalMatch != null) {
             return decimalMatch;
         }
-        String digits = normalized.replaceAll("[^0-9.]", "");
+        String digits = retainDigits(normalized, ".");
         if (digits.isEmpty()) {
             return null;
         }
@@ -60,7 +61,7 @@ public final class TextNormalizer {
         if (normalized == null) {
             return null;
         }
-        String digits = normalized.replaceAll("[^0-9]", "");
+        String digits = retainDigits(normalized, "");
         if (digits.isEmpty()) {
             return null;
         }
@@ -80,7 +81,7 @@ public final class TextNormalizer {
             return null;
         }
         normalized = normalized.replace(',', '.');
-        String digits = normalized.replaceAll("[^0-9.\\-]", "");
+        String digits = retainDigits(normalized, ".-");
         if (digits.isEmpty()) {
             return null;
         }
@@ -92,28 +93,24 @@ public final class TextNormalizer {
     }
 
     static String normalizeDigits(String value) {
-        if (value == null) {
-            return null;
-        }
-        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFKC);
-        StringBuilder sb = new StringBuilder(decomposed.length());
-        for (int i = 0; i < decomposed.length(); i++) {
-            char ch = decomposed.charAt(i);
-            if (ch == '％') {
-                sb.append('%');
-                continue;
-            }
-            if (ch == '，') {
-                sb.append(',');
-                continue;
-            }
-            if (ch == '．') {
-                sb.append('.');
-                continue;
+        // 全角の数字/％/，/． は NFKC で半角になる
+        return foldWidth(value);
+    }
+
+    /** {@code value} から {@code extra} と ASCII 数字以外を取り除く（正規表現の置換を使わない）。 */
+    private static String retainDigits(String value, String extra) {
+        StringBuilder sb = null;
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            boolean keep = (ch >= '0' && ch <= '9') || extra.indexOf(ch) >= 0;
+            if (keep && sb != null) {
+                sb.append(ch);
+            } else if (!keep && sb == null) {
+                sb = new StringBuilder(value.length());
+                sb.append(value, 0, i);
             }
-            sb.append(ch);
         }
-        return sb.toString().trim();
+        return sb == null ? value : sb.toString();
     }
 
     private static Double firstDecimal(String text) {
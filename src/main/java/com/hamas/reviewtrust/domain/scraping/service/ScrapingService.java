@@ -4,6 +4,7 @@ import com.hamas.reviewtrust.common.repository.ExceptionLogJdbcRepository;
 import com.hamas.reviewtrust.config.AmazonScrapingProperties;
 import com.hamas.reviewtrust.config.ScrapingProperties;
 import com.hamas.reviewtrust.domain.reviews.ReviewUpsertRepository;
+import com.hamas.reviewtrust.domain.reviews.ReviewsChangedEvent;
 import com.hamas.reviewtrust.domain.reviews.ReviewUpsertRepository.ReviewUpsertRequest;
 import com.hamas.reviewtrust.domain.products.entity.Product;
 import com.hamas.reviewtrust.domain.products.repo.ProductRepository;
@@ -20,6 +21,7 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.microsoft.playwright.Playwright;
@@ -69,6 +71,7 @@ public class ScrapingService {
     private final ReviewUpsertRepository reviewUpsertRepository;
     private final ExceptionLogJdbcRepository exceptionRepository;
     private final ProductIntakeService productIntakeService;
+    private final ApplicationEventPublisher events;
     private final AmazonReviewParser parser = new AmazonReviewParser();
 
     public ScrapingService(ScrapingProperties properties,
@@ -77,7 +80,8 @@ public class ScrapingService {
                            ProductRepository productRepository,
                            ReviewUpsertRepository reviewUpsertRepository,
                            ExceptionLogJdbcRepository exceptionRepository,
-                           ProductIntakeService productIntakeService) {
+                           ProductIntakeService productIntakeService,
+                           ApplicationEventPublisher events) {
         this.properties = properties;
         this.amazonProperties = amazonProperties;
         this.jobRepository = jobRepository;
@@ -85,6 +89,7 @@ public class ScrapingService {
         this.reviewUpsertRepository = reviewUpsertRepository;
         this.exceptionRepository = exceptionRepository;
         this.productIntakeService = productIntakeService;
+        this.events = events;
     }
 
     /* ----------------------------------------------------------------------
@@ -196,6 +201,10 @@ public class ScrapingService {
             }
 
             jobRepository.markOk(jobId, collected, upserted);
+            if (upserted > 0) {
+                // スコアは ReviewChangeListener がまとめてバックグラウンド再計算する
+                events.publishEvent(new ReviewsChangedEvent(productId, ReviewsChangedEvent.Cause.SCRAPE));
+            }
             long durationMs = Duration.between(startedAt, Instant.now()).toMillis();
             log.info("[scrape] completed productId={} collected={} upserted={}", productId, collected, upserted);
             String message = fallbackUsed
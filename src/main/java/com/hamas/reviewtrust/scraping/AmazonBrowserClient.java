@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Handles Playwright lifecycle and keeps the login session via storageState.
@@ -81,16 +82,27 @@ public class AmazonBrowserClient implements AutoCloseable {
     private BrowserContext context;
     private Page page;
     private boolean opened;
+    /** ブラウザ起動・ログインは数十秒かかるため、仮想スレッドを固定しない ReentrantLock で守る */
+    private final ReentrantLock lifecycleLock = new ReentrantLock();
 
     public AmazonBrowserClient(ScrapingProps props) {
         this.props = props;
     }
 
-    public synchronized BrowserContext openContext() {
+    public BrowserContext openContext() {
         return openContext(props.isEnableBrowserLogin());
     }
 
-    public synchronized BrowserContext openContext(boolean allowInteractiveLogin) {
+    public BrowserContext openContext(boolean allowInteractiveLogin) {
+        lifecycleLock.lock();
+        try {
+            return openContextLocked(allowInteractiveLogin);
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    private BrowserContext openContextLocked(boolean allowInteractiveLogin) {
         if (opened) {
             return context;
         }
@@ -2,6 +2,8 @@ package com.hamas.reviewtrust.scraping;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 /**
  * Configuration backing the Playwright-based Amazon scraping runner.
  */
@@ -63,6 +65,17 @@ public class ScrapingProps {
      */
     private boolean outPerProduct = true;
 
+    /**
+     * Output layout: {@code per-product} (one file per ASIN and run) or {@code rolling}
+     * (group-committed rolling segments per dataset label, see {@link Rolling}).
+     */
+    private String outMode = "per-product";
+
+    /**
+     * Settings for {@code out-mode=rolling}.
+     */
+    private final Rolling rolling = new Rolling();
+
     /**
      * Emit empty files even when scrape returns zero reviews.
      */
@@ -166,6 +179,18 @@ public class ScrapingProps {
         this.outPerProduct = outPerProduct;
     }
 
+    public String getOutMode() {
+        return outMode;
+    }
+
+    public void setOutMode(String outMode) {
+        this.outMode = outMode == null ? "" : outMode.trim();
+    }
+
+    public Rolling getRolling() {
+        return rolling;
+    }
+
     public boolean isWriteNoReviews() {
         return writeNoReviews;
     }
@@ -189,4 +214,98 @@ public class ScrapingProps {
     public void setDatasetLabel(String datasetLabel) {
         this.datasetLabel = datasetLabel == null ? "" : datasetLabel.trim();
     }
+
+    public static class Rolling {
+
+        /**
+         * Roll over to a new segment once the current one reaches this many bytes (0 = unlimited).
+         */
+        private long maxBytes = 256L * 1024 * 1024;
+
+        /**
+         * Roll over to a new segment once the current one is this old (0 = unlimited).
+         */
+        private Duration maxAge = Duration.ofHours(1);
+
+        /**
+         * Compress segments on the fly (one gzip member per commit).
+         */
+        private boolean gzip = false;
+
+        /**
+         * Upper bound of records written by a single group commit.
+         */
+        private int maxBatchRecords = 1024;
+
+        /**
+         * How long the writer waits after the first queued record to let a commit group form.
+         */
+        private Duration linger = Duration.ZERO;
+
+        /**
+         * fsync policy: none|commit|rotate.
+         */
+        private String fsync = "rotate";
+
+        /**
+         * Bounded queue size; producers block when the writer falls behind.
+         */
+        private int queueCapacity = 10_000;
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        public void setMaxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+
+        public boolean isGzip() {
+            return gzip;
+        }
+
+        public void setGzip(boolean gzip) {
+            this.gzip = gzip;
+        }
+
+        public int getMaxBatchRecords() {
+            return maxBatchRecords;
+        }
+
+        public void setMaxBatchRecords(int maxBatchRecords) {
+            this.maxBatchRecords = maxBatchRecords;
+        }
+
+        public Duration getLinger() {
+            return linger;
+        }
+
+        public void setLinger(Duration linger) {
+            this.linger = linger;
+        }
+
+        public String getFsync() {
+            return fsync;
+        }
+
+        public void setFsync(String fsync) {
+            this.fsync = fsync == null ? "" : fsync.trim();
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
 }
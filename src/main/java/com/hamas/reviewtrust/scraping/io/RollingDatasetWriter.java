@@ -0,0 +1,351 @@
+package com.hamas.reviewtrust.scraping.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Appends pre-encoded records from many producer threads into one rolling dataset file per label.
+ *
+ * <p>Producers only enqueue; a single writer task (one long-running task on the given executor) drains
+ * whatever has accumulated, writes it with one
+ * channel write (group commit), optionally fsyncs, and then completes the producers' futures. Segments roll
+ * over by size or age. With gzip enabled every commit becomes its own gzip member, so the resulting file is a
+ * valid concatenated gzip stream and each commit can be decompressed independently from its start offset.</p>
+ *
+ * <p>A sidecar {@code <segment>.idx} receives one TSV line per appended record:
+ * {@code asin, offset, skip, length}. {@code offset} is the file position of the block holding the record
+ * (the gzip member start for compressed segments), {@code skip} the uncompressed bytes to skip inside that
+ * block and {@code length} the uncompressed record length.</p>
+ */
+public class RollingDatasetWriter implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(RollingDatasetWriter.class);
+    private static final DateTimeFormatter TS = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+            .withZone(ZoneId.systemDefault());
+
+    public enum FsyncPolicy {
+        /** Leave durability to the OS page cache. */
+        NONE,
+        /** fsync once per group commit. */
+        COMMIT,
+        /** fsync only when a segment is closed. */
+        ROTATE
+    }
+
+    public record Settings(long maxBytes,
+                           Duration maxAge,
+                           boolean gzip,
+                           int maxBatchRecords,
+                           Duration linger,
+                           FsyncPolicy fsync,
+                           int queueCapacity) {
+
+        public Settings {
+            maxBytes = maxBytes > 0 ? maxBytes : Long.MAX_VALUE;
+            maxAge = maxAge == null || maxAge.isZero() || maxAge.isNegative() ? null : maxAge;
+            maxBatchRecords = Math.max(1, maxBatchRecords);
+            linger = linger == null || linger.isNegative() ? Duration.ZERO : linger;
+            fsync = fsync == null ? FsyncPolicy.NONE : fsync;
+            queueCapacity = Math.max(1, queueCapacity);
+        }
+    }
+
+    private record Pending(String asin, byte[] payload, CompletableFuture<Path> done) {
+    }
+
+    private static final Pending STOP = new Pending(null, new byte[0], null);
+
+    private final Path dir;
+    private final String label;
+    private final String extension;
+    private final byte[] segmentHeader;
+    private final Settings settings;
+    private final Clock clock;
+    private final BlockingQueue<Pending> queue;
+    /** writer タスクの終了（close() はこれを待つ） */
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    private volatile boolean closed;
+    /** writer スレッドだけが書き、{@link #currentSegment()} が他スレッドから読む */
+    private volatile Path segment;
+
+    // 以下は writer スレッドのみが触る
+    private FileChannel channel;
+    private FileChannel indexChannel;
+    private long segmentBytes;
+    private Instant segmentOpenedAt;
+    private int segmentSeq;
+
+    /**
+     * Runs the writer on its own daemon platform thread {@code rolling-writer-<label>}.
+     *
+     * @param segmentHeader bytes written at the start of every segment (e.g. CSV header); may be empty
+     */
+    public RollingDatasetWriter(Path dir, String label, String extension, byte[] segmentHeader,
+                                Settings settings, Clock clock) {
+        this(dir, label, extension, segmentHeader, settings, clock,
+                task -> Thread.ofPlatform().name("rolling-writer-" + label).daemon().start(task));
+    }
+
+    /**
+     * @param segmentHeader bytes written at the start of every segment (e.g. CSV header); may be empty
+     * @param executor      runs the writer loop as one task that lives until {@link #close()}; it must not
+     *                      queue the task behind others (e.g. {@code backgroundTaskExecutor})
+     */
+    public RollingDatasetWriter(Path dir, String label, String extension, byte[] segmentHeader,
+                                Settings settings, Clock clock, Executor executor) {
+        this.dir = dir;
+        this.label = label;
+        this.extension = settings.gzip() ? extension + ".gz" : extension;
+        this.segmentHeader = segmentHeader == null ? new byte[0] : segmentHeader.clone();
+        this.settings = settings;
+        this.clock = clock;
+        this.queue = new ArrayBlockingQueue<>(settings.queueCapacity());
+        executor.execute(() -> {
+            try {
+                runLoop();
+            } finally {
+                stopped.countDown();
+            }
+        });
+    }
+
+    /**
+     * Enqueues one record (already encoded, newline-terminated) and returns a future that completes with the
+     * segment path once the record has been committed. Blocks while the queue is full.
+     */
+    public CompletableFuture<Path> append(String asin, String payload) {
+        CompletableFuture<Path> done = new CompletableFuture<>();
+        if (closed) {
+            done.completeExceptionally(new IOException("rolling writer closed: " + label));
+            return done;
+        }
+        try {
+            queue.put(new Pending(asin, payload.getBytes(StandardCharsets.UTF_8), done));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            done.completeExceptionally(new IOException("interrupted while enqueueing", e));
+        }
+        return done;
+    }
+
+    /** Current segment path, or {@code null} before the first commit. */
+    public Path currentSegment() {
+        return segment;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            queue.put(STOP);
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while closing rolling writer", e);
+        }
+        // close() と競合して writer 終了後に積まれたものは失敗として返す
+        List<Pending> late = new ArrayList<>();
+        queue.drainTo(late);
+        late.remove(STOP);
+        late.forEach(p -> p.done().completeExceptionally(new IOException("rolling writer closed: " + label)));
+    }
+
+    private void runLoop() {
+        List<Pending> batch = new ArrayList<>(settings.maxBatchRecords());
+        boolean stopping = false;
+        boolean interrupted = false;
+        while (!stopping) {
+            try {
+                Pending first = queue.poll(pollTimeoutMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    rotateIfAged();
+                    continue;
+                }
+                batch.add(first);
+                if (!settings.linger().isZero() && first != STOP) {
+                    Thread.sleep(settings.linger().toMillis());
+                }
+                queue.drainTo(batch, settings.maxBatchRecords() - 1);
+                stopping = batch.remove(STOP);
+                if (!batch.isEmpty()) {
+                    commit(batch);
+                }
+                batch.clear();
+            } catch (InterruptedException e) {
+                // 取り出し済みの batch は捨てずに下の最終ドレインで書き出す（future を宙に浮かせない）
+                stopping = true;
+                interrupted = true;
+            } catch (Exception e) {
+                log.warn("event=ROLLING_COMMIT_FAILED label={} records={} message={}",
+                        label, batch.size(), e.getMessage(), e);
+                batch.forEach(p -> p.done().completeExceptionally(e));
+                batch.clear();
+                closeSegmentQuietly();
+            }
+        }
+        // 以降の append は即失敗させる。割り込みで抜けた場合もここで close() 相当にする
+        closed = true;
+        // close() 後に残ったものは書き出してから終了する。
+        // 割り込みフラグは InterruptedException で落ちている（立てたままだと FileChannel が閉じられる）ので最後に戻す
+        queue.drainTo(batch);
+        batch.remove(STOP);
+        try {
+            if (!batch.isEmpty()) {
+                commit(batch);
+            }
+        } catch (Exception e) {
+            log.warn("event=ROLLING_COMMIT_FAILED label={} records={} message={}",
+                    label, batch.size(), e.getMessage(), e);
+            batch.forEach(p -> p.done().completeExceptionally(e));
+        }
+        closeSegmentQuietly();
+        // closed を見る前に積まれたもの
+        List<Pending> late = new ArrayList<>();
+        queue.drainTo(late);
+        late.remove(STOP);
+        late.forEach(p -> p.done().completeExceptionally(new IOException("rolling writer closed: " + label)));
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void commit(List<Pending> batch) throws IOException {
+        if (channel == null || segmentBytes >= settings.maxBytes() || isAged()) {
+            rotate();
+        }
+        long blockOffset = segmentBytes;
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(batch.size() * 512);
+        StringBuilder index = new StringBuilder(batch.size() * 32);
+        for (Pending p : batch) {
+            long inBlock = raw.size();
+            raw.write(p.payload());
+            if (settings.gzip()) {
+                index.append(p.asin()).append('\t').append(blockOffset).append('\t').append(inBlock);
+            } else {
+                index.append(p.asin()).append('\t').append(blockOffset + inBlock).append('\t').append(0);
+            }
+            index.append('\t').append(p.payload().length).append('\n');
+        }
+
+        byte[] block = settings.gzip() ? gzip(raw) : raw.toByteArray();
+        writeFully(channel, block);
+        segmentBytes += block.length;
+        writeFully(indexChannel, index.toString().getBytes(StandardCharsets.UTF_8));
+        if (settings.fsync() == FsyncPolicy.COMMIT) {
+            channel.force(false);
+            indexChannel.force(false);
+        }
+
+        Path committedTo = segment;
+        batch.forEach(p -> p.done().complete(committedTo));
+    }
+
+    private void rotate() throws IOException {
+        closeSegment();
+        Files.createDirectories(dir);
+        segmentOpenedAt = clock.instant();
+        Path next;
+        do {
+            next = dir.resolve(label + "__" + TS.format(segmentOpenedAt) + "-" + (segmentSeq++) + "." + extension);
+        } while (Files.exists(next));
+        channel = FileChannel.open(next, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        indexChannel = FileChannel.open(next.resolveSibling(next.getFileName() + ".idx"),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        segment = next;
+        segmentBytes = 0;
+        if (segmentHeader.length > 0) {
+            ByteArrayOutputStream header = new ByteArrayOutputStream(segmentHeader.length);
+            header.write(segmentHeader);
+            byte[] block = settings.gzip() ? gzip(header) : segmentHeader;
+            writeFully(channel, block);
+            segmentBytes += block.length;
+        }
+        log.info("event=ROLLING_SEGMENT_OPENED label={} path={}", label, next);
+    }
+
+    private void rotateIfAged() {
+        if (channel != null && isAged()) {
+            closeSegmentQuietly();
+        }
+    }
+
+    private boolean isAged() {
+        return settings.maxAge() != null && segmentOpenedAt != null
+                && Duration.between(segmentOpenedAt, clock.instant()).compareTo(settings.maxAge()) >= 0;
+    }
+
+    private long pollTimeoutMillis() {
+        if (settings.maxAge() == null) {
+            return 1000L;
+        }
+        return Math.max(10L, Math.min(1000L, settings.maxAge().toMillis()));
+    }
+
+    private void closeSegment() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        try {
+            if (settings.fsync() != FsyncPolicy.NONE) {
+                channel.force(true);
+                indexChannel.force(true);
+            }
+        } finally {
+            channel.close();
+            indexChannel.close();
+            channel = null;
+            indexChannel = null;
+        }
+    }
+
+    private void closeSegmentQuietly() {
+        try {
+            closeSegment();
+        } catch (IOException e) {
+            log.warn("event=ROLLING_SEGMENT_CLOSE_FAILED label={} path={} message={}", label, segment, e.getMessage());
+        }
+    }
+
+    private static byte[] gzip(ByteArrayOutputStream raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.size() / 3));
+        try (GZIPOutputStream gz = new GZIPOutputStream(out, 8192)) {
+            raw.writeTo(gz);
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeFully(FileChannel ch, byte[] bytes) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        while (buf.hasRemaining()) {
+            ch.write(buf);
+        }
+    }
+}
@@ -10,17 +10,24 @@ import com.hamas.reviewtrust.scraping.SakuraScorer;
 import com.hamas.reviewtrust.scraping.ScrapingProps;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Component;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
@@ -31,23 +38,41 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+/**
+ * Persists scrape results. The default layout writes one file per ASIN and run; with
+ * {@code app.scraping.out-mode=rolling} NDJSON/CSV output is appended from any number of scraping threads
+ * into one group-committed rolling dataset per label (see {@link RollingDatasetWriter}). The rolling writer
+ * loops run on {@code backgroundTaskExecutor}; once shutdown has started no new rolling writer is created.
+ */
 @Component
 public class ScrapeResultWriter {
 
+    private static final Logger log = LoggerFactory.getLogger(ScrapeResultWriter.class);
+    private static final String[] CSV_HEADER = {"dataset", "asin", "url", "reviewId", "rating", "dateText",
+            "title", "author", "body", "bodyLength", "ratingText",
+            "heuristic_sakura_score", "heuristic_reasons", "sakura_flag",
+            "collectedAt"};
+
     private static final Pattern ASIN_PATTERN = Pattern.compile("/(?:dp|gp/product)/([A-Z0-9]{10})(?:/|\\?|$)");
     private static final DateTimeFormatter TS = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
             .withZone(ZoneId.systemDefault());
 
-    private final ThreadLocal<BufferedWriter> activeWriter = new ThreadLocal<>();
-
     private final ScrapingProps props;
     private final ObjectMapper mapper = new ObjectMapper();
+    private final ConcurrentMap<String, RollingDatasetWriter> rollingWriters = new ConcurrentHashMap<>();
+    private final TaskExecutor executor;
+    private volatile boolean closing;
 
-    public ScrapeResultWriter(ScrapingProps props) {
+    public ScrapeResultWriter(ScrapingProps props,
+                              @Qualifier("backgroundTaskExecutor") TaskExecutor executor) {
         this.props = props;
+        this.executor = executor;
     }
 
     public Path write(String dataset,
@@ -65,18 +90,23 @@ public class ScrapeResultWriter {
         String timestamp = TS.format(effectiveCapturedAt);
 
         Path base = Paths.get(props.getOutDir()).toAbsolutePath().normalize();
-        Path dir = props.isOutPerProduct()
-                ? base.resolve(ds).resolve(asin)
-                : base.resolve(ds);
-
-        Files.createDirectories(dir);
-
         String ext = switch (safe(props.getOutFormat()).toLowerCase(Locale.ROOT)) {
             case "csv" -> "csv";
             case "json" -> "json";
             default -> "ndjson";
         };
 
+        if (isRollingMode() && !"json".equals(ext)) {
+            return writeRolling(base.resolve(ds), url, asin, ds, ext,
+                    safeReviews, histogram, effectiveCapturedAt, productName);
+        }
+
+        Path dir = props.isOutPerProduct()
+                ? base.resolve(ds).resolve(asin)
+                : base.resolve(ds);
+
+        Files.createDirectories(dir);
+
         Path file = props.isOutPerProduct()
                 ? dir.resolve(asin + "__" + timestamp + "." + ext)
                 : dir.resolve(ds + "." + ext);
@@ -117,16 +147,163 @@ public class ScrapeResultWriter {
         return write(dataset, url, reviews, histogram, capturedAt, null);
     }
 
-    private void writeHistogramMetaLine(String dataset,
+    /**
+     * Flushes and closes the rolling writers so queued records are committed before shutdown.
+     */
+    @PreDestroy
+    public void closeRollingWriters() {
+        closing = true;
+        for (Map.Entry<String, RollingDatasetWriter> entry : rollingWriters.entrySet()) {
+            // 取り除けた側だけが close する（rollingWriter() と競合しても二重に閉じない）
+            if (rollingWriters.remove(entry.getKey(), entry.getValue())) {
+                closeQuietly(entry.getValue());
+            }
+        }
+    }
+
+    private static void closeQuietly(RollingDatasetWriter writer) {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("event=ROLLING_WRITER_CLOSE_FAILED path={} message={}",
+                    writer.currentSegment(), e.getMessage());
+        }
+    }
+
+    private boolean isRollingMode() {
+        return "rolling".equalsIgnoreCase(safe(props.getOutMode()));
+    }
+
+    private Path writeRolling(Path dir,
+                              String url,
+                              String asin,
+                              String dataset,
+                              String ext,
+                              List<AmazonReviewScraper.ReviewDetail> reviews,
+                              ReviewHistogramParser.Result histogram,
+                              Instant capturedAt,
+                              String productName) throws IOException {
+        List<Map<String, Object>> rows = buildRows(url, asin, dataset, reviews);
+        String payload;
+        if ("csv".equals(ext)) {
+            if (rows.isEmpty()) {
+                return currentSegmentOr(dir, dataset, ext);
+            }
+            payload = toCsvRecords(rows);
+        } else {
+            StringBuilder sb = new StringBuilder(rows.size() * 512 + 256);
+            // ヒストグラム付き/商品名付きの呼び出しのみメタ行を出す（レビュー行だけの追記で重複させない）
+            if (histogram != null || productName != null) {
+                sb.append(mapper.writeValueAsString(histogramMeta(dataset, asin, histogram, capturedAt, productName)))
+                        .append('\n');
+            }
+            ObjectWriter objectWriter = mapper.writer();
+            for (Map<String, Object> row : rows) {
+                sb.append(objectWriter.writeValueAsString(row)).append('\n');
+            }
+            if (sb.isEmpty()) {
+                return currentSegmentOr(dir, dataset, ext);
+            }
+            payload = sb.toString();
+        }
+        try {
+            return rollingWriter(dir, dataset, ext).append(asin, payload).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("rolling write failed: " + dataset, cause);
+        }
+    }
+
+    private Path currentSegmentOr(Path dir, String dataset, String ext) throws IOException {
+        Path current = rollingWriter(dir, dataset, ext).currentSegment();
+        return current != null ? current : dir;
+    }
+
+    private RollingDatasetWriter rollingWriter(Path dir, String dataset, String ext) throws IOException {
+        if (closing) {
+            throw new IOException("scrape result writer is shutting down");
+        }
+        String key = dataset + "." + ext;
+        RollingDatasetWriter writer = rollingWriters.computeIfAbsent(key, k -> {
+            ScrapingProps.Rolling cfg = props.getRolling();
+            RollingDatasetWriter.Settings settings = new RollingDatasetWriter.Settings(
+                    cfg.getMaxBytes(),
+                    cfg.getMaxAge(),
+                    cfg.isGzip(),
+                    cfg.getMaxBatchRecords(),
+                    cfg.getLinger(),
+                    parseFsync(cfg.getFsync()),
+                    cfg.getQueueCapacity());
+            return new RollingDatasetWriter(dir, dataset, ext, segmentHeader(ext), settings, Clock.systemUTC(),
+                    executor);
+        });
+        if (closing) {
+            // closeRollingWriters() の走査後に作られた writer を取り残さない
+            if (rollingWriters.remove(key, writer)) {
+                closeQuietly(writer);
+            }
+            throw new IOException("scrape result writer is shutting down");
+        }
+        return writer;
+    }
+
+    private byte[] segmentHeader(String ext) {
+        if (!"csv".equals(ext)) {
+            return new byte[0];
+        }
+        StringBuilder sb = new StringBuilder();
+        if (props.isCsvWithBom()) {
+            sb.append('\uFEFF');
+        }
+        sb.append(String.join(",", CSV_HEADER)).append("\r\n");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static RollingDatasetWriter.FsyncPolicy parseFsync(String raw) {
+        try {
+            return RollingDatasetWriter.FsyncPolicy.valueOf(safe(raw).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return RollingDatasetWriter.FsyncPolicy.ROTATE;
+        }
+    }
+
+    private static String toCsvRecords(List<Map<String, Object>> rows) throws IOException {
+        StringWriter out = new StringWriter(rows.size() * 512);
+        try (CSVPrinter printer = new CSVPrinter(out, CSVFormat.DEFAULT)) {
+            for (Map<String, Object> row : rows) {
+                printCsvRow(printer, row);
+            }
+        }
+        return out.toString();
+    }
+
+    private static void printCsvRow(CSVPrinter printer, Map<String, Object> row) throws IOException {
+        Object[] values = new Object[CSV_HEADER.length];
+        for (int i = 0; i < CSV_HEADER.length; i++) {
+            values[i] = row.get(CSV_HEADER[i]);
+        }
+        printer.printRecord(values);
+    }
+
+    private void writeHistogramMetaLine(BufferedWriter writer,
+                                        String dataset,
                                         String asin,
                                         ReviewHistogramParser.Result histogram,
                                         Instant capturedAt,
                                         String productName) throws IOException {
-        BufferedWriter writer = activeWriter.get();
-        if (writer == null) {
-            throw new IllegalStateException("writeHistogramMeta called outside active writer scope");
-        }
+        writer.write(mapper.writeValueAsString(histogramMeta(dataset, asin, histogram, capturedAt, productName)));
+        writer.write('\n');
+        writer.flush();
+    }
 
+    private ObjectNode histogramMeta(String dataset,
+                                     String asin,
+                                     ReviewHistogramParser.Result histogram,
+                                     Instant capturedAt,
+                                     String productName) {
         ObjectNode meta = mapper.createObjectNode();
         meta.put("type", "histogram");
         if (dataset != null) {
@@ -174,10 +351,7 @@ public class ScrapeResultWriter {
             histogramNode.put(String.valueOf(star), value);
         }
         meta.set("ratings_histogram", histogramNode);
-
-        writer.write(mapper.writeValueAsString(meta));
-        writer.write('\n');
-        writer.flush();
+        return meta;
     }
 
     private Path writeNdjson(Path file,
@@ -195,9 +369,8 @@ public class ScrapeResultWriter {
                 StandardCharsets.UTF_8,
                 append ? StandardOpenOption.APPEND : StandardOpenOption.CREATE,
                 StandardOpenOption.WRITE)) {
-            activeWriter.set(writer);
             if (!append) {
-                writeHistogramMetaLine(dataset, asin, histogram, capturedAt, productName);
+                writeHistogramMetaLine(writer, dataset, asin, histogram, capturedAt, productName);
             }
             ObjectWriter objectWriter = mapper.writer();
             List<Map<String, Object>> rows = buildRows(url, asin, dataset, reviews);
@@ -205,8 +378,6 @@ public class ScrapeResultWriter {
                 writer.write(objectWriter.writeValueAsString(row));
                 writer.write('\n');
             }
-        } finally {
-            activeWriter.remove();
         }
         return file;
     }
@@ -240,10 +411,7 @@ public class ScrapeResultWriter {
                      exists
                              ? CSVFormat.DEFAULT
                              : CSVFormat.DEFAULT.builder()
-                                     .setHeader("dataset", "asin", "url", "reviewId", "rating", "dateText",
-                                             "title", "author", "body", "bodyLength", "ratingText",
-                                             "heuristic_sakura_score", "heuristic_reasons", "sakura_flag",
-                                             "collectedAt")
+                                     .setHeader(CSV_HEADER)
                                      .build())) {
             if (!exists && props.isCsvWithBom()) {
                 os.write(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
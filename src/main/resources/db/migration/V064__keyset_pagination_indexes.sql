@@ -0,0 +1,7 @@
+-- Keyset pagination: (created_at, id) の降順走査をインデックスで完結させる
+CREATE INDEX IF NOT EXISTS ix_products_created_at_id
+    ON public.products (created_at DESC, id DESC);
+
+-- 承認キュー（status IN (...) + created_at/id 降順）
+CREATE INDEX IF NOT EXISTS ix_reviews_status_created_at_id
+    ON public.reviews (status, created_at DESC, id DESC);
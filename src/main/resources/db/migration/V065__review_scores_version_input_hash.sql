@@ -0,0 +1,5 @@
+-- 永続スコアの鮮度判定用: score_version = エンジン版 + 閾値フィンガープリント,
+-- input_hash = レビュー件数/最終更新のシグネチャ。読み取り側はこれで stale を検出する。
+ALTER TABLE IF EXISTS public.review_scores
+  ADD COLUMN IF NOT EXISTS score_version text,
+  ADD COLUMN IF NOT EXISTS input_hash    text;
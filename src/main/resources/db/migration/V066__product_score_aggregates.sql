@@ -0,0 +1,265 @@
+-- V066__product_score_aggregates.sql
+-- 製品ごとのスコア入力集計を reviews への書き込みと同一トランザクションで増分更新する。
+-- スコアリング側は全レビューを読み直さず、このテーブル群の 1 行 + インデックス参照で特徴量を得る。
+--
+-- reviews の列構成は環境ごとに揺れている（rating/stars 等）ため、
+-- トリガ内では to_jsonb(NEW) 経由で参照し、列が無くても書き込みを壊さないようにしている。
+--
+-- 寄与のキーはスコアリングエンジンの走査（FeatureAccumulator）と同じ：
+--   * SQL 側では本文を正規化しない。短文/ノイズは永続化済み lex_flags（16/32、V070）だけを見る
+--   * lex_flags がまだ無い行は pending_count に数え、アプリは pending_count > 0 の間は全件走査に戻る
+--   * 星は rating のみ（NULL → 0）、日付は review_date のみ（posted_at へのフォールバックなし）
+--   * クラスタキーは 'f:'||fingerprint → 'h:'||body_norm_hash → 'r:'||reviewer（大小文字はそのまま）
+
+CREATE TABLE IF NOT EXISTS public.product_score_aggregates (
+  product_id        uuid        NOT NULL,
+  source            text        NOT NULL,
+  review_count      integer     NOT NULL DEFAULT 0,
+  star_0            integer     NOT NULL DEFAULT 0,   -- rating 無し/0
+  star_1            integer     NOT NULL DEFAULT 0,
+  star_2            integer     NOT NULL DEFAULT 0,
+  star_3            integer     NOT NULL DEFAULT 0,
+  star_4            integer     NOT NULL DEFAULT 0,
+  star_5            integer     NOT NULL DEFAULT 0,
+  short_text_count  integer     NOT NULL DEFAULT 0,   -- 正規化本文 < 120 文字
+  noisy_count       integer     NOT NULL DEFAULT 0,   -- 空/40文字未満/異なり文字 10 未満
+  verified_count    integer     NOT NULL DEFAULT 0,
+  pending_count     integer     NOT NULL DEFAULT 0,   -- lex_flags 未計算の行
+  updated_at        timestamptz NOT NULL DEFAULT now(),
+  PRIMARY KEY (product_id, source)
+);
+
+CREATE TABLE IF NOT EXISTS public.product_score_daily_counts (
+  product_id  uuid    NOT NULL,
+  source      text    NOT NULL,
+  day         date    NOT NULL,
+  cnt         integer NOT NULL,
+  PRIMARY KEY (product_id, source, day)
+);
+
+CREATE TABLE IF NOT EXISTS public.product_score_cluster_counts (
+  product_id   uuid    NOT NULL,
+  source       text    NOT NULL,
+  cluster_key  text    NOT NULL,
+  cnt          integer NOT NULL,
+  PRIMARY KEY (product_id, source, cluster_key)
+);
+
+-- 最大クラスタを 1 行で引くため
+CREATE INDEX IF NOT EXISTS ix_product_score_cluster_counts_top
+  ON public.product_score_cluster_counts (product_id, source, cnt DESC);
+
+DO $$
+BEGIN
+  IF NOT EXISTS (SELECT 1 FROM pg_type WHERE typname = 'product_score_contrib') THEN
+    CREATE TYPE product_score_contrib AS (
+      product_id  uuid,
+      source      text,
+      star        integer,
+      short_text  boolean,
+      noisy       boolean,
+      verified    boolean,
+      day         date,
+      cluster_key text,
+      pending     boolean
+    );
+  END IF;
+END$$;
+
+-- 1 レビュー分の寄与を算出（スコアリングエンジンの特徴量定義に合わせる）。
+-- 関数はテーブルを読まないが、jsonb キャスト（::date）が設定依存なので STABLE にする。
+CREATE OR REPLACE FUNCTION product_score_contribution(r jsonb)
+RETURNS product_score_contrib LANGUAGE plpgsql STABLE AS $$
+DECLARE
+  c product_score_contrib;
+  flags integer;
+BEGIN
+  c.product_id := NULLIF(r->>'product_id', '')::uuid;
+  c.source     := COALESCE(r->>'source', '');
+  -- FeatureAccumulator: rs.getInt("rating")（NULL → 0）を 0..5 に丸める
+  c.star       := GREATEST(0, LEAST(5, COALESCE(NULLIF(r->>'rating', '')::integer, 0)));
+  c.verified   := COALESCE(NULLIF(r->>'verified_purchase', '')::boolean, false);
+  c.day        := NULLIF(r->>'review_date', '')::date;
+  flags        := NULLIF(r->>'lex_flags', '')::integer;
+  c.pending    := flags IS NULL;
+  IF flags IS NULL THEN
+    -- 未バックフィル。短文/ノイズ/クラスタは数えず、アプリ側が走査で求める
+    c.short_text := false;
+    c.noisy      := false;
+    c.cluster_key := NULL;
+    RETURN c;
+  END IF;
+  c.short_text := (flags & 16) <> 0;
+  c.noisy      := (flags & 32) <> 0;
+  -- String.isBlank() と同じく空白だけの値はキーにしない
+  c.cluster_key := CASE
+                     WHEN COALESCE(r->>'fingerprint', '') ~ '\S' THEN 'f:' || (r->>'fingerprint')
+                     WHEN NULLIF(r->>'body_norm_hash', '') IS NOT NULL THEN 'h:' || (r->>'body_norm_hash')
+                     WHEN COALESCE(r->>'reviewer', '') ~ '\S' THEN 'r:' || (r->>'reviewer')
+                   END;
+  RETURN c;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION product_score_aggregates_apply(c product_score_contrib, delta integer)
+RETURNS void LANGUAGE plpgsql AS $$
+BEGIN
+  IF c.product_id IS NULL THEN
+    RETURN;
+  END IF;
+
+  INSERT INTO public.product_score_aggregates AS a
+    (product_id, source, review_count, star_0, star_1, star_2, star_3, star_4, star_5,
+     short_text_count, noisy_count, verified_count, pending_count, updated_at)
+  VALUES
+    (c.product_id, c.source, delta,
+     CASE WHEN c.star = 0 THEN delta ELSE 0 END,
+     CASE WHEN c.star = 1 THEN delta ELSE 0 END,
+     CASE WHEN c.star = 2 THEN delta ELSE 0 END,
+     CASE WHEN c.star = 3 THEN delta ELSE 0 END,
+     CASE WHEN c.star = 4 THEN delta ELSE 0 END,
+     CASE WHEN c.star = 5 THEN delta ELSE 0 END,
+     CASE WHEN c.short_text THEN delta ELSE 0 END,
+     CASE WHEN c.noisy THEN delta ELSE 0 END,
+     CASE WHEN c.verified THEN delta ELSE 0 END,
+     CASE WHEN c.pending THEN delta ELSE 0 END,
+     now())
+  ON CONFLICT (product_id, source) DO UPDATE SET
+    review_count     = a.review_count     + EXCLUDED.review_count,
+    star_0           = a.star_0           + EXCLUDED.star_0,
+    star_1           = a.star_1           + EXCLUDED.star_1,
+    star_2           = a.star_2           + EXCLUDED.star_2,
+    star_3           = a.star_3           + EXCLUDED.star_3,
+    star_4           = a.star_4           + EXCLUDED.star_4,
+    star_5           = a.star_5           + EXCLUDED.star_5,
+    short_text_count = a.short_text_count + EXCLUDED.short_text_count,
+    noisy_count      = a.noisy_count      + EXCLUDED.noisy_count,
+    verified_count   = a.verified_count   + EXCLUDED.verified_count,
+    pending_count    = a.pending_count    + EXCLUDED.pending_count,
+    updated_at       = now();
+
+  IF c.day IS NOT NULL THEN
+    INSERT INTO public.product_score_daily_counts AS d (product_id, source, day, cnt)
+    VALUES (c.product_id, c.source, c.day, delta)
+    ON CONFLICT (product_id, source, day) DO UPDATE SET cnt = d.cnt + EXCLUDED.cnt;
+    DELETE FROM public.product_score_daily_counts
+     WHERE product_id = c.product_id AND source = c.source AND day = c.day AND cnt <= 0;
+  END IF;
+
+  IF c.cluster_key IS NOT NULL THEN
+    INSERT INTO public.product_score_cluster_counts AS k (product_id, source, cluster_key, cnt)
+    VALUES (c.product_id, c.source, c.cluster_key, delta)
+    ON CONFLICT (product_id, source, cluster_key) DO UPDATE SET cnt = k.cnt + EXCLUDED.cnt;
+    DELETE FROM public.product_score_cluster_counts
+     WHERE product_id = c.product_id AND source = c.source AND cluster_key = c.cluster_key AND cnt <= 0;
+  END IF;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION trg_product_score_aggregates() RETURNS trigger
+LANGUAGE plpgsql AS $$
+DECLARE
+  old_c product_score_contrib;
+  new_c product_score_contrib;
+BEGIN
+  IF TG_OP IN ('UPDATE', 'DELETE') THEN
+    old_c := product_score_contribution(to_jsonb(OLD));
+  END IF;
+  IF TG_OP IN ('INSERT', 'UPDATE') THEN
+    new_c := product_score_contribution(to_jsonb(NEW));
+  END IF;
+
+  -- status/visible だけの更新などスコア入力に影響しない UPDATE は何もしない
+  IF TG_OP = 'UPDATE' AND old_c IS NOT DISTINCT FROM new_c THEN
+    RETURN NULL;
+  END IF;
+
+  IF TG_OP IN ('UPDATE', 'DELETE') THEN
+    PERFORM product_score_aggregates_apply(old_c, -1);
+  END IF;
+  IF TG_OP IN ('INSERT', 'UPDATE') THEN
+    PERFORM product_score_aggregates_apply(new_c, 1);
+  END IF;
+  RETURN NULL;
+END;
+$$;
+
+-- INSERT/DELETE はそのまま、UPDATE はスコア入力列が変わったときだけ発火させる
+-- （status の更新や lex/minhash 以外のバックフィルで全行分の関数呼び出しをしない）。
+-- reviews の列構成は環境で揺れるため、存在する列だけで UPDATE OF / WHEN を組み立てる。
+-- 入力列を追加するマイグレーション（V070）は列追加後にこれを呼び直す。
+CREATE OR REPLACE FUNCTION product_score_aggregates_install_triggers()
+RETURNS void LANGUAGE plpgsql AS $$
+DECLARE
+  cols text[];
+  old_row text;
+  new_row text;
+BEGIN
+  SELECT array_agg(quote_ident(column_name) ORDER BY column_name)
+    INTO cols
+    FROM information_schema.columns
+   WHERE table_schema = 'public'
+     AND table_name = 'reviews'
+     AND column_name IN ('product_id', 'source', 'rating', 'review_date', 'fingerprint', 'reviewer',
+                         'lex_flags', 'body_norm_hash', 'verified_purchase');
+
+  SELECT string_agg('OLD.' || c, ', '), string_agg('NEW.' || c, ', ')
+    INTO old_row, new_row
+    FROM unnest(cols) AS c;
+
+  DROP TRIGGER IF EXISTS reviews_product_score_aggregates ON public.reviews;
+  DROP TRIGGER IF EXISTS reviews_product_score_aggregates_upd ON public.reviews;
+
+  CREATE TRIGGER reviews_product_score_aggregates
+    AFTER INSERT OR DELETE ON public.reviews
+    FOR EACH ROW EXECUTE FUNCTION trg_product_score_aggregates();
+
+  EXECUTE format(
+    'CREATE TRIGGER reviews_product_score_aggregates_upd
+       AFTER UPDATE OF %s ON public.reviews
+       FOR EACH ROW
+       WHEN ((%s) IS DISTINCT FROM (%s))
+       EXECUTE FUNCTION trg_product_score_aggregates()',
+    array_to_string(cols, ', '), old_row, new_row);
+END;
+$$;
+
+SELECT product_score_aggregates_install_triggers();
+
+-- 既存データのバックフィル
+WITH c AS (
+  SELECT x.* FROM public.reviews r, LATERAL product_score_contribution(to_jsonb(r)) AS x
+)
+INSERT INTO public.product_score_aggregates
+  (product_id, source, review_count, star_0, star_1, star_2, star_3, star_4, star_5,
+   short_text_count, noisy_count, verified_count, pending_count, updated_at)
+SELECT product_id, source, count(*),
+       count(*) FILTER (WHERE star = 0), count(*) FILTER (WHERE star = 1),
+       count(*) FILTER (WHERE star = 2), count(*) FILTER (WHERE star = 3),
+       count(*) FILTER (WHERE star = 4), count(*) FILTER (WHERE star = 5),
+       count(*) FILTER (WHERE short_text), count(*) FILTER (WHERE noisy),
+       count(*) FILTER (WHERE verified), count(*) FILTER (WHERE pending), now()
+  FROM c
+ WHERE product_id IS NOT NULL
+ GROUP BY product_id, source
+ON CONFLICT (product_id, source) DO NOTHING;
+
+WITH c AS (
+  SELECT x.* FROM public.reviews r, LATERAL product_score_contribution(to_jsonb(r)) AS x
+)
+INSERT INTO public.product_score_daily_counts (product_id, source, day, cnt)
+SELECT product_id, source, day, count(*)
+  FROM c
+ WHERE product_id IS NOT NULL AND day IS NOT NULL
+ GROUP BY product_id, source, day
+ON CONFLICT (product_id, source, day) DO NOTHING;
+
+WITH c AS (
+  SELECT x.* FROM public.reviews r, LATERAL product_score_contribution(to_jsonb(r)) AS x
+)
+INSERT INTO public.product_score_cluster_counts (product_id, source, cluster_key, cnt)
+SELECT product_id, source, cluster_key, count(*)
+  FROM c
+ WHERE product_id IS NOT NULL AND cluster_key IS NOT NULL
+ GROUP BY product_id, source, cluster_key
+ON CONFLICT (product_id, source, cluster_key) DO NOTHING;
@@ -0,0 +1,22 @@
+-- V067__review_minhash.sql
+-- 近似重複検出用の MinHash 署名（64 x int32 = 256 bytes）と LSH バンドのバケット。
+-- 署名はアプリ側（common.sim.MinHash）で upsert 時に計算する。既存行は製品ごとの
+-- 近似重複集計の初回に遅延計算されるため、ここではバックフィルしない。
+
+ALTER TABLE IF EXISTS public.reviews
+  ADD COLUMN IF NOT EXISTS minhash bytea;
+
+CREATE TABLE IF NOT EXISTS public.review_minhash_bands (
+  review_id   uuid     NOT NULL,
+  product_id  uuid     NOT NULL,
+  band        smallint NOT NULL,
+  bucket      bigint   NOT NULL,
+  PRIMARY KEY (review_id, band)
+);
+
+-- カタログ横断の候補検索: 同じ (band, bucket) を持つ他製品のレビュー
+CREATE INDEX IF NOT EXISTS ix_review_minhash_bands_bucket
+  ON public.review_minhash_bands (band, bucket);
+
+CREATE INDEX IF NOT EXISTS ix_review_minhash_bands_product
+  ON public.review_minhash_bands (product_id);
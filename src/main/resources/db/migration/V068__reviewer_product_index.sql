@@ -0,0 +1,24 @@
+-- V068__reviewer_product_index.sql
+-- レビュアー → 製品の集計インデックス（レビューリング検出用）。
+-- reviewer_hash はレビュアー名（lower/trim）の FNV-1a 64bit（common.hash.TextHash.fnv64）。
+-- ハッシュはアプリ側で計算するため、初回起動時に空であればアプリがバックフィルする。
+
+CREATE TABLE IF NOT EXISTS public.reviewer_product_index (
+  reviewer_hash      bigint      NOT NULL,
+  product_id         uuid        NOT NULL,
+  review_count       integer     NOT NULL DEFAULT 0,
+  five_star_count    integer     NOT NULL DEFAULT 0,
+  first_review_date  date,
+  last_review_date   date,
+  updated_at         timestamptz NOT NULL DEFAULT now(),
+  PRIMARY KEY (reviewer_hash, product_id)
+);
+
+CREATE INDEX IF NOT EXISTS ix_reviewer_product_index_product
+  ON public.reviewer_product_index (product_id);
+
+-- ReviewerProductIndex.refresh が upsert ごとに (product_id, lower(btrim(reviewer))) で数え直すため、
+-- 製品内の全レビューを走査せずに該当レビュアーの行だけを引けるようにする。
+CREATE INDEX IF NOT EXISTS ix_reviews_product_reviewer_key
+  ON public.reviews (product_id, (lower(btrim(reviewer))))
+  WHERE reviewer IS NOT NULL;
@@ -0,0 +1,20 @@
+-- V069__score_rescore_jobs.sql
+-- 閾値/ルール変更後の全件再スコアリングジョブの進捗。
+-- last_product_id までの製品は保存済み（product_id 昇順で処理するため、再開時はその次から）。
+
+CREATE TABLE IF NOT EXISTS public.score_rescore_jobs (
+  id                  uuid        PRIMARY KEY,
+  status              text        NOT NULL,   -- RUNNING / DONE / FAILED / CANCELLED
+  score_version       text        NOT NULL,
+  total_products      integer,
+  processed_products  integer     NOT NULL DEFAULT 0,
+  failed_products     integer     NOT NULL DEFAULT 0,
+  last_product_id     uuid,
+  error               text,
+  started_at          timestamptz NOT NULL DEFAULT now(),
+  updated_at          timestamptz NOT NULL DEFAULT now(),
+  finished_at         timestamptz
+);
+
+CREATE INDEX IF NOT EXISTS ix_score_rescore_jobs_started
+  ON public.score_rescore_jobs (started_at DESC);
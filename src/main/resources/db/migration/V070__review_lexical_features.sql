@@ -0,0 +1,20 @@
+-- V070__review_lexical_features.sql
+-- 正規化本文と字句特徴（common.text.LexicalFeatures）を書き込み時に永続化し、スコアリングでの再正規化をなくす。
+--   body_norm       : TextNormalizer.normalize(btrim(body))
+--   body_norm_hash  : body_norm の FNV-1a 64bit（空なら NULL）。重複クラスタのキーに使う
+--   lex_flags       : 1=URL 2=絵文字 4=記号連続 8=60 文字未満 16=正規化後 120 文字未満 32=ノイズ
+-- 値はアプリ側で計算するため、既存行は起動時のバックフィル（ReviewTextBackfill）が lex_flags IS NULL の行を埋める。
+
+ALTER TABLE public.reviews ADD COLUMN IF NOT EXISTS body_norm text;
+ALTER TABLE public.reviews ADD COLUMN IF NOT EXISTS body_norm_hash bigint;
+ALTER TABLE public.reviews ADD COLUMN IF NOT EXISTS lex_flags integer;
+
+-- バックフィル対象の走査用（埋まった行はインデックスから外れる）
+CREATE INDEX IF NOT EXISTS ix_reviews_lex_pending
+  ON public.reviews (id)
+  WHERE lex_flags IS NULL;
+
+-- 集計トリガ（V066）は寄与を to_jsonb 経由で読むため関数はそのまま新列を使う。UPDATE トリガの対象列だけ
+-- 組み直し、バックフィルの UPDATE で行が pending から外れて短文/ノイズ/クラスタの寄与が付け替わるようにする。
+-- 既存行はこの時点ですべて lex_flags IS NULL（= pending として集計済み）なので、集計の作り直しは不要。
+SELECT product_score_aggregates_install_triggers();
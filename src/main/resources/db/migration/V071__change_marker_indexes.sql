@@ -0,0 +1,10 @@
+-- V071__change_marker_indexes.sql
+-- 公開 API の ETag / Last-Modified 用。製品ごとの「最終変更」を 1 インデックス参照で引けるようにする。
+
+-- 製品のレビュー最終更新（max(updated_at) を先頭 1 件で取る）
+CREATE INDEX IF NOT EXISTS ix_reviews_product_updated_at
+    ON public.reviews (product_id, updated_at DESC);
+
+-- 製品の最新スナップショット（ProductSnapshotRepository#findLatestByAsin と同じ並び）
+CREATE INDEX IF NOT EXISTS ix_product_snapshots_product_created_at
+    ON public.product_snapshots (product_id, created_at DESC);
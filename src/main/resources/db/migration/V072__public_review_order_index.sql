@@ -0,0 +1,5 @@
+-- V072__public_review_order_index.sql
+-- 公開レビュー（グループ別）を coalesce(posted_at, created_at), id の降順でソート無しに走査する。
+-- keyset ページングと JDBC カーソルによるストリーミング応答の両方で使う。
+CREATE INDEX IF NOT EXISTS ix_reviews_product_source_public_order
+    ON public.reviews (product_id, source, (COALESCE(posted_at, created_at)) DESC, id DESC);
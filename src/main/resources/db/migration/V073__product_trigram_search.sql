@@ -0,0 +1,19 @@
+-- V073__product_trigram_search.sql
+-- 商品のキーワード検索（部分一致・あいまい一致）を pg_trgm の GIN インデックスで引けるようにする。
+-- lower(title/name) LIKE '%q%' の全件走査をやめ、件数が増えても検索時間をほぼ一定に保つ。
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- 検索対象（title / name / asin）を小文字で連結した生成列。書き込み側の変更は不要
+ALTER TABLE public.products
+    ADD COLUMN IF NOT EXISTS search_text text
+        GENERATED ALWAYS AS (
+            lower(coalesce(title, '') || ' ' || coalesce(name, '') || ' ' || coalesce(asin, ''))
+        ) STORED;
+
+-- LIKE '%q%'（3 文字以上）と word_similarity 演算子 <% の両方に効く
+CREATE INDEX IF NOT EXISTS ix_products_search_text_trgm
+    ON public.products USING gin (search_text gin_trgm_ops);
+
+-- タグ絞り込みは lower(name) = :tag で引く（ix_tags_name は大文字小文字を区別する）
+CREATE INDEX IF NOT EXISTS ix_tags_name_lower
+    ON public.tags (lower(name));
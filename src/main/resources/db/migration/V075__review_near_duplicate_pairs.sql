@@ -0,0 +1,31 @@
+-- V075__review_near_duplicate_pairs.sql
+-- 近似重複のペアを署名の書き込み時に確定して保存し、スコアリング時の分析はこのテーブルを読むだけにする。
+-- （V067 では分析のたびに署名の全件読み込み・未署名行の遅延計算・バンドの自己結合を行っていた）
+--   * 1 ペアにつき両方向の 2 行を持つ。product_id 側から同一製品/他製品の一致をそのまま引ける
+--   * similarity は MinHash の推定 Jaccard（閾値 scoring.near-duplicate.threshold 以上のみ保存）
+-- 既存の署名にはペアが無いため署名ごと作り直す。ReviewMinHashBackfill が minhash IS NULL の行を
+-- 起動後にバックグラウンドで再計算する（reviews の UPDATE は V066 の集計トリガ対象外の列のみ）。
+
+CREATE TABLE IF NOT EXISTS public.review_near_duplicates (
+  review_id         uuid NOT NULL REFERENCES public.reviews (id) ON DELETE CASCADE,
+  other_review_id   uuid NOT NULL REFERENCES public.reviews (id) ON DELETE CASCADE,
+  product_id        uuid NOT NULL,
+  other_product_id  uuid NOT NULL,
+  similarity        real NOT NULL,
+  PRIMARY KEY (review_id, other_review_id)
+);
+
+CREATE INDEX IF NOT EXISTS ix_review_near_duplicates_product
+  ON public.review_near_duplicates (product_id);
+
+-- 再計算時に逆方向の行を消すため
+CREATE INDEX IF NOT EXISTS ix_review_near_duplicates_other
+  ON public.review_near_duplicates (other_review_id);
+
+TRUNCATE public.review_minhash_bands;
+UPDATE public.reviews SET minhash = NULL WHERE minhash IS NOT NULL;
+
+-- バックフィルの keyset 走査用（署名が付いた行はインデックスから外れる）
+CREATE INDEX IF NOT EXISTS ix_reviews_minhash_pending
+  ON public.reviews (id)
+  WHERE minhash IS NULL AND body IS NOT NULL;
@@ -0,0 +1,31 @@
+-- V078__products_asin_upper.sql
+-- ASIN を大文字にそろえる。ProductIntakeService は以前 HTML から取った ASIN をそのまま保存していたため、
+-- 小文字/前後空白の行が残っていると asin = ANY(大文字) の参照（ProductKeyJdbcRepository 等）で見つからない。
+-- 大文字化すると既存の行や他の行と同じ ASIN になるものは、どちらを残すか（レビュー・スコア・タグの付け替え）を
+-- 機械的に決められないため、黙って飛ばさずに失敗させる。該当行を統合してから再実行すること。
+
+DO $$
+DECLARE
+  collisions text;
+BEGIN
+  SELECT string_agg(normalized || ' (' || ids || ')', ', ' ORDER BY normalized)
+    INTO collisions
+    FROM (SELECT upper(btrim(asin)) AS normalized,
+                 string_agg(id::text, ' ' ORDER BY created_at, id) AS ids
+            FROM public.products
+           WHERE asin IS NOT NULL
+           GROUP BY upper(btrim(asin))
+          HAVING count(*) > 1
+             AND bool_or(asin <> upper(btrim(asin)))) c;
+
+  IF collisions IS NOT NULL THEN
+    RAISE EXCEPTION 'products.asin collides after upper-casing; merge these products first: %', collisions;
+  END IF;
+
+  UPDATE public.products
+     SET asin = upper(btrim(asin)),
+         updated_at = now()
+   WHERE asin IS NOT NULL
+     AND asin <> upper(btrim(asin));
+END
+$$;
@@ -1,5 +1,6 @@
 package com.hamas.reviewtrust;
 
+import com.hamas.reviewtrust.api.publicapi.v1.ProductValidators;
 import com.hamas.reviewtrust.api.publicapi.v1.ScoresController;
 import com.hamas.reviewtrust.api.publicapi.v1.dto.ProductScoreResponse;
 import com.hamas.reviewtrust.domain.products.entity.Product;
@@ -76,7 +77,7 @@ public final class ManualTestRunner {
 
         Mockito.when(productService.findByAsin("B00TEST123")).thenReturn(Optional.of(product));
         Mockito.when(scoreMock.findLatestByAsin("B00TEST123")).thenReturn(Optional.of(payload));
-        Mockito.when(legacyMock.recomputeForProduct(payload.getProductId()))
+        Mockito.when(legacyMock.getScore(payload.getProductId(), false))
                 .thenReturn(new com.hamas.reviewtrust.domain.reviews.service.ScoreService.ProductScore(
                         payload.getProductId(),
                         42.0,
@@ -88,8 +89,10 @@ public final class ManualTestRunner {
                         Map.of("total_reviews", 12)
                 ));
 
-        ScoresController controller = new ScoresController(productService, scoreMock, legacyMock);
-        ResponseEntity<ProductScoreResponse> response = controller.getScores("B00TEST123");
+        // Optional を返すメソッドのモック既定値は empty（= 条件付き GET なし）
+        ProductValidators validators = Mockito.mock(ProductValidators.class);
+        ScoresController controller = new ScoresController(productService, scoreMock, legacyMock, validators);
+        ResponseEntity<ProductScoreResponse> response = controller.getScores("B00TEST123", false, null, null);
         require(response.getStatusCode().is2xxSuccessful(), "Scores endpoint should return 200");
         ProductScoreResponse body = response.getBody();
         require(body != null, "Payload must not be null");
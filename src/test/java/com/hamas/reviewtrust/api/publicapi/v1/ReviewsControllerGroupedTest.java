@@ -0,0 +1,165 @@
+package com.hamas.reviewtrust.api.publicapi.v1;
+
+import com.hamas.reviewtrust.api.publicapi.v1.dto.ReviewDtos;
+import com.hamas.reviewtrust.common.paging.KeysetPage;
+import com.hamas.reviewtrust.domain.products.repo.ProductRepository;
+import com.hamas.reviewtrust.domain.reviews.PublicReviewStreamRepository;
+import com.hamas.reviewtrust.domain.reviews.entity.Review;
+import com.hamas.reviewtrust.domain.reviews.repo.ReviewRepository;
+import com.hamas.reviewtrust.domain.reviews.service.ReviewService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ReviewsController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class ReviewsControllerGroupedTest {
+
+    private static final Instant AT = Instant.parse("2024-05-01T00:00:00Z");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReviewRepository reviewRepository;
+
+    @MockBean
+    private ReviewService reviewService;
+
+    @MockBean
+    private ProductRepository productRepository;
+
+    @MockBean
+    private ProductValidators validators;
+
+    @MockBean
+    private PublicReviewStreamRepository reviewStream;
+
+    @Test
+    void streamedDocumentKeepsTheGroupedShape() throws Exception {
+        UUID productId = UUID.randomUUID();
+        UUID amazon1 = UUID.randomUUID();
+        UUID amazon2 = UUID.randomUUID();
+        UUID user1 = UUID.randomUUID();
+        stream(productId, Review.Source.AMAZON, item(amazon1, "Alice", true), item(amazon2, "Bob", false));
+        stream(productId, Review.Source.USER, item(user1, "Carol", true));
+
+        MvcResult started = mockMvc.perform(get("/api/products/{id}/reviews/grouped", productId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amazon.length()").value(2))
+                .andExpect(jsonPath("$.amazon[0].reviewId").value(amazon1.toString()))
+                .andExpect(jsonPath("$.amazon[0].reviewerName").value("Alice"))
+                .andExpect(jsonPath("$.amazon[1].reviewId").value(amazon2.toString()))
+                .andExpect(jsonPath("$.amazon[1].reviewerName").doesNotExist())
+                .andExpect(jsonPath("$.user.length()").value(1))
+                .andExpect(jsonPath("$.user[0].reviewId").value(user1.toString()))
+                .andExpect(jsonPath("$.user[0].stars").value(4));
+    }
+
+    @Test
+    void emptyGroupsAreStreamedAsEmptyArrays() throws Exception {
+        UUID productId = UUID.randomUUID();
+
+        MvcResult started = mockMvc.perform(get("/api/products/{id}/reviews/grouped", productId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amazon.length()").value(0))
+                .andExpect(jsonPath("$.user.length()").value(0));
+    }
+
+    @Test
+    void pagedModeReturnsCursorHeadersAndAcceptsThemBack() throws Exception {
+        UUID productId = UUID.randomUUID();
+        Mockito.when(reviewService.listPublicGroupPage(productId, Review.Source.AMAZON, null, 1))
+                .thenReturn(new KeysetPage<>(List.of(review("first amazon")), "a1", null, false));
+        Mockito.when(reviewService.listPublicGroupPage(productId, Review.Source.USER, null, 1))
+                .thenReturn(new KeysetPage<>(List.of(review("first user")), "u1", null, false));
+
+        mockMvc.perform(get("/api/products/{id}/reviews/grouped", productId).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ReviewsController.HEADER_NEXT_CURSOR_AMAZON, "a1"))
+                .andExpect(header().string(ReviewsController.HEADER_NEXT_CURSOR_USER, "u1"))
+                .andExpect(jsonPath("$.amazon[0].title").value("first amazon"))
+                .andExpect(jsonPath("$.user[0].title").value("first user"));
+
+        // 続き：amazon は最終ページ（カーソル無し）、user は次ページあり
+        Mockito.when(reviewService.listPublicGroupPage(productId, Review.Source.AMAZON, "a1", 1))
+                .thenReturn(new KeysetPage<>(List.of(review("second amazon")), null, null, false));
+        Mockito.when(reviewService.listPublicGroupPage(productId, Review.Source.USER, "u1", 1))
+                .thenReturn(new KeysetPage<>(List.of(review("second user")), "u2", null, false));
+
+        mockMvc.perform(get("/api/products/{id}/reviews/grouped", productId)
+                        .param("limit", "1").param("amazonCursor", "a1").param("userCursor", "u1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ReviewsController.HEADER_NEXT_CURSOR_AMAZON))
+                .andExpect(header().string(ReviewsController.HEADER_NEXT_CURSOR_USER, "u2"))
+                .andExpect(jsonPath("$.amazon[0].title").value("second amazon"))
+                .andExpect(jsonPath("$.user[0].title").value("second user"));
+
+        Mockito.verify(reviewStream, Mockito.never())
+                .forEachPublic(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    void singleGroupPageOnlyQueriesThatGroup() throws Exception {
+        UUID productId = UUID.randomUUID();
+        Mockito.when(reviewService.listPublicGroupPage(productId, Review.Source.USER, "u1", 50))
+                .thenReturn(new KeysetPage<>(List.of(review("user only")), "u2", null, false));
+
+        mockMvc.perform(get("/api/products/{id}/reviews/grouped", productId)
+                        .param("group", "user").param("userCursor", "u1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ReviewsController.HEADER_NEXT_CURSOR_USER, "u2"))
+                .andExpect(jsonPath("$.amazon").doesNotExist())
+                .andExpect(jsonPath("$.user[0].title").value("user only"));
+
+        Mockito.verify(reviewService, Mockito.never()).listPublicGroupPage(
+                ArgumentMatchers.any(), ArgumentMatchers.eq(Review.Source.AMAZON),
+                ArgumentMatchers.any(), ArgumentMatchers.anyInt());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stream(UUID productId, Review.Source source, ReviewDtos.ReviewItem... items) {
+        Mockito.doAnswer(inv -> {
+            Consumer<ReviewDtos.ReviewItem> sink = inv.getArgument(2);
+            for (ReviewDtos.ReviewItem item : items) {
+                sink.accept(item);
+            }
+            return null;
+        }).when(reviewStream).forEachPublic(ArgumentMatchers.eq(productId), ArgumentMatchers.eq(source),
+                ArgumentMatchers.any(Consumer.class));
+    }
+
+    private static ReviewDtos.ReviewItem item(UUID id, String reviewer, boolean reviewerPublic) {
+        return ReviewDtos.of(id, 4, "t", "b", null, true, false, reviewer, reviewerPublic, AT, AT);
+    }
+
+    private static Review review(String title) {
+        return Review.userSubmission(UUID.randomUUID(), 4, title, "body", false, null, AT);
+    }
+}
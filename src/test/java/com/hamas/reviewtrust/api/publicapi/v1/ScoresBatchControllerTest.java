@@ -0,0 +1,77 @@
+package com.hamas.reviewtrust.api.publicapi.v1;
+
+import com.hamas.reviewtrust.domain.products.repo.ProductKeyJdbcRepository;
+import com.hamas.reviewtrust.domain.products.repo.ProductKeyJdbcRepository.ProductKey;
+import com.hamas.reviewtrust.domain.reviews.service.ScoreService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ScoresBatchController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class ScoresBatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductKeyJdbcRepository productKeys;
+
+    @MockBean(name = "productScoreService")
+    private ScoreService scoreService;
+
+    @Test
+    void resolvesIdsAndAsinsInOneLookupAndReportsUnscoredAndUnknown() throws Exception {
+        UUID scoredId = UUID.randomUUID();
+        UUID unscoredId = UUID.randomUUID();
+        UUID unknownId = UUID.randomUUID();
+        Mockito.when(productKeys.findByIdsOrAsins(ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(List.of(new ProductKey(scoredId, "B00SCORED1"), new ProductKey(unscoredId, "B00UNSCORE")));
+        Mockito.when(scoreService.getScores(List.of(scoredId, unscoredId)))
+                .thenReturn(Map.of(scoredId, new ScoreService.ProductScore(
+                        scoredId, 62.0, 38.0, "C", "LIKELY", List.of("ATTN_SURGE"), List.of(), Map.of())));
+
+        String body = """
+                {"ids": ["%s", "b00unscore", "%s", "B00MISSING", "%s"]}
+                """.formatted(scoredId, unknownId, scoredId);
+        mockMvc.perform(post("/api/products/scores:batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.scores['" + scoredId + "'].score").value(62.0))
+                .andExpect(jsonPath("$.scores['" + scoredId + "'].asin").value("B00SCORED1"))
+                .andExpect(jsonPath("$.scores['" + scoredId + "'].sakura_judge").value("LIKELY"))
+                .andExpect(jsonPath("$.unscored[0]").value("b00unscore"))
+                .andExpect(jsonPath("$.notFound.length()").value(2))
+                .andExpect(jsonPath("$.notFound[0]").value(unknownId.toString()))
+                .andExpect(jsonPath("$.notFound[1]").value("B00MISSING"));
+
+        Mockito.verify(productKeys, Mockito.times(1)).findByIdsOrAsins(ArgumentMatchers.any(), ArgumentMatchers.any());
+        Mockito.verify(scoreService, Mockito.never()).getScore(ArgumentMatchers.any(), ArgumentMatchers.anyBoolean());
+    }
+
+    @Test
+    void rejectsEmptyAndOversizedRequests() throws Exception {
+        mockMvc.perform(post("/api/products/scores:batch").contentType(MediaType.APPLICATION_JSON).content("{\"ids\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        String tooMany = "{\"ids\":[" + "\"B000000000\",".repeat(200) + "\"B000000001\"]}";
+        mockMvc.perform(post("/api/products/scores:batch").contentType(MediaType.APPLICATION_JSON).content(tooMany))
+                .andExpect(status().isBadRequest());
+        Mockito.verifyNoInteractions(productKeys, scoreService);
+    }
+}
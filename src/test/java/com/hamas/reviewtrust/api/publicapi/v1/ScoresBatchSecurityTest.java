@@ -0,0 +1,67 @@
+package com.hamas.reviewtrust.api.publicapi.v1;
+
+import com.hamas.reviewtrust.config.SecurityConfig;
+import com.hamas.reviewtrust.domain.products.repo.ProductKeyJdbcRepository;
+import com.hamas.reviewtrust.domain.reviews.service.ScoreService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The batch lookup is a POST under /api/products but only reads, so it is open to anonymous callers while the
+ * rest of POST /api/products/** stays admin-only.
+ */
+@WebMvcTest(ScoresBatchController.class)
+@Import(SecurityConfig.class)
+@ActiveProfiles("test")
+class ScoresBatchSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductKeyJdbcRepository productKeys;
+
+    @MockBean(name = "productScoreService")
+    private ScoreService scoreService;
+
+    @Test
+    void anonymousBatchLookupIsAllowed() throws Exception {
+        Mockito.when(productKeys.findByIdsOrAsins(ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(List.of());
+        mockMvc.perform(post("/api/products/scores:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"B000000001\"]}"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void anonymousProductRegistrationIsRejected() throws Exception {
+        mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"asin\":\"B000000001\"}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void nonAdminProductRegistrationIsForbidden() throws Exception {
+        mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"asin\":\"B000000001\"}"))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -20,6 +20,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -39,6 +40,9 @@ class ScoresControllerTest {
     @MockBean(name = "productScoreService")
     private ScoreService scoreService;
 
+    @MockBean
+    private ProductValidators validators;
+
     @Test
     void resolvesByUuidAndReturnsOverallScore() throws Exception {
         UUID productId = UUID.randomUUID();
@@ -56,7 +60,7 @@ class ScoresControllerTest {
 
         Mockito.when(productService.get(productId)).thenReturn(product);
         Mockito.when(productScoreService.findLatestByAsin("B00TEST01")).thenReturn(Optional.of(payload));
-        Mockito.when(scoreService.recomputeForProduct(productId))
+        Mockito.when(scoreService.getScore(productId, false))
                 .thenReturn(new ScoreService.ProductScore(
                         productId,
                         87.0,
@@ -94,7 +98,7 @@ class ScoresControllerTest {
 
         Mockito.when(productService.findByAsin("B00ASIN99")).thenReturn(Optional.of(product));
         Mockito.when(productScoreService.findLatestByAsin("B00ASIN99")).thenReturn(Optional.of(payload));
-        Mockito.when(scoreService.recomputeForProduct(productId)).thenReturn(null);
+        Mockito.when(scoreService.getScore(productId, false)).thenReturn(null);
 
         mockMvc.perform(get("/api/products/{id}/scores", "B00ASIN99"))
                 .andExpect(status().isOk())
@@ -103,6 +107,33 @@ class ScoresControllerTest {
                 .andExpect(jsonPath("$.overall.rank").value("B"));
     }
 
+    @Test
+    void answersMatchingIfNoneMatchWithNotModifiedWithoutLoadingScores() throws Exception {
+        UUID productId = UUID.randomUUID();
+        ProductValidators.Validator validator =
+                new ProductValidators.Validator("\"scores-1a2b\"", Instant.parse("2024-05-01T00:00:00Z"));
+        Mockito.when(validators.forProduct(productId, ProductValidators.View.SCORES, null))
+                .thenReturn(Optional.of(validator));
+
+        mockMvc.perform(get("/api/products/{id}/scores", productId).header("If-None-Match", "\"scores-1a2b\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"scores-1a2b\""));
+        Mockito.verifyNoInteractions(productService, productScoreService, scoreService);
+
+        Product product = new Product(productId, "B00TEST02", "Demo", "Demo", "https://example.com", true,
+                Instant.now(), Instant.now());
+        ProductScoreResponse payload = new ProductScoreResponse();
+        payload.setProductId(productId);
+        payload.setAsin("B00TEST02");
+        Mockito.when(productService.get(productId)).thenReturn(product);
+        Mockito.when(productScoreService.findLatestByAsin("B00TEST02")).thenReturn(Optional.of(payload));
+
+        mockMvc.perform(get("/api/products/{id}/scores", productId).header("If-None-Match", "\"scores-0000\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"scores-1a2b\""))
+                .andExpect(jsonPath("$.productId").value(productId.toString()));
+    }
+
     @Test
     void returnsNotFoundWhenUnknownAsin() throws Exception {
         Mockito.when(productService.findByAsin("UNKNOWN")).thenReturn(Optional.empty());
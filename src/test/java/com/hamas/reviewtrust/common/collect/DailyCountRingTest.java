@@ -0,0 +1,67 @@
+package com.hamas.reviewtrust.common.collect;
+
+import com.hamas.reviewtrust.common.collect.DailyCountRing.Stats;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DailyCountRingTest {
+
+    private static final long TODAY = 20_000L;
+
+    @Test
+    void flatHistoryHasZeroZ() {
+        DailyCountRing ring = filled(2, 2);
+
+        Stats stats = ring.stats(7, 28);
+
+        assertEquals(14, stats.recentCount());
+        assertEquals(2.0, stats.baselinePerDay(), 1e-9);
+        assertEquals(0.0, stats.z(), 1e-9);
+    }
+
+    @Test
+    void burstInRecentWindowRaisesZ() {
+        DailyCountRing ring = filled(2, 10);
+
+        Stats stats = ring.stats(7, 28);
+
+        // (10 - 2) / (sqrt(2) / sqrt(7))
+        assertEquals(8 / (Math.sqrt(2) / Math.sqrt(7)), stats.z(), 1e-9);
+    }
+
+    @Test
+    void emptyHistoryIsBoundedByPoissonFloor() {
+        DailyCountRing ring = new DailyCountRing(35, TODAY);
+        ring.set(TODAY, 3);
+
+        // 平均 3/7 件/日、基準 0 件/日 → 分母は sqrt(1)/sqrt(7)
+        assertEquals((3 / 7.0) * Math.sqrt(7), ring.stats(7, 28).z(), 1e-9);
+    }
+
+    @Test
+    void advancingClearsOnlyExpiredDays() {
+        DailyCountRing ring = new DailyCountRing(35, TODAY);
+        ring.set(TODAY, 5);
+        ring.add(TODAY, 1);
+
+        ring.advanceTo(TODAY + 3);
+        assertEquals(6, ring.get(TODAY));
+        assertEquals(0, ring.get(TODAY + 1));
+
+        ring.set(TODAY - 40, 9);
+        assertEquals(0, ring.get(TODAY - 40));
+
+        ring.advanceTo(TODAY + 100);
+        assertEquals(0, ring.get(TODAY));
+        assertEquals(0.0, ring.stats(7, 28).z(), 1e-9);
+    }
+
+    private static DailyCountRing filled(int baselinePerDay, int recentPerDay) {
+        DailyCountRing ring = new DailyCountRing(35, TODAY);
+        for (int i = 0; i < 35; i++) {
+            ring.set(TODAY - i, i < 7 ? recentPerDay : baselinePerDay);
+        }
+        return ring;
+    }
+}
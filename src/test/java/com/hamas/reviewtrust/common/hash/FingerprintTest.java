@@ -0,0 +1,35 @@
+package com.hamas.reviewtrust.common.hash;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FingerprintTest {
+
+    @Test
+    void streamingPartsEqualHashingTheConcatenation() {
+        String title = "最高の商品";
+        String body = "絵文字😀 と壊れた\uD800サロゲート, café";
+        long day = 19876L;
+        String joined = title + '|' + body + '|' + day;
+
+        Fingerprint fp = Fingerprint.sha256().add(title).add('|').add(body).add('|').add(day);
+
+        assertEquals(fnv64OfUtf8Bytes(joined), fp.hash64());
+        assertEquals(TextHash.sha256Hex(joined), fp.sha256Hex());
+        assertEquals(fnv64OfUtf8Bytes("-42"), Fingerprint.fast().add(-42L).hash64());
+        assertEquals(fnv64OfUtf8Bytes(body), TextHash.fnv64(body));
+    }
+
+    /** 旧 TextHash#fnv64（getBytes 経由）。永続化済みハッシュとの互換確認用 */
+    private static long fnv64OfUtf8Bytes(String input) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : input.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
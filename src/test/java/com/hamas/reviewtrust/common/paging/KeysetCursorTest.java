@@ -0,0 +1,50 @@
+package com.hamas.reviewtrust.common.paging;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsCreatedAtAndId() {
+        KeysetCursor cursor = new KeysetCursor(Instant.parse("2024-05-01T12:34:56.123456Z"), UUID.randomUUID());
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void blankTokenMeansFirstPage() {
+        assertNull(KeysetCursor.decode(null));
+        assertNull(KeysetCursor.decode("  "));
+    }
+
+    @Test
+    void rejectsTamperedToken() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not-a-cursor"));
+    }
+
+    @Test
+    void overfetchedRowSignalsNextPage() {
+        Instant now = Instant.now();
+        List<KeysetCursor> rows = List.of(
+                new KeysetCursor(now, UUID.randomUUID()),
+                new KeysetCursor(now.minusSeconds(1), UUID.randomUUID()),
+                new KeysetCursor(now.minusSeconds(2), UUID.randomUUID()));
+
+        KeysetPage<KeysetCursor> page = KeysetPage.fromOverfetch(rows, 2, c -> c, null, false);
+        KeysetPage<KeysetCursor> last = KeysetPage.fromOverfetch(rows.subList(2, 3), 2, c -> c, null, false);
+
+        assertEquals(2, page.items().size());
+        assertEquals(rows.get(1), KeysetCursor.decode(page.nextCursor()));
+        assertNull(last.nextCursor());
+    }
+}
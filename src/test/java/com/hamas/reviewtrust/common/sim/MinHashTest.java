@@ -0,0 +1,73 @@
+package com.hamas.reviewtrust.common.sim;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MinHashTest {
+
+    private static final String BASE = "この商品は本当に素晴らしいです。使いやすくて毎日使っています。友達にもおすすめしました。";
+
+    @Test
+    void lightlyEditedJapaneseTextIsSimilar() {
+        int[] a = MinHash.signature(BASE);
+        int[] b = MinHash.signature(BASE.replace("毎日", "毎朝"));
+
+        assertTrue(MinHash.similarity(a, b) >= 0.7, "similarity=" + MinHash.similarity(a, b));
+    }
+
+    @Test
+    void unrelatedTextIsNotSimilar() {
+        int[] a = MinHash.signature(BASE);
+        int[] b = MinHash.signature("配送が遅く、箱も潰れていました。二度と買いません。サポートの対応も最悪です。");
+
+        assertTrue(MinHash.similarity(a, b) < 0.3, "similarity=" + MinHash.similarity(a, b));
+    }
+
+    @Test
+    void blankTextHasNoSignature() {
+        assertNull(MinHash.signature(null));
+        assertNull(MinHash.signature("   "));
+    }
+
+    @Test
+    void bytesRoundTrip() {
+        int[] sig = MinHash.signature(BASE);
+
+        assertArrayEquals(sig, MinHash.fromBytes(MinHash.toBytes(sig)));
+        assertNull(MinHash.fromBytes(new byte[3]));
+    }
+
+    @Test
+    void clustersNearDuplicatesOnly() {
+        Map<String, int[]> sigs = new LinkedHashMap<>();
+        sigs.put("a", MinHash.signature(BASE));
+        sigs.put("b", MinHash.signature(BASE + "！"));
+        sigs.put("c", MinHash.signature(BASE.replace("友達", "家族")));
+        sigs.put("d", MinHash.signature("届いたその日に壊れました。返品手続きも面倒で、もう購入しません。"));
+
+        List<List<String>> clusters = NearDuplicateClusters.cluster(sigs, 0.7);
+
+        assertEquals(1, clusters.size());
+        assertEquals(List.of("a", "b", "c"), clusters.get(0).stream().sorted().toList());
+    }
+
+    @Test
+    void connectsStoredPairsIntoComponents() {
+        List<Map.Entry<String, String>> links = List.of(
+                Map.entry("a", "b"), Map.entry("c", "b"), Map.entry("x", "y"), Map.entry("b", "a"));
+
+        List<List<String>> clusters = NearDuplicateClusters.connect(links);
+
+        assertEquals(2, clusters.size());
+        assertEquals(List.of("a", "b", "c"), clusters.get(0).stream().sorted().toList());
+        assertEquals(List.of("x", "y"), clusters.get(1));
+    }
+}
@@ -0,0 +1,88 @@
+package com.hamas.reviewtrust.common.sim;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextSimilarityTest {
+
+    private static final String BASE = "この商品は本当に素晴らしいです。使いやすくて毎日使っています。友達にもおすすめしました。";
+
+    @Test
+    void bitParallelDistanceMatchesTheDynamicProgram() {
+        Random random = new Random(42);
+        String alphabet = "あいうえおかきくけこabc";
+        for (int round = 0; round < 2000; round++) {
+            // 64 / 128 文字のブロック境界をまたぐ長さも含める
+            String a = randomText(random, alphabet, random.nextInt(200));
+            String b = mutate(random, alphabet, a, random.nextInt(20));
+            int expected = dp(a, b);
+            assertEquals(expected, TextSimilarity.levenshteinDistance(a, b));
+            int max = random.nextInt(30);
+            assertEquals(Math.min(expected, max + 1), TextSimilarity.levenshteinDistance(a, b, max));
+        }
+    }
+
+    @Test
+    void jaccardWorksOnUnsegmentedJapanese() {
+        double edited = TextSimilarity.jaccard(BASE, BASE.replace("毎日", "毎朝"));
+        double unrelated = TextSimilarity.jaccard(BASE, "配送が遅く、箱も潰れていました。二度と買いません。");
+
+        assertTrue(edited >= 0.8, "edited=" + edited);
+        assertTrue(unrelated < 0.1, "unrelated=" + unrelated);
+        assertEquals(1.0, TextSimilarity.jaccard("", "  "), 1e-9);
+    }
+
+    @Test
+    void boundedChecksAgreeWithTheExactScore() {
+        String edited = BASE.replace("毎日", "毎朝").replace("友達", "家族");
+        double exact = TextSimilarity.normalizedLevenshtein(BASE, edited);
+
+        assertTrue(TextSimilarity.similarAtLeast(BASE, edited, exact));
+        assertFalse(TextSimilarity.similarAtLeast(BASE, edited, exact + 0.01));
+        assertFalse(TextSimilarity.similarAtLeast(BASE, "短い", 0.5));
+        assertEquals(exact, TextSimilarity.maxSimilarity(BASE, List.of("短い", edited, "配送が遅い")), 1e-9);
+        assertEquals(0.0, TextSimilarity.maxSimilarity(BASE, List.of()), 1e-9);
+    }
+
+    private static String randomText(Random random, String alphabet, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        return sb.toString();
+    }
+
+    private static String mutate(Random random, String alphabet, String text, int edits) {
+        StringBuilder sb = new StringBuilder(text);
+        for (int e = 0; e < edits; e++) {
+            int op = random.nextInt(3);
+            int pos = sb.length() == 0 ? 0 : random.nextInt(sb.length());
+            char c = alphabet.charAt(random.nextInt(alphabet.length()));
+            if (op == 0 || sb.length() == 0) sb.insert(pos, c);
+            else if (op == 1) sb.deleteCharAt(pos);
+            else sb.setCharAt(pos, c);
+        }
+        return sb.toString();
+    }
+
+    private static int dp(String a, String b) {
+        int[] prev = new int[b.length() + 1];
+        int[] curr = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) prev[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            curr[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                curr[j] = Math.min(Math.min(curr[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+            }
+            int[] tmp = prev;
+            prev = curr;
+            curr = tmp;
+        }
+        return prev[b.length()];
+    }
+}
@@ -0,0 +1,79 @@
+package com.hamas.reviewtrust.common.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TextNormalizerTest {
+
+    /** 永続化済みの body_norm / ハッシュと一致させるため、旧実装と同じ出力であることを確認する */
+    private static final List<String> SAMPLES = List.of(
+            "",
+            "   ",
+            "already normalized text",
+            "Mixed CASE\tand  spaces\n",
+            "\u0001 control chars \u0002",
+            "ｶﾞｲﾄﾞ付き　全角スペース　と ＡＢＣ１２３",
+            "がぎぐげご パピプペポ",
+            "Café crème brûlée",
+            "ΟΔΥΣΣΕΥΣ Σ ΣΑ",
+            "絵文字😀と 𝐁𝐨𝐥𝐝 と 𐐀",
+            "壊れた\uD800サロゲート",
+            "改行\r\n\r\n  を含む\u200B本文\uFEFF  ");
+
+    @Test
+    void normalizeMatchesTheRegexImplementation() {
+        for (String s : SAMPLES) {
+            assertEquals(legacyNormalize(s), TextNormalizer.normalize(s));
+        }
+        assertNull(TextNormalizer.normalize(null));
+    }
+
+    @Test
+    void normalizeForDisplayMatchesTheRegexImplementation() {
+        for (String s : SAMPLES) {
+            assertEquals(legacyDisplay(s), TextNormalizer.normalizeForDisplay(s));
+        }
+        assertEquals("一行目\n二行目 です", TextNormalizer.normalizeForDisplay(" 一行目 \r\n\r\n 二行目\t\tです "));
+    }
+
+    @Test
+    void normalizedInputIsReturnedAsIs() {
+        String ascii = "already normalized text";
+        String japanese = "毎日使っています";
+        assertSame(ascii, TextNormalizer.normalize(ascii));
+        assertSame(japanese, TextNormalizer.normalize(japanese));
+        assertSame(japanese, TextNormalizer.normalizeForDisplay(japanese));
+        assertSame(ascii, TextNormalizer.foldWidth(ascii));
+        assertEquals("4.5%", TextNormalizer.foldWidth(" ４．５％ "));
+    }
+
+    private static String legacyNormalize(String input) {
+        String normalized = Normalizer.normalize(input, Normalizer.Form.NFKD);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ").trim();
+    }
+
+    private static String legacyDisplay(String s) {
+        String n = Normalizer.normalize(s, Normalizer.Form.NFKC)
+                .replace("\r\n", "\n")
+                .replace("\r", "\n")
+                .replaceAll("[\\u200B-\\u200F\\uFEFF]", "")
+                .replaceAll("[ \\t\\x0B\\f]+", " ")
+                .replaceAll("\\s*\\n\\s*", "\n")
+                .trim();
+        return n.isBlank() ? null : n;
+    }
+}
@@ -0,0 +1,64 @@
+package com.hamas.reviewtrust.common.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    @Test
+    void rejectsImmediatelyWhenFullAndQueueDisabled() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Bulkhead bulkhead = new Bulkhead("scrape", 1, 0, Duration.ofSeconds(5), registry);
+
+        assertEquals(Bulkhead.Outcome.ADMITTED, bulkhead.tryEnter());
+        long started = System.nanoTime();
+        assertEquals(Bulkhead.Outcome.QUEUE_FULL, bulkhead.tryEnter());
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(1), "must not wait");
+        assertEquals(1, bulkhead.active());
+
+        bulkhead.exit();
+        assertEquals(Bulkhead.Outcome.ADMITTED, bulkhead.tryEnter());
+        bulkhead.exit();
+
+        assertEquals(1.0, registry.get("http.bulkhead.rejected")
+                .tag("bulkhead", "scrape").tag("reason", "queue_full").counter().count());
+        assertEquals(0.0, registry.get("http.bulkhead.active").tag("bulkhead", "scrape").gauge().value());
+    }
+
+    @Test
+    void waitsForASlotUpToMaxWait() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Bulkhead bulkhead = new Bulkhead("scores", 1, 1, Duration.ofMillis(50), registry);
+        assertEquals(Bulkhead.Outcome.ADMITTED, bulkhead.tryEnter());
+
+        // 枠が空かなければタイムアウト
+        assertEquals(Bulkhead.Outcome.TIMED_OUT, bulkhead.tryEnter());
+        assertEquals(0, bulkhead.queued());
+
+        // 待っている間に空けば入れる
+        Bulkhead patient = new Bulkhead("patient", 1, 1, Duration.ofSeconds(5), registry);
+        assertEquals(Bulkhead.Outcome.ADMITTED, patient.tryEnter());
+        CompletableFuture<Bulkhead.Outcome> waiter = CompletableFuture.supplyAsync(patient::tryEnter);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (patient.queued() == 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(1, patient.queued());
+        // キューは 1 件まで
+        assertEquals(Bulkhead.Outcome.QUEUE_FULL, patient.tryEnter());
+        patient.exit();
+        assertEquals(Bulkhead.Outcome.ADMITTED, waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(1, patient.active());
+
+        assertEquals(1.0, registry.get("http.bulkhead.rejected")
+                .tag("bulkhead", "scores").tag("reason", "timeout").counter().count());
+        assertEquals(1L, registry.get("http.bulkhead.wait")
+                .tag("bulkhead", "scores").tag("outcome", "rejected").timer().count());
+    }
+}
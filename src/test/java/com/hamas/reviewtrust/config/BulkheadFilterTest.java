@@ -0,0 +1,131 @@
+package com.hamas.reviewtrust.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * One class with a single slot, bound from a comma-separated pattern string as in application.yml: a streaming
+ * request keeps the slot until its async dispatch completes, and the matching POST and the query-conditioned
+ * GETs are rejected meanwhile.
+ */
+class BulkheadFilterTest {
+
+    private final CountDownLatch streamMayFinish = new CountDownLatch(1);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        BulkheadProperties properties = new Binder(new MapConfigurationPropertySource(Map.of(
+                "bulkhead.retry-after", "PT2S",
+                "bulkhead.classes.heavy.patterns",
+                "GET /stream, POST /things, GET /reads?refresh=true, GET /reads?!limit&!cursor",
+                "bulkhead.classes.heavy.max-concurrent", "1",
+                "bulkhead.classes.heavy.max-queue", "0",
+                "bulkhead.classes.heavy.retry-after", "PT2.5S")))
+                .bind("bulkhead", BulkheadProperties.class)
+                .get();
+        ObjectProvider<MeterRegistry> registry = Mockito.mock(ObjectProvider.class);
+        Mockito.when(registry.getIfAvailable(ArgumentMatchers.any())).thenReturn(new SimpleMeterRegistry());
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new TestController(streamMayFinish))
+                .addFilters(new BulkheadFilter(properties, new ObjectMapper(), registry))
+                .build();
+    }
+
+    @Test
+    void streamingRequestHoldsTheSlotUntilAsyncCompletion() throws Exception {
+        MvcResult streaming = mockMvc.perform(get("/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // 最初のディスパッチは戻っているが、ストリーム中なので枠は埋まったまま
+        mockMvc.perform(post("/things"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.error.code").value("E_OVERLOADED"))
+                .andExpect(jsonPath("$.error.message").exists());
+
+        // メソッド違い・パターン外は対象外
+        mockMvc.perform(get("/things")).andExpect(status().isOk());
+        mockMvc.perform(get("/other")).andExpect(status().isOk());
+
+        // クエリ条件：重いモードだけが枠を取り、ページ指定やキャッシュ参照は素通し
+        mockMvc.perform(get("/reads")).andExpect(status().isServiceUnavailable());
+        mockMvc.perform(get("/reads").param("limit", "5").param("refresh", "TRUE"))
+                .andExpect(status().isServiceUnavailable());
+        mockMvc.perform(get("/reads").param("limit", "5")).andExpect(status().isOk());
+        mockMvc.perform(get("/reads").param("cursor", "c1").param("refresh", "false")).andExpect(status().isOk());
+
+        streamMayFinish.countDown();
+        mockMvc.perform(asyncDispatch(streaming))
+                .andExpect(status().isOk())
+                .andExpect(content().string("streamed"));
+
+        mockMvc.perform(post("/things")).andExpect(status().isOk());
+    }
+
+    @RestController
+    static class TestController {
+
+        private final CountDownLatch streamMayFinish;
+
+        TestController(CountDownLatch streamMayFinish) {
+            this.streamMayFinish = streamMayFinish;
+        }
+
+        @GetMapping("/stream")
+        StreamingResponseBody stream() {
+            return out -> {
+                try {
+                    streamMayFinish.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                out.write("streamed".getBytes(StandardCharsets.UTF_8));
+            };
+        }
+
+        @PostMapping("/things")
+        String create() {
+            return "created";
+        }
+
+        @GetMapping({"/things", "/other", "/reads"})
+        String read() {
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.hamas.reviewtrust.domain.audit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hamas.reviewtrust.config.AuditProperties;
+import com.hamas.reviewtrust.domain.audit.entity.AuditLog;
+import com.hamas.reviewtrust.domain.audit.entity.ExceptionLog;
+import com.hamas.reviewtrust.domain.audit.repo.AuditJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditLogWriterTest {
+
+    private final AuditJdbcRepository repo = Mockito.mock(AuditJdbcRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void writesInSizeTriggeredBatchesAndFlushesOnShutdown() {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        Mockito.doAnswer(inv -> {
+            List<?> logs = inv.getArgument(0);
+            if (!logs.isEmpty()) {
+                batchSizes.add(logs.size());
+            }
+            return null;
+        }).when(repo).insertAuditLogs(ArgumentMatchers.anyList());
+        // 時間トリガーが先に来ないよう長めにする
+        AuditLogWriter writer = writer(props(100, 3, Duration.ofSeconds(30), AuditProperties.Overflow.DROP, null));
+
+        for (int i = 0; i < 7; i++) {
+            writer.submit(audit("A" + i));
+        }
+        writer.submit(ExceptionLog.of("api", "E_TEST", "boom", "", null));
+        long started = System.nanoTime();
+        writer.shutdown();
+
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(5), "shutdown must not wait for the interval");
+        assertEquals(7, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(n -> n <= 3), batchSizes.toString());
+        Mockito.verify(repo, Mockito.atLeastOnce()).insertExceptionLogs(ArgumentMatchers.argThat(l -> l.size() == 1));
+        assertEquals(8.0, registry.get("audit.events.written").counter().count());
+        assertEquals(0, writer.queued());
+    }
+
+    @Test
+    void dropsAndCountsWhenQueueIsFull() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.doAnswer(inv -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(repo).insertAuditLogs(ArgumentMatchers.anyList());
+        AuditLogWriter writer = writer(props(1, 1, Duration.ofMillis(10), AuditProperties.Overflow.DROP, null));
+
+        writer.submit(audit("first"));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        // writer は書き込み中。キュー 1 件 + 溢れ 1 件
+        writer.submit(audit("queued"));
+        writer.submit(audit("dropped"));
+
+        assertEquals(1.0, registry.get("audit.events.dropped").tag("reason", "queue_full").counter().count());
+        release.countDown();
+        writer.shutdown();
+        assertEquals(2.0, registry.get("audit.events.written").counter().count());
+    }
+
+    @Test
+    void spillsFailedBatchesToNdjson(@TempDir Path dir) throws Exception {
+        Mockito.doThrow(new org.springframework.dao.DataAccessResourceFailureException("db down"))
+                .when(repo).insertAuditLogs(ArgumentMatchers.anyList());
+        AuditLogWriter writer = writer(props(10, 10, Duration.ofMillis(10), AuditProperties.Overflow.SPILL, dir));
+
+        writer.submit(audit("PRODUCT_HIDE"));
+        writer.shutdown();
+
+        List<String> lines = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path f : files.toList()) {
+                lines.addAll(Files.readAllLines(f));
+            }
+        }
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("\"action\":\"PRODUCT_HIDE\""), lines.get(0));
+        assertEquals(1.0, registry.get("audit.events.spilled").counter().count());
+        assertEquals(0.0, registry.get("audit.events.written").counter().count());
+    }
+
+    @Test
+    void retriesTransientFailuresWithBackoff(@TempDir Path dir) throws Exception {
+        List<Integer> attempts = new CopyOnWriteArrayList<>();
+        Mockito.doAnswer(inv -> {
+            attempts.add(((List<?>) inv.getArgument(0)).size());
+            if (attempts.size() < 3) {
+                throw new org.springframework.dao.QueryTimeoutException("timeout");
+            }
+            return null;
+        }).when(repo).insertAuditLogs(ArgumentMatchers.anyList());
+        AuditProperties p = props(10, 10, Duration.ofSeconds(30), AuditProperties.Overflow.SPILL, dir);
+        p.setRetryAttempts(3);
+        p.setRetryBackoff(Duration.ofMillis(1));
+        AuditLogWriter writer = writer(p);
+
+        writer.submit(audit("A1"));
+        writer.submit(audit("A2"));
+        writer.shutdown();
+
+        assertEquals(List.of(2, 2, 2), attempts);
+        assertEquals(2.0, registry.get("audit.events.written").counter().count());
+        assertEquals(0.0, registry.get("audit.events.spilled").counter().count());
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void permanentFailureFallsBackToRowInsertsAndSpillsOnlyTheBadRow(@TempDir Path dir) throws Exception {
+        Mockito.doAnswer(inv -> {
+            List<AuditLog> logs = inv.getArgument(0);
+            if (logs.stream().anyMatch(l -> "BAD".equals(l.getAction()))) {
+                throw new org.springframework.dao.DataIntegrityViolationException("bad row");
+            }
+            return null;
+        }).when(repo).insertAuditLogs(ArgumentMatchers.anyList());
+        AuditLogWriter writer = writer(props(10, 10, Duration.ofSeconds(30), AuditProperties.Overflow.SPILL, dir));
+
+        writer.submit(audit("OK1"));
+        writer.submit(audit("BAD"));
+        writer.submit(audit("OK2"));
+        writer.submit(ExceptionLog.of("api", "E_TEST", "boom", "", null));
+        writer.shutdown();
+
+        // 一括 1 回 + 1 行ずつ 3 回。例外ログは別に書かれ、巻き添えにならない
+        Mockito.verify(repo, Mockito.times(4)).insertAuditLogs(ArgumentMatchers.anyList());
+        Mockito.verify(repo, Mockito.times(1)).insertExceptionLogs(ArgumentMatchers.argThat(l -> l.size() == 1));
+        assertEquals(3.0, registry.get("audit.events.written").counter().count());
+        assertEquals(1.0, registry.get("audit.events.spilled").counter().count());
+        List<String> lines = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path f : files.toList()) {
+                lines.addAll(Files.readAllLines(f));
+            }
+        }
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("\"action\":\"BAD\""), lines.get(0));
+    }
+
+    private AuditLogWriter writer(AuditProperties props) {
+        return new AuditLogWriter(repo, props, new ObjectMapper(), registry);
+    }
+
+    private static AuditProperties props(int capacity, int batchSize, Duration flushInterval,
+                                         AuditProperties.Overflow overflow, Path spillDir) {
+        AuditProperties p = new AuditProperties();
+        p.setCapacity(capacity);
+        p.setBatchSize(batchSize);
+        p.setFlushInterval(flushInterval);
+        p.setOverflow(overflow);
+        if (spillDir != null) {
+            p.setSpillDir(spillDir.toString());
+        }
+        return p;
+    }
+
+    private static AuditLog audit(String action) {
+        AuditLog log = AuditLog.of(UUID.randomUUID(), action, "PRODUCT", UUID.randomUUID(), "{}");
+        log.onCreate();
+        return log;
+    }
+}
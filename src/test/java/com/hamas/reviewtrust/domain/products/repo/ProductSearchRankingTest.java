@@ -0,0 +1,72 @@
+package com.hamas.reviewtrust.domain.products.repo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ranking and escaping of the trigram search SQL (V073). Needs a PostgreSQL database migrated to head, e.g.
+ * {@code TEST_PG_URL=jdbc:postgresql://localhost:5432/reviewtrust}; the rows are tagged with a fresh tag so
+ * the searches only see them, and everything runs in one transaction that is rolled back.
+ */
+@EnabledIfEnvironmentVariable(named = "TEST_PG_URL", matches = ".+")
+class ProductSearchRankingTest {
+
+    @Test
+    void exactAsinFirstAndWildcardsAreLiteral() {
+        DriverManagerDataSource ds = new DriverManagerDataSource(System.getenv("TEST_PG_URL"),
+                System.getenv().getOrDefault("TEST_PG_USER", "postgres"),
+                System.getenv().getOrDefault("TEST_PG_PASSWORD", ""));
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        ProductSearchJdbcRepository search = new ProductSearchJdbcRepository(new NamedParameterJdbcTemplate(jdbc), true);
+        TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(ds));
+
+        tx.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            assertTrue(search.available());
+
+            String tag = "search-test-" + UUID.randomUUID();
+            UUID tagId = UUID.randomUUID();
+            jdbc.update("INSERT INTO tags (id, name) VALUES (?, ?)", tagId, tag);
+            String asin = ("T" + UUID.randomUUID().toString().replace("-", "")).substring(0, 10)
+                    .toUpperCase(Locale.ROOT);
+
+            // 新しい方が部分一致でも、ASIN が完全一致する行が先
+            UUID exact = insert(jdbc, tagId, asin, "plain product", 2);
+            UUID mention = insert(jdbc, tagId, null, "case for " + asin, 0);
+            UUID percent = insert(jdbc, tagId, null, "100% cotton", 1);
+            UUID underscore = insert(jdbc, tagId, null, "cable_tie", 1);
+
+            assertEquals(List.of(exact, mention), search.search(asin.toLowerCase(Locale.ROOT), tag, null, 10, 0));
+            assertEquals(2, search.count(asin.toLowerCase(Locale.ROOT), tag, null));
+            assertEquals(List.of(mention), search.search(asin.toLowerCase(Locale.ROOT), tag, null, 10, 1));
+
+            // % と _ は文字として一致する（ワイルドカードなら全行が当たる）
+            assertEquals(List.of(percent), search.search("%", tag, null, 10, 0));
+            assertEquals(1, search.count("%", tag, null));
+            assertEquals(List.of(underscore), search.search("_", tag, null, 10, 0));
+        });
+    }
+
+    private static UUID insert(JdbcTemplate jdbc, UUID tagId, String asin, String name, int daysAgo) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("""
+                        INSERT INTO products (id, name, asin, created_at, updated_at)
+                        VALUES (?, ?, ?, now() - make_interval(days => ?), now() - make_interval(days => ?))
+                        """,
+                id, name, asin, daysAgo, daysAgo);
+        jdbc.update("INSERT INTO product_tags (product_id, tag_id) VALUES (?, ?)", id, tagId);
+        return id;
+    }
+}
@@ -0,0 +1,68 @@
+package com.hamas.reviewtrust.domain.products.service;
+
+import com.hamas.reviewtrust.common.paging.KeysetPage;
+import com.hamas.reviewtrust.common.repository.TableStatsJdbcRepository;
+import com.hamas.reviewtrust.domain.products.dto.ProductListItem;
+import com.hamas.reviewtrust.domain.products.entity.Product;
+import com.hamas.reviewtrust.domain.products.repo.ProductRepository;
+import com.hamas.reviewtrust.domain.products.repo.ProductSearchJdbcRepository;
+import com.hamas.reviewtrust.domain.reviews.service.ScoreService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductServiceSearchTest {
+
+    private final ProductRepository repo = Mockito.mock(ProductRepository.class);
+    private final ScoreService scoreService = Mockito.mock(ScoreService.class);
+    private final ProductSearchJdbcRepository search = Mockito.mock(ProductSearchJdbcRepository.class);
+    private final ProductService service =
+            new ProductService(repo, scoreService, Mockito.mock(TableStatsJdbcRepository.class), search);
+
+    @Test
+    void rankedSearchKeepsRelevanceOrderAndPushesOffsetIntoSql() {
+        Product first = product("B00FIRST01");
+        Product second = product("B00SECOND2");
+        Mockito.when(search.available()).thenReturn(true);
+        Mockito.when(search.search("yoga mat", "fitness", true, 20, 40L))
+                .thenReturn(List.of(second.getId(), first.getId()));
+        // findAllById は順序を保証しない
+        Mockito.when(repo.findAllById(ArgumentMatchers.any())).thenReturn(List.of(first, second));
+        Mockito.when(search.count("yoga mat", "fitness", true)).thenReturn(42L);
+        Mockito.when(scoreService.getScores(ArgumentMatchers.any())).thenReturn(Map.of());
+
+        KeysetPage<ProductListItem> page =
+                service.searchProductSummaries(" yoga mat ", "Fitness", true, 2, 20, KeysetPage.CountMode.EXACT);
+
+        assertEquals(List.of("B00SECOND2", "B00FIRST01"), page.items().stream().map(ProductListItem::asin).toList());
+        assertNull(page.nextCursor());
+        assertEquals(42L, page.total());
+        Mockito.verify(repo, Mockito.never()).searchWithTag(ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    void fallsBackToLikeQueriesWithoutTrigramSupport() {
+        Mockito.when(search.available()).thenReturn(false);
+        Product p = product("B00LIKE001");
+        Mockito.when(repo.search(ArgumentMatchers.eq("like"), ArgumentMatchers.isNull(), ArgumentMatchers.any(Pageable.class)))
+                .thenReturn(List.of(p));
+
+        assertEquals(List.of(p), service.list("like", null, 10));
+        Mockito.verify(search, Mockito.never()).search(ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(), ArgumentMatchers.anyInt(), ArgumentMatchers.anyLong());
+    }
+
+    private static Product product(String asin) {
+        return new Product(UUID.randomUUID(), asin, asin, asin, "https://example.com/dp/" + asin, true,
+                Instant.now(), Instant.now());
+    }
+}
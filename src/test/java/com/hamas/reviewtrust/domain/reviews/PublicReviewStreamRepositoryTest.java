@@ -0,0 +1,102 @@
+package com.hamas.reviewtrust.domain.reviews;
+
+import com.hamas.reviewtrust.api.publicapi.v1.dto.ReviewDtos;
+import com.hamas.reviewtrust.domain.reviews.entity.Review;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Chunked reads return every row exactly once in (coalesce(posted_at, created_at), id) descending order, and
+ * no pool connection is checked out while the sink (the HTTP response) runs.
+ */
+class PublicReviewStreamRepositoryTest {
+
+    private static final UUID PRODUCT = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final Instant BASE = Instant.parse("2024-05-01T00:00:00Z");
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:review-stream-" + UUID.randomUUID()
+                + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE");
+        dataSource.setMaximumPoolSize(2);
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("""
+                CREATE TABLE reviews (
+                  id uuid PRIMARY KEY, product_id uuid, source varchar(16), status varchar(16),
+                  stars integer, title varchar(200), body varchar(2000), text varchar(2000),
+                  verified_purchase boolean, has_image boolean, reviewer_name varchar(100),
+                  reviewer_public boolean, posted_at timestamp with time zone, created_at timestamp with time zone)
+                """);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void chunksCoverEveryRowInOrderWithoutHoldingAConnection() {
+        List<UUID> expected = new ArrayList<>();
+        // 同時刻の行（id で順序が決まる）と posted_at の無い行を混ぜる
+        for (int i = 0; i < 7; i++) {
+            UUID id = UUID.fromString("00000000-0000-0000-0000-00000000001" + i);
+            Instant at = BASE.plusSeconds(i < 3 ? 0 : i * 60L);
+            boolean posted = i % 2 == 0;
+            insert(id, "AMAZON", "PENDING", posted ? at : null, posted ? BASE.minusSeconds(999) : at);
+        }
+        insert(UUID.randomUUID(), "USER", "PENDING", BASE, BASE);
+        jdbc.queryForList("""
+                        SELECT id FROM reviews WHERE source = 'AMAZON'
+                         ORDER BY COALESCE(posted_at, created_at) DESC, id DESC
+                        """, UUID.class)
+                .forEach(expected::add);
+
+        PublicReviewStreamRepository repository = new PublicReviewStreamRepository(jdbc, 3);
+        List<UUID> seen = new ArrayList<>();
+        List<Integer> activeDuringSink = new ArrayList<>();
+        repository.forEachPublic(PRODUCT, Review.Source.AMAZON, item -> {
+            seen.add(item.reviewId());
+            activeDuringSink.add(dataSource.getHikariPoolMXBean().getActiveConnections());
+        });
+
+        assertEquals(expected, seen);
+        assertEquals(List.of(0), activeDuringSink.stream().distinct().toList());
+    }
+
+    @Test
+    void userGroupOnlyContainsApprovedReviews() {
+        UUID approved = UUID.randomUUID();
+        insert(approved, "USER", "APPROVED", BASE, BASE);
+        insert(UUID.randomUUID(), "USER", "PENDING", BASE, BASE);
+
+        List<ReviewDtos.ReviewItem> items = new ArrayList<>();
+        new PublicReviewStreamRepository(jdbc, 1).forEachPublic(PRODUCT, Review.Source.USER, items::add);
+
+        assertEquals(List.of(approved), items.stream().map(ReviewDtos.ReviewItem::reviewId).toList());
+    }
+
+    private void insert(UUID id, String source, String status, Instant postedAt, Instant createdAt) {
+        jdbc.update("""
+                        INSERT INTO reviews (id, product_id, source, status, stars, title, body, verified_purchase,
+                                             has_image, reviewer_name, reviewer_public, posted_at, created_at)
+                        VALUES (?, ?, ?, ?, 5, 't', 'b', false, false, 'n', false, ?, ?)
+                        """,
+                id, PRODUCT, source, status,
+                postedAt != null ? Timestamp.from(postedAt) : null, Timestamp.from(createdAt));
+    }
+}
@@ -0,0 +1,73 @@
+package com.hamas.reviewtrust.domain.reviews;
+
+import com.hamas.reviewtrust.common.hash.TextHash;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ReviewerProductIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 1);
+
+    private final ReviewerProductIndex index = new ReviewerProductIndex(null, null);
+
+    @Test
+    void sharedReviewersAcrossProductsFormRing() {
+        UUID target = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        for (String name : new String[]{"alice", "bob", "carol"}) {
+            index.apply(row(name, target, 5));
+        }
+        index.apply(row("dave", target, 3));
+        index.apply(row("alice", other, 5));
+        index.apply(row("bob", other, 5));
+        index.apply(row("alice", third, 5));
+
+        ReviewerProductIndex.ReviewerOverlap overlap = index.overlap(target);
+
+        assertEquals(4, overlap.reviewers());
+        assertEquals(2, overlap.sharedReviewers());
+        assertEquals(1, overlap.multiProductFiveStarReviewers());
+        assertEquals(other, overlap.topOverlapProductId());
+        assertEquals(0.5, overlap.ringDensity(), 1e-9);
+    }
+
+    @Test
+    void singleSharedReviewerIsNotARing() {
+        UUID target = UUID.randomUUID();
+        index.apply(row("alice", target, 5));
+        index.apply(row("bob", target, 5));
+        index.apply(row("alice", UUID.randomUUID(), 5));
+
+        assertEquals(0.0, index.overlap(target).ringDensity());
+        assertEquals(0.5, index.overlap(target).sharedRatio(), 1e-9);
+    }
+
+    @Test
+    void refreshedRowReplacesPreviousCounts() {
+        UUID target = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        index.apply(row("alice", target, 5));
+        index.apply(row("alice", other, 5));
+        index.apply(new ReviewerProductIndex.Row(TextHash.fnv64("alice"), other, 0, 0, DAY));
+
+        assertEquals(0, index.overlap(target).sharedReviewers());
+    }
+
+    @Test
+    void unknownProductAndAnonymousNames() {
+        assertSame(ReviewerProductIndex.ReviewerOverlap.EMPTY, index.overlap(UUID.randomUUID()));
+        assertNull(ReviewerProductIndex.reviewerKey(" Amazon カスタマー "));
+        assertEquals("alice", ReviewerProductIndex.reviewerKey(" Alice "));
+    }
+
+    private static ReviewerProductIndex.Row row(String name, UUID product, int rating) {
+        return new ReviewerProductIndex.Row(TextHash.fnv64(name), product, 1, rating >= 5 ? 1 : 0, DAY);
+    }
+}
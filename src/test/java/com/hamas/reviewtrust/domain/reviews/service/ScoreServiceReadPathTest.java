@@ -0,0 +1,103 @@
+package com.hamas.reviewtrust.domain.reviews.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hamas.reviewtrust.domain.reviews.entity.ReviewScore;
+import com.hamas.reviewtrust.domain.reviews.repo.ReviewScoreRepository;
+import com.hamas.reviewtrust.domain.scoring.engine.ScoreRecomputeQueue;
+import com.hamas.reviewtrust.domain.scoring.profile.ScoringConfig;
+import com.hamas.reviewtrust.domain.scoring.profile.ThresholdProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The public read path never computes on the request thread: misses are served from review_scores, stale
+ * scores are served while a refresh is queued, and a threshold change keeps cached entries readable.
+ */
+class ScoreServiceReadPathTest {
+
+    private static final UUID PRODUCT = UUID.fromString("00000000-0000-0000-0000-0000000000aa");
+
+    private final NamedParameterJdbcTemplate jdbc = Mockito.mock(NamedParameterJdbcTemplate.class);
+    private final ReviewScoreRepository repository = Mockito.mock(ReviewScoreRepository.class);
+    private final ScoreRecomputeQueue queue = Mockito.mock(ScoreRecomputeQueue.class);
+    private ScoreService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ThresholdProvider thresholds = Mockito.mock(ThresholdProvider.class);
+        Mockito.when(thresholds.config()).thenReturn(
+                new ScoringConfig(1, "fp", ThresholdProvider.Thresholds.defaults(), Instant.now()));
+        ObjectProvider<MeterRegistry> registry = Mockito.mock(ObjectProvider.class);
+        Mockito.when(registry.getIfAvailable(ArgumentMatchers.any())).thenReturn(new SimpleMeterRegistry());
+        service = new ScoreService(jdbc, new ObjectMapper(), thresholds, repository, queue,
+                Mockito.mock(ObjectProvider.class), Duration.ofMinutes(10), 100, registry);
+    }
+
+    @Test
+    void cacheMissIsServedFromThePersistedRow() {
+        stored(Instant.now(), "site-v1:fp");
+
+        ScoreService.ProductScore score = service.getScore(PRODUCT, false);
+
+        assertEquals(42.0, score.score());
+        Mockito.verifyNoInteractions(jdbc, queue);
+        // 2 回目はキャッシュから
+        assertEquals(42.0, service.getScore(PRODUCT, false).score());
+        Mockito.verify(repository, Mockito.times(1)).findById(ArgumentMatchers.any());
+    }
+
+    @Test
+    void stalePersistedRowIsServedAndRefreshedInBackground() {
+        stored(Instant.now().minus(Duration.ofHours(3)), "site-v1:fp");
+
+        assertEquals(42.0, service.getScore(PRODUCT, false).score());
+
+        Mockito.verify(queue).submit(ArgumentMatchers.eq("site:" + PRODUCT), ArgumentMatchers.any());
+        Mockito.verifyNoInteractions(jdbc);
+    }
+
+    @Test
+    void neverScoredProductIsQueuedInsteadOfComputed() {
+        Mockito.when(repository.findById(ArgumentMatchers.any())).thenReturn(Optional.empty());
+
+        assertNull(service.getScore(PRODUCT, false));
+
+        Mockito.verify(queue).submit(ArgumentMatchers.eq("site:" + PRODUCT), ArgumentMatchers.any());
+        Mockito.verifyNoInteractions(jdbc);
+    }
+
+    @Test
+    void thresholdChangeKeepsServingCachedScoresWhileRefreshing() {
+        stored(Instant.now().minusSeconds(1), "site-v1:fp");
+        service.getScore(PRODUCT, false);
+        Mockito.verifyNoInteractions(queue);
+
+        service.invalidateAll();
+
+        assertEquals(42.0, service.getScore(PRODUCT, false).score());
+        Mockito.verify(queue).submit(ArgumentMatchers.eq("site:" + PRODUCT), ArgumentMatchers.any());
+        Mockito.verify(repository, Mockito.times(1)).findById(ArgumentMatchers.any());
+        Mockito.verifyNoInteractions(jdbc);
+    }
+
+    private void stored(Instant computedAt, String version) {
+        ReviewScore row = new ReviewScore(new ReviewScore.Id(PRODUCT, "SITE"), 42.0, "B", "UNLIKELY",
+                null, null, null, computedAt, computedAt);
+        row.setScoreVersion(version);
+        Mockito.when(repository.findById(ArgumentMatchers.any())).thenReturn(Optional.of(row));
+    }
+}
@@ -0,0 +1,153 @@
+package com.hamas.reviewtrust.domain.scoring.engine;
+
+import com.hamas.reviewtrust.domain.scoring.catalog.ScoreModels;
+import com.hamas.reviewtrust.domain.scoring.engine.BulkRescoreJob.JobStatus;
+import com.hamas.reviewtrust.domain.scoring.engine.ScoreService.Computed;
+import com.hamas.reviewtrust.domain.scoring.profile.ScoringConfig;
+import com.hamas.reviewtrust.domain.scoring.profile.ThresholdProvider.Thresholds;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkRescoreJobResumeTest {
+
+    private static final UUID[] PRODUCTS = {
+            UUID.fromString("00000000-0000-0000-0000-000000000001"),
+            UUID.fromString("00000000-0000-0000-0000-000000000002"),
+            UUID.fromString("00000000-0000-0000-0000-000000000003"),
+            UUID.fromString("00000000-0000-0000-0000-000000000004"),
+            UUID.fromString("00000000-0000-0000-0000-000000000005"),
+    };
+
+    @Test
+    void resumesAfterTheLastCommittedChunk() throws Exception {
+        String url = "jdbc:h2:mem:rescore-" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource(url));
+        // 別接続（トランザクションに束縛されない）でコミット済みの内容だけを見る
+        JdbcTemplate observer = new JdbcTemplate(dataSource(url));
+        createSchema(jdbc);
+
+        ScoreService scores = Mockito.mock(ScoreService.class);
+        Mockito.when(scores.currentConfig())
+                .thenReturn(new ScoringConfig(1, "fp", Thresholds.defaults(), Instant.now()));
+        Mockito.when(scores.evaluate(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenAnswer(inv -> new ScoreModels.ScoreResult(inv.getArgument(0).toString(), 90,
+                        ScoreModels.Rank.A, ScoreModels.SakuraJudge.SAFE, Map.of(), List.of(), List.of(),
+                        Instant.now().toString()));
+
+        List<List<UUID>> stored = new CopyOnWriteArrayList<>();
+        List<Object[]> seenDuringSecondChunk = new CopyOnWriteArrayList<>();
+        AtomicInteger calls = new AtomicInteger();
+        Mockito.doAnswer(inv -> {
+            List<Computed> batch = inv.getArgument(0);
+            if (calls.incrementAndGet() == 2) {
+                seenDuringSecondChunk.add(observer.queryForObject(
+                        "SELECT processed_products, last_product_id FROM score_rescore_jobs",
+                        (rs, i) -> new Object[]{rs.getInt(1), rs.getObject(2)}));
+                throw new IllegalStateException("simulated crash");
+            }
+            stored.add(batch.stream().map(Computed::productId).toList());
+            return null;
+        }).when(scores).store(ArgumentMatchers.anyList(), ArgumentMatchers.anyString());
+
+        BulkRescoreJob job = new BulkRescoreJob(jdbc, new DataSourceTransactionManager(jdbc.getDataSource()),
+                scores, 2, 2, 10);
+
+        JobStatus failed = await(job, job.start(false).id());
+        assertEquals("FAILED", failed.status());
+        assertEquals(2, failed.processedProducts());
+        assertEquals(PRODUCTS[1], failed.lastProductId());
+        // 2 チャンク目の途中でも 1 チャンク目の結果とチェックポイントはコミット済み
+        assertEquals(1, seenDuringSecondChunk.size());
+        assertEquals(2, seenDuringSecondChunk.get(0)[0]);
+        assertEquals(PRODUCTS[1], seenDuringSecondChunk.get(0)[1]);
+
+        JobStatus resumed = job.start(true);
+        assertEquals(failed.id(), resumed.id());
+        JobStatus done = await(job, resumed.id());
+
+        assertEquals("DONE", done.status());
+        assertEquals(5, done.processedProducts());
+        assertEquals(0, done.failedProducts());
+        assertEquals(List.of(List.of(PRODUCTS[0], PRODUCTS[1]),
+                        List.of(PRODUCTS[2], PRODUCTS[3]),
+                        List.of(PRODUCTS[4])),
+                stored);
+    }
+
+    private static JobStatus await(BulkRescoreJob job, UUID id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            JobStatus s = job.status(id).orElseThrow();
+            if (!"RUNNING".equals(s.status())) {
+                return s;
+            }
+            Thread.sleep(20);
+        }
+        fail("rescore job did not finish");
+        return null;
+    }
+
+    private static JdbcDataSource dataSource(String url) {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL(url);
+        ds.setUser("sa");
+        return ds;
+    }
+
+    private static void createSchema(JdbcTemplate jdbc) {
+        jdbc.execute("""
+                CREATE TABLE reviews (
+                  id uuid PRIMARY KEY,
+                  source varchar(16) NOT NULL,
+                  product_id uuid,
+                  rating int,
+                  lex_flags int,
+                  body_norm_hash bigint,
+                  body varchar(1000),
+                  review_date date,
+                  fingerprint varchar(64),
+                  reviewer varchar(64),
+                  updated_at timestamp with time zone
+                )
+                """);
+        jdbc.execute("""
+                CREATE TABLE score_rescore_jobs (
+                  id uuid PRIMARY KEY,
+                  status varchar(16) NOT NULL,
+                  score_version varchar(64) NOT NULL,
+                  total_products integer,
+                  processed_products integer NOT NULL DEFAULT 0,
+                  failed_products integer NOT NULL DEFAULT 0,
+                  last_product_id uuid,
+                  error varchar(1000),
+                  started_at timestamp with time zone NOT NULL DEFAULT now(),
+                  updated_at timestamp with time zone NOT NULL DEFAULT now(),
+                  finished_at timestamp with time zone
+                )
+                """);
+        for (UUID product : PRODUCTS) {
+            for (int i = 0; i < 3; i++) {
+                jdbc.update("""
+                                INSERT INTO reviews (id, source, product_id, rating, body, review_date, reviewer, updated_at)
+                                VALUES (?, 'AMAZON', ?, ?, ?, ?, ?, now())
+                                """,
+                        UUID.randomUUID(), product, 5 - i, "review " + i, LocalDate.now().minusDays(i), "r" + i);
+            }
+        }
+    }
+}
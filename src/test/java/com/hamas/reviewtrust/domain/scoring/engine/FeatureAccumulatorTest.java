@@ -0,0 +1,73 @@
+package com.hamas.reviewtrust.domain.scoring.engine;
+
+import com.hamas.reviewtrust.common.text.LexicalFeatures;
+import com.hamas.reviewtrust.domain.scoring.engine.ScoreService.FeatureVector;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FeatureAccumulatorTest {
+
+    private static final LocalDate WINDOW_START = LocalDate.of(2024, 6, 1);
+    private static final String LONG_BODY =
+            "届いてすぐに使い始めましたが、音質も良くバッテリーも長持ちで満足しています。ケースの質感も悪くありません。".repeat(3);
+
+    @Test
+    void emptyProductHasNoFeatures() {
+        assertNull(new FeatureAccumulator(WINDOW_START).toFeatures());
+    }
+
+    @Test
+    void countsEveryFeatureInOnePass() {
+        FeatureAccumulator acc = new FeatureAccumulator(WINDOW_START);
+        acc.add(5, "最高", LocalDate.of(2024, 6, 3), null, "a");
+        acc.add(5, "最高", LocalDate.of(2024, 6, 2), null, "b");
+        acc.add(5, "最高", LocalDate.of(2024, 5, 1), null, "c");
+        acc.add(3, LONG_BODY, LocalDate.of(2024, 5, 2), null, "d");
+        acc.add(1, "", null, "fp-1", "e");
+
+        FeatureVector f = acc.toFeatures();
+
+        assertEquals(5, f.totalReviews());
+        assertEquals(2, f.recentCount());
+        // 5★ 3/5 × 短文（120 字未満）4/5
+        assertEquals(0.6 * 0.8, f.distBias(), 1e-9);
+        // 「最高」×3 が最大クラスタ
+        assertEquals(0.6, f.duplicateRate(), 1e-9);
+        // recent 2 / max(1, 5/5)
+        assertEquals(1.0, f.surgeRatio(), 1e-9);
+        // 長文 1 件以外はノイズ
+        assertEquals(0.8, f.noiseRatio(), 1e-9);
+    }
+
+    @Test
+    void fingerprintTakesPrecedenceOverBody() {
+        FeatureAccumulator acc = new FeatureAccumulator(WINDOW_START);
+        acc.add(4, LONG_BODY, null, "fp-1", "a");
+        acc.add(4, LONG_BODY, null, "fp-2", "b");
+        acc.add(4, "", null, null, "  ");
+        acc.add(4, "", null, null, null);
+
+        // 同一本文でも fingerprint が違えば別クラスタ、キーの無い行は数えない
+        assertEquals(0.25, acc.toFeatures().duplicateRate(), 1e-9);
+    }
+
+    @Test
+    void persistedLexicalFeaturesMatchAnalysingTheBody() {
+        String[] bodies = {"最高", "  最高  ", LONG_BODY, "", "!!!すごい!!! https://example.com"};
+        FeatureAccumulator fromBody = new FeatureAccumulator(WINDOW_START);
+        FeatureAccumulator fromFlags = new FeatureAccumulator(WINDOW_START);
+        for (String body : bodies) {
+            LexicalFeatures.Analysis lex = LexicalFeatures.analyse(body);
+            fromBody.add(5, body, null, null, "r");
+            fromFlags.add(5, lex.flags(), lex.normalisedHash(), null, null, "r");
+        }
+
+        assertEquals(fromBody.toFeatures(), fromFlags.toFeatures());
+        // 「最高」は前後の空白を除けば同一本文
+        assertEquals(0.4, fromFlags.toFeatures().duplicateRate(), 1e-9);
+    }
+}
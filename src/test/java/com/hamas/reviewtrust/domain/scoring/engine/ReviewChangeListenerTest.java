@@ -0,0 +1,194 @@
+package com.hamas.reviewtrust.domain.scoring.engine;
+
+import com.hamas.reviewtrust.domain.reviews.ReviewsChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Debounce and max-delay on a manual scheduler whose clock only moves when the test advances it: a burst
+ * of events yields one recompute after the quiet period, and a product that never goes quiet is recomputed
+ * at the latest {@code max-delay} after its first event.
+ */
+class ReviewChangeListenerTest {
+
+    private static final Duration DEBOUNCE = Duration.ofSeconds(2);
+    private static final Duration MAX_DELAY = Duration.ofSeconds(10);
+
+    private final ManualScheduler scheduler = new ManualScheduler(Instant.parse("2024-05-01T00:00:00Z"));
+    private final ScoreService engine = Mockito.mock(ScoreService.class);
+    private final com.hamas.reviewtrust.domain.reviews.service.ScoreService site =
+            Mockito.mock(com.hamas.reviewtrust.domain.reviews.service.ScoreService.class);
+    private ReviewChangeListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new ReviewChangeListener(engine, site, scheduler, DEBOUNCE, MAX_DELAY);
+    }
+
+    @Test
+    void burstIsRecomputedOnceAfterTheQuietPeriod() {
+        UUID product = UUID.randomUUID();
+        changed(product);
+        scheduler.advance(Duration.ofSeconds(1));
+        changed(product);
+        scheduler.advance(Duration.ofMillis(1500));
+        changed(product);
+
+        // 最後のイベントから 2 秒経つまでは発火しない
+        scheduler.advance(Duration.ofMillis(1999));
+        Mockito.verifyNoInteractions(engine, site);
+
+        scheduler.advance(Duration.ofMillis(1));
+        Mockito.verify(engine).markReviewsChanged(product);
+        Mockito.verify(site).markReviewsChanged(product);
+
+        scheduler.advance(Duration.ofMinutes(1));
+        Mockito.verifyNoMoreInteractions(engine, site);
+    }
+
+    @Test
+    void continuousChangesAreRecomputedAtMaxDelay() {
+        UUID product = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        changed(other);
+        for (int i = 0; i < 9; i++) {
+            changed(product);
+            scheduler.advance(Duration.ofSeconds(1));
+        }
+        changed(product);
+        // other は 2 秒で、product は最初のイベントから 10 秒で発火（まだ 1 秒ごとに届いている）
+        Mockito.verify(engine).markReviewsChanged(other);
+        Mockito.verify(engine, Mockito.never()).markReviewsChanged(product);
+
+        scheduler.advance(Duration.ofSeconds(1));
+        Mockito.verify(engine).markReviewsChanged(product);
+        Mockito.verify(site).markReviewsChanged(product);
+
+        // 発火後の変更は新しい周期として扱う
+        changed(product);
+        scheduler.advance(DEBOUNCE);
+        Mockito.verify(engine, Mockito.times(2)).markReviewsChanged(product);
+    }
+
+    @Test
+    void timersLeftAfterShutdownDoNothing() {
+        UUID product = UUID.randomUUID();
+        changed(product);
+        listener.shutdown();
+        changed(product);
+
+        scheduler.advance(Duration.ofMinutes(1));
+        Mockito.verifyNoInteractions(engine, site);
+    }
+
+    private void changed(UUID productId) {
+        listener.onReviewsChanged(new ReviewsChangedEvent(productId, ReviewsChangedEvent.Cause.INTAKE));
+    }
+
+    /** {@link #advance} moves the clock and runs every task that has become due, in time order. */
+    private static final class ManualScheduler implements TaskScheduler {
+
+        private final MutableClock clock;
+        private final List<Timer> timers = new ArrayList<>();
+
+        ManualScheduler(Instant start) {
+            this.clock = new MutableClock(start);
+        }
+
+        void advance(Duration by) {
+            Instant target = clock.instant().plus(by);
+            while (true) {
+                Timer next = timers.stream()
+                        .filter(t -> !t.at().isAfter(target))
+                        .min(Comparator.comparing(Timer::at))
+                        .orElse(null);
+                if (next == null) {
+                    break;
+                }
+                timers.remove(next);
+                if (next.at().isAfter(clock.instant())) {
+                    clock.now = next.at();
+                }
+                next.task().run();
+            }
+            clock.now = target;
+        }
+
+        @Override
+        public Clock getClock() {
+            return clock;
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable task, Instant startTime) {
+            timers.add(new Timer(startTime, task));
+            return null;
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable task, Trigger trigger) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Instant startTime, Duration period) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Duration period) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Instant startTime, Duration delay) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Duration delay) {
+            throw new UnsupportedOperationException();
+        }
+
+        private record Timer(Instant at, Runnable task) {
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.hamas.reviewtrust.domain.scoring.engine;
+
+import com.hamas.reviewtrust.common.text.LexicalFeatures;
+import com.hamas.reviewtrust.domain.scoring.engine.ScoreService.FeatureVector;
+import com.hamas.reviewtrust.domain.scoring.repository.ProductScoreAggregateJdbcRepository;
+import com.hamas.reviewtrust.domain.scoring.repository.ProductScoreAggregateJdbcRepository.Aggregates;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The aggregate trigger (V066) and the engine's scan ({@link FeatureAccumulator}) must produce the same
+ * features for the same reviews. Needs a PostgreSQL database migrated to head, e.g.
+ * {@code TEST_PG_URL=jdbc:postgresql://localhost:5432/reviewtrust}; everything runs in one transaction
+ * that is rolled back.
+ */
+@EnabledIfEnvironmentVariable(named = "TEST_PG_URL", matches = ".+")
+class ScoreAggregatesParityTest {
+
+    private static final String LONG_BODY =
+            "届いてすぐに使い始めましたが、音質も良くバッテリーも長持ちで満足しています。ケースの質感も悪くありません。".repeat(3);
+
+    @Test
+    void triggerAggregatesMatchTheScan() {
+        DriverManagerDataSource ds = new DriverManagerDataSource(System.getenv("TEST_PG_URL"),
+                System.getenv().getOrDefault("TEST_PG_USER", "postgres"),
+                System.getenv().getOrDefault("TEST_PG_PASSWORD", ""));
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        ProductScoreAggregateJdbcRepository aggregates = new ProductScoreAggregateJdbcRepository(jdbc);
+        TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(ds));
+        LocalDate today = LocalDate.now();
+
+        tx.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            UUID product = UUID.randomUUID();
+            insert(jdbc, product, 5, "最高", today, null, "Alice", true);
+            insert(jdbc, product, 5, "最高", today.minusDays(40), null, "alice", true);
+            insert(jdbc, product, null, null, null, null, "Alice", true);
+            insert(jdbc, product, 3, LONG_BODY, today.minusDays(1), "fp-1", "bob", true);
+            insert(jdbc, product, 4, LONG_BODY, today.minusDays(2), "fp-2", "carol", true);
+            insert(jdbc, product, 1, "  ", today.minusDays(3), "   ", null, true);
+            UUID pending = insert(jdbc, product, 2, "!!!すごい!!! https://example.com", today, null, "dave", false);
+
+            Aggregates before = aggregates.find(product, ScoreService.SOURCE_AMAZON,
+                    ScoreService.surgeWindowStart()).orElseThrow();
+            assertEquals(7, before.reviewCount());
+            assertEquals(1, before.pendingCount());
+
+            // バックフィル相当：字句特徴を埋めると pending から外れて寄与が付け替わる
+            LexicalFeatures.Analysis lex = LexicalFeatures.analyse("!!!すごい!!! https://example.com");
+            jdbc.update("UPDATE reviews SET body_norm = ?, body_norm_hash = ?, lex_flags = ? WHERE id = ?",
+                    lex.normalised(), lex.normalisedHash(), lex.flags(), pending);
+            assertParity(jdbc, aggregates, product);
+
+            // 日付・星・レビュアーの更新と削除も差分で追従する
+            jdbc.update("UPDATE reviews SET review_date = ?, rating = 1 WHERE product_id = ? AND reviewer = 'alice'",
+                    today, product);
+            jdbc.update("UPDATE reviews SET fingerprint = NULL WHERE product_id = ? AND reviewer = 'carol'", product);
+            jdbc.update("DELETE FROM reviews WHERE product_id = ? AND reviewer = 'bob'", product);
+            assertParity(jdbc, aggregates, product);
+        });
+    }
+
+    private static void assertParity(JdbcTemplate jdbc, ProductScoreAggregateJdbcRepository aggregates, UUID product) {
+        Aggregates agg = aggregates.find(product, ScoreService.SOURCE_AMAZON, ScoreService.surgeWindowStart())
+                .orElseThrow();
+        assertEquals(0, agg.pendingCount());
+
+        FeatureAccumulator acc = new FeatureAccumulator(ScoreService.surgeWindowStart());
+        jdbc.query("""
+                        SELECT rating, lex_flags, body_norm_hash, body, review_date, fingerprint, reviewer
+                          FROM reviews
+                         WHERE product_id = ? AND source = ?
+                        """,
+                (RowCallbackHandler) acc::add, product, ScoreService.SOURCE_AMAZON);
+        FeatureVector scanned = acc.toFeatures();
+
+        assertEquals(scanned.totalReviews(), agg.reviewCount());
+        assertEquals(scanned, ScoreService.featuresFromAggregates(agg));
+    }
+
+    private static UUID insert(JdbcTemplate jdbc, UUID product, Integer rating, String body, LocalDate reviewDate,
+                               String fingerprint, String reviewer, boolean withLexicalFeatures) {
+        LexicalFeatures.Analysis lex = LexicalFeatures.analyse(body);
+        UUID id = UUID.randomUUID();
+        jdbc.update("""
+                        INSERT INTO reviews (id, product_id, source, fingerprint, body, body_norm, body_norm_hash,
+                                             lex_flags, rating, review_date, reviewer, created_at, updated_at)
+                        VALUES (?, ?, 'AMAZON', ?, ?, ?, ?, ?, ?, ?, ?, now(), now())
+                        """,
+                id, product, fingerprint, body,
+                withLexicalFeatures && body != null ? lex.normalised() : null,
+                withLexicalFeatures ? lex.normalisedHash() : null,
+                withLexicalFeatures ? lex.flags() : null,
+                rating, reviewDate, reviewer);
+        return id;
+    }
+}
@@ -0,0 +1,59 @@
+package com.hamas.reviewtrust.domain.scoring.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Workers are started on the given executor up to the configured limit, keys are deduplicated while
+ * queued, and a key can be queued again once its task has started.
+ */
+class ScoreRecomputeQueueTest {
+
+    @Test
+    void boundsWorkersAndDeduplicatesQueuedKeys() {
+        Deque<Runnable> started = new ArrayDeque<>();
+        ScoreRecomputeQueue queue = new ScoreRecomputeQueue(started::add, 2, 10);
+        List<String> ran = new ArrayList<>();
+
+        assertTrue(queue.submit("a", () -> ran.add("a")));
+        assertFalse(queue.submit("a", () -> ran.add("a-dup")));
+        assertTrue(queue.submit("b", () -> ran.add("b")));
+        assertTrue(queue.submit("c", () -> ran.add("c")));
+        // 同時実行は 2 まで
+        assertEquals(2, started.size());
+        assertEquals(3, queue.queued());
+
+        started.poll().run();
+        assertEquals(List.of("a", "b", "c"), ran);
+        assertEquals(0, queue.queued());
+
+        // 開始済みのキーは再投入できる。空で終わった worker の枠は空いている
+        started.poll().run();
+        assertTrue(queue.submit("a", () -> ran.add("a-again")));
+        assertEquals(1, started.size());
+        started.poll().run();
+        assertEquals(List.of("a", "b", "c", "a-again"), ran);
+    }
+
+    @Test
+    void rejectsWhenFullAndAfterShutdown() {
+        Deque<Runnable> started = new ArrayDeque<>();
+        ScoreRecomputeQueue queue = new ScoreRecomputeQueue(started::add, 1, 1);
+
+        assertTrue(queue.submit("a", () -> { }));
+        assertFalse(queue.submit("b", () -> { }));
+
+        queue.shutdown();
+        assertEquals(0, queue.queued());
+        assertFalse(queue.submit("c", () -> { }));
+        started.poll().run();
+    }
+}
@@ -0,0 +1,94 @@
+package com.hamas.reviewtrust.domain.scoring.profile;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Saves thresholds concurrently from virtual threads while a listener blocks, and fails when JFR reports a
+ * {@code jdk.VirtualThreadPinned} event (a virtual thread parked while holding a monitor).
+ */
+class ThresholdProviderPinningTest {
+
+    private static final String PROP_PATH = "scoring.thresholds.path";
+
+    @TempDir
+    Path dir;
+
+    private ThresholdProvider provider;
+
+    @AfterEach
+    void tearDown() {
+        if (provider != null) {
+            provider.close();
+        }
+        System.clearProperty(PROP_PATH);
+    }
+
+    @Test
+    void concurrentSavesOnVirtualThreadsDoNotPin() throws Exception {
+        System.setProperty(PROP_PATH, dir.resolve("thresholds.yml").toString());
+        provider = new ThresholdProvider();
+        AtomicInteger notified = new AtomicInteger();
+        // リスナーがブロックする（キャッシュ無効化や DB 書き込みの代わり）
+        provider.addConfigListener(config -> {
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            notified.incrementAndGet();
+        });
+
+        List<RecordedEvent> pinned;
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                double noise = 0.10 + i * 0.001;
+                threads.add(Thread.ofVirtual().name("save-" + i).start(() -> {
+                    ThresholdProvider.Thresholds t = ThresholdProvider.Thresholds.defaults();
+                    t.weights.noise = noise;
+                    provider.save(t);
+                }));
+            }
+            for (Thread t : threads) {
+                t.join();
+            }
+
+            recording.stop();
+            Path file = dir.resolve("pinning.jfr");
+            recording.dump(file);
+            pinned = RecordingFile.readAllEvents(file);
+            Files.deleteIfExists(file);
+        }
+
+        assertTrue(notified.get() >= 16);
+        assertTrue(pinned.isEmpty(), () -> "virtual threads pinned:\n" + describe(pinned));
+    }
+
+    private static String describe(List<RecordedEvent> events) {
+        return events.stream()
+                .map(e -> e.getStackTrace() == null ? e.toString() : e.getStackTrace().getFrames().stream()
+                        .limit(8)
+                        .map(RecordedFrame::toString)
+                        .collect(Collectors.joining("\n    ", "  at ", "")))
+                .collect(Collectors.joining("\n"));
+    }
+}
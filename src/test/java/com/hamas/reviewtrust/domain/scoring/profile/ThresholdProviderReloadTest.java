@@ -0,0 +1,85 @@
+package com.hamas.reviewtrust.domain.scoring.profile;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hamas.reviewtrust.domain.reviews.repo.ReviewScoreRepository;
+import com.hamas.reviewtrust.domain.reviews.service.ScoreService;
+import com.hamas.reviewtrust.domain.scoring.engine.ScoreRecomputeQueue;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rewrites the watched thresholds file and checks that a new snapshot is published, that the SITE score
+ * version follows the new fingerprint, and that values handed out by the provider cannot change it.
+ */
+class ThresholdProviderReloadTest {
+
+    private static final String PROP_PATH = "scoring.thresholds.path";
+
+    @TempDir
+    Path dir;
+
+    private ThresholdProvider provider;
+
+    @AfterEach
+    void tearDown() {
+        if (provider != null) {
+            provider.close();
+        }
+        System.clearProperty(PROP_PATH);
+    }
+
+    @Test
+    void rewrittenFileIsPublishedAsNewSnapshotAndVersion() throws Exception {
+        Path file = dir.resolve("thresholds.yml");
+        Files.writeString(file, "surge_z:\n  warn: 2.5\n  crit: 4.0\n");
+        System.setProperty(PROP_PATH, file.toString());
+        provider = new ThresholdProvider();
+        ScoreService site = siteScoreService(provider);
+
+        ScoringConfig before = provider.config();
+        assertEquals(2.5, provider.get().surge_z.warn);
+        assertEquals("site-v1:" + before.fingerprint(), site.currentVersion());
+
+        // 渡されたコピーを書き換えても公開中のスナップショットは変わらない
+        provider.get().surge_z.warn = 99;
+        before.thresholds().surge_z.warn = 99;
+        assertEquals(2.5, provider.get().surge_z.warn);
+        assertEquals(before.fingerprint(), provider.fingerprint());
+
+        Files.writeString(file, "surge_z:\n  warn: 2.9\n  crit: 4.0\n");
+        long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+        while (provider.config() == before && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+
+        ScoringConfig after = provider.config();
+        assertNotSame(before, after, "file change was not picked up");
+        assertTrue(after.version() > before.version());
+        assertNotEquals(before.fingerprint(), after.fingerprint());
+        assertEquals(2.9, provider.get().surge_z.warn);
+        assertEquals(2.5, before.thresholds().surge_z.warn);
+        assertEquals("site-v1:" + after.fingerprint(), site.currentVersion());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ScoreService siteScoreService(ThresholdProvider provider) {
+        ObjectProvider<MeterRegistry> registry = Mockito.mock(ObjectProvider.class);
+        Mockito.when(registry.getIfAvailable(ArgumentMatchers.any())).thenReturn(new SimpleMeterRegistry());
+        return new ScoreService(Mockito.mock(NamedParameterJdbcTemplate.class), new ObjectMapper(), provider,
+                Mockito.mock(ReviewScoreRepository.class), Mockito.mock(ScoreRecomputeQueue.class),
+                Mockito.mock(ObjectProvider.class), Duration.ofMinutes(10), 100, registry);
+    }
+}
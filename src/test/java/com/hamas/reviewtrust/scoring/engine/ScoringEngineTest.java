@@ -0,0 +1,97 @@
+package com.hamas.reviewtrust.scoring.engine;
+
+import com.hamas.reviewtrust.domain.scoring.catalog.RuleCatalogService;
+import com.hamas.reviewtrust.domain.scoring.engine.RuleOutcome;
+import com.hamas.reviewtrust.domain.scoring.engine.ScoringContext;
+import com.hamas.reviewtrust.domain.scoring.engine.ScoringEngine;
+import com.hamas.reviewtrust.domain.scoring.engine.ScoringEngine.ScoreResult;
+import com.hamas.reviewtrust.domain.scoring.profile.ScoringProfileRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScoringEngineTest {
+
+    private final ScoringEngine engine = new ScoringEngine(new RuleCatalogService(), new ScoringProfileRepository());
+
+    @Test
+    void scoreAllMatchesPerContextScoring() {
+        List<ScoringContext> batch = contexts(500, 1L);
+
+        List<ScoreResult> results = engine.scoreAll(batch);
+
+        assertEquals(batch.size(), results.size());
+        for (int i = 0; i < batch.size(); i++) {
+            assertSame(engine.score(batch.get(i)), results.get(i), true);
+        }
+    }
+
+    @Test
+    void largeBatchesAreSplitWithoutChangingResults() {
+        List<ScoringContext> batch = contexts(10_000, 2L);
+
+        List<ScoreResult> results = engine.scoreAll(batch, false);
+
+        assertEquals(batch.size(), results.size());
+        for (int i = 0; i < batch.size(); i++) {
+            assertSame(engine.score(batch.get(i)), results.get(i), false);
+        }
+    }
+
+    @Test
+    void evidenceIsSkippedWhenNotRequested() {
+        ScoringContext suspicious = new ScoringContext.Builder()
+                .starRating(5)
+                .duplicateTextSimilarity(0.95)
+                .userReviewsLast24h(30)
+                .build();
+
+        ScoreResult result = engine.scoreAll(List.of(suspicious), false).get(0);
+
+        assertTrue(result.getScore() < 100);
+        assertTrue(!result.getOutcomes().isEmpty());
+        result.getOutcomes().forEach(o -> assertNull(o.getEvidence()));
+    }
+
+    private static void assertSame(ScoreResult expected, ScoreResult actual, boolean withEvidence) {
+        assertEquals(expected.getScore(), actual.getScore());
+        assertEquals(expected.getRank(), actual.getRank());
+        assertEquals(expected.getOutcomes().size(), actual.getOutcomes().size());
+        for (int i = 0; i < expected.getOutcomes().size(); i++) {
+            RuleOutcome e = expected.getOutcomes().get(i);
+            RuleOutcome a = actual.getOutcomes().get(i);
+            assertEquals(e.getFlag(), a.getFlag());
+            assertEquals(e.getPenalty(), a.getPenalty(), 1e-12);
+            if (withEvidence) {
+                assertEquals(e.getEvidence(), a.getEvidence());
+            }
+        }
+    }
+
+    private static List<ScoringContext> contexts(int n, long seed) {
+        Random random = new Random(seed);
+        List<ScoringContext> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            list.add(new ScoringContext.Builder()
+                    .starRating(1 + random.nextInt(5))
+                    .anonymous(random.nextBoolean())
+                    .userAccountAgeDays(random.nextInt(60))
+                    .userReviewsLast24h(random.nextInt(25))
+                    .userVerifiedPurchaseRate(random.nextDouble())
+                    .starDistributionVariance(random.nextDouble())
+                    .vendorConcentration(random.nextDouble())
+                    .noiseRatio(random.nextDouble())
+                    .specificityScore(random.nextDouble())
+                    .unnaturalLanguageScore(random.nextDouble())
+                    .duplicateTextSimilarity(random.nextDouble())
+                    .build());
+        }
+        return list;
+    }
+}
@@ -0,0 +1,130 @@
+package com.hamas.reviewtrust.scraping.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RollingDatasetWriterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void concurrentProducersEndUpInRotatedSegmentsWithIndex() throws Exception {
+        RollingDatasetWriter writer = newWriter(false, 4_096);
+        appendFromThreads(writer, 4, 100);
+        writer.close();
+
+        List<Path> segments = segments(".ndjson");
+        assertTrue(segments.size() > 1, "size-based rotation should produce several segments");
+        long lines = 0;
+        for (Path segment : segments) {
+            lines += Files.readAllLines(segment).size();
+        }
+        assertEquals(400, lines);
+        assertEquals(400, indexLines().size());
+    }
+
+    @Test
+    void gzipIndexEntriesPointAtDecodableMembers() throws Exception {
+        RollingDatasetWriter writer = newWriter(true, 0);
+        appendFromThreads(writer, 2, 50);
+        writer.close();
+
+        for (String entry : indexLines()) {
+            String[] cols = entry.split("\t");
+            Path segment = segments(".ndjson.gz").get(0);
+            try (InputStream in = Files.newInputStream(segment)) {
+                in.skipNBytes(Long.parseLong(cols[1]));
+                GZIPInputStream gz = new GZIPInputStream(in);
+                gz.skipNBytes(Long.parseLong(cols[2]));
+                String record = new String(gz.readNBytes(Integer.parseInt(cols[3])), StandardCharsets.UTF_8);
+                assertTrue(record.contains("\"asin\":\"" + cols[0] + "\""), record);
+            }
+        }
+    }
+
+    @Test
+    void interruptDuringLingerStillCompletesPendingRecords() throws Exception {
+        RollingDatasetWriter.Settings settings = new RollingDatasetWriter.Settings(
+                0, Duration.ZERO, false, 16, Duration.ofSeconds(30), RollingDatasetWriter.FsyncPolicy.NONE, 32);
+        RollingDatasetWriter writer = new RollingDatasetWriter(dir, "lg", "ndjson", new byte[0], settings,
+                Clock.systemUTC());
+        CompletableFuture<Path> first = writer.append("B000000001", "{\"asin\":\"B000000001\"}\n");
+        CompletableFuture<Path> second = writer.append("B000000002", "{\"asin\":\"B000000002\"}\n");
+
+        Thread writerThread = Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> t.getName().equals("rolling-writer-lg"))
+                .findFirst().orElseThrow();
+        // linger の sleep 中に割り込む
+        Thread.sleep(200);
+        writerThread.interrupt();
+
+        Path segment = first.get(5, TimeUnit.SECONDS);
+        assertEquals(segment, second.get(5, TimeUnit.SECONDS));
+        assertEquals(2, Files.readAllLines(segment).size());
+        assertTrue(writer.append("B000000003", "{}\n").isCompletedExceptionally());
+        writer.close();
+    }
+
+    private RollingDatasetWriter newWriter(boolean gzip, long maxBytes) {
+        RollingDatasetWriter.Settings settings = new RollingDatasetWriter.Settings(
+                maxBytes, Duration.ZERO, gzip, 16, Duration.ZERO, RollingDatasetWriter.FsyncPolicy.COMMIT, 32);
+        return new RollingDatasetWriter(dir, "ds", "ndjson", new byte[0], settings, Clock.systemUTC());
+    }
+
+    private static void appendFromThreads(RollingDatasetWriter writer, int threads, int perThread) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    List<CompletableFuture<Path>> pending = new ArrayList<>();
+                    for (int i = 0; i < perThread; i++) {
+                        String asin = "B%02d%07d".formatted(thread, i);
+                        pending.add(writer.append(asin, "{\"asin\":\"" + asin + "\"}\n"));
+                    }
+                    pending.forEach(CompletableFuture::join);
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private List<Path> segments(String suffix) throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(suffix)).sorted().toList();
+        }
+    }
+
+    private List<String> indexLines() throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (Path idx : segments(".idx")) {
+            lines.addAll(Files.readAllLines(idx));
+        }
+        return lines;
+    }
+}
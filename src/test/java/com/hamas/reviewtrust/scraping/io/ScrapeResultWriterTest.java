@@ -0,0 +1,53 @@
+package com.hamas.reviewtrust.scraping.io;
+
+import com.hamas.reviewtrust.scraping.ScrapingProps;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rolling writers run on the injected executor, and once {@code closeRollingWriters()} has run no new writer
+ * is opened (a late write fails instead of leaking a writer nobody closes).
+ */
+class ScrapeResultWriterTest {
+
+    private static final String URL = "https://www.amazon.co.jp/dp/B000000001";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void rollingWritersUseTheExecutorAndAreRejectedAfterShutdown() throws Exception {
+        ScrapingProps props = new ScrapingProps();
+        props.setOutDir(dir.toString());
+        props.setOutFormat("ndjson");
+        props.setOutMode("rolling");
+        AtomicInteger started = new AtomicInteger();
+        ScrapeResultWriter writer = new ScrapeResultWriter(props, task -> {
+            started.incrementAndGet();
+            Thread.ofPlatform().daemon().start(task);
+        });
+
+        Path segment = writer.write("ds", URL, List.of(), null, Instant.now(), "Product");
+        assertEquals(1, started.get());
+
+        writer.closeRollingWriters();
+        assertTrue(Files.readString(segment).contains("\"productName\":\"Product\""));
+
+        assertThrows(IOException.class,
+                () -> writer.write("ds", URL, List.of(), null, Instant.now(), "Product"));
+        assertThrows(IOException.class,
+                () -> writer.write("other", URL, List.of(), null, Instant.now(), "Product"));
+        assertEquals(1, started.get());
+    }
+}